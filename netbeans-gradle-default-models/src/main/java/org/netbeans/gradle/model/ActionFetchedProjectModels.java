@@ -13,12 +13,14 @@ final class ActionFetchedProjectModels implements Serializable {
     private final CustomSerializedMap projectInfoResults;
     private final Map<Class<?>, Object> toolingModels;
     private final Throwable issue;
+    private final long builderNanos;
 
     public ActionFetchedProjectModels(
             GradleMultiProjectDef projectDef,
             CustomSerializedMap projectInfoResults,
             Map<Class<?>, Object> toolingModels,
-            Throwable issue) {
+            Throwable issue,
+            long builderNanos) {
         if (projectDef == null) throw new NullPointerException("projectDef");
         if (projectInfoResults == null) throw new NullPointerException("projectInfoResults");
 
@@ -26,12 +28,17 @@ final class ActionFetchedProjectModels implements Serializable {
         this.projectInfoResults = projectInfoResults;
         this.toolingModels = CollectionUtils.copyNullSafeHashMap(toolingModels);
         this.issue = TransferableExceptionWrapper.wrap(issue);
+        this.builderNanos = builderNanos;
     }
 
     public Throwable getIssue() {
         return issue;
     }
 
+    public long getBuilderNanos() {
+        return builderNanos;
+    }
+
     public GradleMultiProjectDef getProjectDef() {
         return projectDef;
     }
@@ -32,11 +32,24 @@ import org.netbeans.gradle.model.util.BasicFileUtils;
 import org.netbeans.gradle.model.util.BuilderUtils;
 import org.netbeans.gradle.model.util.ClassLoaderUtils;
 import org.netbeans.gradle.model.util.CollectionUtils;
+import org.netbeans.gradle.model.util.PhaseTimer;
 import org.netbeans.gradle.model.util.SerializationUtils;
 import org.netbeans.gradle.model.util.TemporaryFileManager;
 import org.netbeans.gradle.model.util.TemporaryFileRef;
 
 public final class GenericModelFetcher {
+    /**
+     * The name of the {@link PhaseTimer phase} in which Gradle evaluates the
+     * build scripts and the models are built by the daemon.
+     */
+    public static final String PHASE_EVALUATION = "evaluation";
+
+    /**
+     * The name of the {@link PhaseTimer phase} in which the results of the
+     * model builders are deserialized.
+     */
+    public static final String PHASE_DESERIALIZATION = "deserialization";
+
     private static final Charset INIT_SCRIPT_ENCODING = Charset.forName("UTF-8");
     private static final String INIT_SCRIPT_LOCATION = "/org/netbeans/gradle/scripts/dynamic-model-init-script.gradle";
 
@@ -84,15 +97,18 @@ public final class GenericModelFetcher {
         GenericModelFetcher.initScriptPrefix = initScriptPrefix;
     }
 
-    private FetchedModelsOrError transformActionModels(ActionFetchedModelsOrError actionModels) {
+    private FetchedModelsOrError transformActionModels(ActionFetchedModelsOrError actionModels, PhaseTimer timer) {
         return new FetchedModelsOrError(
-                transformActionModels(actionModels.getModels()),
+                transformActionModels(actionModels.getModels(), timer),
                 actionModels.getBuildScriptEvaluationError(),
                 actionModels.getUnexpectedError());
     }
 
-    private FetchedProjectModels transformActionModels(ActionFetchedProjectModels actionModels) {
+    private FetchedProjectModels transformActionModels(ActionFetchedProjectModels actionModels, PhaseTimer timer) {
         GradleMultiProjectDef projectDef = actionModels.getProjectDef();
+        String projectPath = projectDef.getMainProject().getGenericProperties().getProjectFullName();
+        timer.addProjectNanos(projectPath, actionModels.getBuilderNanos());
+
         Map<Class<?>, Object> toolingModels = actionModels.getToolingModels();
         Map<Object, List<?>> projectInfoResults = projectInfoBuilders.deserializeResults(
                 actionModels.getProjectInfoResults(),
@@ -102,15 +118,17 @@ public final class GenericModelFetcher {
         return new FetchedProjectModels(projectDef, projectInfoResults, toolingModels, issue);
     }
 
-    private Collection<FetchedProjectModels> transformActionModels(Collection<ActionFetchedProjectModels> actionModels) {
+    private Collection<FetchedProjectModels> transformActionModels(
+            Collection<ActionFetchedProjectModels> actionModels,
+            PhaseTimer timer) {
         List<FetchedProjectModels> result = new ArrayList<FetchedProjectModels>(actionModels.size());
         for (ActionFetchedProjectModels entry: actionModels) {
-            result.add(transformActionModels(entry));
+            result.add(transformActionModels(entry, timer));
         }
         return result;
     }
 
-    private FetchedModels transformActionModels(ActionFetchedModels actionModels) {
+    private FetchedModels transformActionModels(ActionFetchedModels actionModels, PhaseTimer timer) {
         if (actionModels == null) {
             return null;
         }
@@ -119,14 +137,29 @@ public final class GenericModelFetcher {
                 actionModels.getBuildModels(),
                 GradleInfoQueryMap.builderIssueTransformer());
         FetchedProjectModels defaultProjectModels
-                = transformActionModels(actionModels.getDefaultProjectModels());
+                = transformActionModels(actionModels.getDefaultProjectModels(), timer);
         Collection<FetchedProjectModels> otherProjectModels
-                = transformActionModels(actionModels.getOtherProjectModels());
+                = transformActionModels(actionModels.getOtherProjectModels(), timer);
 
         return new FetchedModels(new FetchedBuildModels(buildModels), defaultProjectModels, otherProjectModels);
     }
 
     public FetchedModelsOrError getModels(ProjectConnection connection, OperationInitializer init) throws IOException {
+        return getModels(connection, init, new PhaseTimer());
+    }
+
+    /**
+     * Fetches the requested models and records the time spent in the
+     * {@link #PHASE_EVALUATION evaluation} and the
+     * {@link #PHASE_DESERIALIZATION deserialization} phases, and the time
+     * spent by the model builders on each project.
+     */
+    public FetchedModelsOrError getModels(
+            ProjectConnection connection,
+            OperationInitializer init,
+            PhaseTimer timer) throws IOException {
+        if (timer == null) throw new NullPointerException("timer");
+
         BuildActionExecuter<ActionFetchedModelsOrError> executer = connection.action(
                 new ModelFetcherBuildAction(buildInfoBuilders, modelClasses));
 
@@ -163,7 +196,20 @@ public final class GenericModelFetcher {
 
                 executer.withArguments(executerArgs);
 
-                return transformActionModels(executer.run());
+                ActionFetchedModelsOrError actionModels;
+                PhaseTimer.Phase evaluationPhase = timer.startPhase(PHASE_EVALUATION);
+                try {
+                    actionModels = executer.run();
+                } finally {
+                    evaluationPhase.end();
+                }
+
+                PhaseTimer.Phase deserializationPhase = timer.startPhase(PHASE_DESERIALIZATION);
+                try {
+                    return transformActionModels(actionModels, timer);
+                } finally {
+                    deserializationPhase.end();
+                }
             } finally {
                 initScriptRef.close();
             }
@@ -482,7 +528,8 @@ public final class GenericModelFetcher {
                     new GradleMultiProjectDef(rootTree, projectTree),
                     modelOutput.getProjectInfoResults(),
                     toolingModels,
-                    modelOutput.getIssue());
+                    modelOutput.getIssue(),
+                    modelOutput.getBuilderNanos());
         }
 
         private GradleProjectTree parseTrees(
@@ -16,23 +16,31 @@ public final class ModelQueryOutput implements Serializable {
     // Keys -> List of results of ProjectInfoBuilder
     private final CustomSerializedMap projectInfoResults;
     private final Throwable issue;
+    // The time spent by the ProjectInfoBuilder instances on the project.
+    private final long builderNanos;
 
     public ModelQueryOutput(
             BasicInfo basicInfo,
             CustomSerializedMap projectInfoResults,
-            Throwable issue) {
+            Throwable issue,
+            long builderNanos) {
         if (basicInfo == null) throw new NullPointerException("basicInfo");
         if (projectInfoResults == null) throw new NullPointerException("projectInfoResults");
 
         this.basicInfo = basicInfo;
         this.projectInfoResults = projectInfoResults;
         this.issue = TransferableExceptionWrapper.wrap(issue);
+        this.builderNanos = builderNanos;
     }
 
     public Throwable getIssue() {
         return issue;
     }
 
+    public long getBuilderNanos() {
+        return builderNanos;
+    }
+
     public BasicInfo getBasicInfo() {
         return basicInfo;
     }
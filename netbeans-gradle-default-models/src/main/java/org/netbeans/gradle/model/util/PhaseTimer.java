@@ -0,0 +1,164 @@
+package org.netbeans.gradle.model.util;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Measures the time spent in the named phases of a long running operation
+ * (e.g., loading the models of a project) and the time spent on the
+ * individual projects.
+ * <P>
+ * The durations of a phase are accumulated if the same phase is executed
+ * multiple times. Phases are expected not to overlap, so that the sum of
+ * the durations of the phases is the total time spent in measured phases.
+ * The durations of projects are not part of this total, because projects
+ * are processed during some of the phases.
+ * <P>
+ * Instances of this class are safe to be used by multiple threads
+ * concurrently.
+ */
+public final class PhaseTimer {
+    /**
+     * Defines the source of the time used by a {@code PhaseTimer}.
+     */
+    public interface Clock {
+        /**
+         * Returns the current value of a monotonic time source in nanoseconds.
+         * Only the differences of the returned values are meaningful.
+         *
+         * @return the current value of a monotonic time source in nanoseconds
+         */
+        public long nanoTime();
+    }
+
+    /**
+     * The {@code Clock} relying on {@code System.nanoTime()}.
+     */
+    public static final Clock SYSTEM_CLOCK = new Clock() {
+        public long nanoTime() {
+            return System.nanoTime();
+        }
+    };
+
+    private final Clock clock;
+    private final Map<String, Long> phaseNanos;
+    private final Map<String, Long> projectNanos;
+
+    public PhaseTimer() {
+        this(SYSTEM_CLOCK);
+    }
+
+    public PhaseTimer(Clock clock) {
+        if (clock == null) throw new NullPointerException("clock");
+
+        this.clock = clock;
+        this.phaseNanos = new LinkedHashMap<String, Long>();
+        this.projectNanos = new LinkedHashMap<String, Long>();
+    }
+
+    private static void addNanos(Map<String, Long> map, String key, long nanos) {
+        synchronized (map) {
+            Long prevNanos = map.get(key);
+            map.put(key, prevNanos != null ? prevNanos + nanos : nanos);
+        }
+    }
+
+    private static Map<String, Long> copyMap(Map<String, Long> map) {
+        synchronized (map) {
+            return Collections.unmodifiableMap(new LinkedHashMap<String, Long>(map));
+        }
+    }
+
+    /**
+     * Starts measuring the given phase. The phase ends when the
+     * {@link Phase#end() end} method of the returned {@code Phase} is called.
+     *
+     * @param phaseName the name of the phase to be measured. This argument
+     *   cannot be {@code null}.
+     * @return the {@code Phase} to be ended when the phase completes. This
+     *   method never returns {@code null}.
+     */
+    public Phase startPhase(String phaseName) {
+        if (phaseName == null) throw new NullPointerException("phaseName");
+        return new Phase(phaseName, clock.nanoTime());
+    }
+
+    /**
+     * Adds the given duration to the given phase. This method is for phases
+     * not measured by this timer.
+     */
+    public void addPhaseNanos(String phaseName, long nanos) {
+        if (phaseName == null) throw new NullPointerException("phaseName");
+        addNanos(phaseNanos, phaseName, nanos);
+    }
+
+    /**
+     * Adds the given duration to the time spent on the given project.
+     */
+    public void addProjectNanos(String projectPath, long nanos) {
+        if (projectPath == null) throw new NullPointerException("projectPath");
+        addNanos(projectNanos, projectPath, nanos);
+    }
+
+    /**
+     * Returns the durations of the ended phases in nanoseconds in the order
+     * the phases were first ended.
+     */
+    public Map<String, Long> getPhaseNanos() {
+        return copyMap(phaseNanos);
+    }
+
+    /**
+     * Returns the time spent on the individual projects in nanoseconds.
+     */
+    public Map<String, Long> getProjectNanos() {
+        return copyMap(projectNanos);
+    }
+
+    /**
+     * Returns the sum of the durations of the ended phases in nanoseconds.
+     */
+    public long getTotalPhaseNanos() {
+        long result = 0;
+        for (Long nanos: getPhaseNanos().values()) {
+            result += nanos;
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "PhaseTimer{" + "phases=" + getPhaseNanos() + ", projects=" + getProjectNanos() + '}';
+    }
+
+    /**
+     * Defines a started phase of a {@link PhaseTimer}.
+     */
+    public final class Phase {
+        private final String phaseName;
+        private final long startTime;
+        private boolean ended;
+
+        private Phase(String phaseName, long startTime) {
+            this.phaseName = phaseName;
+            this.startTime = startTime;
+            this.ended = false;
+        }
+
+        /**
+         * Ends this phase and adds its duration to the timer. Subsequent
+         * calls to this method do nothing.
+         */
+        public void end() {
+            long endTime = clock.nanoTime();
+            synchronized (this) {
+                if (ended) {
+                    return;
+                }
+                ended = true;
+            }
+            addPhaseNanos(phaseName, endTime - startTime);
+        }
+    }
+}
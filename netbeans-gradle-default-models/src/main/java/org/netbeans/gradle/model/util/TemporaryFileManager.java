@@ -5,8 +5,11 @@ import java.io.File;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -99,6 +102,60 @@ public final class TemporaryFileManager {
         return createFile(preferredPrefix, content);
     }
 
+    /**
+     * Creates a temporary file with the given content the same way as
+     * {@link #createFile(String, String, Charset) createFile} but the file is
+     * not removed when all the returned references are closed. Retained files
+     * are kept until {@link #releaseRetainedFiles() releaseRetainedFiles} is
+     * called, so requesting a file with the same content again does not write
+     * a new file.
+     */
+    public TemporaryFileRef createRetainedFile(String preferredPrefix, String strContent, Charset charset) throws IOException {
+        BinaryContent content = new BinaryContent(strContent.getBytes(charset.name()), false);
+        TemporaryFileRef result = createFile(preferredPrefix, content);
+
+        mainLock.lock();
+        try {
+            // The file cannot be removed because we have a reference to it.
+            files.get(content).retain();
+        } finally {
+            mainLock.unlock();
+        }
+
+        return result;
+    }
+
+    /**
+     * Removes the files created by {@link #createRetainedFile(String, String, Charset) createRetainedFile}
+     * which are no longer referenced. The files still referenced will be
+     * removed when their last reference is closed.
+     */
+    public void releaseRetainedFiles() {
+        List<FileReference> toDelete = new ArrayList<FileReference>();
+
+        mainLock.lock();
+        try {
+            Iterator<FileReference> fileRefItr = files.values().iterator();
+            while (fileRefItr.hasNext()) {
+                FileReference fileRef = fileRefItr.next();
+                if (fileRef.releaseRetained()) {
+                    fileRefItr.remove();
+                    toDelete.add(fileRef);
+                }
+            }
+        } finally {
+            mainLock.unlock();
+        }
+
+        for (FileReference fileRef: toDelete) {
+            try {
+                closeAndDelete(fileRef.getLockedFile());
+            } catch (IOException ex) {
+                LOGGER.log(Level.WARNING, "Failed to remove temporary file: " + fileRef.getFile(), ex);
+            }
+        }
+    }
+
     public TemporaryFileRef createFileFromSerialized(String preferredPrefix, Object contentObj) throws IOException {
         BinaryContent content = new BinaryContent(SerializationUtils.serializeObject(contentObj), false);
         return createFile(preferredPrefix, content);
@@ -201,11 +258,13 @@ public final class TemporaryFileManager {
         public final BinaryContent key;
         private final LockedFile file;
         private int useCount;
+        private boolean retained;
 
         public FileReference(BinaryContent key, LockedFile file, int useCount) {
             this.key = key;
             this.file = file;
             this.useCount = useCount;
+            this.retained = false;
         }
 
         public File getFile() {
@@ -224,6 +283,22 @@ public final class TemporaryFileManager {
             useCount--;
             return useCount == 0;
         }
+
+        public void retain() {
+            if (!retained) {
+                retained = true;
+                useCount++;
+            }
+        }
+
+        public boolean releaseRetained() {
+            if (!retained) {
+                return false;
+            }
+
+            retained = false;
+            return releaseOne();
+        }
     }
 
     private static final class BinaryContent {
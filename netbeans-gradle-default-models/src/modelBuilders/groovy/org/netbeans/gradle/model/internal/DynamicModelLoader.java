@@ -125,14 +125,17 @@ public final class DynamicModelLoader implements ToolingModelBuilder {
         BasicInfoWithError basicInfo = getBasicInfo(project);
 
         ModelQueryOutput output;
+        long startTime = System.nanoTime();
         try {
             CustomSerializedMap projectInfos = fetchProjectInfos(project);
-            output = new ModelQueryOutput(basicInfo.info, projectInfos, basicInfo.error);
+            long builderNanos = System.nanoTime() - startTime;
+            output = new ModelQueryOutput(basicInfo.info, projectInfos, basicInfo.error, builderNanos);
         } catch (Throwable ex) {
             if (basicInfo.error != null) {
                 Exceptions.tryAddSuppressedException(ex, basicInfo.error);
             }
-            output = new ModelQueryOutput(basicInfo.info, CustomSerializedMap.EMPTY, ex);
+            long builderNanos = System.nanoTime() - startTime;
+            output = new ModelQueryOutput(basicInfo.info, CustomSerializedMap.EMPTY, ex, builderNanos);
         }
 
         return new DefaultModelQueryOutputRef(output);
@@ -3,12 +3,15 @@ package org.netbeans.gradle.model.java;
 import java.io.File;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import org.gradle.api.Project;
 import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.artifacts.ResolvedConfiguration;
 import org.gradle.api.file.SourceDirectorySet;
 import org.gradle.api.plugins.GroovyPlugin;
 import org.gradle.api.plugins.JavaPluginConvention;
@@ -88,10 +91,17 @@ implements
         private final JavaPluginConvention javaPlugin;
         private final boolean needRuntime;
 
+        // Configuration name -> The first failure of resolving the configuration.
+        private final Map<String, Throwable> failedConfigs;
+        // Configuration name -> The files of the lenient configuration.
+        private final Map<String, Set<File>> lenientClasspaths;
+
         public Builder(Project project, JavaPluginConvention javaPlugin, boolean needRuntime) throws Exception {
             this.project = project;
             this.javaPlugin = javaPlugin;
             this.needRuntime = needRuntime;
+            this.failedConfigs = new HashMap<String, Throwable>();
+            this.lenientClasspaths = new HashMap<String, Set<File>>();
         }
 
         public JavaSourcesModel getProjectInfo() throws Exception {
@@ -143,27 +153,86 @@ implements
         }
 
         private Set<File> getLenientClasspath(String configName, Throwable baseError) {
+            Set<File> result = lenientClasspaths.get(configName);
+            if (result != null) {
+                return result;
+            }
+
+            result = Collections.emptySet();
             try {
                 Configuration config = project.getConfigurations().findByName(configName);
                 if (config != null) {
-                    return config.getResolvedConfiguration().getLenientConfiguration().getFiles(Specs.SATISFIES_ALL);
+                    ResolvedConfiguration resolved = config.getResolvedConfiguration();
+                    if (resolved.hasError()) {
+                        failedConfigs.put(configName, baseError);
+                    }
+                    result = resolved.getLenientConfiguration().getFiles(Specs.SATISFIES_ALL);
                 }
             } catch (Throwable ex) {
+                failedConfigs.put(configName, baseError);
                 Exceptions.tryAddSuppressedException(baseError, ex);
             }
 
-            return Collections.emptySet();
+            lenientClasspaths.put(configName, result);
+            return result;
+        }
+
+        private void recordIfUnresolvable(String configName, Throwable failure) {
+            try {
+                Configuration config = project.getConfigurations().findByName(configName);
+                if (config != null && config.getResolvedConfiguration().hasError()) {
+                    failedConfigs.put(configName, failure);
+                }
+            } catch (Throwable ex) {
+                failedConfigs.put(configName, failure);
+                Exceptions.tryAddSuppressedException(failure, ex);
+            }
+        }
+
+        /**
+         * Returns the failure of a configuration the given configuration
+         * inherits from (or the configuration itself), if it is already
+         * known to be unresolvable. Resolving such a configuration again
+         * would fail the same way, so there is no reason to try.
+         */
+        private Throwable tryGetKnownFailure(String configName) {
+            if (failedConfigs.isEmpty()) {
+                return null;
+            }
+
+            Configuration config = project.getConfigurations().findByName(configName);
+            if (config == null) {
+                return null;
+            }
+
+            for (Configuration inherited: config.getHierarchy()) {
+                Throwable failure = failedConfigs.get(inherited.getName());
+                if (failure != null) {
+                    return failure;
+                }
+            }
+            return null;
         }
 
         private void parseClassPaths(SourceSet sourceSet, JavaSourceSet.Builder result) {
+            String compileConfigName = sourceSet.getCompileConfigurationName();
+            String runtimeConfigName = sourceSet.getRuntimeConfigurationName();
+
             Set<File> compile;
             boolean compileResolved = false;
-            try {
-                compile = sourceSet.getCompileClasspath().getFiles();
-                compileResolved = true;
-            } catch (Throwable ex) {
-                result.setCompileClassPathProblem(ex);
-                compile = getLenientClasspath(sourceSet.getCompileConfigurationName(), ex);
+            Throwable knownCompileFailure = tryGetKnownFailure(compileConfigName);
+            if (knownCompileFailure != null) {
+                result.setCompileClassPathProblem(knownCompileFailure);
+                compile = getLenientClasspath(compileConfigName, knownCompileFailure);
+            }
+            else {
+                try {
+                    compile = sourceSet.getCompileClasspath().getFiles();
+                    compileResolved = true;
+                } catch (Throwable ex) {
+                    result.setCompileClassPathProblem(ex);
+                    compile = getLenientClasspath(compileConfigName, ex);
+                }
             }
 
             if (!needRuntime) {
@@ -172,13 +241,20 @@ implements
             }
 
             Set<File> runtime = compile;
-            try {
-                runtime = sourceSet.getRuntimeClasspath().getFiles();
-                if (!compileResolved) {
-                    compile = runtime;
+            Throwable knownRuntimeFailure = tryGetKnownFailure(runtimeConfigName);
+            if (knownRuntimeFailure != null) {
+                result.setRuntimeClassPathProblem(knownRuntimeFailure);
+            }
+            else {
+                try {
+                    runtime = sourceSet.getRuntimeClasspath().getFiles();
+                    if (!compileResolved) {
+                        compile = runtime;
+                    }
+                } catch (Throwable ex) {
+                    result.setRuntimeClassPathProblem(ex);
+                    recordIfUnresolvable(runtimeConfigName, ex);
                 }
-            } catch (Throwable ex) {
-                result.setRuntimeClassPathProblem(ex);
             }
 
             result.setClasspaths(new JavaClassPaths(compile, runtime));
@@ -0,0 +1,147 @@
+package org.netbeans.gradle.model.java;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import org.gradle.tooling.ProjectConnection;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.netbeans.gradle.model.util.BasicFileUtils;
+import org.netbeans.gradle.model.util.ProjectConnectionTask;
+import org.netbeans.gradle.model.util.TestUtils;
+import org.netbeans.gradle.model.util.ZipUtils;
+
+import static org.junit.Assert.*;
+import static org.netbeans.gradle.model.java.InfoQueries.*;
+
+public class ManySourceSetsTest {
+    // "main", "test" and the generated ones.
+    private static final int SOURCE_SET_COUNT = 20;
+    private static final int EXTRA_SOURCE_SET_COUNT = SOURCE_SET_COUNT - 2;
+
+    private static final String LIB_NAME = "lib.jar";
+
+    private static File tempFolder = null;
+    private static File resolvableProjectDir = null;
+    private static File unresolvableProjectDir = null;
+
+    @BeforeClass
+    public static void setUpClass() throws IOException {
+        tempFolder = File.createTempFile("gradle-many-source-sets", "");
+        if (!tempFolder.delete()) {
+            throw new IOException("Failed to remove " + tempFolder);
+        }
+        if (!tempFolder.mkdir()) {
+            throw new IOException("Failed to create " + tempFolder);
+        }
+
+        resolvableProjectDir = createProject("resolvable", "");
+        unresolvableProjectDir = createProject("unresolvable", "    compile 'org.netbeans.missing:missing:1.0'\n");
+    }
+
+    @AfterClass
+    public static void tearDownClass() throws IOException {
+        if (tempFolder != null) {
+            ZipUtils.recursiveDelete(tempFolder);
+        }
+    }
+
+    private static void writeFile(File file, String content) throws IOException {
+        file.getParentFile().mkdirs();
+
+        OutputStream output = new FileOutputStream(file);
+        try {
+            output.write(content.getBytes("UTF-8"));
+        } finally {
+            output.close();
+        }
+    }
+
+    private static File createProject(String name, String additionalDependencies) throws IOException {
+        File projectDir = new File(tempFolder, name);
+
+        writeFile(new File(projectDir, "settings.gradle"), "rootProject.name = '" + name + "'\n");
+        writeFile(BasicFileUtils.getSubPath(projectDir, "libs", LIB_NAME), "");
+
+        String buildScript = "apply plugin: 'java'\n"
+                + "\n"
+                + "dependencies {\n"
+                + "    compile files('libs/" + LIB_NAME + "')\n"
+                + additionalDependencies
+                + "}\n"
+                + "\n"
+                + "(0..<" + EXTRA_SOURCE_SET_COUNT + ").each { index ->\n"
+                + "    def sourceSet = sourceSets.create(\"extra${index}\")\n"
+                + "    sourceSet.compileClasspath += sourceSets.main.output\n"
+                + "    sourceSet.runtimeClasspath += sourceSets.main.output\n"
+                + "    configurations[sourceSet.compileConfigurationName].extendsFrom(configurations.compile)\n"
+                + "    configurations[sourceSet.runtimeConfigurationName].extendsFrom(configurations.runtime)\n"
+                + "}\n";
+        writeFile(new File(projectDir, "build.gradle"), buildScript);
+
+        return projectDir;
+    }
+
+    private static boolean containsFileWithName(Iterable<File> files, String name) {
+        for (File file: files) {
+            if (name.equals(file.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static JavaSourceSet findSourceSet(JavaSourcesModel sourcesModel, String name) {
+        for (JavaSourceSet sourceSet: sourcesModel.getSourceSets()) {
+            if (name.equals(sourceSet.getName())) {
+                return sourceSet;
+            }
+        }
+        throw new AssertionError("Missing source set: " + name);
+    }
+
+    private static JavaSourcesModel fetchSourcesModel(File projectDir) {
+        final JavaSourcesModel[] result = new JavaSourcesModel[1];
+        TestUtils.runTestsForProject(projectDir, new ProjectConnectionTask() {
+            public void doTask(ProjectConnection connection) throws Exception {
+                result[0] = fetchSingleProjectInfo(connection, JavaModelBuilders.JAVA_SOURCES_BUILDER_COMPLETE);
+            }
+        });
+        assertNotNull(result[0]);
+        return result[0];
+    }
+
+    @Test
+    public void testResolvableClassPaths() {
+        JavaSourcesModel sourcesModel = fetchSourcesModel(resolvableProjectDir);
+        assertEquals(SOURCE_SET_COUNT, sourcesModel.getSourceSets().size());
+        JavaModelTests.checkNoDependencyResolultionError(sourcesModel);
+
+        JavaSourceSet mainSourceSet = findSourceSet(sourcesModel, JavaSourceSet.NAME_MAIN);
+        File mainClassesDir = mainSourceSet.getOutputDirs().getClassesDir();
+
+        for (JavaSourceSet sourceSet: sourcesModel.getSourceSets()) {
+            JavaClassPaths classpaths = sourceSet.getClasspaths();
+            assertTrue(sourceSet.getName(), containsFileWithName(classpaths.getCompileClasspaths(), LIB_NAME));
+            assertTrue(sourceSet.getName(), containsFileWithName(classpaths.getRuntimeClasspaths(), LIB_NAME));
+
+            if (!JavaSourceSet.NAME_MAIN.equals(sourceSet.getName())) {
+                assertTrue(sourceSet.getName(), classpaths.getCompileClasspaths().contains(mainClassesDir));
+                assertTrue(sourceSet.getName(), classpaths.getRuntimeClasspaths().contains(mainClassesDir));
+            }
+        }
+    }
+
+    @Test
+    public void testUnresolvableClassPaths() {
+        JavaSourcesModel sourcesModel = fetchSourcesModel(unresolvableProjectDir);
+        assertEquals(SOURCE_SET_COUNT, sourcesModel.getSourceSets().size());
+
+        for (JavaSourceSet sourceSet: sourcesModel.getSourceSets()) {
+            assertNotNull(sourceSet.getName(), sourceSet.getCompileClassPathProblem());
+            assertNotNull(sourceSet.getName(), sourceSet.getRuntimeClassPathProblem());
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package org.netbeans.gradle.model.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PhaseTimerTest {
+    private static final class FakeClock implements PhaseTimer.Clock {
+        private long currentNanos = 1000;
+
+        public long nanoTime() {
+            return currentNanos;
+        }
+
+        public void advance(long nanos) {
+            currentNanos += nanos;
+        }
+    }
+
+    private static void runPhase(PhaseTimer timer, FakeClock clock, String phaseName, long nanos) {
+        PhaseTimer.Phase phase = timer.startPhase(phaseName);
+        clock.advance(nanos);
+        phase.end();
+    }
+
+    @Test
+    public void testSequentialPhasesSumToElapsedTime() {
+        FakeClock clock = new FakeClock();
+        PhaseTimer timer = new PhaseTimer(clock);
+
+        long startTime = clock.nanoTime();
+        runPhase(timer, clock, "connect", 30);
+        runPhase(timer, clock, "buildEnvironment", 200);
+        runPhase(timer, clock, "evaluation", 5000);
+        runPhase(timer, clock, "deserialization", 70);
+        runPhase(timer, clock, "cacheWrite", 15);
+        long elapsed = clock.nanoTime() - startTime;
+
+        Map<String, Long> phases = timer.getPhaseNanos();
+        assertEquals(Arrays.asList("connect", "buildEnvironment", "evaluation", "deserialization", "cacheWrite"),
+                new ArrayList<String>(phases.keySet()));
+        assertEquals(Long.valueOf(30), phases.get("connect"));
+        assertEquals(Long.valueOf(200), phases.get("buildEnvironment"));
+        assertEquals(Long.valueOf(5000), phases.get("evaluation"));
+        assertEquals(Long.valueOf(70), phases.get("deserialization"));
+        assertEquals(Long.valueOf(15), phases.get("cacheWrite"));
+
+        assertEquals(elapsed, timer.getTotalPhaseNanos());
+    }
+
+    @Test
+    public void testRepeatedPhaseIsAccumulated() {
+        FakeClock clock = new FakeClock();
+        PhaseTimer timer = new PhaseTimer(clock);
+
+        runPhase(timer, clock, "parsing", 10);
+        clock.advance(1000); // Not measured.
+        runPhase(timer, clock, "parsing", 25);
+        timer.addPhaseNanos("parsing", 5);
+
+        assertEquals(Long.valueOf(40), timer.getPhaseNanos().get("parsing"));
+        assertEquals(40, timer.getTotalPhaseNanos());
+    }
+
+    @Test
+    public void testEndingPhaseTwiceCountsOnce() {
+        FakeClock clock = new FakeClock();
+        PhaseTimer timer = new PhaseTimer(clock);
+
+        PhaseTimer.Phase phase = timer.startPhase("evaluation");
+        clock.advance(100);
+        phase.end();
+        clock.advance(100);
+        phase.end();
+
+        assertEquals(100, timer.getTotalPhaseNanos());
+    }
+
+    @Test
+    public void testUnendedPhaseIsNotCounted() {
+        FakeClock clock = new FakeClock();
+        PhaseTimer timer = new PhaseTimer(clock);
+
+        runPhase(timer, clock, "connect", 10);
+        timer.startPhase("evaluation");
+        clock.advance(100);
+
+        assertFalse(timer.getPhaseNanos().containsKey("evaluation"));
+        assertEquals(10, timer.getTotalPhaseNanos());
+    }
+
+    @Test
+    public void testProjectTimesAreNotPartOfPhaseTotal() {
+        FakeClock clock = new FakeClock();
+        PhaseTimer timer = new PhaseTimer(clock);
+
+        PhaseTimer.Phase evaluation = timer.startPhase("evaluation");
+        timer.addProjectNanos(":", 100);
+        timer.addProjectNanos(":app", 300);
+        timer.addProjectNanos(":lib", 200);
+        timer.addProjectNanos(":app", 50);
+        clock.advance(1000);
+        evaluation.end();
+
+        Map<String, Long> projects = timer.getProjectNanos();
+        assertEquals(3, projects.size());
+        assertEquals(Long.valueOf(100), projects.get(":"));
+        assertEquals(Long.valueOf(350), projects.get(":app"));
+        assertEquals(Long.valueOf(200), projects.get(":lib"));
+
+        assertEquals(1000, timer.getTotalPhaseNanos());
+    }
+}
@@ -140,4 +140,88 @@ public class TemporaryFileManagerTest {
     public void testModifiedContentWithNonEmpty() throws Exception {
         testModifiedContent("testModifiedContentWithNonEmpty", new byte[]{1, 2, 3});
     }
+
+    @Test
+    public void testRetainedFileIsWrittenOnce() throws Exception {
+        TemporaryFileManager fileManager = new TemporaryFileManager();
+        String name = "testRetainedFileIsWrittenOnce";
+        String content = "EXPECTED FILE content: testRetainedFileIsWrittenOnce";
+
+        TemporaryFileRef firstRef = fileManager.createRetainedFile(name, content, UTF8);
+        File file = firstRef.getFile();
+        firstRef.close();
+
+        try {
+            assertTrue("Retained file must be kept after close.", file.exists());
+
+            // If the file was written again, its modification time would change.
+            long lastModified = 1000000000000L;
+            assertTrue(file.setLastModified(lastModified));
+            lastModified = file.lastModified();
+
+            for (int i = 0; i < 1000; i++) {
+                TemporaryFileRef fileRef = fileManager.createRetainedFile(name, content, UTF8);
+                try {
+                    assertEquals(file, fileRef.getFile());
+                } finally {
+                    fileRef.close();
+                }
+            }
+
+            assertEquals(lastModified, file.lastModified());
+
+            TemporaryFileRef fileRef = fileManager.createRetainedFile(name, content, UTF8);
+            try {
+                assertContent(fileRef, content);
+            } finally {
+                fileRef.close();
+            }
+        } finally {
+            fileManager.releaseRetainedFiles();
+        }
+
+        assertFalse("File must be deleted after releasing retained files.", file.exists());
+    }
+
+    @Test
+    public void testRetainedFileDeletedAfterLastRefCloses() throws Exception {
+        TemporaryFileManager fileManager = new TemporaryFileManager();
+        String name = "testRetainedFileDeletedAfterLastRefCloses";
+        String content = "EXPECTED FILE content: testRetainedFileDeletedAfterLastRefCloses";
+
+        TemporaryFileRef retainedRef = fileManager.createRetainedFile(name, content, UTF8);
+        TemporaryFileRef otherRef = fileManager.createFile(name, content, UTF8);
+        File file = retainedRef.getFile();
+        try {
+            assertEquals(file, otherRef.getFile());
+            retainedRef.close();
+
+            fileManager.releaseRetainedFiles();
+            assertTrue("File must be kept while it is referenced.", file.exists());
+            assertContent(otherRef, content);
+        } finally {
+            otherRef.close();
+        }
+
+        assertFalse("File must be deleted after the last reference is closed.", file.exists());
+    }
+
+    @Test
+    public void testNotRetainedFileIsNotKept() throws Exception {
+        TemporaryFileManager fileManager = new TemporaryFileManager();
+        String name = "testNotRetainedFileIsNotKept";
+        String content = "EXPECTED FILE content: testNotRetainedFileIsNotKept";
+
+        TemporaryFileRef retainedRef = fileManager.createRetainedFile(name, content + " (retained)", UTF8);
+        TemporaryFileRef fileRef = fileManager.createFile(name, content, UTF8);
+        try {
+            fileRef.close();
+            assertFalse("File must be deleted after close.", fileRef.getFile().exists());
+        } finally {
+            retainedRef.close();
+            fileManager.releaseRetainedFiles();
+        }
+
+        assertFalse("File must be deleted after releasing retained files.", retainedRef.getFile().exists());
+    }
 }
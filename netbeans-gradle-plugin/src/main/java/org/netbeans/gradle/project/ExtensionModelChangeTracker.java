@@ -0,0 +1,72 @@
+package org.netbeans.gradle.project;
+
+import java.util.concurrent.atomic.AtomicReference;
+import org.netbeans.gradle.project.model.ModelFingerprint;
+import org.netbeans.gradle.project.model.NbGradleModel;
+
+/**
+ * Remembers the content of the last model applied to the extensions of a
+ * project, so that extensions whose model did not change need not to be
+ * notified again.
+ */
+final class ExtensionModelChangeTracker {
+    private final AtomicReference<ModelFingerprint> lastAppliedRef;
+
+    public ExtensionModelChangeTracker() {
+        this.lastAppliedRef = new AtomicReference<>(null);
+    }
+
+    /**
+     * Returns the changes of the given model relative to the last model
+     * recorded by {@link #recordApplied(ModelChanges) recordApplied}.
+     * Everything is considered to be changed if there is no such model and
+     * for {@code null} models.
+     */
+    public ModelChanges getChanges(NbGradleModel model) {
+        ModelFingerprint newFingerprint = model != null ? model.getFingerprint() : null;
+        return new ModelChanges(lastAppliedRef.get(), newFingerprint);
+    }
+
+    /**
+     * Records the model of the given changes as the one applied to the
+     * extensions. If an extension failed to accept its model, the last
+     * applied model is forgotten instead, so that every extension is notified
+     * again for the next model.
+     */
+    public void recordApplied(ModelChanges changes) {
+        lastAppliedRef.set(changes.failed ? null : changes.newFingerprint);
+    }
+
+    public static final class ModelChanges {
+        private final ModelFingerprint prevFingerprint;
+        private final ModelFingerprint newFingerprint;
+        private final boolean genericInfoChanged;
+        private volatile boolean failed;
+
+        private ModelChanges(ModelFingerprint prevFingerprint, ModelFingerprint newFingerprint) {
+            this.prevFingerprint = prevFingerprint;
+            this.newFingerprint = newFingerprint;
+            this.genericInfoChanged = prevFingerprint == null
+                    || newFingerprint == null
+                    || !prevFingerprint.isSameGenericInfo(newFingerprint);
+            this.failed = false;
+        }
+
+        /**
+         * Marks that an extension failed to accept its model.
+         */
+        public void markFailed() {
+            failed = true;
+        }
+
+        public boolean hasChanges() {
+            return genericInfoChanged || !prevFingerprint.isSameContent(newFingerprint);
+        }
+
+        public boolean isExtensionChanged(String extensionName) {
+            // Extensions might rely on the generic info as well, so notify
+            // everyone if the generic info has changed.
+            return genericInfoChanged || !prevFingerprint.isSameExtensionModel(extensionName, newFingerprint);
+        }
+    }
+}
@@ -3,17 +3,17 @@ package org.netbeans.gradle.project;
 import java.io.File;
 import java.nio.file.Path;
 import org.jtrim.utils.ExceptionHelper;
-import org.netbeans.gradle.project.properties.WeakValueHashMap;
+import org.netbeans.gradle.project.util.ConcurrentWeakValueMap;
 import org.netbeans.gradle.project.util.NbConsumer;
 import org.netbeans.gradle.project.util.NbFileUtils;
 
 public final class LoadedProjectManager {
     private static final LoadedProjectManager DEFAULT = new LoadedProjectManager();
 
-    private final WeakValueHashMap<Path, NbGradleProject> projects;
+    private final ConcurrentWeakValueMap<Path, NbGradleProject> projects;
 
     public LoadedProjectManager() {
-        this.projects = new WeakValueHashMap<>();
+        this.projects = new ConcurrentWeakValueMap<>();
     }
 
     public static LoadedProjectManager getDefault() {
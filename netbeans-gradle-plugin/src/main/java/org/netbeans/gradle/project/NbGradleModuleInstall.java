@@ -4,6 +4,8 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
+import org.netbeans.gradle.model.util.TemporaryFileManager;
+import org.netbeans.gradle.project.metrics.GradleProjectMetrics;
 
 public final class NbGradleModuleInstall extends Yenta {
     private static final long serialVersionUID = 1L;
@@ -16,5 +18,10 @@ public final class NbGradleModuleInstall extends Yenta {
     protected Set<String> friends() {
         return FRIENDS;
     }
-    
+
+    @Override
+    public void close() {
+        TemporaryFileManager.getDefault().releaseRetainedFiles();
+        GradleProjectMetrics.unregisterDefault();
+    }
 }
@@ -13,7 +13,9 @@ import org.jtrim.utils.ExceptionHelper;
 import org.netbeans.api.project.Project;
 import org.netbeans.api.project.ProjectManager;
 import org.netbeans.gradle.project.properties.SettingsFiles;
+import org.netbeans.gradle.project.util.LazyValue;
 import org.netbeans.gradle.project.util.NbFileUtils;
+import org.netbeans.gradle.project.util.NbSupplier;
 import org.netbeans.spi.project.ProjectFactory;
 import org.netbeans.spi.project.ProjectFactory2;
 import org.netbeans.spi.project.ProjectState;
@@ -27,7 +29,31 @@ public class NbGradleProjectFactory implements ProjectFactory2 {
     private static final ConcurrentMap<Path, RefCounter> SAFE_TO_OPEN_PROJECTS
             = new ConcurrentHashMap<>();
 
-    private static final String TEMP_DIR = System.getProperty("java.io.tmpdir");
+    // Large enough to hold every directory of a large source tree scanned
+    // by the IDE.
+    private static final int MAX_CACHED_NON_PROJECT_DIRS = 4096;
+
+    private static final File NO_TEMP_DIR = new File("");
+    private static final LazyValue<File> TEMP_DIR = new LazyValue<>(new NbSupplier<File>() {
+        @Override
+        public File get() {
+            String tempDir = System.getProperty("java.io.tmpdir");
+            return tempDir != null
+                    ? FileUtil.normalizeFile(new File(tempDir))
+                    : NO_TEMP_DIR;
+        }
+    });
+
+    private final NonProjectDirCache nonProjectDirs;
+
+    public NbGradleProjectFactory() {
+        this(new NonProjectDirCache(MAX_CACHED_NON_PROJECT_DIRS));
+    }
+
+    NbGradleProjectFactory(NonProjectDirCache nonProjectDirs) {
+        ExceptionHelper.checkNotNullArgument(nonProjectDirs, "nonProjectDirs");
+        this.nonProjectDirs = nonProjectDirs;
+    }
 
     public static Project loadSafeProject(Path projectDir) throws IOException {
         return loadSafeProject(projectDir.toFile());
@@ -181,8 +207,8 @@ public class NbGradleProjectFactory implements ProjectFactory2 {
         // because NetBeans has a habit to put temporary gradle files to
         // them and then tries to load it which will fail because NetBeans will
         // delete them soon.
-        if (TEMP_DIR != null) {
-            File tempDir = FileUtil.normalizeFile(new File(TEMP_DIR));
+        File tempDir = TEMP_DIR.get();
+        if (tempDir != NO_TEMP_DIR) {
             FileObject tempDirObj = FileUtil.toFileObject(tempDir);
             if (tempDirObj != null) {
                 if (FileUtil.getRelativePath(tempDirObj, projectDirectory) != null) {
@@ -191,19 +217,44 @@ public class NbGradleProjectFactory implements ProjectFactory2 {
             }
         }
 
-        if (hasBuildFile(projectDirectory)) {
-            return true;
+        return hasProjectBuildFile(projectDirectory);
+    }
+
+    boolean hasProjectBuildFile(FileObject projectDirectory) {
+        // Most directories queried are not Gradle projects (e.g., when
+        // browsing in a file chooser), so remember the negative answers.
+        if (nonProjectDirs.isKnownNonProject(projectDirectory)) {
+            return false;
         }
+
+        FileObject parent = null;
         if (projectDirectory.getNameExt().equalsIgnoreCase(SettingsFiles.BUILD_SRC_NAME)) {
-            FileObject parent = projectDirectory.getParent();
-            if (parent != null) {
-                if (hasBuildFile(parent)) {
-                    return true;
-                }
-            }
+            parent = projectDirectory.getParent();
+        }
+
+        if (hasBuildFile(projectDirectory, parent)) {
+            return true;
         }
 
-        return false;
+        // Only the directories to be cached are listened for changes, and
+        // they must be checked again after registering the listeners, so
+        // that a build script created in the meantime cannot be missed.
+        NonProjectDirCache.Probe probe = parent != null
+                ? nonProjectDirs.startProbe(projectDirectory, parent)
+                : nonProjectDirs.startProbe(projectDirectory);
+
+        boolean result = false;
+        try {
+            result = hasBuildFile(projectDirectory, parent);
+        } finally {
+            probe.finish(!result);
+        }
+        return result;
+    }
+
+    private static boolean hasBuildFile(FileObject projectDirectory, FileObject parent) {
+        return hasBuildFile(projectDirectory)
+                || (parent != null && hasBuildFile(parent));
     }
 
     @Override
@@ -471,6 +471,10 @@ public final class NbStrings {
         return NbBundle.getMessage(NbStrings.class, "NbStrings.JavaSourcesDisplayMode." + displayMode.name());
     }
 
+    public static String getTooManyConcurrentBuilds(int maxBuilds) {
+        return NbBundle.getMessage(NbStrings.class, "NbStrings.TooManyConcurrentBuilds", maxBuilds);
+    }
+
     public static String getGlobalErrorReporterTitle() {
         return NbBundle.getMessage(NbStrings.class, "NbStrings.GlobalErrorReporterTitle");
     }
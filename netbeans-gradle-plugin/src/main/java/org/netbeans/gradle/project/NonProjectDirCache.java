@@ -0,0 +1,230 @@
+package org.netbeans.gradle.project;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import org.jtrim.utils.ExceptionHelper;
+import org.netbeans.gradle.project.properties.SettingsFiles;
+import org.openide.filesystems.FileChangeAdapter;
+import org.openide.filesystems.FileChangeListener;
+import org.openide.filesystems.FileEvent;
+import org.openide.filesystems.FileObject;
+import org.openide.filesystems.FileRenameEvent;
+
+/**
+ * Defines a bounded cache of directories known not to be Gradle projects.
+ * The cached directories (and the other directories the result depends on)
+ * are listened for changes, and a directory is removed from the cache when a
+ * file which might be a Gradle build script is created in them, or when the
+ * listened directories are renamed or deleted.
+ * <P>
+ * Only directories already found not to be Gradle projects should be probed
+ * (see {@link #startProbe(FileObject, FileObject[]) startProbe}). The
+ * listeners are registered before the directory is checked again, so that a
+ * build script created during the check cannot be missed.
+ * <P>
+ * The least recently queried directories are removed from the cache when it
+ * grows beyond the limit.
+ * <P>
+ * Instances of this class are safe to be used by multiple threads
+ * concurrently.
+ */
+final class NonProjectDirCache {
+    private static final String KOTLIN_GRADLE_EXTENSION = SettingsFiles.DEFAULT_GRADLE_EXTENSION + ".kts";
+
+    private final Lock mainLock;
+    private final Map<FileObject, CachedDir> cachedDirs;
+
+    public NonProjectDirCache(final int maxSize) {
+        ExceptionHelper.checkArgumentInRange(maxSize, 1, Integer.MAX_VALUE, "maxSize");
+
+        this.mainLock = new ReentrantLock();
+        this.cachedDirs = new LinkedHashMap<FileObject, CachedDir>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<FileObject, CachedDir> eldest) {
+                if (size() > maxSize) {
+                    CachedDir evicted = eldest.getValue();
+                    evicted.invalidated = true;
+                    evicted.unregister();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    private static boolean isPossibleBuildFile(FileObject file) {
+        String name = file.getNameExt();
+        return name.endsWith(SettingsFiles.DEFAULT_GRADLE_EXTENSION)
+                || name.endsWith(KOTLIN_GRADLE_EXTENSION);
+    }
+
+    public boolean isKnownNonProject(FileObject dir) {
+        mainLock.lock();
+        try {
+            return cachedDirs.get(dir) != null;
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    /**
+     * Starts listening for the changes of the given directory and of the
+     * {@code dependencies} before the caller checks again if the given
+     * directory is a Gradle project. The caller must call {@link Probe#finish(boolean)}
+     * after the check, which records the directory if it is not a Gradle
+     * project and nothing has changed since this method was called.
+     */
+    public Probe startProbe(FileObject dir, FileObject... dependencies) {
+        ExceptionHelper.checkNotNullArgument(dir, "dir");
+        ExceptionHelper.checkNotNullElements(dependencies, "dependencies");
+
+        CachedDir cachedDir = new CachedDir(dir, dependencies);
+        cachedDir.register();
+        return cachedDir;
+    }
+
+    private boolean tryAdd(CachedDir cachedDir) {
+        CachedDir prevCachedDir;
+        mainLock.lock();
+        try {
+            if (cachedDir.invalidated) {
+                return false;
+            }
+            prevCachedDir = cachedDirs.put(cachedDir.dir, cachedDir);
+        } finally {
+            mainLock.unlock();
+        }
+
+        if (prevCachedDir != null) {
+            prevCachedDir.unregister();
+        }
+        return true;
+    }
+
+    public void invalidate(FileObject dir) {
+        CachedDir removed;
+        mainLock.lock();
+        try {
+            removed = cachedDirs.remove(dir);
+        } finally {
+            mainLock.unlock();
+        }
+
+        if (removed != null) {
+            removed.unregister();
+        }
+    }
+
+    private void invalidate(CachedDir cachedDir) {
+        mainLock.lock();
+        try {
+            cachedDir.invalidated = true;
+            if (cachedDirs.get(cachedDir.dir) == cachedDir) {
+                cachedDirs.remove(cachedDir.dir);
+            }
+        } finally {
+            mainLock.unlock();
+        }
+
+        cachedDir.unregister();
+    }
+
+    public int size() {
+        mainLock.lock();
+        try {
+            return cachedDirs.size();
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    public interface Probe {
+        /**
+         * Stops listening for changes unless the probed directory is recorded
+         * as not being a Gradle project.
+         *
+         * @param nonProject {@code true} if the check found that the probed
+         *   directory is not a Gradle project, {@code false} otherwise
+         */
+        public void finish(boolean nonProject);
+    }
+
+    private final class CachedDir implements Probe {
+        private final FileObject dir;
+        private final FileObject[] watchedDirs;
+        private final FileChangeListener listener;
+
+        // Guarded by mainLock
+        private boolean invalidated;
+
+        public CachedDir(FileObject dir, FileObject[] dependencies) {
+            this.dir = dir;
+            this.invalidated = false;
+
+            this.watchedDirs = new FileObject[dependencies.length + 1];
+            this.watchedDirs[0] = dir;
+            System.arraycopy(dependencies, 0, this.watchedDirs, 1, dependencies.length);
+
+            this.listener = new FileChangeAdapter() {
+                @Override
+                public void fileDataCreated(FileEvent fe) {
+                    checkFile(fe.getFile());
+                }
+
+                @Override
+                public void fileRenamed(FileRenameEvent fe) {
+                    checkFile(fe.getFile());
+                }
+
+                @Override
+                public void fileDeleted(FileEvent fe) {
+                    // Deleting a file in the directory cannot make it a
+                    // project but the directory itself might be deleted.
+                    if (isWatchedDir(fe.getFile())) {
+                        invalidate(CachedDir.this);
+                    }
+                }
+            };
+        }
+
+        private boolean isWatchedDir(FileObject file) {
+            for (FileObject watchedDir: watchedDirs) {
+                if (watchedDir.equals(file)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void checkFile(FileObject file) {
+            // The result depends on the name of the directory as well, so
+            // renaming the watched directories must also invalidate it.
+            if (file == null || isPossibleBuildFile(file) || isWatchedDir(file)) {
+                invalidate(this);
+            }
+        }
+
+        @Override
+        public void finish(boolean nonProject) {
+            if (!nonProject || !tryAdd(this)) {
+                unregister();
+            }
+        }
+
+        public void register() {
+            for (FileObject watchedDir: watchedDirs) {
+                watchedDir.addFileChangeListener(listener);
+            }
+        }
+
+        public void unregister() {
+            for (FileObject watchedDir: watchedDirs) {
+                watchedDir.removeFileChangeListener(listener);
+            }
+        }
+    }
+}
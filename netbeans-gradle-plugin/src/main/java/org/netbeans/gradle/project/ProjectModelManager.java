@@ -35,6 +35,7 @@ final class ProjectModelManager implements ModelRetrievedListener<NbGradleModel>
     private final LazyValue<ProjectIssueRef> loadErrorRef;
     private final UpdateTaskExecutor modelUpdater;
     private final Runnable modelUpdateDispatcher;
+    private final ExtensionModelChangeTracker extensionModelChanges;
 
     public ProjectModelManager(final NbGradleProject project, final NbGradleModel initialModel) {
         ExceptionHelper.checkNotNullArgument(project, "project");
@@ -51,6 +52,7 @@ final class ProjectModelManager implements ModelRetrievedListener<NbGradleModel>
                 onModelChange();
             }
         };
+        this.extensionModelChanges = new ExtensionModelChangeTracker();
         this.loadErrorRef = new LazyValue<>(new NbSupplier<ProjectIssueRef>() {
             @Override
             public ProjectIssueRef get() {
@@ -80,11 +82,15 @@ final class ProjectModelManager implements ModelRetrievedListener<NbGradleModel>
         modelUpdater.execute(modelUpdateDispatcher);
     }
 
-    private boolean safelyLoadExtensions(NbGradleExtensionRef extension, Object model) {
+    private boolean safelyLoadExtensions(
+            NbGradleExtensionRef extension,
+            Object model,
+            ExtensionModelChangeTracker.ModelChanges changes) {
         try {
             return extension.setModelForExtension(model);
         } catch (Throwable ex) {
             LOGGER.log(Level.SEVERE, "Extension has thrown an unexpected exception: " + extension.getName(), ex);
+            changes.markFailed();
             return false;
         }
     }
@@ -93,22 +99,26 @@ final class ProjectModelManager implements ModelRetrievedListener<NbGradleModel>
         return project.getExtensions().getExtensionRefs();
     }
 
-    private boolean notifyEmptyModelChange() {
+    private boolean notifyEmptyModelChange(ExtensionModelChangeTracker.ModelChanges changes) {
         boolean changedAny = false;
         for (NbGradleExtensionRef extensionRef: getExtensionRefs()) {
-            boolean changed = safelyLoadExtensions(extensionRef, null);
+            boolean changed = safelyLoadExtensions(extensionRef, null, changes);
             changedAny = changedAny || changed;
         }
         fireModelChangeEvent();
         return changedAny;
     }
 
-    private boolean notifyModelChange(NbGradleModel model) {
+    private boolean notifyModelChange(NbGradleModel model, ExtensionModelChangeTracker.ModelChanges changes) {
         // TODO: Consider conflicts
         //   GradleProjectExtensionDef.getSuppressedExtensions()
         boolean changedAny = false;
         for (NbGradleExtensionRef extensionRef: getExtensionRefs()) {
-            boolean changed = safelyLoadExtensions(extensionRef, model.getModelOfExtension(extensionRef));
+            if (!changes.isExtensionChanged(extensionRef.getName())) {
+                continue;
+            }
+
+            boolean changed = safelyLoadExtensions(extensionRef, model.getModelOfExtension(extensionRef), changes);
             changedAny = changedAny || changed;
         }
         fireModelChangeEvent();
@@ -136,16 +146,24 @@ final class ProjectModelManager implements ModelRetrievedListener<NbGradleModel>
     }
 
     private void updateExtensionActivation(NbGradleModel model) {
+        // Even if the model did not change, the model change listeners must
+        // be notified: Only the extensions need not to be reactivated.
+        ExtensionModelChangeTracker.ModelChanges changes = extensionModelChanges.getChanges(model);
+        if (!changes.hasChanges()) {
+            LOGGER.log(Level.FINE, "The content of the model of {0} did not change.", project.getName());
+        }
+
         Collection<ModelRefreshListener> refreshListeners = new ArrayList<>(project.getLookup().lookupAll(ModelRefreshListener.class));
         boolean extensionsChanged = false;
         startRefresh(refreshListeners);
         try {
             if (model == null) {
-                extensionsChanged = notifyEmptyModelChange();
+                extensionsChanged = notifyEmptyModelChange(changes);
             }
             else {
-                extensionsChanged = notifyModelChange(model);
+                extensionsChanged = notifyModelChange(model, changes);
             }
+            extensionModelChanges.recordApplied(changes);
         } finally {
             endRefresh(refreshListeners, extensionsChanged);
         }
@@ -3,13 +3,16 @@ package org.netbeans.gradle.project;
 import java.io.File;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
-import java.util.concurrent.locks.Lock;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.locks.ReentrantLock;
 import org.jtrim.property.PropertyFactory;
 import org.jtrim.property.PropertySource;
@@ -21,12 +24,19 @@ import org.netbeans.gradle.project.util.CloseableAction;
 import org.netbeans.gradle.project.util.NbFileUtils;
 
 public final class RootProjectRegistry {
-    private final Lock mainLock;
+    private final ReentrantLock mainLock;
     private final Map<RootProjectKey, RegisteredProjects> rootProjects;
+    // Maps subproject directories to the root projects containing them.
+    // Several root projects might claim the same directory, so the value is
+    // the list of such root projects in the order of registration. The lists
+    // are never modified, they are replaced instead (while holding mainLock),
+    // so this map can be read without locking.
+    private final ConcurrentMap<File, List<RootProjectKey>> settingsFileIndex;
 
     public RootProjectRegistry() {
         this.mainLock = new ReentrantLock();
         this.rootProjects = new HashMap<>();
+        this.settingsFileIndex = new ConcurrentHashMap<>();
     }
 
     private static boolean isExplicitRootProject(NbGradleModel input) {
@@ -101,7 +111,11 @@ public final class RootProjectRegistry {
 
         mainLock.lock();
         try {
-            rootProjects.put(key, registeredProjects);
+            RegisteredProjects prevProjects = rootProjects.put(key, registeredProjects);
+            if (prevProjects != null) {
+                removeFromIndex(key, prevProjects.subprojects);
+            }
+            addToIndex(key, registeredProjects.subprojects);
         } finally {
             mainLock.unlock();
         }
@@ -114,6 +128,7 @@ public final class RootProjectRegistry {
                     RegisteredProjects value = rootProjects.get(key);
                     if (value != null && value.id == regId) {
                         rootProjects.remove(key);
+                        removeFromIndex(key, value.subprojects);
                     }
                 } finally {
                     mainLock.unlock();
@@ -122,20 +137,50 @@ public final class RootProjectRegistry {
         };
     }
 
-    public Path tryGetSettingsFile(File projectDir) {
-        mainLock.lock();
-        try {
-            for (Map.Entry<RootProjectKey, RegisteredProjects> entry: rootProjects.entrySet()) {
-                if (entry.getValue().subprojects.contains(projectDir)) {
-                    return entry.getKey().settingsFile;
-                }
+    private void addToIndex(RootProjectKey key, Set<File> projectDirs) {
+        assert mainLock.isHeldByCurrentThread();
+
+        for (File projectDir: projectDirs) {
+            List<RootProjectKey> prevKeys = settingsFileIndex.get(projectDir);
+            List<RootProjectKey> newKeys;
+            if (prevKeys == null) {
+                newKeys = Collections.singletonList(key);
+            }
+            else {
+                newKeys = new ArrayList<>(prevKeys.size() + 1);
+                newKeys.addAll(prevKeys);
+                newKeys.add(key);
+                newKeys = Collections.unmodifiableList(newKeys);
+            }
+            settingsFileIndex.put(projectDir, newKeys);
+        }
+    }
+
+    private void removeFromIndex(RootProjectKey key, Set<File> projectDirs) {
+        assert mainLock.isHeldByCurrentThread();
+
+        for (File projectDir: projectDirs) {
+            List<RootProjectKey> prevKeys = settingsFileIndex.get(projectDir);
+            if (prevKeys == null) {
+                continue;
+            }
+
+            List<RootProjectKey> newKeys = new ArrayList<>(prevKeys);
+            newKeys.remove(key);
+            if (newKeys.isEmpty()) {
+                settingsFileIndex.remove(projectDir);
+            }
+            else {
+                settingsFileIndex.put(projectDir, Collections.unmodifiableList(newKeys));
             }
-            return null;
-        } finally {
-            mainLock.unlock();
         }
     }
 
+    public Path tryGetSettingsFile(File projectDir) {
+        List<RootProjectKey> keys = settingsFileIndex.get(projectDir);
+        return keys != null ? keys.get(0).settingsFile : null;
+    }
+
     private static Set<File> collectProjectDirs(NbGradleProjectTree root) {
         Set<File> result = new HashSet<>();
         collectProjectDirs(root, result);
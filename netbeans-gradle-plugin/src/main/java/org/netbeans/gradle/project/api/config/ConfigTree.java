@@ -38,11 +38,20 @@ public final class ConfigTree {
 
     /**
      * Defines a builder to create {@code ConfigTree} instances.
+     * <P>
+     * The last snapshot created by a builder is cached until the builder
+     * (or one of its subtree builders) is modified, and modifying a subtree
+     * builder only requires rebuilding the nodes along the path to that
+     * subtree: The snapshots of unmodified subtrees are shared between the
+     * old and the new snapshot.
      */
     public static final class Builder {
         private String value;
         private Map<String, List<TreeOrBuilder>> childTrees;
         private ConfigTree cachedBuilt;
+        // The builder whose subtree this builder is, or null if this builder
+        // does not affect any other builder.
+        private Builder parent;
 
         /**
          * Creates a new {@code Builder} with the given configuration tree as
@@ -57,6 +66,7 @@ public final class ConfigTree {
             this();
 
             value = initialValue.value;
+            cachedBuilt = initialValue;
 
             if (!initialValue.childTrees.isEmpty()) {
                 Map<String, List<TreeOrBuilder>> children
@@ -84,6 +94,35 @@ public final class ConfigTree {
             this.value = null;
             this.childTrees = null;
             this.cachedBuilt = null;
+            this.parent = null;
+        }
+
+        private Builder(Builder parent) {
+            this();
+            this.parent = parent;
+        }
+
+        private Builder(Builder parent, ConfigTree initialValue) {
+            this(initialValue);
+            this.parent = parent;
+        }
+
+        private void invalidate() {
+            Builder current = this;
+            while (current != null) {
+                current.cachedBuilt = null;
+                current = current.parent;
+            }
+        }
+
+        private static void detachAll(List<TreeOrBuilder> valueList) {
+            if (valueList == null) {
+                return;
+            }
+
+            for (TreeOrBuilder child: valueList) {
+                child.detachBuilder();
+            }
         }
 
         private static <E> List<E> createList() {
@@ -103,9 +142,9 @@ public final class ConfigTree {
             return result;
         }
 
-        private static <K, E> List<E> getEmptyList(Map<K, List<E>> map, K key) {
-            List<E> result = createList();
-            map.put(key, result);
+        private static List<TreeOrBuilder> getEmptyList(Map<String, List<TreeOrBuilder>> map, String key) {
+            List<TreeOrBuilder> result = createList();
+            detachAll(map.put(key, result));
             return result;
         }
 
@@ -131,7 +170,7 @@ public final class ConfigTree {
          *   {@code null}, meaning that this node has no value.
          */
         public void setValue(@Nullable String value) {
-            cachedBuilt = null;
+            invalidate();
             this.value = value;
         }
 
@@ -152,7 +191,7 @@ public final class ConfigTree {
             ExceptionHelper.checkNotNullArgument(key, "key");
             ExceptionHelper.checkNotNullArgument(tree, "tree");
 
-            cachedBuilt = null;
+            invalidate();
 
             List<TreeOrBuilder> valueList = getEmptyList(getChildTrees(), key);
             valueList.add(new TreeOrBuilder(tree));
@@ -254,14 +293,14 @@ public final class ConfigTree {
 
             List<TreeOrBuilder> valueList = getChildTreeList(key);
             if (valueList.isEmpty()) {
-                cachedBuilt = null;
-
-                Builder result = new Builder();
+                // An empty subtree does not change the built tree, so there
+                // is no need to invalidate the cache.
+                Builder result = new Builder(this);
                 valueList.add(new TreeOrBuilder(result));
                 return result;
             }
             else {
-                return valueList.get(0).getBuilder();
+                return valueList.get(0).getBuilder(this);
             }
         }
 
@@ -284,9 +323,7 @@ public final class ConfigTree {
         public Builder addChildBuilder(@Nonnull String key) {
             ExceptionHelper.checkNotNullArgument(key, "key");
 
-            cachedBuilt = null;
-
-            Builder result = new Builder();
+            Builder result = new Builder(this);
             getChildTreeList(key).add(new TreeOrBuilder(result));
             return result;
         }
@@ -306,8 +343,10 @@ public final class ConfigTree {
                 return;
             }
 
-            if (childTrees.remove(key) != null) {
-                cachedBuilt = null;
+            List<TreeOrBuilder> removed = childTrees.remove(key);
+            if (removed != null) {
+                detachAll(removed);
+                invalidate();
             }
         }
 
@@ -333,10 +372,14 @@ public final class ConfigTree {
         }
 
         /**
-         * Creates a new immutable snapshot of the configuration tree built
+         * Creates an immutable snapshot of the configuration tree built
          * by this builder.
+         * <P>
+         * If this builder has not been modified since the last call, this
+         * method returns the same snapshot (in constant time). Otherwise,
+         * only the modified nodes are rebuilt.
          *
-         * @return a new immutable snapshot of the configuration tree built
+         * @return an immutable snapshot of the configuration tree built
          *   by this builder. This method never returns {@code null}.
          */
         @Nonnull
@@ -344,6 +387,7 @@ public final class ConfigTree {
             ConfigTree result = cachedBuilt;
             if (result == null) {
                 result = new ConfigTree(this);
+                cachedBuilt = result;
             }
             return result;
         }
@@ -596,14 +640,21 @@ public final class ConfigTree {
         public void makeTree() {
             if (builder != null) {
                 tree = builder.create();
+                builder.parent = null;
                 builder = null;
             }
         }
 
-        public Builder getBuilder() {
+        public void detachBuilder() {
+            if (builder != null) {
+                builder.parent = null;
+            }
+        }
+
+        public Builder getBuilder(Builder parent) {
             Builder result = builder;
             if (result == null) {
-                result = new Builder(tree);
+                result = new Builder(parent, tree);
                 builder = result;
                 tree = null;
             }
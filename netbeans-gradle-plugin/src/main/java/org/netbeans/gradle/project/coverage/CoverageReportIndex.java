@@ -0,0 +1,406 @@
+package org.netbeans.gradle.project.coverage;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
+import org.jtrim.utils.ExceptionHelper;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Defines the line coverage of the source files of a single coverage report.
+ * The report is parsed with a streaming parser and only the line hit counts
+ * are retained (in a single array per source file), so the index is much
+ * smaller than the DOM of the report.
+ * <P>
+ * Instances of this class are immutable.
+ */
+final class CoverageReportIndex {
+    private static final String LOAD_EXTERNAL_DTD_FEATURE
+            = "http://apache.org/xml/features/nonvalidating/load-external-dtd";
+
+    private final File reportFile;
+    private final long reportLength;
+    private final long reportLastModified;
+    private final List<SourceFileCoverage> sourceFiles;
+    private final Map<String, SourceFileCoverage> sourceFilesByPath;
+
+    private CoverageReportIndex(
+            File reportFile,
+            long reportLength,
+            long reportLastModified,
+            List<SourceFileCoverage> sourceFiles) {
+
+        this.reportFile = reportFile;
+        this.reportLength = reportLength;
+        this.reportLastModified = reportLastModified;
+        this.sourceFiles = Collections.unmodifiableList(sourceFiles);
+
+        this.sourceFilesByPath = new HashMap<>(2 * sourceFiles.size());
+        for (SourceFileCoverage sourceFile: sourceFiles) {
+            this.sourceFilesByPath.put(sourceFile.getPath(), sourceFile);
+        }
+    }
+
+    /**
+     * Parses the given Jacoco (or Cobertura if {@code jacoco} is
+     * {@code false}) XML report.
+     */
+    public static CoverageReportIndex parse(File reportFile, boolean jacoco) throws IOException, SAXException {
+        ExceptionHelper.checkNotNullArgument(reportFile, "reportFile");
+
+        // Read before parsing, so that a concurrent update of the report
+        // cannot make the index look more recent than it is.
+        long length = reportFile.length();
+        long lastModified = reportFile.lastModified();
+
+        SAXParser parser = newSaxParser();
+        ReportHandler handler = jacoco ? new JacocoHandler() : new CoberturaHandler();
+        parser.parse(reportFile, handler);
+
+        return new CoverageReportIndex(reportFile, length, lastModified, handler.sourceFiles);
+    }
+
+    private static SAXParser newSaxParser() throws SAXException {
+        SAXParserFactory parserFactory = SAXParserFactory.newInstance();
+        parserFactory.setValidating(false);
+        try {
+            // The DTD is not needed for anything, so don't even read it.
+            parserFactory.setFeature(LOAD_EXTERNAL_DTD_FEATURE, false);
+        } catch (ParserConfigurationException | SAXException ex) {
+            // The DTD will be read using resolveEntity.
+        }
+
+        try {
+            return parserFactory.newSAXParser();
+        } catch (ParserConfigurationException ex) {
+            throw new SAXException(ex);
+        }
+    }
+
+    /**
+     * Returns {@code true} if the given report file has the same length and
+     * modification time as the report this index was parsed from.
+     */
+    public boolean isUpToDate(File currentReportFile) {
+        return reportFile.equals(currentReportFile)
+                && reportLength == currentReportFile.length()
+                && reportLastModified == currentReportFile.lastModified();
+    }
+
+    public long getReportLastModified() {
+        return reportLastModified;
+    }
+
+    public List<SourceFileCoverage> getSourceFiles() {
+        return sourceFiles;
+    }
+
+    public SourceFileCoverage tryGetSourceFile(String path) {
+        return sourceFilesByPath.get(path);
+    }
+
+    public static final class SourceFileCoverage {
+        private static final int NO_DATA = -1;
+
+        private final String path;
+        private final String displayName;
+        // Indexed by the zero based line number, NO_DATA if there is
+        // no information about the line.
+        private final int[] hitCounts;
+        private final int recordedLineCount;
+        private final int executedLineCount;
+
+        private SourceFileCoverage(String path, String displayName, LineCollector lines) {
+            this.path = path;
+            this.displayName = displayName;
+            this.hitCounts = lines.toHitCounts();
+
+            int recorded = 0;
+            int executed = 0;
+            for (int hitCount: hitCounts) {
+                if (hitCount != NO_DATA) {
+                    recorded++;
+                    if (hitCount != 0) {
+                        executed++;
+                    }
+                }
+            }
+            this.recordedLineCount = recorded;
+            this.executedLineCount = executed;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+
+        /**
+         * Returns the number of lines recorded in the report. This is not
+         * the number of lines of the source file.
+         */
+        public int getRecordedLineCount() {
+            return recordedLineCount;
+        }
+
+        public int getExecutedLineCount() {
+            return executedLineCount;
+        }
+
+        public boolean hasData(int lineNo) {
+            return lineNo >= 0 && lineNo < hitCounts.length && hitCounts[lineNo] != NO_DATA;
+        }
+
+        public int getHitCount(int lineNo) {
+            return hasData(lineNo) ? hitCounts[lineNo] : 0;
+        }
+    }
+
+    private static final class LineCollector {
+        private int[] lineNumbers;
+        private int[] hits;
+        private int size;
+        private int maxLineNo;
+
+        public LineCollector() {
+            this.lineNumbers = new int[16];
+            this.hits = new int[16];
+            this.size = 0;
+            this.maxLineNo = -1;
+        }
+
+        public void addLine(String lineNumberStr, String hitCountStr) {
+            int lineNo;
+            int hitCount;
+            try {
+                lineNo = Integer.parseInt(lineNumberStr) - 1;
+                hitCount = Integer.parseInt(hitCountStr);
+            } catch (NumberFormatException ex) {
+                return;
+            }
+
+            if (lineNo < 0 || hitCount < 0) {
+                return;
+            }
+
+            if (size >= lineNumbers.length) {
+                int newLength = 2 * lineNumbers.length;
+                lineNumbers = Arrays.copyOf(lineNumbers, newLength);
+                hits = Arrays.copyOf(hits, newLength);
+            }
+
+            lineNumbers[size] = lineNo;
+            hits[size] = hitCount;
+            size++;
+
+            maxLineNo = Math.max(maxLineNo, lineNo);
+        }
+
+        public int[] toHitCounts() {
+            int[] result = new int[maxLineNo + 1];
+            Arrays.fill(result, SourceFileCoverage.NO_DATA);
+            for (int i = 0; i < size; i++) {
+                // A line may be recorded by multiple classes of the same
+                // source file (e.g., by a lambda and its enclosing class).
+                int lineNo = lineNumbers[i];
+                result[lineNo] = Math.max(result[lineNo], hits[i]);
+            }
+            return result;
+        }
+    }
+
+    private static abstract class ReportHandler extends DefaultHandler {
+        protected final List<SourceFileCoverage> sourceFiles = new ArrayList<>();
+
+        @Override
+        public InputSource resolveEntity(String publicId, String systemId) throws IOException, SAXException {
+            InputStream dtd = null;
+            if ("http://cobertura.sourceforge.net/xml/coverage-04.dtd".equals(systemId)) {
+                dtd = CoverageReportIndex.class.getResourceAsStream("coverage-04.dtd"); // NOI18N
+            }
+            else if ("-//JACOCO//DTD Report 1.0//EN".equals(publicId)) {
+                dtd = CoverageReportIndex.class.getResourceAsStream("jacoco-1.0.dtd"); // NOI18N
+            }
+
+            return dtd != null ? new InputSource(dtd) : null;
+        }
+    }
+
+    private static final class JacocoHandler extends ReportHandler {
+        private String packageName;
+        private String sourceFileName;
+        private LineCollector lines;
+
+        public JacocoHandler() {
+            this.packageName = null;
+            this.sourceFileName = null;
+            this.lines = null;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) throws SAXException {
+            switch (qName) {
+                case "package":
+                    packageName = attributes.getValue("name");
+                    break;
+                case "sourcefile":
+                    if (packageName != null) {
+                        sourceFileName = attributes.getValue("name");
+                        lines = new LineCollector();
+                    }
+                    break;
+                case "line":
+                    if (lines != null) {
+                        lines.addLine(attributes.getValue("nr"), attributes.getValue("ci"));
+                    }
+                    break;
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) throws SAXException {
+            switch (qName) {
+                case "package":
+                    packageName = null;
+                    break;
+                case "sourcefile":
+                    if (lines != null && sourceFileName != null) {
+                        String path = packageName + '/' + sourceFileName;
+                        String name = path.replaceFirst("[.]java$", "").replace('/', '.');
+                        sourceFiles.add(new SourceFileCoverage(path, name, lines));
+                    }
+                    sourceFileName = null;
+                    lines = null;
+                    break;
+            }
+        }
+    }
+
+    private static final class CoberturaHandler extends ReportHandler {
+        // The classes of the same source file (nested classes, for example)
+        // are merged into a single entry.
+        private final Map<String, SourceFileBuilder> sourceFileBuilders;
+
+        private int level;
+        private int classLevel;
+        private boolean inClassLines;
+        private SourceFileBuilder currentSourceFile;
+
+        public CoberturaHandler() {
+            this.sourceFileBuilders = new LinkedHashMap<>();
+            this.level = 0;
+            this.classLevel = -1;
+            this.inClassLines = false;
+            this.currentSourceFile = null;
+        }
+
+        private void startClass(Attributes attributes) {
+            String fileName = attributes.getValue("filename");
+            if (fileName == null) {
+                return;
+            }
+
+            SourceFileBuilder sourceFile = sourceFileBuilders.get(fileName);
+            if (sourceFile == null) {
+                sourceFile = new SourceFileBuilder(fileName);
+                sourceFileBuilders.put(fileName, sourceFile);
+            }
+            sourceFile.addClassName(attributes.getValue("name"));
+            currentSourceFile = sourceFile;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) throws SAXException {
+            switch (qName) {
+                case "class":
+                    if (classLevel < 0) {
+                        classLevel = level;
+                        startClass(attributes);
+                    }
+                    break;
+                case "lines":
+                    // Only the lines directly under the class are considered,
+                    // the lines of the methods are duplicates of them.
+                    if (classLevel >= 0 && level == classLevel + 1) {
+                        inClassLines = true;
+                    }
+                    break;
+                case "line":
+                    if (inClassLines && level == classLevel + 2 && currentSourceFile != null) {
+                        currentSourceFile.lines.addLine(attributes.getValue("number"), attributes.getValue("hits"));
+                    }
+                    break;
+            }
+
+            level++;
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) throws SAXException {
+            level--;
+
+            if (classLevel >= 0 && level == classLevel + 1 && "lines".equals(qName)) {
+                inClassLines = false;
+            }
+
+            if (level == classLevel && "class".equals(qName)) {
+                classLevel = -1;
+                currentSourceFile = null;
+            }
+        }
+
+        @Override
+        public void endDocument() throws SAXException {
+            for (SourceFileBuilder sourceFile: sourceFileBuilders.values()) {
+                sourceFiles.add(sourceFile.create());
+            }
+            sourceFileBuilders.clear();
+        }
+    }
+
+    private static final class SourceFileBuilder {
+        private final String fileName;
+        private final LineCollector lines;
+        private String displayName;
+        private boolean topLevelName;
+
+        public SourceFileBuilder(String fileName) {
+            this.fileName = fileName;
+            this.lines = new LineCollector();
+            this.displayName = null;
+            this.topLevelName = false;
+        }
+
+        public void addClassName(String className) {
+            if (className == null || topLevelName) {
+                return;
+            }
+
+            // Prefer the name of the top level class of the source file.
+            boolean nested = className.indexOf('$') >= 0;
+            if (displayName == null || !nested) {
+                displayName = className.replace('$', '.');
+                topLevelName = !nested;
+            }
+        }
+
+        public SourceFileCoverage create() {
+            return new SourceFileCoverage(fileName, displayName != null ? displayName : fileName, lines);
+        }
+    }
+}
@@ -4,9 +4,7 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -30,12 +28,6 @@ import org.openide.filesystems.FileChangeListener;
 import org.openide.filesystems.FileEvent;
 import org.openide.filesystems.FileObject;
 import org.openide.filesystems.FileUtil;
-import org.openide.util.Pair;
-import org.openide.xml.XMLUtil;
-import org.w3c.dom.Element;
-import org.w3c.dom.NodeList;
-import org.xml.sax.EntityResolver;
-import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 
 /**
@@ -48,14 +40,14 @@ public class GradleCoverageProvider implements CoverageProvider {
 
     private final JavaExtension javaExt;
     private final Project p;
-    private Map<String, GradleSummary> summaryCache;
+    private CoverageReportIndex reportIndex;
     private FileChangeListener listener;
 
     public GradleCoverageProvider(JavaExtension javaExt) {
         ExceptionHelper.checkNotNullArgument(javaExt, "javaExt");
         this.javaExt = javaExt;
         this.p = javaExt.getProject();
-        this.summaryCache = null;
+        this.reportIndex = null;
         this.listener = null;
     }
 
@@ -115,7 +107,7 @@ public class GradleCoverageProvider implements CoverageProvider {
     public @Override synchronized void clear() {
         File r = report();
         if (r != null && r.isFile() && r.delete()) {
-            summaryCache = null;
+            reportIndex = null;
             CoverageManager.INSTANCE.resultsUpdated(p, GradleCoverageProvider.this);
         }
     }
@@ -126,19 +118,29 @@ public class GradleCoverageProvider implements CoverageProvider {
         if (path == null) {
             return null;
         }
-        GradleDetails det = null;
+
+        CoverageReportIndex index;
         synchronized (this) {
-            GradleSummary summ = summaryCache != null ? summaryCache.get(path) : null;
-            if (summ != null) {
-                det = summ.getDetails();
-                //we have to set the linecount here, as the entire line span is not apparent from the parsed xml, giving strange results then.
-                det.lineCount = doc.getDefaultRootElement().getElementCount();
-            }
+            index = reportIndex;
+        }
+        File r = report();
+        if (index == null || r == null || !index.isUpToDate(r)) {
+            // The report will be parsed again by getResults.
+            return null;
+        }
+
+        CoverageReportIndex.SourceFileCoverage sourceFile = index.tryGetSourceFile(path);
+        if (sourceFile == null) {
+            return null;
         }
+
+        GradleDetails det = summaryOf(fo, sourceFile, index.getReportLastModified()).getDetails();
+        //we have to set the linecount here, as the entire line span is not apparent from the parsed xml, giving strange results then.
+        det.lineCount = doc.getDefaultRootElement().getElementCount();
         return det;
     }
 
-    private @CheckForNull Pair<File, org.w3c.dom.Document> parse() {
+    private @CheckForNull CoverageReportIndex parse() {
         File r = report();
         if (r == null) {
             LOG.fine("undefined report location");
@@ -157,9 +159,8 @@ public class GradleCoverageProvider implements CoverageProvider {
                     fire();
                 }
                 private void fire() {
-                    synchronized (GradleCoverageProvider.this) {
-                        summaryCache = null;
-                    }
+                    // The index is kept: It is checked against the report
+                    // before it is used.
                     CoverageManager.INSTANCE.resultsUpdated(p, GradleCoverageProvider.this);
                 }
             };
@@ -174,30 +175,27 @@ public class GradleCoverageProvider implements CoverageProvider {
             LOG.log(Level.FINE, "empty {0}", r);
             return null;
         }
+
+        synchronized (this) {
+            if (reportIndex != null && reportIndex.isUpToDate(r)) {
+                LOG.log(Level.FINE, "{0} is unchanged since it was parsed", r);
+                return reportIndex;
+            }
+        }
+
         try {
-            org.w3c.dom.Document report = XMLUtil.parse(new InputSource(r.toURI().toString()), true, false, XMLUtil.defaultErrorHandler(), new EntityResolver() {
-                public @Override
-                InputSource resolveEntity(String publicId, String systemId) throws SAXException, IOException {
-                    if (systemId.equals("http://cobertura.sourceforge.net/xml/coverage-04.dtd")) {
-                        return new InputSource(GradleCoverageProvider.class.getResourceAsStream("coverage-04.dtd")); // NOI18N
-                    }
-                    else if (publicId.equals("-//JACOCO//DTD Report 1.0//EN")) {
-                        return new InputSource(GradleCoverageProvider.class.getResourceAsStream("jacoco-1.0.dtd"));
-                    }
-                    else {
-                        return null;
-                    }
-                }
-            });
+            CoverageReportIndex result = CoverageReportIndex.parse(r, hasPlugin());
             LOG.log(Level.FINE, "parsed {0}", r);
-            return Pair.of(r, report);
+            synchronized (this) {
+                reportIndex = result;
+            }
+            return result;
         } catch (IOException | SAXException ex) {
             LOG.log(Level.INFO, "Could not parse " + r, ex);
             return null;
         }
     }
 
-
     private ClassPath srcPath() {
         GradleClassPathProvider gcp = p.getLookup().lookup(GradleClassPathProvider.class);
         assert gcp != null;
@@ -208,67 +206,28 @@ public class GradleCoverageProvider implements CoverageProvider {
 
     @Override
     public List<FileCoverageSummary> getResults() {
-        Pair<File, org.w3c.dom.Document> r = parse();
-        if (r == null) {
+        CoverageReportIndex index = parse();
+        if (index == null) {
             return null;
         }
         ClassPath src = srcPath();
         List<FileCoverageSummary> summs = new ArrayList<>();
-        Map<String, GradleSummary> summaries = new HashMap<>();
-        boolean jacoco = hasPlugin();
-        NodeList nl = r.second().getElementsByTagName(jacoco ? "sourcefile" : "class"); // NOI18N
-        for (int i = 0; i < nl.getLength(); i++) {
-            Element clazz = (Element)nl.item(i);
-            String filename;
-            List<Element> lines;
-            String name;
-            if (jacoco) {
-                filename = ((Element)clazz.getParentNode()).getAttribute("name") + '/' + clazz.getAttribute("name");
-                lines = new ArrayList<>();
-                for (Element line: XMLUtil.findSubElements(clazz)) {
-                    if (line.getTagName().equals("line")) {
-                        lines.add(line);
-                    }
-                }
-                name = filename.replaceFirst("[.]java$", "").replace('/', '.');
-            }
-            else {
-                filename = clazz.getAttribute("filename");
-                Element linesE = XMLUtil.findElement(clazz, "lines", null); // NOI18N
-                lines = linesE != null ? XMLUtil.findSubElements(linesE) : Collections.<Element>emptyList();
-                // XXX nicer to collect together nested classes in same compilation unit
-                name = clazz.getAttribute("name").replace('$', '.');
-            }
+        long lastUpdated = index.getReportLastModified();
+        for (CoverageReportIndex.SourceFileCoverage sourceFile: index.getSourceFiles()) {
+            String filename = sourceFile.getPath();
             FileObject java = src.findResource(filename); // NOI18N
             if (java == null) {
                 continue;
             }
-            final GradleSummary summar = summaryOf(java, name, lines, jacoco, r.first().lastModified());
-            summaries.put(filename, summar);
-            summs.add(summar);
-        }
-        synchronized (this) {
-            summaryCache = summaries;
+            summs.add(summaryOf(java, sourceFile, lastUpdated));
         }
         return summs;
     }
 
-    private GradleSummary summaryOf(FileObject java, String name, List<Element> lines, boolean jacoco, long lastUpdated) {
+    private GradleSummary summaryOf(FileObject java, CoverageReportIndex.SourceFileCoverage sourceFile, long lastUpdated) {
         // Not really the total number of lines in the file at all, but close enough - the ones Cobertura recorded.
-        int lineCount = 0;
-        int executedLineCount = 0;
-        Map<Integer, Integer> detLines = new HashMap<>();
-        for (Element line : lines) {
-            lineCount++;
-            String attr = line.getAttribute(jacoco ? "ci" : "hits");
-            String num = line.getAttribute(jacoco ? "nr" : "number");
-            detLines.put(Integer.valueOf(num) - 1,Integer.valueOf(attr));
-            if (!attr.equals("0")) {
-                executedLineCount++;
-            }
-        }
-        GradleDetails det = new GradleDetails(java, lastUpdated, lineCount, detLines);
-        GradleSummary s = new GradleSummary(java, name, det, executedLineCount);
+        GradleDetails det = new GradleDetails(java, lastUpdated, sourceFile.getRecordedLineCount(), sourceFile);
+        GradleSummary s = new GradleSummary(java, sourceFile.getDisplayName(), det, sourceFile.getExecutedLineCount());
         return s;
     }
 
@@ -296,10 +255,14 @@ public class GradleCoverageProvider implements CoverageProvider {
         private final FileObject fileObject;
         private final long lastUpdated;
         private FileCoverageSummary summary;
-        private final Map<Integer, Integer> lineHitCounts;
+        private final CoverageReportIndex.SourceFileCoverage lineHitCounts;
         int lineCount;
 
-        public GradleDetails(FileObject fileObject, long lastUpdated, int lineCount, Map<Integer, Integer> lineHitCounts) {
+        public GradleDetails(
+                FileObject fileObject,
+                long lastUpdated,
+                int lineCount,
+                CoverageReportIndex.SourceFileCoverage lineHitCounts) {
             this.fileObject = fileObject;
             this.lastUpdated = lastUpdated;
             this.lineHitCounts = lineHitCounts;
@@ -337,17 +300,15 @@ public class GradleCoverageProvider implements CoverageProvider {
 
         @Override
         public CoverageType getType(int lineNo) {
-            Integer count = lineHitCounts.get(lineNo);
-            return count == null ? CoverageType.INFERRED : count == 0 ? CoverageType.NOT_COVERED : CoverageType.COVERED;
+            if (!lineHitCounts.hasData(lineNo)) {
+                return CoverageType.INFERRED;
+            }
+            return lineHitCounts.getHitCount(lineNo) == 0 ? CoverageType.NOT_COVERED : CoverageType.COVERED;
         }
 
         @Override
         public int getHitCount(int lineNo) {
-            Integer ret = lineHitCounts.get(lineNo);
-            if (ret == null) {
-                return 0;
-            }
-            return ret;
+            return lineHitCounts.getHitCount(lineNo);
         }
 
     }
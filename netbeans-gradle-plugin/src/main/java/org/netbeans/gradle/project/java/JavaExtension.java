@@ -11,7 +11,10 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.jtrim.event.ListenerRef;
@@ -37,6 +40,7 @@ import org.netbeans.gradle.project.api.entry.GradleProjectExtension2;
 import org.netbeans.gradle.project.coverage.GradleCoverageProvider;
 import org.netbeans.gradle.project.event.ChangeListenerManager;
 import org.netbeans.gradle.project.event.GenericChangeListenerManager;
+import org.netbeans.gradle.project.java.model.JavaProjectReference;
 import org.netbeans.gradle.project.java.model.JavaSourceDirHandler;
 import org.netbeans.gradle.project.java.model.NbJavaModel;
 import org.netbeans.gradle.project.java.model.NbJavaModule;
@@ -55,6 +59,7 @@ import org.netbeans.gradle.project.java.query.GradleSourceLevelQueryImplementati
 import org.netbeans.gradle.project.java.query.GradleUnitTestFinder;
 import org.netbeans.gradle.project.java.query.J2SEPlatformFromScriptQueryImpl;
 import org.netbeans.gradle.project.java.query.JavaInitScriptQuery;
+import org.netbeans.gradle.project.java.query.OpenedProjectsOutputIndex;
 import org.netbeans.gradle.project.java.tasks.GradleJavaBuiltInCommands;
 import org.netbeans.gradle.project.java.tasks.JavaGradleTaskVariableQuery;
 import org.netbeans.gradle.project.model.issue.DependencyResolutionIssue;
@@ -78,6 +83,9 @@ public final class JavaExtension implements GradleProjectExtension2<NbJavaModel>
     private volatile NbJavaModel currentModel;
     private volatile boolean hasEverBeenLoaded;
 
+    private final Lock openedLock;
+    private boolean opened;
+
     private final GradleClassPathProvider cpProvider;
     private final AtomicReference<JavaSourceDirHandler> sourceDirsHandlerRef;
     private final ProjectIssueRef dependencyResolutionFailureRef;
@@ -112,6 +120,8 @@ public final class JavaExtension implements GradleProjectExtension2<NbJavaModel>
         this.modelChangeListeners = new GenericChangeListenerManager();
         this.projectPropertiesRef = new AtomicReference<>(null);
         this.extensionSettingsRef = new AtomicReference<>(null);
+        this.openedLock = new ReentrantLock();
+        this.opened = false;
     }
 
     public ProjectSettingsProvider.ExtensionSettings getExtensionSettings() {
@@ -433,6 +443,48 @@ public final class JavaExtension implements GradleProjectExtension2<NbJavaModel>
         }
     }
 
+    private static List<Path> getReferencedProjectDirs(NbJavaModel model) {
+        Set<JavaProjectReference> dependencies = model.getAllDependencies();
+        List<Path> result = new ArrayList<>(dependencies.size());
+        for (JavaProjectReference dependency: dependencies) {
+            result.add(dependency.getProjectDir().toPath());
+        }
+        return result;
+    }
+
+    private void updateOutputIndex(NbJavaModel model, boolean modelChanged) {
+        OpenedProjectsOutputIndex outputIndex = OpenedProjectsOutputIndex.getDefault();
+        Path projectDir = getProjectDirectoryAsFile().toPath();
+
+        openedLock.lock();
+        try {
+            if (modelChanged) {
+                outputIndex.updateProjectOutputs(projectDir, model.getMainModule().getJarOutputs());
+            }
+            if (opened) {
+                outputIndex.updateOpenedProject(projectDir, getReferencedProjectDirs(model));
+            }
+        } finally {
+            openedLock.unlock();
+        }
+    }
+
+    private void setOpened(boolean newOpened) {
+        openedLock.lock();
+        try {
+            opened = newOpened;
+            if (newOpened) {
+                // The outputs of this project were forgotten when it was closed.
+                updateOutputIndex(currentModel, true);
+            }
+            else {
+                OpenedProjectsOutputIndex.getDefault().removeOpenedProject(getProjectDirectoryAsFile().toPath());
+            }
+        } finally {
+            openedLock.unlock();
+        }
+    }
+
     @Override
     public void activateExtension(NbJavaModel parsedModel) {
         ExceptionHelper.checkNotNullArgument(parsedModel, "parsedModel");
@@ -444,6 +496,7 @@ public final class JavaExtension implements GradleProjectExtension2<NbJavaModel>
 
         checkDependencyResolveProblems(mainModule);
         markOwnedDirs(mainModule);
+        updateOutputIndex(parsedModel, true);
 
         fireModelChange();
     }
@@ -508,9 +561,11 @@ public final class JavaExtension implements GradleProjectExtension2<NbJavaModel>
     // OpenHook is important for debugging because the debugger relies on the
     // globally registered source class paths for source stepping.
     private static class OpenHook extends ProjectOpenedHook {
+        private final JavaExtension javaExt;
         private final CloseableActionContainer closeableActions;
 
         public OpenHook(JavaExtension javaExt) {
+            this.javaExt = javaExt;
             this.closeableActions = new CloseableActionContainer();
 
             closeableActions.defineAction(classPathProviderProperty(javaExt,
@@ -523,11 +578,13 @@ public final class JavaExtension implements GradleProjectExtension2<NbJavaModel>
         @Override
         protected void projectOpened() {
             closeableActions.open();
+            javaExt.setOpened(true);
         }
 
         @Override
         protected void projectClosed() {
             closeableActions.close();
+            javaExt.setOpened(false);
         }
     }
 
@@ -29,6 +29,7 @@ import org.netbeans.gradle.project.NbGradleProjectFactory;
 import org.netbeans.gradle.project.NbStrings;
 import org.netbeans.gradle.project.api.entry.ModelLoadResult;
 import org.netbeans.gradle.project.others.OtherPlugins;
+import org.netbeans.gradle.project.util.ModelInterner;
 import org.openide.util.Lookup;
 
 public final class JavaParsingUtils {
@@ -143,7 +144,8 @@ public final class JavaParsingUtils {
 
     private static JavaSourceSet adjustedSources(
             JavaSourceSet sourceSet,
-            Map<File, ? extends Collection<File>> dependencyMap) {
+            Map<File, ? extends Collection<File>> dependencyMap,
+            ModelInterner interner) {
 
         JavaClassPaths origClassPaths = sourceSet.getClasspaths();
         Collection<File> compile = adjustedClassPaths(origClassPaths.getCompileClasspaths(), dependencyMap);
@@ -152,7 +154,7 @@ public final class JavaParsingUtils {
         runtime.remove(sourceSet.getOutputDirs().getClassesDir());
         runtime.remove(sourceSet.getOutputDirs().getResourcesDir());
 
-        JavaClassPaths classPaths = new JavaClassPaths(compile, runtime);
+        JavaClassPaths classPaths = interner.internClassPaths(new JavaClassPaths(compile, runtime));
 
         JavaSourceSet.Builder result = new JavaSourceSet.Builder(sourceSet.getName(), sourceSet.getOutputDirs());
         result.setClasspaths(classPaths);
@@ -168,11 +170,12 @@ public final class JavaParsingUtils {
 
     private static Collection<JavaSourceSet> adjustedSources(
             JavaSourcesModel sourcesModel,
-            Map<File, ? extends Collection<File>> dependencyMap) {
+            Map<File, ? extends Collection<File>> dependencyMap,
+            ModelInterner interner) {
 
         List<JavaSourceSet> result = new LinkedList<>();
         for (JavaSourceSet sourceSet: sourcesModel.getSourceSets()) {
-            result.add(adjustedSources(sourceSet, dependencyMap));
+            result.add(adjustedSources(sourceSet, dependencyMap, interner));
         }
         return result;
     }
@@ -197,6 +200,9 @@ public final class JavaParsingUtils {
 
     public static Collection<NbJavaModule> parseModules(ModelLoadResult retrievedModels) {
         Map<File, Set<File>> jarsToBuildDirs = getJarsToBuildDirs(retrievedModels);
+        // The same dependencies are usually repeated in many projects of a
+        // build, so let them share the same instances.
+        ModelInterner interner = new ModelInterner();
 
         Map<File, Lookup> allProjects = retrievedModels.getEvaluatedProjectsModel();
 
@@ -223,7 +229,7 @@ public final class JavaParsingUtils {
                 continue;
             }
 
-            Collection<JavaSourceSet> sourceSets = adjustedSources(sourcesModel, jarsToBuildDirs);
+            Collection<JavaSourceSet> sourceSets = adjustedSources(sourcesModel, jarsToBuildDirs, interner);
             List<NbListedDir> listedDirs = getListedDirs(retrievedModels, projectInfo);
 
             JavaTestModel testModel = projectInfo.lookup(JavaTestModel.class);
@@ -239,7 +245,7 @@ public final class JavaParsingUtils {
                     versions,
                     sourceSets,
                     listedDirs,
-                    getJarOutputs(projectInfo, jarsToBuildDirs),
+                    getJarOutputs(projectInfo, jarsToBuildDirs, interner),
                     testModel,
                     getCodeCoverage(projectInfo));
             result.add(module);
@@ -248,7 +254,11 @@ public final class JavaParsingUtils {
         return result;
     }
 
-    private static List<NbJarOutput> getJarOutputs(Lookup projectInfo, Map<File, Set<File>> jarsToBuildDirs) {
+    private static List<NbJarOutput> getJarOutputs(
+            Lookup projectInfo,
+            Map<File, Set<File>> jarsToBuildDirs,
+            ModelInterner interner) {
+
         JarOutputsModel model = projectInfo.lookup(JarOutputsModel.class);
         Collection<JarOutput> jars = model.getJars();
         List<NbJarOutput> result = new ArrayList<>(jars.size());
@@ -259,7 +269,7 @@ public final class JavaParsingUtils {
                 buildDirs = Collections.emptySet();
             }
 
-            result.add(new NbJarOutput(output.getTaskName(), output.getJar(), buildDirs));
+            result.add(new NbJarOutput(output.getTaskName(), interner.internFile(output.getJar()), buildDirs));
         }
 
         return result;
@@ -5,6 +5,7 @@ import java.io.InvalidObjectException;
 import java.io.ObjectInputStream;
 import java.io.ObjectStreamException;
 import java.io.Serializable;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -17,6 +18,7 @@ import org.netbeans.gradle.model.java.JavaClassPaths;
 import org.netbeans.gradle.model.java.JavaSourceSet;
 import org.netbeans.gradle.project.api.modelquery.GradleTarget;
 import org.netbeans.gradle.project.util.GradleVersions;
+import org.netbeans.gradle.project.util.SerializationUtils2;
 
 public final class NbJavaModel implements Serializable {
     private static final long serialVersionUID = 1L;
@@ -26,6 +28,7 @@ public final class NbJavaModel implements Serializable {
     private final NbJavaModule mainModule;
     private final Map<File, JavaProjectDependency> projectDependencies;
     private final AtomicReference<Set<JavaProjectReference>> allDependenciesRef;
+    private final AtomicReference<byte[]> contentHashRef;
 
     private NbJavaModel(
             GradleTarget evaluationEnvironment,
@@ -38,6 +41,7 @@ public final class NbJavaModel implements Serializable {
         this.mainModule = mainModule;
         this.projectDependencies = projectDependencies;
         this.allDependenciesRef = new AtomicReference<>(null);
+        this.contentHashRef = new AtomicReference<>(null);
     }
 
     private static void addAll(
@@ -109,6 +113,35 @@ public final class NbJavaModel implements Serializable {
         return result;
     }
 
+    private byte[] getContentHash() {
+        byte[] result = contentHashRef.get();
+        if (result == null) {
+            contentHashRef.set(SerializationUtils2.getContentHash(this));
+            result = contentHashRef.get();
+        }
+        return result;
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(getContentHash());
+    }
+
+    /**
+     * Returns {@code true} if the given object is a model having the same
+     * content. Models reloaded from Gradle are new instances, so the content
+     * is compared through the hash of the serialized form of the models.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) return true;
+        if (obj == null) return false;
+        if (getClass() != obj.getClass()) return false;
+
+        final NbJavaModel other = (NbJavaModel)obj;
+        return Arrays.equals(getContentHash(), other.getContentHash());
+    }
+
     private Object writeReplace() {
         return new SerializedFormat(this);
     }
@@ -5,8 +5,10 @@ import java.io.InvalidObjectException;
 import java.io.ObjectInputStream;
 import java.io.ObjectStreamException;
 import java.io.Serializable;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
@@ -22,6 +24,7 @@ import org.netbeans.gradle.model.java.JavaTestModel;
 import org.netbeans.gradle.model.java.JavaTestTask;
 import org.netbeans.gradle.model.util.CollectionUtils;
 import org.netbeans.gradle.project.java.test.TestTaskName;
+import org.netbeans.gradle.project.util.SerializationUtils2;
 
 public final class NbJavaModule implements Serializable {
     private static final long serialVersionUID = 1L;
@@ -42,6 +45,8 @@ public final class NbJavaModule implements Serializable {
     private final AtomicReference<Map<String, JavaSourceSet>> nameToSourceSetRef;
     private final AtomicReference<Map<String, JavaTestTask>> testNameToModelRef;
     private final AtomicReference<Set<File>> allBuildOutputRefs;
+    private final AtomicReference<Map<String, Set<String>>> sourceSetDependencyGraphRef;
+    private final AtomicReference<byte[]> contentHashRef;
 
     public NbJavaModule(
             GenericProjectProperties properties,
@@ -76,6 +81,8 @@ public final class NbJavaModule implements Serializable {
         this.nameToSourceSetRef = new AtomicReference<>(null);
         this.testNameToModelRef = new AtomicReference<>(null);
         this.allBuildOutputRefs = new AtomicReference<>(null);
+        this.sourceSetDependencyGraphRef = new AtomicReference<>(null);
+        this.contentHashRef = new AtomicReference<>(null);
     }
 
     public GenericProjectProperties getProperties() {
@@ -296,6 +303,65 @@ public final class NbJavaModule implements Serializable {
         return result;
     }
 
+    private Map<String, Set<String>> createSourceSetDependencyGraph() {
+        Map<File, String> buildOutput = CollectionUtils.newHashMap(sources.size());
+        for (JavaSourceSet sourceSet: sources) {
+            buildOutput.put(sourceSet.getOutputDirs().getClassesDir(), sourceSet.getName());
+        }
+
+        Map<String, Set<String>> result = CollectionUtils.newHashMap(sources.size());
+        for (JavaSourceSet sourceSet: sources) {
+            String sourceSetName = sourceSet.getName();
+
+            Set<File> compileClasspaths = sourceSet.getClasspaths().getCompileClasspaths();
+            Set<File> runtimeClasspaths = sourceSet.getClasspaths().getRuntimeClasspaths();
+
+            Set<String> dependencies = new HashSet<>();
+            for (Map.Entry<File, String> entry: buildOutput.entrySet()) {
+                File classesOutputDir = entry.getKey();
+                if (runtimeClasspaths.contains(classesOutputDir) || compileClasspaths.contains(classesOutputDir)) {
+                    String dependencyName = entry.getValue();
+                    if (!sourceSetName.equals(dependencyName)) {
+                        dependencies.add(dependencyName);
+                    }
+                }
+            }
+
+            result.put(sourceSetName, Collections.unmodifiableSet(dependencies));
+        }
+
+        // TODO: Remove redundant edges
+
+        return Collections.unmodifiableMap(result);
+    }
+
+    private Map<String, Set<String>> getSourceSetDependencyGraph() {
+        Map<String, Set<String>> result = sourceSetDependencyGraphRef.get();
+        if (result == null) {
+            sourceSetDependencyGraphRef.set(createSourceSetDependencyGraph());
+            result = sourceSetDependencyGraphRef.get();
+        }
+        return result;
+    }
+
+    /**
+     * Returns the names of the other source sets of this module whose classes
+     * directory is on the compile or the runtime class path of the given
+     * source set.
+     *
+     * @param sourceSetName the name of the source set whose inherited source
+     *   sets are to be returned. This argument cannot be {@code null}.
+     * @return the names of the source sets the given source set inherits.
+     *   This method never returns {@code null} but returns an empty set if
+     *   there is no such source set.
+     */
+    public Set<String> getInheritedSourceSetNames(String sourceSetName) {
+        ExceptionHelper.checkNotNullArgument(sourceSetName, "sourceSetName");
+
+        Set<String> result = getSourceSetDependencyGraph().get(sourceSetName);
+        return result != null ? result : Collections.<String>emptySet();
+    }
+
     private static String getExpectedTestName(String sourceSetName) {
         String result;
         if (JavaSourceSet.NAME_MAIN.equals(sourceSetName)) {
@@ -335,6 +401,35 @@ public final class NbJavaModule implements Serializable {
         return bestName != null ? bestName : TestTaskName.DEFAULT_TEST_TASK_NAME;
     }
 
+    private byte[] getContentHash() {
+        byte[] result = contentHashRef.get();
+        if (result == null) {
+            contentHashRef.set(SerializationUtils2.getContentHash(this));
+            result = contentHashRef.get();
+        }
+        return result;
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(getContentHash());
+    }
+
+    /**
+     * Returns {@code true} if the given object is a module having the same
+     * content. Models reloaded from Gradle are new instances, so the content
+     * is compared through the hash of the serialized form of the models.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) return true;
+        if (obj == null) return false;
+        if (getClass() != obj.getClass()) return false;
+
+        final NbJavaModule other = (NbJavaModule)obj;
+        return Arrays.equals(getContentHash(), other.getContentHash());
+    }
+
     private Object writeReplace() {
         return new SerializedFormat(this);
     }
@@ -3,11 +3,11 @@ package org.netbeans.gradle.project.java.nodes;
 import java.awt.Image;
 import java.awt.event.ActionEvent;
 import java.io.File;
+import java.text.CollationKey;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -98,7 +98,7 @@ public final class JavaDependenciesNode extends AbstractNode {
         };
     }
 
-    private static class DependenciesChildFactory
+    static class DependenciesChildFactory
     extends
             ChildFactory.Detachable<SingleNodeFactory> {
 
@@ -185,30 +185,17 @@ public final class JavaDependenciesNode extends AbstractNode {
             listenerRefs.unregisterAll();
         }
 
-        private void addDependencyGroup(
+        private static void addDependencyGroup(
+                NbJavaModel currentModel,
                 String groupName,
-                Collection<? extends SingleNodeFactory> dependencies,
-                List<SingleNodeFactory> toPopulate) {
+                Set<File> files,
+                List<DependencyGroupNodeFactory> toPopulate) {
 
-            if (dependencies.isEmpty()) {
+            if (files.isEmpty()) {
                 return;
             }
 
-            toPopulate.add(new DependencyGroupNodeFactory(groupName, dependencies));
-        }
-
-        private static List<SingleNodeFactory> filesToNodes(NbJavaModel currentModel, Collection<File> files) {
-            List<SingleNodeFactory> result = new ArrayList<>(files.size());
-            for (File file: files) {
-                JavaProjectDependency projectDep = currentModel.tryGetDepedency(file);
-                if (projectDep == null) {
-                    result.add(new FileDependency(file));
-                }
-                else {
-                    result.add(new ProjectDependencyFactory(projectDep));
-                }
-            }
-            return result;
+            toPopulate.add(new DependencyGroupNodeFactory(groupName, currentModel, files));
         }
 
         private static String listToString(Collection<?> list) {
@@ -244,106 +231,36 @@ public final class JavaDependenciesNode extends AbstractNode {
             }
         }
 
-        private String getNameForDependencyGroup(
+        private static String getNameForDependencyGroup(
                 DependencyType dependencyType,
                 JavaSourceSet sourceSet,
-                Map<String, Set<String>> sourceSetDependencyGraph) {
+                Set<String> sourceSetDependencies) {
 
             String baseName = getBaseDependencyGroupName(dependencyType, sourceSet);
-            Set<String> dependencies = sourceSetDependencyGraph.get(sourceSet.getName());
-            if (dependencies == null || dependencies.isEmpty()) {
+            if (sourceSetDependencies.isEmpty()) {
                 return baseName;
             }
             else {
-                return NbStrings.getSourceSetInherits(baseName, listToString(dependencies));
-            }
-        }
-
-        private static int compareProjectDependencyNodes(ProjectDependencyFactory node1, ProjectDependencyFactory node2) {
-            NbJavaModule module1 = node1.projectDep.tryGetModule();
-            NbJavaModule module2 = node2.projectDep.tryGetModule();
-
-            if (module1 == module2) {
-                return 0;
-            }
-
-            if (module1 == null) {
-                return 1;
-            }
-            if (module2 == null) {
-                return -1;
-            }
-
-            return StringUtils.STR_CMP.compare(module1.getShortName(), module2.getShortName());
-        }
-
-        private static int compareFileDependencyNodes(FileDependency node1, FileDependency node2) {
-            String name1 = node1.file.getName();
-            String name2 = node2.file.getName();
-
-            return StringUtils.STR_CMP.compare(name1, name2);
-        }
-
-        private static int compareDependencyNodes(SingleNodeFactory node1, SingleNodeFactory node2) {
-            if (node1 instanceof ProjectDependencyFactory) {
-                if (node2 instanceof ProjectDependencyFactory) {
-                    return compareProjectDependencyNodes(
-                            (ProjectDependencyFactory)node1,
-                            (ProjectDependencyFactory)node2);
-                }
-                else {
-                    return -1;
-                }
-            }
-            else if (node2 instanceof ProjectDependencyFactory) {
-                return 1;
-            }
-            else if (node1 instanceof FileDependency && node2 instanceof FileDependency) {
-                return compareFileDependencyNodes((FileDependency)node1, (FileDependency)node2);
-            }
-            else {
-                return 0;
+                return NbStrings.getSourceSetInherits(baseName, listToString(sourceSetDependencies));
             }
         }
 
-        private static List<SingleNodeFactory> sortDependencyNodes(List<SingleNodeFactory> nodes) {
-            SingleNodeFactory[] nodesArray = nodes.toArray(new SingleNodeFactory[nodes.size()]);
-
-            Arrays.sort(nodesArray, new Comparator<SingleNodeFactory>() {
-                @Override
-                public int compare(SingleNodeFactory o1, SingleNodeFactory o2) {
-                    return compareDependencyNodes(o1, o2);
-                }
-            });
-
-            return Arrays.asList(nodesArray);
-        }
-
-        private void addSourceSetDependencyNodes(
-                NbJavaModel currentModel,
-                String nodeGroupName,
-                Collection<String> sourceSetDependencies,
-                Set<File> classpaths, // IN/OUT
-                List<SingleNodeFactory> toPopulate) {
-
-            NbJavaModule mainModule = currentModel.getMainModule();
-            classpaths.removeAll(mainModule.getAllBuildOutputs());
+        private static Set<File> getInheritedFiles(
+                NbJavaModule mainModule,
+                Collection<String> sourceSetDependencies) {
 
+            Set<File> result = new HashSet<>(mainModule.getAllBuildOutputs());
             for (String inheritedName: sourceSetDependencies) {
                 JavaSourceSet inherited = mainModule.tryGetSourceSetByName(inheritedName);
                 if (inherited != null) {
-                    classpaths.removeAll(inherited.getClasspaths().getCompileClasspaths());
-                    classpaths.removeAll(inherited.getClasspaths().getRuntimeClasspaths());
-                    classpaths.remove(inherited.getOutputDirs().getClassesDir());
-                    classpaths.remove(inherited.getOutputDirs().getResourcesDir());
-                    classpaths.removeAll(inherited.getOutputDirs().getOtherDirs());
+                    result.addAll(inherited.getClasspaths().getCompileClasspaths());
+                    result.addAll(inherited.getClasspaths().getRuntimeClasspaths());
+                    result.add(inherited.getOutputDirs().getClassesDir());
+                    result.add(inherited.getOutputDirs().getResourcesDir());
+                    result.addAll(inherited.getOutputDirs().getOtherDirs());
                 }
             }
-
-            List<SingleNodeFactory> dependencyNodes = filesToNodes(currentModel, classpaths);
-            dependencyNodes = sortDependencyNodes(dependencyNodes);
-
-            addDependencyGroup(nodeGroupName, dependencyNodes, toPopulate);
+            return result;
         }
 
         private static <T> Set<T> splitSets(Set<T> set1, Set<T> set2) {
@@ -370,79 +287,51 @@ public final class JavaDependenciesNode extends AbstractNode {
             return intersect;
         }
 
-        private static Map<String, Set<String>> sourceSetDependencyGraph(
-                NbJavaModule mainModule) {
-
-            Map<File, String> buildOutput = new HashMap<>();
-            for (JavaSourceSet sourceSet: mainModule.getSources()) {
-                buildOutput.put(sourceSet.getOutputDirs().getClassesDir(), sourceSet.getName());
-            }
-
-            Map<String, Set<String>> result = new HashMap<>();
-            for (JavaSourceSet sourceSet: mainModule.getSources()) {
-                String sourceSetName = sourceSet.getName();
-
-                Set<File> compileClasspaths = sourceSet.getClasspaths().getCompileClasspaths();
-                Set<File> runtimeClasspaths = sourceSet.getClasspaths().getRuntimeClasspaths();
-
-                Set<String> dependencies = new HashSet<>();
-                for (Map.Entry<File, String> entry: buildOutput.entrySet()) {
-                    File classesOutputDir = entry.getKey();
-                    if (runtimeClasspaths.contains(classesOutputDir) || compileClasspaths.contains(classesOutputDir)) {
-                        String dependencyName = entry.getValue();
-                        if (!sourceSetName.equals(dependencyName)) {
-                            dependencies.add(entry.getValue());
-                        }
-                    }
-                }
-
-                result.put(sourceSetName, dependencies);
-            }
-
-            // TODO: Remove redundant edges
-
-            return result;
-        }
-
-        private void readKeys(List<SingleNodeFactory> toPopulate) throws DataObjectNotFoundException {
-            NbJavaModel currentModel = javaExt.getCurrentModel();
+        /**
+         * Returns the dependency groups of the main module of the given model.
+         * This method only splits the class paths of the source sets into
+         * groups, the nodes of the dependencies are only created and sorted
+         * when a group is expanded.
+         */
+        static List<DependencyGroupNodeFactory> createDependencyGroups(NbJavaModel currentModel) {
             NbJavaModule mainModule = currentModel.getMainModule();
 
-            Map<String, Set<String>> dependencyGraph = sourceSetDependencyGraph(mainModule);
-
+            List<DependencyGroupNodeFactory> result = new ArrayList<>();
             for (JavaSourceSet sourceSet: mainModule.getSources()) {
                 JavaClassPaths classpaths = sourceSet.getClasspaths();
 
+                Set<String> sourceDependencies = mainModule.getInheritedSourceSetNames(sourceSet.getName());
+                Set<File> inheritedFiles = getInheritedFiles(mainModule, sourceDependencies);
+
                 Set<File> providedClassPaths = new HashSet<>(classpaths.getCompileClasspaths());
                 Set<File> runtimeClassPaths = new HashSet<>(classpaths.getRuntimeClasspaths());
+                providedClassPaths.removeAll(inheritedFiles);
+                runtimeClassPaths.removeAll(inheritedFiles);
                 Set<File> compileClassPaths = splitSets(providedClassPaths, runtimeClassPaths);
 
-                Set<String> sourceDependencies = dependencyGraph.get(sourceSet.getName());
-                if (sourceDependencies == null) {
-                    sourceDependencies = Collections.emptySet();
-                }
-
-                addSourceSetDependencyNodes(
+                addDependencyGroup(
                         currentModel,
-                        getNameForDependencyGroup(DependencyType.COMPILE, sourceSet, dependencyGraph),
-                        sourceDependencies,
+                        getNameForDependencyGroup(DependencyType.COMPILE, sourceSet, sourceDependencies),
                         compileClassPaths,
-                        toPopulate);
+                        result);
 
-                addSourceSetDependencyNodes(
+                addDependencyGroup(
                         currentModel,
-                        getNameForDependencyGroup(DependencyType.PROVIDED, sourceSet, dependencyGraph),
-                        sourceDependencies,
+                        getNameForDependencyGroup(DependencyType.PROVIDED, sourceSet, sourceDependencies),
                         providedClassPaths,
-                        toPopulate);
+                        result);
 
-                addSourceSetDependencyNodes(
+                addDependencyGroup(
                         currentModel,
-                        getNameForDependencyGroup(DependencyType.RUNTIME, sourceSet, dependencyGraph),
-                        sourceDependencies,
+                        getNameForDependencyGroup(DependencyType.RUNTIME, sourceSet, sourceDependencies),
                         runtimeClassPaths,
-                        toPopulate);
+                        result);
             }
+            return result;
+        }
+
+        private void readKeys(List<SingleNodeFactory> toPopulate) throws DataObjectNotFoundException {
+            toPopulate.addAll(createDependencyGroups(javaExt.getCurrentModel()));
 
             LOGGER.fine("Dependencies for the Gradle project were found.");
         }
@@ -463,18 +352,88 @@ public final class JavaDependenciesNode extends AbstractNode {
         }
     }
 
-    private static class DependencyGroupNodeFactory implements SingleNodeFactory {
+    static final class DependencyGroupNodeFactory implements SingleNodeFactory {
         private final String groupName;
-        private final List<SingleNodeFactory> dependencies;
+        private final Set<File> files;
+        // Files not in this map are plain file dependencies.
+        private final Map<File, JavaProjectDependency> projectDependencies;
+        private final AtomicReference<List<SingleNodeFactory>> dependenciesRef;
 
-        public DependencyGroupNodeFactory(String groupName, Collection<? extends SingleNodeFactory> dependencies) {
-            this.dependencies = new ArrayList<>(dependencies);
+        public DependencyGroupNodeFactory(String groupName, NbJavaModel currentModel, Set<File> files) {
             this.groupName = groupName;
+            this.files = files;
+            this.projectDependencies = getProjectDependencies(currentModel, files);
+            this.dependenciesRef = new AtomicReference<>(null);
+        }
+
+        private static Map<File, JavaProjectDependency> getProjectDependencies(
+                NbJavaModel currentModel,
+                Collection<File> files) {
+
+            Map<File, JavaProjectDependency> result = null;
+            for (File file: files) {
+                JavaProjectDependency projectDep = currentModel.tryGetDepedency(file);
+                if (projectDep != null) {
+                    if (result == null) {
+                        result = new HashMap<>();
+                    }
+                    result.put(file, projectDep);
+                }
+            }
+            return result != null ? result : Collections.<File, JavaProjectDependency>emptyMap();
+        }
+
+        public String getGroupName() {
+            return groupName;
+        }
+
+        /**
+         * Returns the sorted dependencies of this group. The nodes of the
+         * dependencies are only created and sorted on the first call.
+         */
+        public List<SingleNodeFactory> getDependencies() {
+            List<SingleNodeFactory> result = dependenciesRef.get();
+            if (result == null) {
+                dependenciesRef.set(sortDependencyNodes(filesToNodes()));
+                result = dependenciesRef.get();
+            }
+            return result;
+        }
+
+        private List<SingleNodeFactory> filesToNodes() {
+            List<SingleNodeFactory> result = new ArrayList<>(files.size());
+            for (File file: files) {
+                JavaProjectDependency projectDep = projectDependencies.get(file);
+                if (projectDep == null) {
+                    result.add(new FileDependency(file));
+                }
+                else {
+                    result.add(new ProjectDependencyFactory(projectDep));
+                }
+            }
+            return result;
+        }
+
+        private static List<SingleNodeFactory> sortDependencyNodes(List<SingleNodeFactory> nodes) {
+            DependencySortKey[] sortKeys = new DependencySortKey[nodes.size()];
+            int index = 0;
+            for (SingleNodeFactory node: nodes) {
+                sortKeys[index] = new DependencySortKey(node);
+                index++;
+            }
+
+            Arrays.sort(sortKeys);
+
+            List<SingleNodeFactory> result = new ArrayList<>(sortKeys.length);
+            for (DependencySortKey sortKey: sortKeys) {
+                result.add(sortKey.node);
+            }
+            return Collections.unmodifiableList(result);
         }
 
         @Override
         public Node createNode() {
-            AbstractNode result = new AbstractNode(Children.create(new DependencyGroupChildFactory(dependencies), true)) {
+            AbstractNode result = new AbstractNode(Children.create(new DependencyGroupChildFactory(this), true)) {
                 @Override
                 public Image getIcon(int type) {
                     return NbIcons.getLibrariesIcon();
@@ -499,7 +458,8 @@ public final class JavaDependenciesNode extends AbstractNode {
         public int hashCode() {
             int hash = 7;
             hash = 83 * hash + Objects.hashCode(this.groupName);
-            hash = 83 * hash + Objects.hashCode(this.dependencies);
+            hash = 83 * hash + Objects.hashCode(this.files);
+            hash = 83 * hash + Objects.hashCode(this.projectDependencies);
             return hash;
         }
 
@@ -510,19 +470,67 @@ public final class JavaDependenciesNode extends AbstractNode {
 
             final DependencyGroupNodeFactory other = (DependencyGroupNodeFactory)obj;
             return Objects.equals(this.groupName, other.groupName)
-                    && Objects.equals(this.dependencies, other.dependencies);
+                    && Objects.equals(this.files, other.files)
+                    && Objects.equals(this.projectDependencies, other.projectDependencies);
+        }
+    }
+
+    /**
+     * Defines the order of the dependencies within a group: Projects come
+     * first ordered by their name (projects not yet loaded are last among
+     * them), then files ordered by their name. The collation key of the name
+     * is computed only once per dependency, not on every comparison.
+     */
+    private static final class DependencySortKey implements Comparable<DependencySortKey> {
+        private static final int ORDER_PROJECT = 0;
+        private static final int ORDER_UNKNOWN_PROJECT = 1;
+        private static final int ORDER_FILE = 2;
+        private static final int ORDER_OTHER = 3;
+
+        private final SingleNodeFactory node;
+        private final int kindOrder;
+        private final CollationKey nameKey;
+
+        public DependencySortKey(SingleNodeFactory node) {
+            this.node = node;
+
+            String name;
+            if (node instanceof ProjectDependencyFactory) {
+                NbJavaModule module = ((ProjectDependencyFactory)node).projectDep.tryGetModule();
+                name = module != null ? module.getShortName() : null;
+                this.kindOrder = module != null ? ORDER_PROJECT : ORDER_UNKNOWN_PROJECT;
+            }
+            else if (node instanceof FileDependency) {
+                name = ((FileDependency)node).file.getName();
+                this.kindOrder = ORDER_FILE;
+            }
+            else {
+                name = null;
+                this.kindOrder = ORDER_OTHER;
+            }
+
+            this.nameKey = name != null ? StringUtils.STR_CMP.getCollationKey(name) : null;
+        }
+
+        @Override
+        public int compareTo(DependencySortKey other) {
+            int result = Integer.compare(kindOrder, other.kindOrder);
+            if (result != 0 || nameKey == null || other.nameKey == null) {
+                return result;
+            }
+            return nameKey.compareTo(other.nameKey);
         }
     }
 
     private static class DependencyGroupChildFactory extends ChildFactory<SingleNodeFactory> {
-        private final List<SingleNodeFactory> dependencies;
+        private final DependencyGroupNodeFactory group;
 
-        public DependencyGroupChildFactory(Collection<? extends SingleNodeFactory> dependencies) {
-            this.dependencies = new ArrayList<>(dependencies);
+        public DependencyGroupChildFactory(DependencyGroupNodeFactory group) {
+            this.group = group;
         }
 
         protected void readKeys(List<SingleNodeFactory> toPopulate) throws DataObjectNotFoundException {
-            toPopulate.addAll(dependencies);
+            toPopulate.addAll(group.getDependencies());
         }
 
         @Override
@@ -541,7 +549,7 @@ public final class JavaDependenciesNode extends AbstractNode {
         }
     }
 
-    private static final class FileDependency implements SingleNodeFactory {
+    static final class FileDependency implements SingleNodeFactory {
         private final File file;
 
         public FileDependency(File file) {
@@ -550,6 +558,10 @@ public final class JavaDependenciesNode extends AbstractNode {
             this.file = file;
         }
 
+        public File getFile() {
+            return file;
+        }
+
         private Node createPlainNode() {
             return new FilterNode(Node.EMPTY) {
                 @Override
@@ -0,0 +1,92 @@
+package org.netbeans.gradle.project.java.query;
+
+import java.beans.PropertyChangeListener;
+import java.beans.PropertyChangeSupport;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.jtrim.utils.ExceptionHelper;
+import org.netbeans.spi.java.classpath.ClassPathImplementation;
+
+/**
+ * Maintains the listeners of the class paths of a project separately for each
+ * class path, so that a change can be reported only to the class paths
+ * whose entries were actually changed. Notifying a {@code ClassPath} about a
+ * change might cause NetBeans to rescan its roots which is expensive.
+ * <P>
+ * Instances of this class are safe to be used by multiple threads
+ * concurrently.
+ *
+ * @param <K> the type of the keys identifying the class paths
+ */
+final class ClassPathChangeSupport<K> {
+    private final Object source;
+    private final ConcurrentMap<K, PropertyChangeSupport> changes;
+
+    public ClassPathChangeSupport(Object source) {
+        ExceptionHelper.checkNotNullArgument(source, "source");
+
+        this.source = source;
+        this.changes = new ConcurrentHashMap<>();
+    }
+
+    private PropertyChangeSupport getChanges(K key) {
+        PropertyChangeSupport result = changes.get(key);
+        if (result == null) {
+            changes.putIfAbsent(key, new PropertyChangeSupport(source));
+            result = changes.get(key);
+        }
+        return result;
+    }
+
+    public void addPropertyChangeListener(K key, PropertyChangeListener listener) {
+        ExceptionHelper.checkNotNullArgument(key, "key");
+        getChanges(key).addPropertyChangeListener(listener);
+    }
+
+    public void removePropertyChangeListener(K key, PropertyChangeListener listener) {
+        ExceptionHelper.checkNotNullArgument(key, "key");
+
+        PropertyChangeSupport keyChanges = changes.get(key);
+        if (keyChanges != null) {
+            keyChanges.removePropertyChangeListener(listener);
+        }
+    }
+
+    /**
+     * Notifies the listeners of the given class paths that their resources
+     * have changed.
+     */
+    public void fireResourcesChanged(Collection<? extends K> keys) {
+        for (K key: keys) {
+            PropertyChangeSupport keyChanges = changes.get(key);
+            if (keyChanges != null) {
+                keyChanges.firePropertyChange(ClassPathImplementation.PROP_RESOURCES, null, null);
+            }
+        }
+    }
+
+    /**
+     * Returns the keys whose associated value is different in the two
+     * maps (including the keys present in only one of the maps).
+     */
+    public static <K> Set<K> getChangedKeys(Map<K, ?> prevValues, Map<K, ?> newValues) {
+        Set<K> result = new HashSet<>();
+        for (Map.Entry<K, ?> entry: prevValues.entrySet()) {
+            K key = entry.getKey();
+            if (!Objects.equals(entry.getValue(), newValues.get(key))) {
+                result.add(key);
+            }
+        }
+        for (K key: newValues.keySet()) {
+            if (!prevValues.containsKey(key)) {
+                result.add(key);
+            }
+        }
+        return result;
+    }
+}
@@ -66,6 +66,8 @@ implements
     private final ConcurrentMap<ClassPathKey, ClassPath> classpaths;
 
     private final PropertyChangeSupport changes;
+    private final ClassPathChangeSupport<ClassPathKey> classPathChanges;
+    private final PropertyChangeSupport allSourcesChanges;
     private final AtomicReference<ProjectPlatform> currentPlatformRef;
 
     private final AtomicReference<ProjectIssueRef> infoRefRef;
@@ -96,6 +98,8 @@ implements
 
         EventSource eventSource = new EventSource();
         this.changes = new PropertyChangeSupport(eventSource);
+        this.classPathChanges = new ClassPathChangeSupport<>(eventSource);
+        this.allSourcesChanges = new PropertyChangeSupport(eventSource);
         eventSource.init(this.changes);
     }
 
@@ -303,7 +307,7 @@ implements
         }
     }
 
-    private void updateAllSources() {
+    private boolean updateAllSources() {
         NbJavaModel currentModel = javaExt.getCurrentModel();
         NbJavaModule mainModule = currentModel.getMainModule();
 
@@ -317,7 +321,9 @@ implements
             }
         }
 
+        List<PathResourceImplementation> prevSources = allSources;
         allSources = Collections.unmodifiableList(new ArrayList<>(sources));
+        return !prevSources.equals(allSources);
     }
 
     public static List<PathResourceImplementation> getPathResources(
@@ -354,13 +360,20 @@ implements
             getInfoRef().setInfo(new ProjectIssue(infos));
         }
 
-        updateAllSources();
+        final boolean allSourcesChanged = updateAllSources();
 
-        boolean changed = !prevClasspathResources.equals(newClasspathResources);
-        if (changed) {
+        // Only notify the class paths whose entries were actually changed,
+        // because NetBeans might rescan the roots of the notified class paths.
+        final Set<ClassPathKey> changedKeys
+                = ClassPathChangeSupport.getChangedKeys(prevClasspathResources, newClasspathResources);
+        if (!changedKeys.isEmpty() || allSourcesChanged) {
             SwingUtilities.invokeLater(new Runnable() {
                 @Override
                 public void run() {
+                    classPathChanges.fireResourcesChanged(changedKeys);
+                    if (allSourcesChanged) {
+                        allSourcesChanges.firePropertyChange(ClassPathImplementation.PROP_RESOURCES, null, null);
+                    }
                     changes.firePropertyChange(ClassPathImplementation.PROP_RESOURCES, null, null);
                 }
             });
@@ -415,26 +428,24 @@ implements
         return classpaths.get(classPathKey);
     }
 
-    private abstract class AbstractGradleClassPaths implements ClassPathImplementation {
+    private class AllSourcesClassPaths implements ClassPathImplementation {
         @Override
-        public final void addPropertyChangeListener(PropertyChangeListener listener) {
-            changes.addPropertyChangeListener(listener);
+        public List<PathResourceImplementation> getResources() {
+            return allSources;
         }
 
         @Override
-        public final void removePropertyChangeListener(PropertyChangeListener listener) {
-            changes.removePropertyChangeListener(listener);
+        public void addPropertyChangeListener(PropertyChangeListener listener) {
+            allSourcesChanges.addPropertyChangeListener(listener);
         }
-    }
 
-    private class AllSourcesClassPaths extends AbstractGradleClassPaths {
         @Override
-        public List<PathResourceImplementation> getResources() {
-            return allSources;
+        public void removePropertyChangeListener(PropertyChangeListener listener) {
+            allSourcesChanges.removePropertyChangeListener(listener);
         }
     }
 
-    private class GradleClassPaths extends AbstractGradleClassPaths {
+    private class GradleClassPaths implements ClassPathImplementation {
         private final ClassPathKey classPathKey;
 
         public GradleClassPaths(ClassPathKey classPathKey) {
@@ -449,6 +460,16 @@ implements
                     ? result
                     : Collections.<PathResourceImplementation>emptyList();
         }
+
+        @Override
+        public void addPropertyChangeListener(PropertyChangeListener listener) {
+            classPathChanges.addPropertyChangeListener(classPathKey, listener);
+        }
+
+        @Override
+        public void removePropertyChangeListener(PropertyChangeListener listener) {
+            classPathChanges.removePropertyChangeListener(classPathKey, listener);
+        }
     }
 
     private static final class EventSource implements ClassPathImplementation {
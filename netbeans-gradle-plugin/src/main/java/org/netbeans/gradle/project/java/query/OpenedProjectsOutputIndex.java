@@ -0,0 +1,270 @@
+package org.netbeans.gradle.project.java.query;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import org.jtrim.collections.CollectionsEx;
+import org.jtrim.utils.ExceptionHelper;
+import org.netbeans.gradle.project.java.model.NbJarOutput;
+
+/**
+ * Maps the names of the JAR files built by the opened projects (and the
+ * projects they depend on) to the output directories of their classes.
+ * <P>
+ * The index is updated incrementally: Only when the model of a project is
+ * published or the set of projects referenced by an opened project changes.
+ * So, looking up a JAR does not require iterating over all the opened projects.
+ * <P>
+ * The outputs of a closed project are forgotten as soon as no opened project
+ * references it, so closed projects do not keep their outputs in memory.
+ * <P>
+ * If multiple projects build a JAR with the same name, then the output of the
+ * default JAR task (see {@link NbJarOutput#isDefaultJar()}) is preferred.
+ * <P>
+ * Instances of this class are safe to be used by multiple threads
+ * concurrently.
+ */
+public final class OpenedProjectsOutputIndex {
+    private static final OpenedProjectsOutputIndex DEFAULT = new OpenedProjectsOutputIndex();
+
+    private final Lock mainLock;
+    // The last published JAR outputs of every project (indexed or not).
+    private final Map<Path, Map<String, NbJarOutput>> projectOutputs;
+    // Opened project -> the projects it references (including itself).
+    private final Map<Path, Set<Path>> openedReferences;
+    // The number of opened projects referencing a project.
+    private final Map<Path, Integer> referenceCounts;
+    // JAR name -> (referenced project -> JAR output)
+    private final Map<String, Map<Path, NbJarOutput>> jarIndex;
+    // Closed projects whose outputs are kept until they are no longer referenced.
+    private final Set<Path> closedProjects;
+
+    public OpenedProjectsOutputIndex() {
+        this.mainLock = new ReentrantLock();
+        this.projectOutputs = new HashMap<>();
+        this.openedReferences = new HashMap<>();
+        this.referenceCounts = new HashMap<>();
+        this.jarIndex = new HashMap<>();
+        this.closedProjects = new HashSet<>();
+    }
+
+    public static OpenedProjectsOutputIndex getDefault() {
+        return DEFAULT;
+    }
+
+    private static String getJarKey(File jar) {
+        return jar.getName().toLowerCase(Locale.ROOT);
+    }
+
+    private static Map<String, NbJarOutput> indexJarOutputs(Collection<NbJarOutput> jarOutputs) {
+        Map<String, NbJarOutput> result = CollectionsEx.newHashMap(jarOutputs.size());
+        for (NbJarOutput jarOutput: jarOutputs) {
+            if (jarOutput.getClassDirs().isEmpty()) {
+                continue;
+            }
+
+            String key = getJarKey(jarOutput.getJar());
+            if (!result.containsKey(key) || jarOutput.isDefaultJar()) {
+                result.put(key, jarOutput);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Sets the JAR outputs of the given project as defined by its most recently
+     * published model.
+     */
+    public void updateProjectOutputs(Path projectDir, List<NbJarOutput> jarOutputs) {
+        ExceptionHelper.checkNotNullArgument(projectDir, "projectDir");
+        ExceptionHelper.checkNotNullElements(jarOutputs, "jarOutputs");
+
+        Map<String, NbJarOutput> newOutputs = indexJarOutputs(jarOutputs);
+
+        mainLock.lock();
+        try {
+            boolean indexed = referenceCounts.containsKey(projectDir);
+            if (indexed) {
+                removeFromIndex(projectDir);
+            }
+            projectOutputs.put(projectDir, newOutputs);
+            if (indexed) {
+                addToIndex(projectDir);
+            }
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    /**
+     * Sets the projects referenced by the given opened project. The JARs of
+     * the opened project and the projects referenced by it are looked up by
+     * {@link #tryGetOutputDirs(String) tryGetOutputDirs}.
+     */
+    public void updateOpenedProject(Path projectDir, Collection<Path> referencedProjectDirs) {
+        ExceptionHelper.checkNotNullArgument(projectDir, "projectDir");
+        ExceptionHelper.checkNotNullElements(referencedProjectDirs, "referencedProjectDirs");
+
+        Set<Path> newReferences = new HashSet<>(referencedProjectDirs);
+        newReferences.add(projectDir);
+
+        mainLock.lock();
+        try {
+            closedProjects.remove(projectDir);
+
+            Set<Path> prevReferences = openedReferences.put(projectDir, newReferences);
+            if (prevReferences == null) {
+                prevReferences = Collections.emptySet();
+            }
+
+            for (Path referenced: newReferences) {
+                if (!prevReferences.contains(referenced)) {
+                    addReference(referenced);
+                }
+            }
+            for (Path referenced: prevReferences) {
+                if (!newReferences.contains(referenced)) {
+                    removeReference(referenced);
+                }
+            }
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    /**
+     * Removes the references of the given project because it was closed. The
+     * outputs of the closed project are also removed once no other opened
+     * project references it. This method does nothing if the project is not
+     * opened.
+     */
+    public void removeOpenedProject(Path projectDir) {
+        ExceptionHelper.checkNotNullArgument(projectDir, "projectDir");
+
+        mainLock.lock();
+        try {
+            Set<Path> prevReferences = openedReferences.remove(projectDir);
+            if (prevReferences == null) {
+                return;
+            }
+
+            for (Path referenced: prevReferences) {
+                removeReference(referenced);
+            }
+
+            if (referenceCounts.containsKey(projectDir)) {
+                closedProjects.add(projectDir);
+            }
+            else {
+                projectOutputs.remove(projectDir);
+            }
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the class output directories of the JAR with the given file
+     * name (ignoring case) or {@code null} if there is no opened project
+     * building such a JAR.
+     */
+    public Set<File> tryGetOutputDirs(String jarName) {
+        ExceptionHelper.checkNotNullArgument(jarName, "jarName");
+
+        String key = jarName.toLowerCase(Locale.ROOT);
+
+        mainLock.lock();
+        try {
+            Map<Path, NbJarOutput> candidates = jarIndex.get(key);
+            if (candidates == null) {
+                return null;
+            }
+
+            NbJarOutput result = null;
+            for (NbJarOutput candidate: candidates.values()) {
+                if (candidate.isDefaultJar()) {
+                    return candidate.getClassDirs();
+                }
+                if (result == null) {
+                    result = candidate;
+                }
+            }
+            return result != null ? result.getClassDirs() : null;
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    private void addReference(Path projectDir) {
+        Integer prevCount = referenceCounts.get(projectDir);
+        if (prevCount == null) {
+            referenceCounts.put(projectDir, 1);
+            addToIndex(projectDir);
+        }
+        else {
+            referenceCounts.put(projectDir, prevCount + 1);
+        }
+    }
+
+    private void removeReference(Path projectDir) {
+        Integer prevCount = referenceCounts.get(projectDir);
+        if (prevCount == null) {
+            return;
+        }
+
+        if (prevCount <= 1) {
+            removeFromIndex(projectDir);
+            referenceCounts.remove(projectDir);
+            if (closedProjects.remove(projectDir)) {
+                projectOutputs.remove(projectDir);
+            }
+        }
+        else {
+            referenceCounts.put(projectDir, prevCount - 1);
+        }
+    }
+
+    private void addToIndex(Path projectDir) {
+        Map<String, NbJarOutput> outputs = projectOutputs.get(projectDir);
+        if (outputs == null) {
+            return;
+        }
+
+        for (Map.Entry<String, NbJarOutput> entry: outputs.entrySet()) {
+            String key = entry.getKey();
+            Map<Path, NbJarOutput> candidates = jarIndex.get(key);
+            if (candidates == null) {
+                candidates = new LinkedHashMap<>();
+                jarIndex.put(key, candidates);
+            }
+            candidates.put(projectDir, entry.getValue());
+        }
+    }
+
+    private void removeFromIndex(Path projectDir) {
+        Map<String, NbJarOutput> outputs = projectOutputs.get(projectDir);
+        if (outputs == null) {
+            return;
+        }
+
+        for (String key: outputs.keySet()) {
+            Map<Path, NbJarOutput> candidates = jarIndex.get(key);
+            if (candidates != null) {
+                candidates.remove(projectDir);
+                if (candidates.isEmpty()) {
+                    jarIndex.remove(key);
+                }
+            }
+        }
+    }
+}
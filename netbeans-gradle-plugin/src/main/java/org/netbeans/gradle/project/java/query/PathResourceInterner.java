@@ -0,0 +1,80 @@
+package org.netbeans.gradle.project.java.query;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.jtrim.utils.ExceptionHelper;
+import org.netbeans.gradle.project.util.ConcurrentWeakValueMap;
+import org.netbeans.spi.java.classpath.PathResourceImplementation;
+import org.netbeans.spi.java.classpath.support.ClassPathSupport;
+
+/**
+ * Defines a cache of {@code PathResourceImplementation} instances and lists of
+ * them, so that the class paths of the source sets (and of different projects)
+ * share a single instance for equivalent entries and equivalent lists.
+ * <P>
+ * The cached instances are only weakly referenced, so they are removed from the
+ * cache once no class path refers to them.
+ * <P>
+ * Instances of this class are safe to be used by multiple threads
+ * concurrently.
+ */
+final class PathResourceInterner {
+    private static final PathResourceInterner DEFAULT = new PathResourceInterner();
+
+    private final ConcurrentWeakValueMap<String, PathResourceImplementation> resources;
+    private final ConcurrentWeakValueMap<List<PathResourceImplementation>, List<PathResourceImplementation>> resourceLists;
+
+    public PathResourceInterner() {
+        this.resources = new ConcurrentWeakValueMap<>();
+        this.resourceLists = new ConcurrentWeakValueMap<>();
+    }
+
+    public static PathResourceInterner getDefault() {
+        return DEFAULT;
+    }
+
+    public PathResourceImplementation getResource(URL url) {
+        ExceptionHelper.checkNotNullArgument(url, "url");
+
+        // URL.equals might try to resolve the host name.
+        String key = url.toExternalForm();
+
+        PathResourceImplementation result = resources.get(key);
+        if (result == null) {
+            PathResourceImplementation newResource = ClassPathSupport.createResource(url);
+            result = resources.putIfAbsent(key, newResource);
+            if (result == null) {
+                result = newResource;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns an unmodifiable list containing the same elements as the given
+     * list. The returned list is the same instance for lists of the same
+     * resources (as long as a previously returned list is still referenced).
+     */
+    public List<PathResourceImplementation> internList(List<? extends PathResourceImplementation> list) {
+        ExceptionHelper.checkNotNullArgument(list, "list");
+
+        if (list.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        // The key is only referenced by the entry of the map and by the value,
+        // so the entry can be removed as soon as the value is not used.
+        List<PathResourceImplementation> key = new ArrayList<>(list);
+        List<PathResourceImplementation> result = resourceLists.get(key);
+        if (result == null) {
+            List<PathResourceImplementation> newList = Collections.unmodifiableList(key);
+            result = resourceLists.putIfAbsent(key, newList);
+            if (result == null) {
+                result = newList;
+            }
+        }
+        return result;
+    }
+}
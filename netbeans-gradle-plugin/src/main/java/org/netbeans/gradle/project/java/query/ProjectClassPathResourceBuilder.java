@@ -2,7 +2,6 @@ package org.netbeans.gradle.project.java.query;
 
 import java.io.File;
 import java.net.URL;
-import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -17,28 +16,19 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import org.jtrim.collections.CollectionsEx;
 import org.jtrim.utils.ExceptionHelper;
-import org.netbeans.api.project.Project;
-import org.netbeans.api.project.ui.OpenProjects;
 import org.netbeans.gradle.model.java.JavaOutputDirs;
 import org.netbeans.gradle.model.java.JavaSourceGroup;
 import org.netbeans.gradle.model.java.JavaSourceSet;
-import org.netbeans.gradle.project.NbGradleProject;
 import org.netbeans.gradle.project.api.entry.ProjectPlatform;
-import org.netbeans.gradle.project.java.JavaExtension;
 import org.netbeans.gradle.project.java.model.JavaProjectReference;
-import org.netbeans.gradle.project.java.model.NbJarOutput;
 import org.netbeans.gradle.project.java.model.NbJavaModel;
 import org.netbeans.gradle.project.java.model.NbJavaModule;
 import org.netbeans.gradle.project.properties.global.CommonGlobalSettings;
 import org.netbeans.gradle.project.util.ExcludeIncludeRules;
 import org.netbeans.spi.java.classpath.PathResourceImplementation;
-import org.netbeans.spi.java.classpath.support.ClassPathSupport;
 import org.openide.filesystems.FileUtil;
-import org.openide.util.Lookup;
 
-// TODO: Optimize this class by merging equivalent class path lists into a single one (or maybe concat lists?)
 public final class ProjectClassPathResourceBuilder {
     private static final Logger LOGGER = Logger.getLogger(ProjectClassPathResourceBuilder.class.getName());
 
@@ -49,7 +39,7 @@ public final class ProjectClassPathResourceBuilder {
     private Map<ClassPathKey, List<PathResourceImplementation>> classpathResources;
 
     // Maps JAR name to source set output directory.
-    private Map<String, Set<File>> openedProjectsOutput;
+    private OpenedProjectsOutputIndex openedProjectsOutput;
 
     public ProjectClassPathResourceBuilder(NbJavaModel projectModel, ProjectPlatform currentPlatform) {
         ExceptionHelper.checkNotNullArgument(projectModel, "projectModel");
@@ -80,56 +70,11 @@ public final class ProjectClassPathResourceBuilder {
         loadRuntimeForGlobalClassPath(projectModel);
     }
 
-    /**
-     * Returns all the currently opened Gradle Java projects, including the projects
-     * referenced by them (project dependencies).
-     */
-    private static Collection<JavaExtension> getAllOpenedGradleJavaProjects() {
-        Project[] openedProjects = OpenProjects.getDefault().getOpenProjects();
-        Map<Path, JavaExtension> result = new HashMap<>();
-
-        for (Project project: openedProjects) {
-            Lookup lookup = project.getLookup();
-            NbGradleProject gradleProject = lookup.lookup(NbGradleProject.class);
-            JavaExtension javaExt = lookup.lookup(JavaExtension.class);
-
-            if (javaExt != null && gradleProject != null) {
-                result.put(gradleProject.getProjectDirectoryAsPath(), javaExt);
-
-                for (JavaProjectReference projectRef: javaExt.getCurrentModel().getAllDependencies()) {
-                    Project dependency = projectRef.tryGetProject();
-                    if (dependency != null) {
-                        JavaExtension dependencyJavaExt = dependency.getLookup().lookup(JavaExtension.class);
-                        if (dependencyJavaExt != null) {
-                            result.put(dependencyJavaExt.getProjectDirectoryAsFile().toPath(), dependencyJavaExt);
-                        }
-                    }
-                }
-            }
-        }
-
-        return new ArrayList<>(result.values());
-    }
-
-    private static Map<String, Set<File>> findOpenedProjectsOutput() {
+    private static OpenedProjectsOutputIndex findOpenedProjectsOutput() {
         if (!CommonGlobalSettings.getDefault().detectProjectDependenciesByJarName().getActiveValue()) {
             return null;
         }
-
-        Collection<JavaExtension> javaExts = getAllOpenedGradleJavaProjects();
-        Map<String, Set<File>> result = CollectionsEx.newHashMap(javaExts.size());
-        for (JavaExtension javaExt: javaExts) {
-            NbJavaModule mainModule = javaExt.getCurrentModel().getMainModule();
-            for (NbJarOutput jarOutput: mainModule.getJarOutputs()) {
-                String key = jarOutput.getJar().getName().toLowerCase(Locale.ROOT);
-                Set<File> classDirs = jarOutput.getClassDirs();
-
-                if (!classDirs.isEmpty() && (!result.containsKey(key) || jarOutput.isDefaultJar())) {
-                    result.put(key, jarOutput.getClassDirs());
-                }
-            }
-        }
-        return result;
+        return OpenedProjectsOutputIndex.getDefault();
     }
 
     private static List<PathResourceImplementation> getBuildOutputDirsAsPathResources(JavaSourceSet sourceSet) {
@@ -145,7 +90,7 @@ public final class ProjectClassPathResourceBuilder {
 
     private Set<File> tryUpdateDependency(File original) {
         return openedProjectsOutput != null
-                ? openedProjectsOutput.get(original.getName().toLowerCase(Locale.ROOT))
+                ? openedProjectsOutput.tryGetOutputDirs(original.getName())
                 : null;
     }
 
@@ -217,9 +162,11 @@ public final class ProjectClassPathResourceBuilder {
     }
 
     private void loadBootClassPath() {
+        PathResourceInterner pathResources = PathResourceInterner.getDefault();
+
         List<PathResourceImplementation> platformResources = new LinkedList<>();
         for (URL url: currentPlatform.getBootLibraries()) {
-            platformResources.add(ClassPathSupport.createResource(url));
+            platformResources.add(pathResources.getResource(url));
         }
 
         setClassPathResources(SpecialClassPath.BOOT, platformResources);
@@ -305,7 +252,9 @@ public final class ProjectClassPathResourceBuilder {
     private void setClassPathResources(
             ClassPathKey classPathKey,
             List<PathResourceImplementation> paths) {
-        classpathResources.put(classPathKey, Collections.unmodifiableList(paths));
+        // The class paths of the source sets are usually very similar (or
+        // even the same), so share the lists when possible.
+        classpathResources.put(classPathKey, PathResourceInterner.getDefault().internList(paths));
     }
 
     private void setClassPathResources(
@@ -321,7 +270,7 @@ public final class ProjectClassPathResourceBuilder {
 
     private static PathResourceImplementation toPathResource(File file) {
         URL url = FileUtil.urlForArchiveOrDir(file);
-        return url != null ? ClassPathSupport.createResource(url) : null;
+        return url != null ? PathResourceInterner.getDefault().getResource(url) : null;
     }
 
     private static PathResourceImplementation toPathResource(File file, ExcludeIncludeRules includeRules) {
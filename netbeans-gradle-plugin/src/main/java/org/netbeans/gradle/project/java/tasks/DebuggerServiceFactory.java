@@ -29,6 +29,9 @@ import org.openide.windows.OutputWriter;
 public final class DebuggerServiceFactory implements GradleCommandServiceFactory {
     private static final Logger LOGGER = Logger.getLogger(DebuggerServiceFactory.class.getName());
 
+    // Not limited by the number of concurrent builds: An attach listener
+    // waiting in a queue behind long running builds could miss the debuggee.
+    // There is at most one listener for every build being debugged.
     private static final MonitorableTaskExecutorService DEBUGGER_ATTACH_LISTENER
             = NbTaskExecutors.newExecutor("Debugger attach listener", Integer.MAX_VALUE, 5000);
 
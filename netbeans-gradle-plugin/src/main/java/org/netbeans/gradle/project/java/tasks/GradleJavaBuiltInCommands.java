@@ -5,12 +5,15 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Logger;
+import org.gradle.tooling.events.ProgressListener;
 import org.gradle.util.GradleVersion;
 import org.jtrim.cancel.Cancellation;
 import org.jtrim.cancel.CancellationSource;
@@ -42,12 +45,14 @@ import org.netbeans.gradle.project.api.task.TaskVariableMap;
 import org.netbeans.gradle.project.java.JavaExtension;
 import org.netbeans.gradle.project.java.model.NbJavaModule;
 import org.netbeans.gradle.project.java.properties.DebugMode;
+import org.netbeans.gradle.project.java.test.TestProgressDisplayer;
 import org.netbeans.gradle.project.java.test.TestTaskName;
 import org.netbeans.gradle.project.java.test.TestXmlDisplayer;
 import org.netbeans.gradle.project.output.DebugTextListener;
 import org.netbeans.gradle.project.tasks.AttacherListener;
 import org.netbeans.gradle.project.tasks.DebugUtils;
 import org.netbeans.gradle.project.tasks.StandardTaskVariable;
+import org.netbeans.gradle.project.tasks.TestProgressCompleteListener;
 import org.netbeans.gradle.project.util.GradleVersions;
 import org.netbeans.gradle.project.view.GlobalErrorReporter;
 import org.netbeans.spi.project.ActionProvider;
@@ -501,15 +506,10 @@ public final class GradleJavaBuiltInCommands implements BuiltInGradleCommandQuer
     }
 
     private static ContextAwareCommandCompleteListener displayTestResults(
-            final Project project,
-            final JavaExtension javaExt,
-            final Lookup startContext) {
-        return new ContextAwareCommandCompleteListener() {
-            @Override
-            public void onComplete(ExecutedCommandContext executedCommandContext, Throwable error) {
-                displayTestReports(project, javaExt, executedCommandContext, startContext, error);
-            }
-        };
+            Project project,
+            JavaExtension javaExt,
+            Lookup startContext) {
+        return new TestResultsDisplayListener(project, javaExt, startContext);
     }
 
     private static void displayErrorDueToNoTestReportsFound(TestXmlDisplayer xmlDisplayer) {
@@ -525,14 +525,18 @@ public final class GradleJavaBuiltInCommands implements BuiltInGradleCommandQuer
             JavaExtension javaExt,
             ExecutedCommandContext executedCommandContext,
             Lookup startContext,
+            Collection<String> streamedTestNames,
             Throwable error) {
 
-        List<String> testNames = getTestNames(javaExt, executedCommandContext);
+        Set<String> testNames = new LinkedHashSet<>(getTestNames(javaExt, executedCommandContext));
+        testNames.addAll(streamedTestNames);
 
         for (String testName: testNames) {
             TestXmlDisplayer xmlDisplayer = new TestXmlDisplayer(project, testName);
             if (!xmlDisplayer.displayReport(startContext)) {
-                if (error == null) {
+                // The results of streamed tasks were already displayed, even
+                // if Gradle did not write the reports (e.g., canceled build).
+                if (error == null && !streamedTestNames.contains(testName)) {
                     displayErrorDueToNoTestReportsFound(xmlDisplayer);
                 }
             }
@@ -774,6 +778,47 @@ public final class GradleJavaBuiltInCommands implements BuiltInGradleCommandQuer
         }
     }
 
+    private static final class TestResultsDisplayListener implements TestProgressCompleteListener {
+        private final Project project;
+        private final JavaExtension javaExt;
+        private final Lookup startContext;
+        private final AtomicReference<TestProgressDisplayer> progressDisplayerRef;
+
+        public TestResultsDisplayListener(Project project, JavaExtension javaExt, Lookup startContext) {
+            this.project = project;
+            this.javaExt = javaExt;
+            this.startContext = startContext;
+            this.progressDisplayerRef = new AtomicReference<>(null);
+        }
+
+        @Override
+        public ProgressListener startTestProgress() {
+            NbJavaModule mainModule = javaExt.getCurrentModel().getMainModule();
+            Collection<JavaTestTask> testTasks = mainModule.getTestTasks().getTestTasks();
+
+            List<TestXmlDisplayer> xmlDisplayers = new ArrayList<>(testTasks.size());
+            for (JavaTestTask testTask: testTasks) {
+                xmlDisplayers.add(new TestXmlDisplayer(project, testTask.getName()));
+            }
+
+            TestProgressDisplayer progressDisplayer = new TestProgressDisplayer(xmlDisplayers, startContext);
+            progressDisplayerRef.set(progressDisplayer);
+            return progressDisplayer;
+        }
+
+        @Override
+        public void onComplete(ExecutedCommandContext executedCommandContext, Throwable error) {
+            TestProgressDisplayer progressDisplayer = progressDisplayerRef.getAndSet(null);
+            List<String> streamedTestNames = progressDisplayer != null
+                    ? progressDisplayer.endDisplay()
+                    : Collections.<String>emptyList();
+
+            // The test progress events do not contain the output of the tests,
+            // so the complete results are displayed from the XML reports.
+            displayTestReports(project, javaExt, executedCommandContext, startContext, streamedTestNames, error);
+        }
+    }
+
     private interface CustomCommandAdjuster {
         public void adjust(JavaExtension javaExt, CustomCommandActions.Builder customActions);
     }
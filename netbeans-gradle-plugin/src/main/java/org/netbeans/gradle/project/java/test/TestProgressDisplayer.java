@@ -0,0 +1,320 @@
+package org.netbeans.gradle.project.java.test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.gradle.tooling.Failure;
+import org.gradle.tooling.events.OperationDescriptor;
+import org.gradle.tooling.events.OperationResult;
+import org.gradle.tooling.events.ProgressEvent;
+import org.gradle.tooling.events.ProgressListener;
+import org.gradle.tooling.events.task.TaskOperationDescriptor;
+import org.gradle.tooling.events.test.JvmTestKind;
+import org.gradle.tooling.events.test.JvmTestOperationDescriptor;
+import org.gradle.tooling.events.test.TestFailureResult;
+import org.gradle.tooling.events.test.TestFinishEvent;
+import org.gradle.tooling.events.test.TestOperationDescriptor;
+import org.gradle.tooling.events.test.TestOperationResult;
+import org.gradle.tooling.events.test.TestProgressEvent;
+import org.gradle.tooling.events.test.TestSkippedResult;
+import org.gradle.tooling.events.test.TestStartEvent;
+import org.jtrim.utils.ExceptionHelper;
+import org.netbeans.gradle.model.util.CollectionUtils;
+import org.netbeans.gradle.project.others.test.NbGradleTestSession;
+import org.netbeans.gradle.project.others.test.NbGradleTestSuite;
+import org.netbeans.modules.gsf.testrunner.api.Status;
+import org.netbeans.modules.gsf.testrunner.api.Testcase;
+import org.netbeans.modules.gsf.testrunner.api.Trouble;
+import org.openide.util.Lookup;
+
+/**
+ * Displays test results from the test progress events of a running Gradle
+ * command. Each event is attributed to the test task executing it and the
+ * results of each test task are displayed in a separate test session, just
+ * like when they are displayed from the XML reports. Test cases are collected
+ * per test class and each test class is displayed as soon as its suite has
+ * been completed.
+ * <P>
+ * Test progress events do not contain the output of the tests, so
+ * {@link #endDisplay() endDisplay} returns the test tasks which have received
+ * events to allow displaying their complete results from their XML reports.
+ * Events of test tasks not known by this displayer (e.g., test tasks of other
+ * projects) are ignored.
+ */
+public final class TestProgressDisplayer implements ProgressListener {
+    private static final Logger LOGGER = Logger.getLogger(TestProgressDisplayer.class.getName());
+
+    private final Lookup runContext;
+    private final Map<String, TestXmlDisplayer> displayersByTaskPath;
+
+    private final Lock mainLock;
+    // Task path -> The progress of the test task (in the order of the first
+    // event of the test tasks).
+    private final Map<String, TaskProgress> taskProgresses;
+    private boolean ended;
+
+    /**
+     * Creates a new {@code TestProgressDisplayer} displaying the results of
+     * the test tasks of the given {@code TestXmlDisplayer}s.
+     */
+    public TestProgressDisplayer(Collection<TestXmlDisplayer> testDisplayers, Lookup runContext) {
+        ExceptionHelper.checkNotNullElements(testDisplayers, "testDisplayers");
+        ExceptionHelper.checkNotNullArgument(runContext, "runContext");
+
+        this.runContext = runContext;
+        this.displayersByTaskPath = CollectionUtils.newHashMap(testDisplayers.size());
+        for (TestXmlDisplayer testDisplayer: testDisplayers) {
+            this.displayersByTaskPath.put(testDisplayer.getTaskPath(), testDisplayer);
+        }
+
+        this.mainLock = new ReentrantLock();
+        this.taskProgresses = new LinkedHashMap<>();
+        this.ended = false;
+    }
+
+    @Override
+    public void statusChanged(ProgressEvent event) {
+        if (!(event instanceof TestProgressEvent)) {
+            return;
+        }
+
+        try {
+            processTestEvent((TestProgressEvent)event);
+        } catch (Throwable ex) {
+            LOGGER.log(Level.SEVERE, "Failed to process test event: " + event, ex);
+        }
+    }
+
+    private static String tryGetTaskPath(OperationDescriptor descriptor) {
+        OperationDescriptor current = descriptor;
+        while (current != null) {
+            if (current instanceof TaskOperationDescriptor) {
+                return ((TaskOperationDescriptor)current).getTaskPath();
+            }
+            current = current.getParent();
+        }
+        return null;
+    }
+
+    private void processTestEvent(TestProgressEvent event) {
+        TestOperationDescriptor descriptor = event.getDescriptor();
+        if (!(descriptor instanceof JvmTestOperationDescriptor)) {
+            return;
+        }
+
+        JvmTestOperationDescriptor jvmDescriptor = (JvmTestOperationDescriptor)descriptor;
+        String className = jvmDescriptor.getClassName();
+        if (className == null) {
+            // Executor level suites are not displayed.
+            return;
+        }
+
+        String taskPath = tryGetTaskPath(jvmDescriptor);
+        TestXmlDisplayer testDisplayer = taskPath != null ? displayersByTaskPath.get(taskPath) : null;
+        if (testDisplayer == null) {
+            return;
+        }
+
+        mainLock.lock();
+        try {
+            if (ended) {
+                LOGGER.log(Level.WARNING, "Test event received after the build has completed: {0}", event);
+                return;
+            }
+
+            TaskProgress taskProgress = getTaskProgress(taskPath, testDisplayer);
+            if (event instanceof TestStartEvent) {
+                taskProgress.getSuite(className);
+            }
+            else if (event instanceof TestFinishEvent) {
+                TestOperationResult result = ((TestFinishEvent)event).getResult();
+                if (jvmDescriptor.getJvmTestKind() == JvmTestKind.ATOMIC) {
+                    taskProgress.getSuite(className).addTestcase(jvmDescriptor, result);
+                }
+                else if (className.equals(jvmDescriptor.getSuiteName())) {
+                    taskProgress.endSuite(className, getElapsedTime(result));
+                }
+            }
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    private TaskProgress getTaskProgress(String taskPath, TestXmlDisplayer testDisplayer) {
+        assert ((ReentrantLock)mainLock).isHeldByCurrentThread();
+
+        TaskProgress result = taskProgresses.get(taskPath);
+        if (result == null) {
+            result = new TaskProgress(testDisplayer.startSession(runContext), testDisplayer.getTestName());
+            taskProgresses.put(taskPath, result);
+        }
+        return result;
+    }
+
+    /**
+     * Displays the test classes whose suite has not been completed (possibly,
+     * because the build has been canceled) and ends the test sessions.
+     *
+     * @return the names of the test tasks which have received at least a
+     *   single test event in the order of their first event. This method never
+     *   returns {@code null}.
+     */
+    public List<String> endDisplay() {
+        mainLock.lock();
+        try {
+            List<String> result = new ArrayList<>(taskProgresses.size());
+            for (TaskProgress taskProgress: taskProgresses.values()) {
+                if (!ended) {
+                    taskProgress.endDisplay();
+                }
+                result.add(taskProgress.testName);
+            }
+            ended = true;
+            return result;
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    private static long getElapsedTime(OperationResult result) {
+        return Math.max(0, result.getEndTime() - result.getStartTime());
+    }
+
+    private static final class TaskProgress {
+        private final NbGradleTestSession testSession;
+        private final String testName;
+        private final Map<String, SuiteInfo> runningSuites;
+
+        public TaskProgress(NbGradleTestSession testSession, String testName) {
+            this.testSession = testSession;
+            this.testName = testName;
+            this.runningSuites = new LinkedHashMap<>();
+        }
+
+        public SuiteInfo getSuite(String className) {
+            SuiteInfo result = runningSuites.get(className);
+            if (result == null) {
+                result = new SuiteInfo(className);
+                runningSuites.put(className, result);
+            }
+            return result;
+        }
+
+        public void endSuite(String className, long elapsedTimeInMillis) {
+            SuiteInfo suite = runningSuites.remove(className);
+            if (suite != null) {
+                displaySuite(suite, elapsedTimeInMillis);
+            }
+        }
+
+        private void displaySuite(SuiteInfo suite, long elapsedTimeInMillis) {
+            NbGradleTestSuite testSuite = testSession.startTestSuite(suite.className);
+            for (TestcaseInfo testcaseInfo: suite.testcases) {
+                testcaseInfo.addTo(testSuite);
+            }
+            testSuite.endSuite(elapsedTimeInMillis);
+        }
+
+        public void endDisplay() {
+            for (SuiteInfo suite: runningSuites.values()) {
+                if (!suite.testcases.isEmpty()) {
+                    displaySuite(suite, suite.getTotalTime());
+                }
+            }
+            runningSuites.clear();
+
+            testSession.endSession();
+        }
+    }
+
+    private static final class SuiteInfo {
+        private final String className;
+        private final List<TestcaseInfo> testcases;
+
+        public SuiteInfo(String className) {
+            this.className = className;
+            this.testcases = new ArrayList<>();
+        }
+
+        public void addTestcase(JvmTestOperationDescriptor descriptor, TestOperationResult result) {
+            String name = descriptor.getMethodName();
+            if (name == null) {
+                name = descriptor.getName();
+            }
+
+            testcases.add(new TestcaseInfo(name, className, result));
+        }
+
+        public long getTotalTime() {
+            long result = 0;
+            for (TestcaseInfo testcase: testcases) {
+                result += testcase.timeMillis;
+            }
+            return result;
+        }
+    }
+
+    private static final class TestcaseInfo {
+        private final String name;
+        private final String className;
+        private final Status status;
+        private final long timeMillis;
+        private final String failureText;
+
+        public TestcaseInfo(String name, String className, TestOperationResult result) {
+            this.name = name;
+            this.className = className;
+            this.timeMillis = getElapsedTime(result);
+
+            if (result instanceof TestFailureResult) {
+                this.status = Status.FAILED;
+                this.failureText = getFailureText((TestFailureResult)result);
+            }
+            else if (result instanceof TestSkippedResult) {
+                this.status = Status.SKIPPED;
+                this.failureText = null;
+            }
+            else {
+                this.status = Status.PASSED;
+                this.failureText = null;
+            }
+        }
+
+        private static String getFailureText(TestFailureResult result) {
+            List<? extends Failure> failures = result.getFailures();
+            if (failures == null || failures.isEmpty()) {
+                return "";
+            }
+
+            Failure failure = failures.get(0);
+            String description = failure.getDescription();
+            if (description != null) {
+                return description;
+            }
+
+            String message = failure.getMessage();
+            return message != null ? message : "";
+        }
+
+        public void addTo(NbGradleTestSuite testSuite) {
+            Testcase testcase = testSuite.addTestcase(name);
+            testcase.setClassName(className);
+            testcase.setTimeMillis(timeMillis);
+            testcase.setStatus(status);
+
+            if (failureText != null) {
+                // The XML reports of Gradle also report every failure as
+                // "failure", so we do the same.
+                Trouble trouble = new Trouble(false);
+                trouble.setStackTrace(TestXmlDisplayer.extractStackTrace(failureText));
+                testcase.setTrouble(trouble);
+            }
+        }
+    }
+}
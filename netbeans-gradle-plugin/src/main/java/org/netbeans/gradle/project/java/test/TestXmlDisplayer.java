@@ -2,11 +2,18 @@ package org.netbeans.gradle.project.java.test;
 
 import java.io.File;
 import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.LinkedList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
 import java.util.Set;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.regex.Pattern;
@@ -14,6 +21,11 @@ import javax.swing.event.ChangeListener;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
+import org.jtrim.cancel.Cancellation;
+import org.jtrim.cancel.CancellationToken;
+import org.jtrim.concurrent.CancelableTask;
+import org.jtrim.concurrent.CleanupTask;
+import org.jtrim.concurrent.MonitorableTaskExecutorService;
 import org.jtrim.utils.ExceptionHelper;
 import org.netbeans.api.project.Project;
 import org.netbeans.api.project.ProjectInformation;
@@ -24,6 +36,8 @@ import org.netbeans.gradle.project.others.test.NbGradleTestManager;
 import org.netbeans.gradle.project.others.test.NbGradleTestManagers;
 import org.netbeans.gradle.project.others.test.NbGradleTestSession;
 import org.netbeans.gradle.project.others.test.NbGradleTestSuite;
+import org.netbeans.gradle.project.util.NbTaskExecutors;
+import org.netbeans.gradle.project.util.StringUtils;
 import org.netbeans.gradle.project.view.GradleActionProvider;
 import org.netbeans.modules.gsf.testrunner.api.RerunHandler;
 import org.netbeans.modules.gsf.testrunner.api.RerunType;
@@ -43,6 +57,18 @@ public final class TestXmlDisplayer {
     private static final String NEW_LINE_PATTERN = Pattern.quote("\n");
     private static final String[] STACKTRACE_PREFIXES = {"at "};
 
+    private static final int MAX_PARSER_THREAD_COUNT = 4;
+    // The number of suites which might be parsed ahead of the suite waiting
+    // to be displayed.
+    private static final int MAX_PENDING_SUITE_COUNT = 64;
+    // Larger outputs are not kept in memory while parsing the reports but
+    // written to a temporary file until their suite is displayed.
+    private static final int MAX_BUFFERED_OUTPUT_LENGTH = 64 * 1024;
+    private static final String STDOUT_ELEMENT = "system-out";
+    private static final String STDERR_ELEMENT = "system-err";
+    private static final MonitorableTaskExecutorService REPORT_PARSER_EXECUTOR
+            = NbTaskExecutors.newExecutor("Test-Report-Parser", MAX_PARSER_THREAD_COUNT);
+
     private final Project project;
     private final JavaExtension javaExt;
     private final String testName;
@@ -72,6 +98,17 @@ public final class TestXmlDisplayer {
         return testName;
     }
 
+    /**
+     * Returns the full path of the test task whose results are displayed by
+     * this {@code TestXmlDisplayer} (e.g., ":subproject:test").
+     */
+    public String getTaskPath() {
+        String projectPath = javaExt.getCurrentModel().getMainModule().getProperties().getProjectFullName();
+        return projectPath.endsWith(":")
+                ? projectPath + testName
+                : projectPath + ":" + testName;
+    }
+
     public File tryGetReportDirectory() {
         JavaTestTask testTask = javaExt.getCurrentModel().getMainModule().getTestModelByName(testName);
         return testTask.getXmlOutputDir();
@@ -91,7 +128,13 @@ public final class TestXmlDisplayer {
             }
         });
 
-        return result != null ? result : NO_FILES;
+        if (result == null) {
+            return NO_FILES;
+        }
+
+        // Sorted so that the suites are always displayed in the same order.
+        Arrays.sort(result);
+        return result;
     }
 
     private static long tryReadTimeMillis(String timeStr, long defaultValue) {
@@ -114,7 +157,7 @@ public final class TestXmlDisplayer {
                 .split(NEW_LINE_PATTERN);
     }
 
-    private static String[] extractStackTrace(String text) {
+    static String[] extractStackTrace(String text) {
         String[] lines = toLines(text);
 
         // The first line is the exception message.
@@ -131,21 +174,23 @@ public final class TestXmlDisplayer {
         return lines;
     }
 
-    private void displayTestSuite(final File reportFile, SAXParser parser, final NbGradleTestSession testSession) throws Exception {
+    private static SuiteReport parseTestSuite(File reportFile, SAXParser parser) {
         parser.reset();
 
-        TestXmlContentHandler testXmlContentHandler = new TestXmlContentHandler(testSession, reportFile);
-        parser.parse(reportFile, testXmlContentHandler);
-
-        NbGradleTestSuite testSuite = testXmlContentHandler.testSuite;
-        if (testSuite != null) {
-            testSuite.setStdErr(testXmlContentHandler.stderr);
-            testSuite.setStdOut(testXmlContentHandler.stdout);
-            testSuite.endSuite(testXmlContentHandler.suiteTime);
+        TestXmlContentHandler testXmlContentHandler = new TestXmlContentHandler(reportFile);
+        try {
+            parser.parse(reportFile, testXmlContentHandler);
+        } catch (Exception ex) {
+            // The test cases read so far are still displayed.
+            LOGGER.log(Level.INFO, "Error while parsing " + reportFile, ex);
+        } finally {
+            testXmlContentHandler.discardUnfinishedOutput();
         }
+
+        return testXmlContentHandler.suite;
     }
 
-    private SAXParser tryGetSaxParser() {
+    private static SAXParser tryGetSaxParser() {
         SAXParserFactory parserFactory = SAXParserFactory.newInstance();
         try {
             return parserFactory.newSAXParser();
@@ -158,39 +203,114 @@ public final class TestXmlDisplayer {
         }
     }
 
-    private boolean displayTestSession(NbGradleTestSession testSession, File[] reportFiles) {
+    private static int getParserThreadCount() {
+        return Math.min(Runtime.getRuntime().availableProcessors(), MAX_PARSER_THREAD_COUNT);
+    }
+
+    private static void parseReportFiles(File[] reportFiles, ParsedSuites parsedSuites) throws Exception {
         SAXParser parser = tryGetSaxParser();
         if (parser == null) {
-            return false;
+            throw new IllegalStateException("Unable to create an XML parser.");
         }
 
-        for (File reportFile: reportFiles) {
-            try {
-                displayTestSuite(reportFile, parser, testSession);
-            } catch (Exception ex) {
-                LOGGER.log(Level.INFO, "Error while parsing " + reportFile, ex);
+        int index = parsedSuites.tryStartNext();
+        while (index >= 0) {
+            parsedSuites.complete(index, parseTestSuite(reportFiles[index], parser));
+            index = parsedSuites.tryStartNext();
+        }
+    }
+
+    private static ParsedSuites startParsingReportFiles(final File[] reportFiles, int workerCount) {
+        final ParsedSuites result = new ParsedSuites(reportFiles.length);
+
+        int taskCount = Math.max(1, Math.min(workerCount, reportFiles.length));
+        for (int i = 0; i < taskCount; i++) {
+            REPORT_PARSER_EXECUTOR.execute(Cancellation.UNCANCELABLE_TOKEN, new CancelableTask() {
+                @Override
+                public void execute(CancellationToken cancelToken) throws Exception {
+                    parseReportFiles(reportFiles, result);
+                }
+            }, new CleanupTask() {
+                @Override
+                public void cleanup(boolean canceled, Throwable error) {
+                    if (error != null) {
+                        LOGGER.log(Level.WARNING, "Failed to parse test reports.", error);
+                        result.fail();
+                    }
+                }
+            });
+        }
+
+        return result;
+    }
+
+    private static void displayTestSuite(NbGradleTestSession testSession, SuiteReport report) {
+        try {
+            NbGradleTestSuite testSuite = testSession.startTestSuite(report.suiteName);
+            for (TestcaseReport testcase: report.testcases) {
+                testcase.addTo(testSuite);
             }
+
+            testSuite.setStdErr(report.readStdErr());
+            testSuite.setStdOut(report.readStdOut());
+            testSuite.endSuite(report.suiteTime);
+        } finally {
+            report.discard();
         }
+    }
 
-        return true;
+    /**
+     * Parses the given report files concurrently and displays the parsed
+     * suites in the same order as the report files as soon as they (and all
+     * the previous ones) are parsed.
+     */
+    private boolean displayTestSession(NbGradleTestSession testSession, File[] reportFiles, int workerCount) {
+        ParsedSuites parsedSuites = startParsingReportFiles(reportFiles, workerCount);
+        try {
+            for (int i = 0; i < reportFiles.length; i++) {
+                if (!parsedSuites.awaitCompleted(i)) {
+                    return false;
+                }
+
+                SuiteReport report = parsedSuites.remove(i);
+                if (report != null) {
+                    displayTestSuite(testSession, report);
+                }
+            }
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            parsedSuites.close();
+        }
     }
 
-    private boolean displayReport(Lookup runContext, File[] reportFiles) {
-        NbGradleTestSession testSession = testManager.startSession(
+    NbGradleTestSession startSession(Lookup runContext) {
+        return testManager.startSession(
                 getProjectName(),
                 project,
                 new JavaTestRunnerNodeFactory(javaExt, new TestTaskName(testName)),
                 new JavaRerunHandler(runContext));
+    }
+
+    private boolean displayReport(Lookup runContext, File[] reportFiles, int workerCount) {
+        NbGradleTestSession testSession = startSession(runContext);
 
         try {
-            return displayTestSession(testSession, reportFiles);
+            return displayTestSession(testSession, reportFiles, workerCount);
         } finally {
             testSession.endSession();
         }
     }
 
     public boolean displayReport(Lookup runContext) {
+        return displayReport(runContext, getParserThreadCount());
+    }
+
+    boolean displayReport(Lookup runContext, int workerCount) {
         ExceptionHelper.checkNotNullArgument(runContext, "runContext");
+        ExceptionHelper.checkArgumentInRange(workerCount, 1, Integer.MAX_VALUE, "workerCount");
 
         File[] reportFiles = getTestReportFiles();
         if (reportFiles.length == 0) {
@@ -200,7 +320,7 @@ public final class TestXmlDisplayer {
             return false;
         }
 
-        return displayReport(runContext, reportFiles);
+        return displayReport(runContext, reportFiles, workerCount);
     }
 
     public class JavaRerunHandler implements RerunHandler {
@@ -255,55 +375,343 @@ public final class TestXmlDisplayer {
         }
     }
 
+    /**
+     * Hands the suites parsed by the parser threads over to the displaying
+     * thread in the order of the report files. Parser threads are blocked if
+     * they would get too far ahead of the displayed suites, so that only a
+     * limited number of parsed suites are kept in memory.
+     */
+    private static final class ParsedSuites {
+        private final Lock mainLock;
+        private final Condition changedSignal;
+        private final SuiteReport[] reports;
+        private final boolean[] completed;
+        private int nextParseIndex;
+        private int nextDisplayIndex;
+        private boolean failed;
+        private boolean closed;
+
+        public ParsedSuites(int reportCount) {
+            this.mainLock = new ReentrantLock();
+            this.changedSignal = mainLock.newCondition();
+            this.reports = new SuiteReport[reportCount];
+            this.completed = new boolean[reportCount];
+            this.nextParseIndex = 0;
+            this.nextDisplayIndex = 0;
+            this.failed = false;
+            this.closed = false;
+        }
+
+        /**
+         * Returns the index of the next report file to be parsed or -1 if
+         * there are no more report files to parse.
+         */
+        public int tryStartNext() throws InterruptedException {
+            mainLock.lock();
+            try {
+                while (!closed
+                        && nextParseIndex < reports.length
+                        && nextParseIndex >= nextDisplayIndex + MAX_PENDING_SUITE_COUNT) {
+                    changedSignal.await();
+                }
+
+                if (closed || nextParseIndex >= reports.length) {
+                    return -1;
+                }
+                return nextParseIndex++;
+            } finally {
+                mainLock.unlock();
+            }
+        }
+
+        public void complete(int index, SuiteReport report) {
+            mainLock.lock();
+            try {
+                if (!closed) {
+                    reports[index] = report;
+                    completed[index] = true;
+                    changedSignal.signalAll();
+                    return;
+                }
+            } finally {
+                mainLock.unlock();
+            }
+
+            if (report != null) {
+                report.discard();
+            }
+        }
+
+        public void fail() {
+            mainLock.lock();
+            try {
+                failed = true;
+                changedSignal.signalAll();
+            } finally {
+                mainLock.unlock();
+            }
+        }
+
+        /**
+         * Waits until the report file with the given index has been parsed.
+         * Returns {@code false} if the report file will never be parsed
+         * because a parser thread has failed.
+         */
+        public boolean awaitCompleted(int index) throws InterruptedException {
+            mainLock.lock();
+            try {
+                while (!completed[index]) {
+                    if (failed) {
+                        return false;
+                    }
+                    changedSignal.await();
+                }
+                return true;
+            } finally {
+                mainLock.unlock();
+            }
+        }
+
+        public SuiteReport remove(int index) {
+            mainLock.lock();
+            try {
+                SuiteReport result = reports[index];
+                reports[index] = null;
+                nextDisplayIndex = index + 1;
+                changedSignal.signalAll();
+                return result;
+            } finally {
+                mainLock.unlock();
+            }
+        }
+
+        /**
+         * Stops the parser threads and discards the suites which have not
+         * been displayed.
+         */
+        public void close() {
+            List<SuiteReport> toDiscard = new ArrayList<>();
+            mainLock.lock();
+            try {
+                closed = true;
+                for (int i = 0; i < reports.length; i++) {
+                    if (reports[i] != null) {
+                        toDiscard.add(reports[i]);
+                        reports[i] = null;
+                    }
+                }
+                changedSignal.signalAll();
+            } finally {
+                mainLock.unlock();
+            }
+
+            for (SuiteReport report: toDiscard) {
+                report.discard();
+            }
+        }
+    }
+
+    private static final class SuiteReport {
+        private final String suiteName;
+        private final long suiteTime;
+        private final List<TestcaseReport> testcases;
+
+        private OutputBuffer stdout;
+        private OutputBuffer stderr;
+
+        public SuiteReport(String suiteName, long suiteTime) {
+            this.suiteName = suiteName;
+            this.suiteTime = suiteTime;
+            this.testcases = new ArrayList<>();
+            this.stdout = null;
+            this.stderr = null;
+        }
+
+        public void setOutput(boolean stdOut, OutputBuffer output) {
+            if (stdOut) {
+                discard(stdout);
+                stdout = output;
+            }
+            else {
+                discard(stderr);
+                stderr = output;
+            }
+        }
+
+        private static String tryRead(OutputBuffer output) {
+            return output != null ? output.tryRead() : null;
+        }
+
+        public String readStdOut() {
+            return tryRead(stdout);
+        }
+
+        public String readStdErr() {
+            return tryRead(stderr);
+        }
+
+        private static void discard(OutputBuffer output) {
+            if (output != null) {
+                output.discard();
+            }
+        }
+
+        public void discard() {
+            discard(stdout);
+            discard(stderr);
+        }
+    }
+
+    /**
+     * Collects the content of a system-out or system-err element. The content
+     * is moved to a temporary file if it grows too large to be kept in memory.
+     */
+    private static final class OutputBuffer {
+        private final StringBuilder buffer;
+        private Path tempFile;
+        private Writer tempFileWriter;
+
+        public OutputBuffer() {
+            this.buffer = new StringBuilder();
+            this.tempFile = null;
+            this.tempFileWriter = null;
+        }
+
+        private void moveToTempFile() throws IOException {
+            tempFile = Files.createTempFile("nb-gradle-test-output-", ".txt");
+            tempFileWriter = Files.newBufferedWriter(tempFile, StringUtils.UTF8);
+            tempFileWriter.append(buffer);
+
+            buffer.setLength(0);
+            buffer.trimToSize();
+        }
+
+        public void append(char[] ch, int start, int length) throws IOException {
+            if (tempFileWriter == null && buffer.length() + length > MAX_BUFFERED_OUTPUT_LENGTH) {
+                moveToTempFile();
+            }
+
+            if (tempFileWriter != null) {
+                tempFileWriter.write(ch, start, length);
+            }
+            else {
+                buffer.append(ch, start, length);
+            }
+        }
+
+        public void finish() throws IOException {
+            if (tempFileWriter != null) {
+                tempFileWriter.close();
+                tempFileWriter = null;
+            }
+        }
+
+        public String tryRead() {
+            if (tempFile == null) {
+                return buffer.toString();
+            }
+
+            try {
+                return new String(Files.readAllBytes(tempFile), StringUtils.UTF8);
+            } catch (IOException ex) {
+                LOGGER.log(Level.INFO, "Error while reading the test output from " + tempFile, ex);
+                return null;
+            }
+        }
+
+        public void discard() {
+            if (tempFile == null) {
+                return;
+            }
+
+            try {
+                finish();
+                Files.deleteIfExists(tempFile);
+            } catch (IOException ex) {
+                LOGGER.log(Level.INFO, "Failed to remove temporary file: " + tempFile, ex);
+            }
+            tempFile = null;
+        }
+    }
+
+    private static final class TestcaseReport {
+        private final String name;
+        private final String className;
+        private final long timeMillis;
+        private Status status;
+        private boolean error;
+        private String[] stackTrace;
+
+        public TestcaseReport(String name, String className, long timeMillis, Status status) {
+            this.name = name;
+            this.className = className;
+            this.timeMillis = timeMillis;
+            this.status = status;
+            this.error = false;
+            this.stackTrace = null;
+        }
+
+        public void addTo(NbGradleTestSuite testSuite) {
+            Testcase testcase = testSuite.addTestcase(name);
+            if (className != null) {
+                testcase.setClassName(className);
+            }
+            testcase.setTimeMillis(timeMillis);
+            testcase.setStatus(status);
+
+            if (stackTrace != null) {
+                Trouble trouble = new Trouble(error);
+                trouble.setStackTrace(stackTrace);
+                testcase.setTrouble(trouble);
+            }
+        }
+    }
+
     private static final class TestXmlContentHandler extends DefaultHandler {
-        private final NbGradleTestSession session;
         private final File reportFile;
 
         private int level;
-        private NbGradleTestSuite testSuite;
-        private final List<Testcase> allTestcases;
+        private SuiteReport suite;
 
-        private String stdout;
-        private String stderr;
-        private long suiteTime;
         private boolean error;
-        private Testcase testcase;
+        private TestcaseReport testcase;
         private StringBuilder failureContent;
-        private boolean outputBuilderIsStdOut;
-        private StringBuilder outputBuilder;
+        private boolean outputIsStdOut;
+        private OutputBuffer output;
 
-        public TestXmlContentHandler(NbGradleTestSession session, File reportFile) {
-            this.session = session;
+        public TestXmlContentHandler(File reportFile) {
             this.reportFile = reportFile;
-            this.allTestcases = new LinkedList<>();
 
             this.level = 0;
-            this.testSuite = null;
-            this.suiteTime = 0;
+            this.suite = null;
             this.error = false;
             this.testcase = null;
             this.failureContent = null;
-            this.outputBuilderIsStdOut = false;
+            this.outputIsStdOut = false;
+            this.output = null;
+        }
+
+        /**
+         * Removes the temporary file of the output being read when the
+         * parsing stops due to an error.
+         */
+        public void discardUnfinishedOutput() {
+            if (output != null) {
+                output.discard();
+                output = null;
+            }
         }
 
         private void startSuite(Attributes attributes) {
             String name = attributes.getValue("", "name");
-            suiteTime = tryReadTimeMillis(attributes.getValue("", "time"), 0);
+            long suiteTime = tryReadTimeMillis(attributes.getValue("", "time"), 0);
 
             String suiteName = name != null ? name : reportFile.getName();
-            testSuite = session.startTestSuite(suiteName);
+            suite = new SuiteReport(suiteName, suiteTime);
         }
 
-        private Testcase tryGetTestCase(Attributes attributes, Status status) {
-            Testcase result = tryGetTestCase(attributes);
-            if (result != null) {
-                result.setStatus(status);
-            }
-            return result;
-        }
-
-        private Testcase tryGetTestCase(Attributes attributes) {
-            if (testSuite == null) {
+        private TestcaseReport tryGetTestCase(Attributes attributes, Status status) {
+            if (suite == null) {
                 LOGGER.warning("test suite has not been started but there is a test case to add.");
                 return null;
             }
@@ -313,16 +721,11 @@ public final class TestXmlDisplayer {
                 return null;
             }
 
-            Testcase result = testSuite.addTestcase(name);
-
             String className = attributes.getValue("", "classname");
-            if (className != null) {
-                result.setClassName(className);
-            }
-
             long time = tryReadTimeMillis(attributes.getValue("", "time"), 0);
-            result.setTimeMillis(time);
 
+            TestcaseReport result = new TestcaseReport(name, className, time, status);
+            suite.testcases.add(result);
             return result;
         }
 
@@ -336,13 +739,7 @@ public final class TestXmlDisplayer {
                     break;
             }
 
-            if (testcase != null) {
-                allTestcases.add(testcase);
-                return true;
-            }
-            else {
-                return false;
-            }
+            return testcase != null;
         }
 
         private void tryUpdateTestCase(String uri, String localName, String qName, Attributes attributes) {
@@ -350,20 +747,20 @@ public final class TestXmlDisplayer {
                 switch (qName) {
                     case "failure":
                         error = false;
-                        testcase.setStatus(Status.FAILED);
+                        testcase.status = Status.FAILED;
                         break;
                     case "error":
                         error = true;
-                        testcase.setStatus(Status.ERROR);
+                        testcase.status = Status.ERROR;
                         break;
                     case "skipped":
                         error = false;
-                        testcase.setStatus(Status.SKIPPED);
+                        testcase.status = Status.SKIPPED;
                         break;
                     default:
                         LOGGER.log(Level.WARNING, "Unexpected element in testcase: {0}", qName);
                         error = true;
-                        testcase.setStatus(Status.ERROR);
+                        testcase.status = Status.ERROR;
                         break;
                 }
                 failureContent = new StringBuilder(1024);
@@ -372,13 +769,13 @@ public final class TestXmlDisplayer {
 
         private void tryStartOutput(String uri, String localName, String qName, Attributes attributes) {
             switch (qName) {
-                case "system-out":
-                    outputBuilder = new StringBuilder();
-                    outputBuilderIsStdOut = true;
+                case STDOUT_ELEMENT:
+                    outputIsStdOut = true;
+                    output = new OutputBuffer();
                     break;
-                case "system-err":
-                    outputBuilder = new StringBuilder();
-                    outputBuilderIsStdOut = false;
+                case STDERR_ELEMENT:
+                    outputIsStdOut = false;
+                    output = new OutputBuffer();
                     break;
             }
         }
@@ -402,6 +799,22 @@ public final class TestXmlDisplayer {
             level++;
         }
 
+        private void endOutput() throws SAXException {
+            try {
+                output.finish();
+            } catch (IOException ex) {
+                throw new SAXException(ex);
+            }
+
+            if (suite != null) {
+                suite.setOutput(outputIsStdOut, output);
+            }
+            else {
+                output.discard();
+            }
+            output = null;
+        }
+
         @Override
         public void endElement(String uri, String localName, String qName) throws SAXException {
             level--;
@@ -409,38 +822,33 @@ public final class TestXmlDisplayer {
             switch (level) {
                 case 1:
                     testcase = null;
-                    if (outputBuilder != null) {
-                        if (outputBuilderIsStdOut) {
-                            stdout = outputBuilder.toString();
-                        }
-                        else {
-                            stderr = outputBuilder.toString();
-                        }
-                        outputBuilder = null;
+                    if (output != null) {
+                        endOutput();
                     }
                     break;
                 case 2:
                     if (failureContent != null && testcase != null) {
-                        Trouble trouble = new Trouble(error);
-                        trouble.setStackTrace(extractStackTrace(failureContent.toString()));
-                        testcase.setTrouble(trouble);
+                        testcase.error = error;
+                        testcase.stackTrace = extractStackTrace(failureContent.toString());
                     }
                     failureContent = null;
                     break;
             }
         }
 
-        private static void tryAppend(char[] ch, int start, int length, StringBuilder... results) {
-            for (StringBuilder result: results) {
-                if (result != null) {
-                    result.append(ch, start, length);
-                }
-            }
-        }
-
         @Override
         public void characters(char[] ch, int start, int length) throws SAXException {
-            tryAppend(ch, start, length, failureContent, outputBuilder);
+            if (failureContent != null) {
+                failureContent.append(ch, start, length);
+            }
+
+            if (output != null) {
+                try {
+                    output.append(ch, start, length);
+                } catch (IOException ex) {
+                    throw new SAXException(ex);
+                }
+            }
         }
     }
 }
@@ -0,0 +1,282 @@
+package org.netbeans.gradle.project.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.jtrim.event.ListenerRef;
+import org.jtrim.utils.ExceptionHelper;
+import org.netbeans.gradle.model.util.PhaseTimer;
+import org.netbeans.gradle.project.util.NbSupplier;
+
+/**
+ * Collects the metrics of loading the models of projects and executing Gradle
+ * commands. The {@link #getDefault() default instance} is registered in the
+ * platform {@code MBeanServer} with the name {@value #DEFAULT_OBJECT_NAME}.
+ * <P>
+ * The instrumented components report their events to the instance they were
+ * given (which is the default instance, unless specified otherwise). Queue
+ * depths are not reported but queried from the sources added by the owners of
+ * the queues. Rates are only computed when they are read.
+ * <P>
+ * Instances of this class are safe to be used by multiple threads
+ * concurrently.
+ */
+public final class GradleProjectMetrics implements GradleProjectMetricsMXBean {
+    private static final Logger LOGGER = Logger.getLogger(GradleProjectMetrics.class.getName());
+
+    public static final String DEFAULT_OBJECT_NAME = "org.netbeans.gradle:type=GradleProjectMetrics";
+
+    private static final int OUTPUT_RATE_WINDOW_SECONDS = 10;
+
+    private static final AtomicReference<GradleProjectMetrics> DEFAULT_REF = new AtomicReference<>(null);
+
+    private final PhaseTimer.Clock clock;
+
+    private final AtomicLong loadsStarted;
+    private final AtomicLong loadsCompleted;
+    private final AtomicLong loadsFailed;
+    private final LatencyHistogram loadLatency;
+
+    private final AtomicLong modelCacheHits;
+    private final AtomicLong modelCacheMisses;
+    private final AtomicLong modelCacheEvictions;
+    private final AtomicLong persistentCacheHits;
+    private final AtomicLong persistentCacheMisses;
+
+    private final QueueDepthSources queuedModelLoadsSources;
+    private final QueueDepthSources queuedDaemonTasksSources;
+    private final LatencyHistogram daemonLockWait;
+
+    private final AtomicLong outputLines;
+    private final RateMeter outputLineRate;
+
+    public GradleProjectMetrics() {
+        this(PhaseTimer.SYSTEM_CLOCK);
+    }
+
+    public GradleProjectMetrics(PhaseTimer.Clock clock) {
+        ExceptionHelper.checkNotNullArgument(clock, "clock");
+
+        this.clock = clock;
+        this.loadsStarted = new AtomicLong(0);
+        this.loadsCompleted = new AtomicLong(0);
+        this.loadsFailed = new AtomicLong(0);
+        this.loadLatency = new LatencyHistogram();
+        this.modelCacheHits = new AtomicLong(0);
+        this.modelCacheMisses = new AtomicLong(0);
+        this.modelCacheEvictions = new AtomicLong(0);
+        this.persistentCacheHits = new AtomicLong(0);
+        this.persistentCacheMisses = new AtomicLong(0);
+        this.queuedModelLoadsSources = new QueueDepthSources();
+        this.queuedDaemonTasksSources = new QueueDepthSources();
+        this.daemonLockWait = new LatencyHistogram();
+        this.outputLines = new AtomicLong(0);
+        this.outputLineRate = new RateMeter(clock, OUTPUT_RATE_WINDOW_SECONDS);
+    }
+
+    public static GradleProjectMetrics getDefault() {
+        GradleProjectMetrics result = DEFAULT_REF.get();
+        if (result == null) {
+            result = new GradleProjectMetrics();
+            if (DEFAULT_REF.compareAndSet(null, result)) {
+                try {
+                    result.registerMBean(new ObjectName(DEFAULT_OBJECT_NAME));
+                } catch (JMException | RuntimeException ex) {
+                    LOGGER.log(Level.INFO, "Failed to register the metrics of Gradle projects.", ex);
+                }
+            }
+            else {
+                result = DEFAULT_REF.get();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Unregisters the default instance from the platform {@code MBeanServer}
+     * if it was registered. This method does nothing if the default instance
+     * was never requested.
+     */
+    public static void unregisterDefault() {
+        GradleProjectMetrics metrics = DEFAULT_REF.get();
+        if (metrics == null) {
+            return;
+        }
+
+        try {
+            ObjectName name = new ObjectName(DEFAULT_OBJECT_NAME);
+            if (getMBeanServer().isRegistered(name)) {
+                metrics.unregisterMBean(name);
+            }
+        } catch (JMException | RuntimeException ex) {
+            LOGGER.log(Level.INFO, "Failed to unregister the metrics of Gradle projects.", ex);
+        }
+    }
+
+    public void registerMBean(ObjectName name) throws JMException {
+        ExceptionHelper.checkNotNullArgument(name, "name");
+        getMBeanServer().registerMBean(this, name);
+    }
+
+    public void unregisterMBean(ObjectName name) throws JMException {
+        ExceptionHelper.checkNotNullArgument(name, "name");
+        getMBeanServer().unregisterMBean(name);
+    }
+
+    private static MBeanServer getMBeanServer() {
+        return ManagementFactory.getPlatformMBeanServer();
+    }
+
+    /**
+     * Returns the current time of the clock of these metrics to be passed to
+     * the methods requiring a start time.
+     */
+    public long getCurrentTimeNanos() {
+        return clock.nanoTime();
+    }
+
+    private long getElapsedNanos(long startTimeNanos) {
+        return clock.nanoTime() - startTimeNanos;
+    }
+
+    /**
+     * Records the start of a model load and returns the start time to be
+     * passed to {@link #onLoadCompleted(long) onLoadCompleted} or to
+     * {@link #onLoadFailed(long) onLoadFailed}.
+     */
+    public long onLoadStarted() {
+        loadsStarted.incrementAndGet();
+        return clock.nanoTime();
+    }
+
+    public void onLoadCompleted(long startTimeNanos) {
+        loadsCompleted.incrementAndGet();
+        loadLatency.record(getElapsedNanos(startTimeNanos));
+    }
+
+    public void onLoadFailed(long startTimeNanos) {
+        loadsFailed.incrementAndGet();
+        loadLatency.record(getElapsedNanos(startTimeNanos));
+    }
+
+    public void onModelCacheHit() {
+        modelCacheHits.incrementAndGet();
+    }
+
+    public void onModelCacheMiss() {
+        modelCacheMisses.incrementAndGet();
+    }
+
+    public void onModelCacheEvictions(int evictionCount) {
+        modelCacheEvictions.addAndGet(evictionCount);
+    }
+
+    public void onPersistentCacheHit() {
+        persistentCacheHits.incrementAndGet();
+    }
+
+    public void onPersistentCacheMiss() {
+        persistentCacheMisses.incrementAndGet();
+    }
+
+    public void onDaemonLockAcquired(long waitStartTimeNanos) {
+        daemonLockWait.record(getElapsedNanos(waitStartTimeNanos));
+    }
+
+    public void onOutputLines(int lineCount) {
+        outputLines.addAndGet(lineCount);
+    }
+
+    /**
+     * Adds a source of model loads waiting to be executed. The reported
+     * number of queued model loads is the sum of the values of all the added
+     * sources.
+     */
+    public ListenerRef addQueuedModelLoadsSource(NbSupplier<Long> source) {
+        return queuedModelLoadsSources.add(source);
+    }
+
+    /**
+     * Adds a source of Gradle tasks waiting for other Gradle tasks. The
+     * reported number of queued tasks is the sum of the values of all the
+     * added sources.
+     */
+    public ListenerRef addQueuedDaemonTasksSource(NbSupplier<Long> source) {
+        return queuedDaemonTasksSources.add(source);
+    }
+
+    @Override
+    public long getLoadsStarted() {
+        return loadsStarted.get();
+    }
+
+    @Override
+    public long getLoadsCompleted() {
+        return loadsCompleted.get();
+    }
+
+    @Override
+    public long getLoadsFailed() {
+        return loadsFailed.get();
+    }
+
+    @Override
+    public LatencyStats getLoadLatency() {
+        return loadLatency.getStats();
+    }
+
+    @Override
+    public long getModelCacheHits() {
+        return modelCacheHits.get();
+    }
+
+    @Override
+    public long getModelCacheMisses() {
+        return modelCacheMisses.get();
+    }
+
+    @Override
+    public long getModelCacheEvictions() {
+        return modelCacheEvictions.get();
+    }
+
+    @Override
+    public long getPersistentCacheHits() {
+        return persistentCacheHits.get();
+    }
+
+    @Override
+    public long getPersistentCacheMisses() {
+        return persistentCacheMisses.get();
+    }
+
+    @Override
+    public long getQueuedModelLoads() {
+        return queuedModelLoadsSources.getSum();
+    }
+
+    @Override
+    public long getQueuedDaemonTasks() {
+        return queuedDaemonTasksSources.getSum();
+    }
+
+    @Override
+    public LatencyStats getDaemonLockWait() {
+        return daemonLockWait.getStats();
+    }
+
+    @Override
+    public long getOutputLines() {
+        return outputLines.get();
+    }
+
+    @Override
+    public double getOutputLinesPerSecond() {
+        return outputLineRate.getRatePerSecond(outputLines.get());
+    }
+}
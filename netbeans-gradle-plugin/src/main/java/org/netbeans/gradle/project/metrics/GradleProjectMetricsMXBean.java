@@ -0,0 +1,58 @@
+package org.netbeans.gradle.project.metrics;
+
+/**
+ * Defines the management interface of {@link GradleProjectMetrics}.
+ */
+public interface GradleProjectMetricsMXBean {
+    /**
+     * Returns the number of model loads started (including the ones still
+     * in progress).
+     */
+    public long getLoadsStarted();
+
+    public long getLoadsCompleted();
+
+    public long getLoadsFailed();
+
+    /**
+     * Returns the durations of the completed and failed model loads.
+     */
+    public LatencyStats getLoadLatency();
+
+    public long getModelCacheHits();
+
+    public long getModelCacheMisses();
+
+    public long getModelCacheEvictions();
+
+    public long getPersistentCacheHits();
+
+    public long getPersistentCacheMisses();
+
+    /**
+     * Returns the number of model loads waiting for the
+     * "Gradle-Project-Loader" executors.
+     */
+    public long getQueuedModelLoads();
+
+    /**
+     * Returns the number of Gradle tasks (including model loads) waiting for
+     * other Gradle tasks to complete.
+     */
+    public long getQueuedDaemonTasks();
+
+    /**
+     * Returns the time Gradle tasks (including model loads) spent waiting for
+     * other Gradle tasks to complete.
+     */
+    public LatencyStats getDaemonLockWait();
+
+    public long getOutputLines();
+
+    /**
+     * Returns the average number of output lines of Gradle commands processed
+     * per second since the oldest read of this attribute in the last few
+     * seconds.
+     */
+    public double getOutputLinesPerSecond();
+}
@@ -0,0 +1,69 @@
+package org.netbeans.gradle.project.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Records durations into a histogram with fixed buckets.
+ * <P>
+ * Instances of this class are safe to be used by multiple threads
+ * concurrently.
+ */
+final class LatencyHistogram {
+    private static final long[] BUCKET_UPPER_BOUNDS_MILLIS = {10, 100, 1000, 10000, 60000, Long.MAX_VALUE};
+
+    private final AtomicLong count;
+    private final AtomicLong totalNanos;
+    private final AtomicLong maxNanos;
+    private final AtomicLongArray bucketCounts;
+
+    public LatencyHistogram() {
+        this.count = new AtomicLong(0);
+        this.totalNanos = new AtomicLong(0);
+        this.maxNanos = new AtomicLong(0);
+        this.bucketCounts = new AtomicLongArray(BUCKET_UPPER_BOUNDS_MILLIS.length);
+    }
+
+    private static int getBucketIndex(long millis) {
+        for (int i = 0; i < BUCKET_UPPER_BOUNDS_MILLIS.length; i++) {
+            if (millis <= BUCKET_UPPER_BOUNDS_MILLIS[i]) {
+                return i;
+            }
+        }
+        return BUCKET_UPPER_BOUNDS_MILLIS.length - 1;
+    }
+
+    private void updateMax(long nanos) {
+        long prevMax;
+        do {
+            prevMax = maxNanos.get();
+            if (prevMax >= nanos) {
+                return;
+            }
+        } while (!maxNanos.compareAndSet(prevMax, nanos));
+    }
+
+    public void record(long nanos) {
+        long safeNanos = Math.max(0, nanos);
+
+        count.incrementAndGet();
+        totalNanos.addAndGet(safeNanos);
+        updateMax(safeNanos);
+        bucketCounts.incrementAndGet(getBucketIndex(TimeUnit.NANOSECONDS.toMillis(safeNanos)));
+    }
+
+    public LatencyStats getStats() {
+        long[] counts = new long[bucketCounts.length()];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = bucketCounts.get(i);
+        }
+
+        return new LatencyStats(
+                count.get(),
+                TimeUnit.NANOSECONDS.toMillis(totalNanos.get()),
+                TimeUnit.NANOSECONDS.toMillis(maxNanos.get()),
+                BUCKET_UPPER_BOUNDS_MILLIS,
+                counts);
+    }
+}
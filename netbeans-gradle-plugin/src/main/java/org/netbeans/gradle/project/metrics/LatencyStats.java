@@ -0,0 +1,73 @@
+package org.netbeans.gradle.project.metrics;
+
+import java.beans.ConstructorProperties;
+import java.util.Arrays;
+
+/**
+ * Defines a snapshot of recorded durations: The number of the durations,
+ * their sum, their maximum and a histogram of them.
+ * <P>
+ * The histogram has a bucket for each element of
+ * {@link #getBucketUpperBoundsMillis() getBucketUpperBoundsMillis()}, counting
+ * the durations not longer than the upper bound of the bucket but longer than
+ * the upper bound of the previous bucket.
+ * <P>
+ * Instances of this class are immutable (except for the returned arrays, which
+ * are copies).
+ */
+public final class LatencyStats {
+    private final long count;
+    private final long totalMillis;
+    private final long maxMillis;
+    private final long[] bucketUpperBoundsMillis;
+    private final long[] bucketCounts;
+
+    @ConstructorProperties({"count", "totalMillis", "maxMillis", "bucketUpperBoundsMillis", "bucketCounts"})
+    public LatencyStats(
+            long count,
+            long totalMillis,
+            long maxMillis,
+            long[] bucketUpperBoundsMillis,
+            long[] bucketCounts) {
+
+        if (bucketUpperBoundsMillis.length != bucketCounts.length) {
+            throw new IllegalArgumentException("Bucket count mismatch: "
+                    + bucketUpperBoundsMillis.length + " != " + bucketCounts.length);
+        }
+
+        this.count = count;
+        this.totalMillis = totalMillis;
+        this.maxMillis = maxMillis;
+        this.bucketUpperBoundsMillis = bucketUpperBoundsMillis.clone();
+        this.bucketCounts = bucketCounts.clone();
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getTotalMillis() {
+        return totalMillis;
+    }
+
+    public long getMaxMillis() {
+        return maxMillis;
+    }
+
+    public long[] getBucketUpperBoundsMillis() {
+        return bucketUpperBoundsMillis.clone();
+    }
+
+    public long[] getBucketCounts() {
+        return bucketCounts.clone();
+    }
+
+    @Override
+    public String toString() {
+        return "LatencyStats{" + "count=" + count
+                + ", totalMillis=" + totalMillis
+                + ", maxMillis=" + maxMillis
+                + ", bucketUpperBoundsMillis=" + Arrays.toString(bucketUpperBoundsMillis)
+                + ", bucketCounts=" + Arrays.toString(bucketCounts) + '}';
+    }
+}
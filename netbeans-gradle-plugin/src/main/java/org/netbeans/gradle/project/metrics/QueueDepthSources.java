@@ -0,0 +1,60 @@
+package org.netbeans.gradle.project.metrics;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.jtrim.event.ListenerRef;
+import org.jtrim.utils.ExceptionHelper;
+import org.netbeans.gradle.project.util.NbSupplier;
+
+/**
+ * Defines the depth of a kind of queue having possibly multiple instances
+ * (e.g., multiple executors loading models). The depth is the sum of the
+ * values of the sources added by the owners of the queues.
+ * <P>
+ * Instances of this class are safe to be used by multiple threads
+ * concurrently.
+ */
+final class QueueDepthSources {
+    private final List<NbSupplier<Long>> sources;
+
+    public QueueDepthSources() {
+        this.sources = new CopyOnWriteArrayList<>();
+    }
+
+    public ListenerRef add(final NbSupplier<Long> source) {
+        ExceptionHelper.checkNotNullArgument(source, "source");
+
+        // Wrapped, so that adding the same source twice counts it twice and
+        // removing one of them leaves the other.
+        final NbSupplier<Long> entry = new NbSupplier<Long>() {
+            @Override
+            public Long get() {
+                return source.get();
+            }
+        };
+        sources.add(entry);
+
+        return new ListenerRef() {
+            @Override
+            public boolean isRegistered() {
+                return sources.contains(entry);
+            }
+
+            @Override
+            public void unregister() {
+                sources.remove(entry);
+            }
+        };
+    }
+
+    public long getSum() {
+        long result = 0;
+        for (NbSupplier<Long> source: sources) {
+            Long depth = source.get();
+            if (depth != null) {
+                result += depth;
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,85 @@
+package org.netbeans.gradle.project.metrics;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import org.jtrim.utils.ExceptionHelper;
+import org.netbeans.gradle.model.util.PhaseTimer;
+
+/**
+ * Computes the rate of a monotonically increasing counter from the values of
+ * the counter seen when the rate is read. So recording events costs nothing
+ * more than incrementing the counter.
+ * <P>
+ * The rate is the increase of the counter since the oldest read within the
+ * window (or since the latest earlier read, if there was no read in the
+ * window) divided by the elapsed time. The values seen at the reads are
+ * retained at most once per second, so only a few of them are kept.
+ * <P>
+ * Instances of this class are safe to be used by multiple threads
+ * concurrently.
+ */
+final class RateMeter {
+    private static final long MIN_SAMPLE_DISTANCE_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final PhaseTimer.Clock clock;
+    private final long windowNanos;
+    private final Lock mainLock;
+    // The oldest sample is first.
+    private final Deque<Sample> samples;
+
+    public RateMeter(PhaseTimer.Clock clock, int windowSeconds) {
+        ExceptionHelper.checkNotNullArgument(clock, "clock");
+        ExceptionHelper.checkArgumentInRange(windowSeconds, 1, Integer.MAX_VALUE, "windowSeconds");
+
+        this.clock = clock;
+        this.windowNanos = TimeUnit.SECONDS.toNanos(windowSeconds);
+        this.mainLock = new ReentrantLock();
+        this.samples = new ArrayDeque<>();
+        this.samples.add(new Sample(clock.nanoTime(), 0));
+    }
+
+    /**
+     * Returns the rate per second of the counter having the given current
+     * value.
+     */
+    public double getRatePerSecond(long currentCount) {
+        long currentTime = clock.nanoTime();
+        long windowStart = currentTime - windowNanos;
+
+        Sample baseline;
+        mainLock.lock();
+        try {
+            while (samples.size() > 1 && samples.getFirst().timeNanos < windowStart) {
+                samples.removeFirst();
+            }
+            baseline = samples.getFirst();
+
+            if (currentTime - samples.getLast().timeNanos >= MIN_SAMPLE_DISTANCE_NANOS) {
+                samples.addLast(new Sample(currentTime, currentCount));
+            }
+        } finally {
+            mainLock.unlock();
+        }
+
+        long elapsedNanos = currentTime - baseline.timeNanos;
+        if (elapsedNanos <= 0) {
+            return 0.0;
+        }
+
+        long increase = currentCount - baseline.count;
+        return (double)increase * TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    private static final class Sample {
+        public final long timeNanos;
+        public final long count;
+
+        public Sample(long timeNanos, long count) {
+            this.timeNanos = timeNanos;
+            this.count = count;
+        }
+    }
+}
@@ -31,12 +31,14 @@ import org.jtrim.concurrent.CancelableTask;
 import org.jtrim.concurrent.MonitorableTaskExecutorService;
 import org.jtrim.concurrent.TaskExecutor;
 import org.jtrim.concurrent.Tasks;
+import org.jtrim.concurrent.ThreadPoolTaskExecutor;
 import org.jtrim.property.PropertySource;
 import org.jtrim.utils.ExceptionHelper;
 import org.netbeans.api.progress.ProgressHandle;
 import org.netbeans.api.project.Project;
 import org.netbeans.gradle.model.BuildOperationArgs;
 import org.netbeans.gradle.model.OperationInitializer;
+import org.netbeans.gradle.model.util.PhaseTimer;
 import org.netbeans.gradle.project.LoadedProjectManager;
 import org.netbeans.gradle.project.NbGradleProject;
 import org.netbeans.gradle.project.NbGradleProjectFactory;
@@ -45,6 +47,7 @@ import org.netbeans.gradle.project.api.modelquery.GradleTarget;
 import org.netbeans.gradle.project.api.task.CommandCompleteListener;
 import org.netbeans.gradle.project.api.task.DaemonTaskContext;
 import org.netbeans.gradle.project.extensions.NbGradleExtensionRef;
+import org.netbeans.gradle.project.metrics.GradleProjectMetrics;
 import org.netbeans.gradle.project.model.issue.ModelLoadIssue;
 import org.netbeans.gradle.project.model.issue.ModelLoadIssueReporter;
 import org.netbeans.gradle.project.model.issue.ModelLoadIssues;
@@ -60,6 +63,7 @@ import org.netbeans.gradle.project.tasks.GradleDaemonFailures;
 import org.netbeans.gradle.project.tasks.GradleDaemonManager;
 import org.netbeans.gradle.project.tasks.GradleTasks;
 import org.netbeans.gradle.project.util.GradleVersions;
+import org.netbeans.gradle.project.util.KeySerializingExecutor;
 import org.netbeans.gradle.project.util.NbFunction;
 import org.netbeans.gradle.project.util.NbSupplier;
 import org.netbeans.gradle.project.util.NbTaskExecutors;
@@ -68,8 +72,13 @@ import org.netbeans.gradle.project.view.GlobalErrorReporter;
 public final class DefaultGradleModelLoader implements ModelLoader<NbGradleModel> {
     private static final Logger LOGGER = Logger.getLogger(DefaultGradleModelLoader.class.getName());
 
-    private static final TaskExecutor DEFAULT_PROJECT_LOADER
-            = NbTaskExecutors.newExecutor("Gradle-Project-Loader", 1);
+    private static final long PROJECT_LOADER_IDLE_TIMEOUT_MS = 5000;
+
+    private static final ThreadPoolTaskExecutor DEFAULT_PROJECT_LOADER_EXECUTOR = createProjectLoaderExecutor();
+    private static final KeySerializingExecutor DEFAULT_PROJECT_LOADER
+            = new KeySerializingExecutor(DEFAULT_PROJECT_LOADER_EXECUTOR);
+
+    private static final AtomicBoolean DEFAULT_METRICS_INITIALIZED = new AtomicBoolean(false);
 
     private static final MonitorableTaskExecutorService DEFAULT_MODEL_LOAD_NOTIFIER
             = NbTaskExecutors.newExecutor("Gradle-Project-Load-Notifier", 1);
@@ -78,11 +87,12 @@ public final class DefaultGradleModelLoader implements ModelLoader<NbGradleModel
             = new AtomicReference<>(null);
 
     private final NbGradleProject project;
-    private final TaskExecutor projectLoader;
+    private final KeySerializingExecutor projectLoader;
     private final MonitorableTaskExecutorService modelLoadNotifier;
     private final LoadedProjectManager loadedProjectManager;
     private final PersistentModelCache<NbGradleModel> persistentCache;
     private final NbSupplier<? extends GradleModelCache> cacheRef;
+    private final GradleProjectMetrics metrics;
 
     private final AtomicBoolean modelWasSetOnce;
 
@@ -93,9 +103,49 @@ public final class DefaultGradleModelLoader implements ModelLoader<NbGradleModel
         this.loadedProjectManager = builder.loadedProjectManager;
         this.persistentCache = builder.persistentCache;
         this.cacheRef = builder.cacheRef;
+        this.metrics = builder.metrics != null ? builder.metrics : getDefaultMetrics();
         this.modelWasSetOnce = new AtomicBoolean(false);
     }
 
+    private static ThreadPoolTaskExecutor createProjectLoaderExecutor() {
+        final PropertySource<Integer> maxLoads = CommonGlobalSettings.getDefault().maxConcurrentModelLoads().getActiveSource();
+
+        final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor(
+                "Gradle-Project-Loader",
+                getMaxConcurrentModelLoads(maxLoads),
+                Integer.MAX_VALUE,
+                PROJECT_LOADER_IDLE_TIMEOUT_MS,
+                TimeUnit.MILLISECONDS);
+
+        maxLoads.addChangeListener(new Runnable() {
+            @Override
+            public void run() {
+                executor.setMaxThreadCount(getMaxConcurrentModelLoads(maxLoads));
+            }
+        });
+
+        return executor;
+    }
+
+    private static GradleProjectMetrics getDefaultMetrics() {
+        GradleProjectMetrics result = GradleProjectMetrics.getDefault();
+        if (!DEFAULT_METRICS_INITIALIZED.getAndSet(true)) {
+            result.addQueuedModelLoadsSource(new NbSupplier<Long>() {
+                @Override
+                public Long get() {
+                    return DEFAULT_PROJECT_LOADER.getQueuedTaskCount()
+                            + DEFAULT_PROJECT_LOADER_EXECUTOR.getNumberOfQueuedTasks();
+                }
+            });
+        }
+        return result;
+    }
+
+    private static int getMaxConcurrentModelLoads(PropertySource<Integer> maxLoads) {
+        Integer result = maxLoads.getValue();
+        return result != null ? Math.max(1, result) : 1;
+    }
+
     private static void updateProjectFromCacheIfNeeded(NbGradleModel newModel) {
         File projectDir = newModel.getProjectDir();
         NbGradleProject project = LoadedProjectManager.getDefault().tryGetLoadedProject(projectDir);
@@ -277,7 +327,14 @@ public final class DefaultGradleModelLoader implements ModelLoader<NbGradleModel
         }
 
         try {
-            return persistentCache.tryGetModel(projectLoadKey.getPersistentModelKey());
+            NbGradleModel result = persistentCache.tryGetModel(projectLoadKey.getPersistentModelKey());
+            if (result != null) {
+                metrics.onPersistentCacheHit();
+            }
+            else {
+                metrics.onPersistentCacheMiss();
+            }
+            return result;
         } catch (IOException ex) {
             LOGGER.log(Level.INFO,
                     "Failed to read persistent cache for project " + projectLoadKey.project.getProjectDirectoryAsFile(),
@@ -397,8 +454,14 @@ public final class DefaultGradleModelLoader implements ModelLoader<NbGradleModel
 
         final Runnable safeCompleteListener = Tasks.runOnceTask(aboutToCompleteListener, false);
 
+        // Projects of different builds are loaded concurrently (if allowed),
+        // but loads of the same build are serialized, so that the root
+        // project is loaded first and the others are found in the cache.
+        Path rootProjectDir = getProjectLoadKey(project).getAppliedRootProjectDir();
+        TaskExecutor rootProjectLoader = projectLoader.getExecutor(rootProjectDir);
+
         String caption = NbStrings.getLoadingProjectText(project.getDisplayName());
-        GradleDaemonManager.submitGradleTask(projectLoader, caption, new DaemonTask() {
+        GradleDaemonManager.submitGradleTask(rootProjectLoader, caption, new DaemonTask() {
             @Override
             public void run(CancellationToken cancelToken, ProgressHandle progress) {
                 ProjectLoadRequest projectLoadKey = getProjectLoadKey(project);
@@ -429,7 +492,7 @@ public final class DefaultGradleModelLoader implements ModelLoader<NbGradleModel
                     }
                 }
             }
-        }, true, projectTaskCompleteListener(safeCompleteListener));
+        }, true, true, projectTaskCompleteListener(safeCompleteListener), metrics);
     }
 
     private void saveToPersistentCache(Collection<NbGradleModel> models) {
@@ -462,14 +525,21 @@ public final class DefaultGradleModelLoader implements ModelLoader<NbGradleModel
 
     private void introduceProjects(
             List<NbGradleModel> otherModels,
-            NbGradleModel mainModel) {
+            NbGradleModel mainModel,
+            PhaseTimer timer) {
 
         List<NbGradleModel> toSave = new ArrayList<>(otherModels.size() + 1);
         for (NbGradleModel model: otherModels) {
             toSave.add(introduceLoadedModel(model, false));
         }
         toSave.add(introduceLoadedModel(mainModel, true));
-        saveToPersistentCache(toSave);
+
+        PhaseTimer.Phase cacheWritePhase = timer.startPhase(ModelLoadPhases.CACHE_WRITE);
+        try {
+            saveToPersistentCache(toSave);
+        } finally {
+            cacheWritePhase.end();
+        }
     }
 
     public static void setupLongRunningOP(OperationInitializer setup, LongRunningOperation op) {
@@ -515,6 +585,28 @@ public final class DefaultGradleModelLoader implements ModelLoader<NbGradleModel
     }
 
     private NbGradleModel loadModelWithProgress(
+            CancellationToken cancelToken,
+            ProjectLoadRequest projectLoadKey,
+            ProgressHandle progress,
+            NbGradleModel cachedEntry) throws IOException, GradleModelLoadError {
+
+        long loadStartTime = metrics.onLoadStarted();
+        boolean completed = false;
+        try {
+            NbGradleModel result = loadModelWithProgressUnmeasured(cancelToken, projectLoadKey, progress, cachedEntry);
+            completed = true;
+            return result;
+        } finally {
+            if (completed) {
+                metrics.onLoadCompleted(loadStartTime);
+            }
+            else {
+                metrics.onLoadFailed(loadStartTime);
+            }
+        }
+    }
+
+    private NbGradleModel loadModelWithProgressUnmeasured(
             CancellationToken cancelToken,
             final ProjectLoadRequest projectLoadKey,
             final ProgressHandle progress,
@@ -526,26 +618,39 @@ public final class DefaultGradleModelLoader implements ModelLoader<NbGradleModel
                 "Loading Gradle project from directory: {0}, settings.gradle: {1}",
                 new Object[]{projectDir, projectLoadKey.settingsGradleDef});
 
+        PhaseTimer timer = new PhaseTimer();
+
+        PhaseTimer.Phase connectPhase = timer.startPhase(ModelLoadPhases.CONNECT);
         GradleConnector gradleConnector = createGradleConnector(cancelToken, project);
         gradleConnector.forProjectDirectory(projectDir);
         ProjectConnection projectConnection = null;
 
         NbModelLoader.Result loadedModels;
         try {
-            projectConnection = gradleConnector.connect();
+            try {
+                projectConnection = gradleConnector.connect();
+            } finally {
+                connectPhase.end();
+            }
 
             DefaultModelBuilderSetup setup = modelBuilderSetup(projectLoadKey, progress);
 
             ModelBuilder<BuildEnvironment> modelBuilder = projectConnection.model(BuildEnvironment.class);
             setupLongRunningOP(setup, modelBuilder);
 
-            BuildEnvironment env = modelBuilder.get();
+            BuildEnvironment env;
+            PhaseTimer.Phase buildEnvironmentPhase = timer.startPhase(ModelLoadPhases.BUILD_ENVIRONMENT);
+            try {
+                env = modelBuilder.get();
+            } finally {
+                buildEnvironmentPhase.end();
+            }
             reportKnownIssues(env);
 
             GradleTarget gradleTarget = new GradleTarget(
                     setup.getJDKVersion(),
                     GradleVersion.version(env.getGradle().getGradleVersion()));
-            NbModelLoader modelLoader = chooseModel(projectLoadKey.settingsGradleDef, gradleTarget, cachedEntry, setup);
+            NbModelLoader modelLoader = chooseModel(projectLoadKey.settingsGradleDef, gradleTarget, cachedEntry, setup, timer);
 
             loadedModels = modelLoader.loadModels(project, projectConnection, progress);
         } finally {
@@ -560,7 +665,8 @@ public final class DefaultGradleModelLoader implements ModelLoader<NbGradleModel
                 ? cachedEntry.updateEntry(loadedModels.getMainModel())
                 : loadedModels.getMainModel();
 
-        introduceProjects(loadedModels.getOtherModels(), result);
+        introduceProjects(loadedModels.getOtherModels(), result, loadedModels.getTimer());
+        ModelLoadPhases.logTimes(projectDir, loadedModels.getTimer());
 
         return result;
     }
@@ -583,14 +689,15 @@ public final class DefaultGradleModelLoader implements ModelLoader<NbGradleModel
             SettingsGradleDef settingsGradleDef,
             GradleTarget gradleTarget,
             NbGradleModel cachedModel,
-            OperationInitializer setup) {
+            OperationInitializer setup,
+            PhaseTimer timer) {
 
         GradleVersion version = gradleTarget.getGradleVersion();
 
         ModelLoadingStrategy modelLoadingStrategy = CommonGlobalSettings.getDefault().modelLoadingStrategy().getActiveValue();
         NbModelLoader result = modelLoadingStrategy.canUse18Api(version)
-                ? new NbGradle18ModelLoader(settingsGradleDef, setup, gradleTarget)
-                : new NbCompatibleModelLoader(settingsGradleDef, cachedModel, setup, gradleTarget);
+                ? new NbGradle18ModelLoader(settingsGradleDef, setup, gradleTarget, timer)
+                : new NbCompatibleModelLoader(settingsGradleDef, cachedModel, setup, gradleTarget, timer);
 
         LOGGER.log(Level.INFO, "Using model loader: {0}", result.getClass().getSimpleName());
         return result;
@@ -613,11 +720,13 @@ public final class DefaultGradleModelLoader implements ModelLoader<NbGradleModel
     public static final class Builder {
         private final NbGradleProject project;
 
-        private TaskExecutor projectLoader;
+        private KeySerializingExecutor projectLoader;
         private MonitorableTaskExecutorService modelLoadNotifier;
         private LoadedProjectManager loadedProjectManager;
         private PersistentModelCache<NbGradleModel> persistentCache;
         private NbSupplier<? extends GradleModelCache> cacheRef;
+        // null means the default metrics
+        private GradleProjectMetrics metrics;
 
         public Builder(NbGradleProject project) {
             ExceptionHelper.checkNotNullArgument(project, "project");
@@ -642,11 +751,17 @@ public final class DefaultGradleModelLoader implements ModelLoader<NbGradleModel
                     return getDefaultCache();
                 }
             };
+            this.metrics = null;
         }
 
+        /**
+         * Sets the executor executing the model loads. Loads of projects of
+         * the same build are never executed concurrently regardless of the
+         * given executor.
+         */
         public void setProjectLoader(TaskExecutor projectLoader) {
             ExceptionHelper.checkNotNullArgument(projectLoader, "projectLoader");
-            this.projectLoader = projectLoader;
+            this.projectLoader = new KeySerializingExecutor(projectLoader);
         }
 
         public void setModelLoadNotifier(MonitorableTaskExecutorService modelLoadNotifier) {
@@ -674,6 +789,11 @@ public final class DefaultGradleModelLoader implements ModelLoader<NbGradleModel
             };
         }
 
+        public void setMetrics(GradleProjectMetrics metrics) {
+            ExceptionHelper.checkNotNullArgument(metrics, "metrics");
+            this.metrics = metrics;
+        }
+
         public DefaultGradleModelLoader create() {
             return new DefaultGradleModelLoader(this);
         }
@@ -12,6 +12,7 @@ import org.jtrim.event.ListenerManager;
 import org.jtrim.event.ListenerRef;
 import org.jtrim.utils.ExceptionHelper;
 import org.netbeans.gradle.model.util.CollectionUtils;
+import org.netbeans.gradle.project.metrics.GradleProjectMetrics;
 import org.openide.filesystems.FileObject;
 import org.openide.filesystems.FileUtil;
 
@@ -20,11 +21,19 @@ public final class GradleModelCache {
     private final Map<CacheKey, NbGradleModel> cache;
     private final AtomicInteger maxCapacity;
     private final ListenerManager<ProjectModelUpdatedListener> updateListeners;
+    private final GradleProjectMetrics metrics;
 
     public GradleModelCache(int maxCapacity) {
+        this(maxCapacity, GradleProjectMetrics.getDefault());
+    }
+
+    public GradleModelCache(int maxCapacity, GradleProjectMetrics metrics) {
         if (maxCapacity < 0) {
             throw new IllegalArgumentException("Illegal max. capacity value: " + maxCapacity);
         }
+        ExceptionHelper.checkNotNullArgument(metrics, "metrics");
+
+        this.metrics = metrics;
 
         this.cacheLock = new ReentrantLock();
         this.maxCapacity = new AtomicInteger(maxCapacity);
@@ -42,11 +51,14 @@ public final class GradleModelCache {
             return;
         }
 
+        int evictionCount = 0;
         Iterator<?> itr = cache.entrySet().iterator();
         while (cache.size() > currentMaxCapacity && itr.hasNext()) {
             itr.next();
             itr.remove();
+            evictionCount++;
         }
+        metrics.onModelCacheEvictions(evictionCount);
     }
 
     public void setMaxCapacity(int maxCapacity) {
@@ -141,12 +153,21 @@ public final class GradleModelCache {
 
     public NbGradleModel tryGet(File projectDir, File settingsFile) {
         CacheKey key = new CacheKey(projectDir, settingsFile);
+        NbGradleModel result;
         cacheLock.lock();
         try {
-            return cache.get(key);
+            result = cache.get(key);
         } finally {
             cacheLock.unlock();
         }
+
+        if (result != null) {
+            metrics.onModelCacheHit();
+        }
+        else {
+            metrics.onModelCacheMiss();
+        }
+        return result;
     }
 
     private static class CacheKey {
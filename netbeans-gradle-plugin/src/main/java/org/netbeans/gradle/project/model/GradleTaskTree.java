@@ -1,4 +1,4 @@
-package org.netbeans.gradle.project.view;
+package org.netbeans.gradle.project.model;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -0,0 +1,112 @@
+package org.netbeans.gradle.project.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.jtrim.utils.ExceptionHelper;
+import org.netbeans.gradle.model.GenericProjectProperties;
+import org.netbeans.gradle.model.GradleTaskID;
+import org.netbeans.gradle.model.ProjectId;
+
+/**
+ * Defines the parts of an {@link NbGradleModel} which need to be compared to
+ * tell if a reloaded model differs from the previous one.
+ * <P>
+ * The generic model info is described by the properties and the tasks of
+ * each project in the multi-project build. Extension models are opaque, so
+ * they are compared by their {@code equals} method: An extension model not
+ * overriding {@code equals} is only considered to be unchanged if the very
+ * same instance is reused.
+ * <P>
+ * Instances of this class are immutable.
+ */
+public final class ModelFingerprint {
+    private final List<Object> genericInfo;
+    private final Map<String, Object> extensionModels;
+
+    private ModelFingerprint(List<Object> genericInfo, Map<String, Object> extensionModels) {
+        this.genericInfo = genericInfo;
+        this.extensionModels = extensionModels;
+    }
+
+    public static ModelFingerprint create(
+            NbGenericModelInfo genericInfo,
+            Map<String, Object> extensionModels,
+            boolean rootWithoutSettingsGradle) {
+
+        ExceptionHelper.checkNotNullArgument(genericInfo, "genericInfo");
+        ExceptionHelper.checkNotNullArgument(extensionModels, "extensionModels");
+
+        List<Object> genericInfoFields = new ArrayList<>();
+        genericInfoFields.add(rootWithoutSettingsGradle);
+        genericInfoFields.add(genericInfo.getSettingsFile());
+        genericInfoFields.add(genericInfo.getMainProject().getProjectFullName());
+        addProjectTree(genericInfo.getProjectDef().getRootProject(), genericInfoFields);
+
+        Map<String, Object> extensionModelsCopy = new HashMap<>(extensionModels);
+        return new ModelFingerprint(
+                Collections.unmodifiableList(genericInfoFields),
+                Collections.unmodifiableMap(extensionModelsCopy));
+    }
+
+    private static void addProjectTree(NbGradleProjectTree project, List<Object> result) {
+        GenericProjectProperties properties = project.getGenericProperties();
+        ProjectId projectId = properties.getProjectId();
+
+        result.add(properties.getProjectFullName());
+        result.add(properties.getProjectName());
+        result.add(projectId.getGroup());
+        result.add(projectId.getName());
+        result.add(projectId.getVersion());
+        result.add(properties.getProjectDir());
+        result.add(properties.getBuildScript());
+        result.add(properties.getBuildDir());
+
+        result.add(project.getTasks().size());
+        for (GradleTaskID task: project.getTasks()) {
+            result.add(task.getFullName());
+        }
+
+        result.add(project.getChildren().size());
+        for (NbGradleProjectTree child: project.getChildren()) {
+            addProjectTree(child, result);
+        }
+    }
+
+    public boolean isSameGenericInfo(ModelFingerprint other) {
+        ExceptionHelper.checkNotNullArgument(other, "other");
+        return genericInfo.equals(other.genericInfo);
+    }
+
+    public boolean isSameExtensionModel(String extensionName, ModelFingerprint other) {
+        ExceptionHelper.checkNotNullArgument(extensionName, "extensionName");
+        ExceptionHelper.checkNotNullArgument(other, "other");
+
+        Object model1 = extensionModels.get(extensionName);
+        Object model2 = other.extensionModels.get(extensionName);
+        if (model1 == model2) {
+            return true;
+        }
+        return model1 != null && model1.equals(model2);
+    }
+
+    public boolean isSameContent(ModelFingerprint other) {
+        if (!isSameGenericInfo(other)) {
+            return false;
+        }
+
+        for (String extensionName: extensionModels.keySet()) {
+            if (!isSameExtensionModel(extensionName, other)) {
+                return false;
+            }
+        }
+        for (String extensionName: other.extensionModels.keySet()) {
+            if (!isSameExtensionModel(extensionName, other)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,103 @@
+package org.netbeans.gradle.project.model;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.netbeans.gradle.model.GenericModelFetcher;
+import org.netbeans.gradle.model.util.PhaseTimer;
+
+/**
+ * Defines the names of the phases of loading the models of a project measured
+ * by a {@link PhaseTimer}.
+ */
+final class ModelLoadPhases {
+    private static final Logger LOGGER = Logger.getLogger(ModelLoadPhases.class.getName());
+
+    // The level at which the durations of the phases are logged (e.g., "INFO").
+    private static final String LOG_LEVEL_PROPERTY = "org.netbeans.gradle.modelLoadTimesLogLevel";
+    private static final Level DEFAULT_LOG_LEVEL = Level.FINE;
+
+    /**
+     * Creating the {@code GradleConnector} and connecting to the project.
+     */
+    public static final String CONNECT = "connect";
+
+    /**
+     * Fetching the {@code BuildEnvironment} model.
+     */
+    public static final String BUILD_ENVIRONMENT = "buildEnvironment";
+
+    /**
+     * Evaluating the build scripts and building the models in the daemon.
+     */
+    public static final String EVALUATION = GenericModelFetcher.PHASE_EVALUATION;
+
+    /**
+     * Deserializing the results of the model builders.
+     */
+    public static final String DESERIALIZATION = GenericModelFetcher.PHASE_DESERIALIZATION;
+
+    /**
+     * Parsing the fetched models by the extensions.
+     */
+    public static final String PARSING = "parsing";
+
+    /**
+     * Saving the loaded models into the persistent cache.
+     */
+    public static final String CACHE_WRITE = "cacheWrite";
+
+    private static Level getLogLevel() {
+        String levelStr = System.getProperty(LOG_LEVEL_PROPERTY);
+        if (levelStr == null) {
+            return DEFAULT_LOG_LEVEL;
+        }
+
+        try {
+            return Level.parse(levelStr.trim());
+        } catch (IllegalArgumentException ex) {
+            return DEFAULT_LOG_LEVEL;
+        }
+    }
+
+    private static long toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    private static void appendTimes(String caption, Map<String, Long> times, StringBuilder result) {
+        result.append("\n  ");
+        result.append(caption);
+        result.append(':');
+
+        for (Map.Entry<String, Long> entry: times.entrySet()) {
+            result.append("\n    ");
+            result.append(entry.getKey());
+            result.append(": ");
+            result.append(toMillis(entry.getValue()));
+            result.append(" ms");
+        }
+    }
+
+    public static void logTimes(Object projectDir, PhaseTimer timer) {
+        Level level = getLogLevel();
+        if (!LOGGER.isLoggable(level)) {
+            return;
+        }
+
+        StringBuilder message = new StringBuilder(256);
+        message.append("Loaded the models of ");
+        message.append(projectDir);
+        message.append(" in ");
+        message.append(toMillis(timer.getTotalPhaseNanos()));
+        message.append(" ms");
+        appendTimes("Phases", timer.getPhaseNanos(), message);
+        appendTimes("Projects (model builders)", timer.getProjectNanos(), message);
+
+        LOGGER.log(level, message.toString());
+    }
+
+    private ModelLoadPhases() {
+        throw new AssertionError();
+    }
+}
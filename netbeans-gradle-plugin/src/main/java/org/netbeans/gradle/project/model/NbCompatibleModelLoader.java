@@ -4,6 +4,7 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -25,6 +26,7 @@ import org.netbeans.gradle.model.GenericProjectProperties;
 import org.netbeans.gradle.model.GradleTaskID;
 import org.netbeans.gradle.model.OperationInitializer;
 import org.netbeans.gradle.model.util.CollectionUtils;
+import org.netbeans.gradle.model.util.PhaseTimer;
 import org.netbeans.gradle.project.NbGradleProject;
 import org.netbeans.gradle.project.NbStrings;
 import org.netbeans.gradle.project.api.entry.ModelLoadResult;
@@ -33,6 +35,7 @@ import org.netbeans.gradle.project.api.modelquery.GradleModelDefQuery1;
 import org.netbeans.gradle.project.api.modelquery.GradleTarget;
 import org.netbeans.gradle.project.extensions.NbGradleExtensionRef;
 import org.netbeans.gradle.project.java.model.idea.IdeaJavaModelUtils;
+import org.netbeans.gradle.project.model.issue.ModelLoadIssue;
 import org.openide.util.lookup.Lookups;
 
 public final class NbCompatibleModelLoader implements NbModelLoader {
@@ -42,20 +45,32 @@ public final class NbCompatibleModelLoader implements NbModelLoader {
     private final NbGradleModel baseModels;
     private final OperationInitializer setup;
     private final GradleTarget gradleTarget;
+    private final PhaseTimer timer;
 
     public NbCompatibleModelLoader(
             SettingsGradleDef settingsGradleDef,
             NbGradleModel baseModels,
             OperationInitializer setup,
             GradleTarget gradleTarget) {
+        this(settingsGradleDef, baseModels, setup, gradleTarget, new PhaseTimer());
+    }
+
+    public NbCompatibleModelLoader(
+            SettingsGradleDef settingsGradleDef,
+            NbGradleModel baseModels,
+            OperationInitializer setup,
+            GradleTarget gradleTarget,
+            PhaseTimer timer) {
         ExceptionHelper.checkNotNullArgument(settingsGradleDef, "settingsGradleDef");
         ExceptionHelper.checkNotNullArgument(setup, "setup");
         ExceptionHelper.checkNotNullArgument(gradleTarget, "gradleTarget");
+        ExceptionHelper.checkNotNullArgument(timer, "timer");
 
         this.settingsGradleDef = settingsGradleDef;
         this.gradleTarget = gradleTarget;
         this.baseModels = baseModels;
         this.setup = setup;
+        this.timer = timer;
     }
 
     @Override
@@ -64,6 +79,20 @@ public final class NbCompatibleModelLoader implements NbModelLoader {
             ProjectConnection connection,
             ProgressHandle progress) throws IOException {
 
+        // The models are evaluated and parsed together by this loader.
+        PhaseTimer.Phase evaluationPhase = timer.startPhase(ModelLoadPhases.EVALUATION);
+        try {
+            return loadModelsUnmeasured(project, connection, progress);
+        } finally {
+            evaluationPhase.end();
+        }
+    }
+
+    private Result loadModelsUnmeasured(
+            NbGradleProject project,
+            ProjectConnection connection,
+            ProgressHandle progress) throws IOException {
+
         List<NbGradleModel.Builder> otherModels = new LinkedList<>();
 
         NbGradleModel.Builder mainModel;
@@ -83,7 +112,11 @@ public final class NbCompatibleModelLoader implements NbModelLoader {
 
         getExtensionModels(project, connection, progress, mainModel, otherModelsMap);
 
-        return new Result(mainModel.create(), NbGradleModel.createAll(otherModels));
+        return new Result(
+                mainModel.create(),
+                NbGradleModel.createAll(otherModels),
+                Collections.<ModelLoadIssue>emptyList(),
+                timer);
     }
 
     private <T> T getModelWithProgress(
@@ -7,6 +7,9 @@ import java.io.ObjectStreamException;
 import java.io.Serializable;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 import org.jtrim.utils.ExceptionHelper;
 import org.netbeans.gradle.project.properties.SettingsFiles;
 import org.netbeans.gradle.project.util.NbFileUtils;
@@ -19,6 +22,8 @@ public final class NbGenericModelInfo implements Serializable {
     private final NbGradleMultiProjectDef projectDef;
     private final Path settingsFile;
 
+    private final AtomicReference<List<GradleTaskTree>> taskTreeRef;
+
     public NbGenericModelInfo(NbGradleMultiProjectDef projectDef) {
         this(projectDef, findSettingsGradle(projectDef.getProjectDir()));
     }
@@ -28,6 +33,7 @@ public final class NbGenericModelInfo implements Serializable {
 
         this.settingsFile = settingsFile;
         this.projectDef = projectDef;
+        this.taskTreeRef = new AtomicReference<>(null);
     }
 
     public File getProjectDir() {
@@ -62,6 +68,24 @@ public final class NbGenericModelInfo implements Serializable {
         return projectDef.getMainProject();
     }
 
+    /**
+     * Returns the tasks of the main project grouped as they should be displayed
+     * in menus. The tree is only built once for this model and then reused.
+     *
+     * @return the tasks of the main project grouped as they should be
+     *   displayed in menus. This method never returns {@code null}.
+     */
+    public List<GradleTaskTree> getTaskTree() {
+        List<GradleTaskTree> result = taskTreeRef.get();
+        if (result == null) {
+            result = Collections.unmodifiableList(GradleTaskTree.createTaskTree(getMainProject().getTasks()));
+            if (!taskTreeRef.compareAndSet(null, result)) {
+                result = taskTreeRef.get();
+            }
+        }
+        return result;
+    }
+
     public boolean isRootProject() {
         String uniqueName = getMainProject().getProjectFullName();
         for (int i = 0; i < uniqueName.length(); i++) {
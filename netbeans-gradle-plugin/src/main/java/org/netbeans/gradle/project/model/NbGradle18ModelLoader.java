@@ -25,6 +25,7 @@ import org.netbeans.gradle.model.OperationInitializer;
 import org.netbeans.gradle.model.api.GradleProjectInfoQuery2;
 import org.netbeans.gradle.model.util.CollectionUtils;
 import org.netbeans.gradle.model.util.MultiMapUtils;
+import org.netbeans.gradle.model.util.PhaseTimer;
 import org.netbeans.gradle.project.NbGradleProject;
 import org.netbeans.gradle.project.NbStrings;
 import org.netbeans.gradle.project.api.entry.ModelLoadResult;
@@ -35,6 +36,7 @@ import org.netbeans.gradle.project.api.modelquery.GradleTarget;
 import org.netbeans.gradle.project.extensions.NbGradleExtensionRef;
 import org.netbeans.gradle.project.model.issue.ModelLoadIssue;
 import org.netbeans.gradle.project.model.issue.ModelLoadIssues;
+import org.netbeans.gradle.project.util.ModelInterner;
 import org.openide.util.Lookup;
 import org.openide.util.lookup.Lookups;
 
@@ -42,15 +44,26 @@ public final class NbGradle18ModelLoader implements NbModelLoader {
     private final SettingsGradleDef settingsGradleDef;
     private final GradleTarget gradleTarget;
     private final OperationInitializer setup;
+    private final PhaseTimer timer;
 
     public NbGradle18ModelLoader(SettingsGradleDef settingsGradleDef, OperationInitializer setup, GradleTarget gradleTarget) {
+        this(settingsGradleDef, setup, gradleTarget, new PhaseTimer());
+    }
+
+    public NbGradle18ModelLoader(
+            SettingsGradleDef settingsGradleDef,
+            OperationInitializer setup,
+            GradleTarget gradleTarget,
+            PhaseTimer timer) {
         ExceptionHelper.checkNotNullArgument(settingsGradleDef, "settingsGradleDef");
         ExceptionHelper.checkNotNullArgument(setup, "setup");
         ExceptionHelper.checkNotNullArgument(gradleTarget, "gradleTarget");
+        ExceptionHelper.checkNotNullArgument(timer, "timer");
 
         this.settingsGradleDef = settingsGradleDef;
         this.gradleTarget = gradleTarget;
         this.setup = setup;
+        this.timer = timer;
     }
 
     private static <E> void addAllNullSafe(Collection<? super E> collection, Collection<? extends E> toAdd) {
@@ -66,7 +79,7 @@ public final class NbGradle18ModelLoader implements NbModelLoader {
             ProgressHandle progress) throws IOException, GradleModelLoadError {
 
         ProjectModelFetcher modelFetcher = new ProjectModelFetcher(project, gradleTarget);
-        FetchedModelsOrError fetchedModelsOrError = modelFetcher.getModels(connection, setup);
+        FetchedModelsOrError fetchedModelsOrError = modelFetcher.getModels(connection, setup, timer);
         FetchedModels fetchedModels = fetchedModelsOrError.getModels();
         if (fetchedModels == null) {
             throw new GradleModelLoadError(
@@ -77,8 +90,13 @@ public final class NbGradle18ModelLoader implements NbModelLoader {
 
         progress.progress(NbStrings.getParsingModel());
 
-        ProjectModelParser parser = new ProjectModelParser(gradleTarget, project, settingsGradleDef, modelFetcher);
-        return parser.parseModel(fetchedModels);
+        PhaseTimer.Phase parsingPhase = timer.startPhase(ModelLoadPhases.PARSING);
+        try {
+            ProjectModelParser parser = new ProjectModelParser(gradleTarget, project, settingsGradleDef, modelFetcher);
+            return parser.parseModel(fetchedModels, timer);
+        } finally {
+            parsingPhase.end();
+        }
     }
 
     private static File getProjectDirFromModels(FetchedProjectModels projectModels) {
@@ -98,6 +116,8 @@ public final class NbGradle18ModelLoader implements NbModelLoader {
         private final List<ModelLoadIssue> issues;
         private final Map<String, ModelLoadResult> modelLoadResultCache;
         private final SettingsGradleDef settingsGradleDef;
+        // Every project of the build has its own copy of the project tree.
+        private final ModelInterner interner;
 
         public ProjectModelParser(
                 GradleTarget gradleTarget,
@@ -113,6 +133,7 @@ public final class NbGradle18ModelLoader implements NbModelLoader {
             this.cache = new ExtensionModelCache();
             this.issues = new LinkedList<>();
             this.modelLoadResultCache = CollectionUtils.newHashMap(extensions.size());
+            this.interner = new ModelInterner();
         }
 
         private void addProjectInfoResults(
@@ -181,7 +202,7 @@ public final class NbGradle18ModelLoader implements NbModelLoader {
             return new ModelLoadResult(gradleTarget, defaultProjectDir, lookups);
         }
 
-        public Result parseModel(FetchedModels fetchedModels) {
+        public Result parseModel(FetchedModels fetchedModels, PhaseTimer timer) {
             ProjectModelsOfExtensions extensionsForDefault = new ProjectModelsOfExtensions(
                     this,
                     fetchedModels.getDefaultProjectModels());
@@ -216,7 +237,7 @@ public final class NbGradle18ModelLoader implements NbModelLoader {
                 otherModels.add(parseModel(models, extensionModels));
             }
 
-            return new Result(mainModel, otherModels, issues);
+            return new Result(mainModel, otherModels, issues, timer);
         }
 
         private NbGradleModel parseModel(
@@ -231,7 +252,7 @@ public final class NbGradle18ModelLoader implements NbModelLoader {
                         issue));
             }
 
-            NbGradleMultiProjectDef projectDef = new NbGradleMultiProjectDef(projectModels.getProjectDef());
+            NbGradleMultiProjectDef projectDef = new NbGradleMultiProjectDef(projectModels.getProjectDef(), interner);
             NbGenericModelInfo genericInfo = new NbGenericModelInfo(projectDef, modelFetcher.getSettingsFile());
             NbGradleModel.Builder result = new NbGradleModel.Builder(genericInfo);
             result.setRootWithoutSettingsGradle(!settingsGradleDef.isMaySearchUpwards());
@@ -370,8 +391,11 @@ public final class NbGradle18ModelLoader implements NbModelLoader {
             modelFetcher = new GenericModelFetcher(buildInfoRequests, projectInfoRequests, models);
         }
 
-        public FetchedModelsOrError getModels(ProjectConnection connection, OperationInitializer init) throws IOException {
-            return modelFetcher.getModels(connection, init);
+        public FetchedModelsOrError getModels(
+                ProjectConnection connection,
+                OperationInitializer init,
+                PhaseTimer timer) throws IOException {
+            return modelFetcher.getModels(connection, init, timer);
         }
 
         public Path getSettingsFile() {
@@ -8,6 +8,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 import org.jtrim.utils.ExceptionHelper;
 import org.netbeans.gradle.model.ProjectId;
 import org.netbeans.gradle.model.util.CollectionUtils;
@@ -66,6 +67,8 @@ public final class NbGradleModel {
     // If true, we must instruct Gradle not to search for a settings.gradle.
     private final boolean rootWithoutSettingsGradle;
 
+    private final AtomicReference<ModelFingerprint> fingerprintRef;
+
     public NbGradleModel(NbGradleMultiProjectDef projectDef) {
         this(new NbGenericModelInfo(projectDef), Collections.<String, Object>emptyMap(), false, false);
     }
@@ -90,6 +93,7 @@ public final class NbGradleModel {
                 ? CollectionUtils.copyNullSafeHashMapWithNullValues(extensionModels)
                 : extensionModels;
         this.rootWithoutSettingsGradle = rootWithoutSettingsGradle;
+        this.fingerprintRef = new AtomicReference<>(null);
     }
 
     public static List<NbGradleModel> createAll(Collection<? extends Builder> builders) {
@@ -128,6 +132,24 @@ public final class NbGradleModel {
         return extensionModels;
     }
 
+    /**
+     * Returns the fingerprint of this model which can be used to tell if
+     * a reloaded model differs from this one. The fingerprint is only created
+     * when it is first requested, since it is only needed for the models
+     * applied to projects and not for the models of every subproject.
+     *
+     * @return the fingerprint of this model. This method never returns
+     *   {@code null}.
+     */
+    public ModelFingerprint getFingerprint() {
+        ModelFingerprint result = fingerprintRef.get();
+        if (result == null) {
+            fingerprintRef.set(ModelFingerprint.create(genericInfo, extensionModels, rootWithoutSettingsGradle));
+            result = fingerprintRef.get();
+        }
+        return result;
+    }
+
     public void setModelForExtension(NbGradleExtensionRef extension) {
         extension.setModelForExtension(extensionModels.get(extension.getName()));
     }
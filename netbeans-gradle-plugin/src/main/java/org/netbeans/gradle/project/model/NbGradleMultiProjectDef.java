@@ -11,6 +11,7 @@ import org.jtrim.utils.ExceptionHelper;
 import org.netbeans.gradle.model.GenericProjectProperties;
 import org.netbeans.gradle.model.GradleMultiProjectDef;
 import org.netbeans.gradle.model.GradleProjectTree;
+import org.netbeans.gradle.project.util.ModelInterner;
 
 public final class NbGradleMultiProjectDef implements Serializable {
     private static final long serialVersionUID = 1L;
@@ -28,10 +29,11 @@ public final class NbGradleMultiProjectDef implements Serializable {
         this.mainProject = mainProject;
     }
 
-    public NbGradleMultiProjectDef(GradleMultiProjectDef model) {
+    public NbGradleMultiProjectDef(GradleMultiProjectDef model, ModelInterner interner) {
         ExceptionHelper.checkNotNullArgument(model, "model");
+        ExceptionHelper.checkNotNullArgument(interner, "interner");
 
-        this.rootProject = new NbGradleProjectTree(model.getRootProject());
+        this.rootProject = new NbGradleProjectTree(model.getRootProject(), interner);
 
         GradleProjectTree mainProjectModel = model.getMainProject();
         NbGradleProjectTree parsedMain = rootProject.findByPath(
@@ -44,7 +46,7 @@ public final class NbGradleMultiProjectDef implements Serializable {
             LOGGER.log(Level.WARNING, "Main project tree has not been found from the root project: {0}",
                     mainProjectModel.getGenericProperties().getProjectFullName());
 
-            this.mainProject = new NbGradleProjectTree(mainProjectModel);
+            this.mainProject = new NbGradleProjectTree(mainProjectModel, interner);
         }
     }
 
@@ -16,6 +16,7 @@ import org.netbeans.gradle.model.GenericProjectProperties;
 import org.netbeans.gradle.model.GradleProjectTree;
 import org.netbeans.gradle.model.GradleTaskID;
 import org.netbeans.gradle.model.util.CollectionUtils;
+import org.netbeans.gradle.project.util.ModelInterner;
 
 public final class NbGradleProjectTree implements Serializable {
     private static final long serialVersionUID = 1L;
@@ -42,12 +43,13 @@ public final class NbGradleProjectTree implements Serializable {
         this.parentRef = new AtomicReference<>(null);
     }
 
-    public NbGradleProjectTree(GradleProjectTree tree) {
+    public NbGradleProjectTree(GradleProjectTree tree, ModelInterner interner) {
         ExceptionHelper.checkNotNullArgument(tree, "tree");
+        ExceptionHelper.checkNotNullArgument(interner, "interner");
 
-        this.genericProperties = tree.getGenericProperties();
+        this.genericProperties = interner.internProjectProperties(tree.getGenericProperties());
         this.tasks = tree.getTasks();
-        this.children = fromModels(tree.getChildren());
+        this.children = fromModels(tree.getChildren(), interner);
 
         this.childrenMap = new AtomicReference<>(null);
         this.parentRef = new AtomicReference<>(null);
@@ -87,10 +89,13 @@ public final class NbGradleProjectTree implements Serializable {
         return null;
     }
 
-    private static Collection<NbGradleProjectTree> fromModels(Collection<GradleProjectTree> models) {
+    private static Collection<NbGradleProjectTree> fromModels(
+            Collection<GradleProjectTree> models,
+            ModelInterner interner) {
+
         List<NbGradleProjectTree> result = new ArrayList<>(models.size());
         for (GradleProjectTree model: models) {
-            result.add(new NbGradleProjectTree(model));
+            result.add(new NbGradleProjectTree(model, interner));
         }
         return Collections.unmodifiableList(result);
     }
@@ -8,6 +8,7 @@ import org.gradle.tooling.ProjectConnection;
 import org.jtrim.utils.ExceptionHelper;
 import org.netbeans.api.progress.ProgressHandle;
 import org.netbeans.gradle.model.util.CollectionUtils;
+import org.netbeans.gradle.model.util.PhaseTimer;
 import org.netbeans.gradle.project.NbGradleProject;
 import org.netbeans.gradle.project.model.issue.ModelLoadIssue;
 
@@ -16,6 +17,7 @@ public interface NbModelLoader {
         private final NbGradleModel mainModel;
         private final List<NbGradleModel> otherModels;
         private final List<ModelLoadIssue> issues;
+        private final PhaseTimer timer;
 
         public Result(NbGradleModel mainModel, Collection<NbGradleModel> otherModels) {
             this(mainModel, otherModels, Collections.<ModelLoadIssue>emptyList());
@@ -25,13 +27,23 @@ public interface NbModelLoader {
                 NbGradleModel mainModel,
                 Collection<NbGradleModel> otherModels,
                 Collection<? extends ModelLoadIssue> issues) {
+            this(mainModel, otherModels, issues, new PhaseTimer());
+        }
+
+        public Result(
+                NbGradleModel mainModel,
+                Collection<NbGradleModel> otherModels,
+                Collection<? extends ModelLoadIssue> issues,
+                PhaseTimer timer) {
             ExceptionHelper.checkNotNullArgument(mainModel, "mainModel");
             ExceptionHelper.checkNotNullArgument(otherModels, "otherModels");
             ExceptionHelper.checkNotNullArgument(issues, "issues");
+            ExceptionHelper.checkNotNullArgument(timer, "timer");
 
             this.mainModel = mainModel;
             this.otherModels = CollectionUtils.copyNullSafeList(otherModels);
             this.issues = CollectionUtils.copyNullSafeList(issues);
+            this.timer = timer;
         }
 
         public NbGradleModel getMainModel() {
@@ -45,6 +57,15 @@ public interface NbModelLoader {
         public List<ModelLoadIssue> getIssues() {
             return issues;
         }
+
+        /**
+         * Returns the timer measuring the phases of the model load. The phases
+         * after the models were loaded (e.g., saving them into the persistent
+         * cache) are added to the same timer.
+         */
+        public PhaseTimer getTimer() {
+            return timer;
+        }
     }
 
     public Result loadModels(
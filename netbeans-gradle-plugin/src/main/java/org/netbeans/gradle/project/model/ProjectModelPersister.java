@@ -5,6 +5,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import org.jtrim.utils.ExceptionHelper;
 import org.netbeans.gradle.project.NbGradleProject;
+import org.netbeans.gradle.project.util.ModelInterner;
 import org.netbeans.gradle.project.util.SerializationUtils2;
 
 public final class ProjectModelPersister implements ModelPersister<NbGradleModel> {
@@ -32,10 +33,14 @@ public final class ProjectModelPersister implements ModelPersister<NbGradleModel
             return null;
         }
 
+        // The project tree and the extension models are serialized separately,
+        // so use the same interner to share the common parts of them.
+        ModelInterner interner = new ModelInterner();
+
         SerializedNbGradleModels serializedModel
-                = (SerializedNbGradleModels)SerializationUtils2.deserializeFile(src);
+                = (SerializedNbGradleModels)SerializationUtils2.deserializeFile(src, interner);
         return serializedModel != null
-                ? serializedModel.deserializeModel(ownerProject)
+                ? serializedModel.deserializeModel(ownerProject, interner)
                 : null;
     }
 }
@@ -8,6 +8,8 @@ import org.netbeans.gradle.model.util.CollectionUtils;
 import org.netbeans.gradle.model.util.SerializationUtils;
 import org.netbeans.gradle.project.NbGradleProject;
 import org.netbeans.gradle.project.extensions.NbGradleExtensionRef;
+import org.netbeans.gradle.project.util.ModelInterner;
+import org.netbeans.gradle.project.util.SerializationUtils2;
 
 public final class SerializedNbGradleModels implements Serializable {
     private static final long serialVersionUID = 1L;
@@ -58,7 +60,7 @@ public final class SerializedNbGradleModels implements Serializable {
         return new SerializedNbGradleModels(model.getGenericInfo(), serializedModels, model.isRootWithoutSettingsGradle());
     }
 
-    public NbGradleModel deserializeModel(NbGradleProject ownerProject) {
+    public NbGradleModel deserializeModel(NbGradleProject ownerProject, ModelInterner interner) {
         Map<String, Object> deserializedModels = CollectionUtils.newHashMap(extensionModels.size());
 
         for (NbGradleExtensionRef extensionRef: ownerProject.getExtensions().getExtensionRefs()) {
@@ -67,7 +69,7 @@ public final class SerializedNbGradleModels implements Serializable {
             if (serializedModel != null) {
                 try {
                     ClassLoader modelClassLoader = extensionRef.getExtensionDef().getModelType().getClassLoader();
-                    Object model = SerializationUtils.deserializeObject(serializedModel, modelClassLoader);
+                    Object model = SerializationUtils2.deserializeObject(serializedModel, modelClassLoader, interner);
                     deserializedModels.put(extensionRef.getName(), model);
                 } catch (Throwable ex) {
                     LOGGER.log(Level.INFO,
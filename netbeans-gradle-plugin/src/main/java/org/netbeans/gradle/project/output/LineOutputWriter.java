@@ -6,6 +6,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import org.jtrim.utils.ExceptionHelper;
+import org.netbeans.gradle.project.metrics.GradleProjectMetrics;
 
 public final class LineOutputWriter extends Writer {
     public static interface Handler {
@@ -14,15 +15,22 @@ public final class LineOutputWriter extends Writer {
     }
 
     private final Handler handler;
+    private final GradleProjectMetrics metrics;
     private final Lock mainLock;
     private final StringBuilder lineBuffer;
     private final AtomicBoolean closed;
     private char lastChar;
 
     public LineOutputWriter(Handler handler) {
+        this(handler, GradleProjectMetrics.getDefault());
+    }
+
+    public LineOutputWriter(Handler handler, GradleProjectMetrics metrics) {
         ExceptionHelper.checkNotNullArgument(handler, "handler");
+        ExceptionHelper.checkNotNullArgument(metrics, "metrics");
 
         this.handler = handler;
+        this.metrics = metrics;
         this.lineBuffer = new StringBuilder(256);
         this.mainLock = new ReentrantLock();
         this.lastChar = '\0';
@@ -37,6 +45,7 @@ public final class LineOutputWriter extends Writer {
 
         int currentOffset = off;
         int currentLength = len;
+        int lineCount = 0;
 
         while (currentLength > 0) {
             String line = null;
@@ -69,9 +78,16 @@ public final class LineOutputWriter extends Writer {
             }
 
             if (line != null) {
+                lineCount++;
                 handler.writeLine(line);
             }
         }
+
+        // Reported once per write, so that the metrics are not touched for
+        // every single line.
+        if (lineCount > 0) {
+            metrics.onOutputLines(lineCount);
+        }
     }
 
     @Override
@@ -60,6 +60,20 @@ final class ConfigXmlUtils {
 
     private static final String ATTR_PREFIX = "#attr-";
 
+    private static final Comparator<Element> AUX_ELEMENT_ORDER = new Comparator<Element>() {
+        @Override
+        public int compare(Element o1, Element o2) {
+            String uri1 = o1.getNamespaceURI();
+            String uri2 = o2.getNamespaceURI();
+            int uriCmp = nullSafeStrCmp(uri1, uri2);
+            if (uriCmp != 0) {
+                return uriCmp;
+            }
+
+            return nullSafeStrCmp(o1.getNodeName(), o2.getNodeName());
+        }
+    };
+
     private static String asAttributeName(String keyName) {
         return ATTR_PREFIX + keyName;
     }
@@ -457,6 +471,105 @@ final class ConfigXmlUtils {
         addTreeToXml(document, parent, tree, nodeProperties);
     }
 
+    private static String addSavedTree(
+            ConfigTree tree,
+            ConfigNodeProperty nodeProperties,
+            ConfigTree.Builder result) {
+        // This method must be kept consistent with addTreeToXml and parseNode:
+        // The returned value is what parseNode would return for the element
+        // created by addTreeToXml (i.e., the text content of a leaf element).
+
+        Map<String, List<ConfigTree>> children = tree.getChildTrees();
+
+        boolean ignoreValue = nodeProperties.ignoreValue();
+        String value = ignoreValue ? null : tree.getValue(null);
+
+        if (value != null && children.isEmpty()) {
+            return value;
+        }
+
+        List<KeyValuePair> attributes = tryGetAttributeList(tree);
+        Set<String> attributeKeys;
+        if (attributes != null) {
+            attributeKeys = CollectionsEx.newHashSet(attributes.size());
+            for (KeyValuePair keyValue: attributes) {
+                attributeKeys.add(keyValue.key);
+                result.addChildBuilder(keyValue.key).setValue(keyValue.value);
+            }
+        }
+        else {
+            attributeKeys = Collections.emptySet();
+        }
+
+        List<NamedNode> childEntries = new ArrayList<>(children.size());
+        for (Map.Entry<String, List<ConfigTree>> entry: children.entrySet()) {
+            String key = entry.getKey();
+            if (!attributeKeys.contains(key)) {
+                childEntries.add(new NamedNode(key, entry.getValue()));
+            }
+        }
+
+        if (childEntries.isEmpty()) {
+            if (value != null) {
+                return value;
+            }
+            // An element without value and children has no text content.
+            return ignoreValue ? "" : null;
+        }
+
+        if (value != null) {
+            result.setValue(value);
+        }
+
+        for (NamedNode child: childEntries) {
+            ConfigNodeProperty childSorter = nodeProperties.getChildSorter(child.name);
+
+            for (ConfigTree childTree: child.trees) {
+                ConfigTree.Builder childBuilder = result.addChildBuilder(child.name);
+
+                ConfigTree adjustedChildTree = childSorter.adjustNodes(childTree);
+                String childValue = addSavedTree(adjustedChildTree, childSorter, childBuilder);
+                if (childValue != null) {
+                    childBuilder.setValue(childValue);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the configuration tree which would be parsed back by
+     * {@link #parseDocument(Document, String[]) parseDocument} from the
+     * document created by {@link #createXml(ConfigTree) createXml} and
+     * {@link #addAuxiliary(Document, Element[]) addAuxiliary}. This method
+     * does not actually create an XML document, so it is considerably
+     * cheaper than doing the round-trip.
+     */
+    public static ConfigTree getSavedContent(ConfigTree tree, Element... auxElements) {
+        ExceptionHelper.checkNotNullArgument(tree, "tree");
+        ExceptionHelper.checkNotNullElements(auxElements, "auxElements");
+
+        ConfigTree.Builder result = new ConfigTree.Builder();
+        // Just like parseDocument, ignore the text content of the root.
+        addSavedTree(tree, CompatibleRootNodeProperty.INSTANCE, result);
+
+        if (auxElements.length > 0) {
+            Element[] sortedAuxElements = auxElements.clone();
+            Arrays.sort(sortedAuxElements, AUX_ELEMENT_ORDER);
+
+            ConfigTree.Builder auxRoot = result.addChildBuilder(AUXILIARY_NODE_NAME);
+            for (Element auxElement: sortedAuxElements) {
+                ConfigTree.Builder auxBuilder = auxRoot.addChildBuilder(fromElementName(auxElement.getNodeName()));
+                String nodeValue = parseNode(auxElement, Collections.<String>emptySet(), auxBuilder);
+                if (nodeValue != null) {
+                    auxBuilder.setValue(nodeValue);
+                }
+            }
+        }
+
+        return result.create();
+    }
+
     private static DocumentBuilder newDocumentBuilder() throws ParserConfigurationException {
         return DocumentBuilderFactory.newInstance().newDocumentBuilder();
     }
@@ -494,19 +607,7 @@ final class ConfigXmlUtils {
         }
 
         Element[] sortedAuxElements = auxElements.clone();
-        Arrays.sort(sortedAuxElements, new Comparator<Element>() {
-            @Override
-            public int compare(Element o1, Element o2) {
-                String uri1 = o1.getNamespaceURI();
-                String uri2 = o2.getNamespaceURI();
-                int uriCmp = nullSafeStrCmp(uri1, uri2);
-                if (uriCmp != 0) {
-                    return uriCmp;
-                }
-
-                return nullSafeStrCmp(o1.getNodeName(), o2.getNodeName());
-            }
-        });
+        Arrays.sort(sortedAuxElements, AUX_ELEMENT_ORDER);
 
         Element auxRoot = document.createElement(AUXILIARY_NODE_NAME);
         root.appendChild(auxRoot);
@@ -155,8 +155,23 @@ public final class ProfileSettings {
         loadFromDocument(document);
     }
 
+    /**
+     * Returns the content of this settings as it would be read back after
+     * saving it.
+     */
     public ConfigTree getContentSnapshot() {
-        return ConfigXmlUtils.parseDocument(toXml()).create();
+        ConfigTree configTree;
+        List<Element> auxConfigList;
+
+        configLock.lock();
+        try {
+            configTree = currentConfig.create();
+            auxConfigList = new ArrayList<>(auxConfigs.values());
+        } finally {
+            configLock.unlock();
+        }
+
+        return ConfigXmlUtils.getSavedContent(configTree, auxConfigList.toArray(new Element[auxConfigList.size()]));
     }
 
     private Document toXml() {
@@ -279,12 +294,6 @@ public final class ProfileSettings {
         fireDocumentUpdate(ROOT_PATH);
     }
 
-    private static ConfigTree createChildTree(ConfigTree.Builder builer, ConfigPath path) {
-        ConfigTree.Builder childBuilder = builer.getDeepChildBuilder(path);
-        childBuilder.detachChildTreeBuilders();
-        return childBuilder.create();
-    }
-
     private <Value> ValueWithStateKey<Value> withStateKey(Value value) {
         assert configLock.isHeldByCurrentThread();
         return new ValueWithStateKey<>(configStateKey, value);
@@ -293,7 +302,8 @@ public final class ProfileSettings {
     private ValueWithStateKey<ConfigTree> getChildConfig(ConfigPath path) {
         configLock.lock();
         try {
-            return withStateKey(createChildTree(currentConfig, path));
+            // The snapshot is cached by the builder until the next change.
+            return withStateKey(currentConfig.create().getDeepChildTree(path));
         } finally {
             configLock.unlock();
         }
@@ -313,9 +323,9 @@ public final class ProfileSettings {
         try {
             resultStateKey = configStateKey;
 
-            ConfigTree.Builder baseBuilder = currentConfig.getDeepChildBuilder(basePath);
+            ConfigTree baseTree = currentConfig.create().getDeepChildTree(basePath);
             for (ConfigPath relPath: relPaths) {
-                ConfigTree childTree = createChildTree(baseBuilder, relPath);
+                ConfigTree childTree = baseTree.getDeepChildTree(relPath);
                 setChildTree(result, relPath, childTree);
             }
         } finally {
@@ -55,6 +55,8 @@ public final class CommonGlobalSettings {
 
     private final PropertyReference<Integer> projectCacheSize;
     private final PropertyReference<Integer> gradleDaemonTimeoutSec;
+    private final PropertyReference<Integer> maxConcurrentBuilds;
+    private final PropertyReference<Integer> maxConcurrentModelLoads;
 
     public CommonGlobalSettings(ActiveSettingsQuery activeSettingsQuery) {
         ExceptionHelper.checkNotNullArgument(activeSettingsQuery, "activeSettingsQuery");
@@ -78,6 +80,8 @@ public final class CommonGlobalSettings {
         this.modelLoadingStrategy = modelLoadingStrategy(activeSettingsQuery);
         this.projectCacheSize = projectCacheSize(activeSettingsQuery);
         this.gradleDaemonTimeoutSec = gradleDaemonTimeoutSec(activeSettingsQuery);
+        this.maxConcurrentBuilds = maxConcurrentBuilds(activeSettingsQuery);
+        this.maxConcurrentModelLoads = maxConcurrentModelLoads(activeSettingsQuery);
     }
 
     public static PropertyReference<ScriptPlatform> defaultJdk(ActiveSettingsQuery activeSettingsQuery) {
@@ -248,6 +252,22 @@ public final class CommonGlobalSettings {
         return gradleDaemonTimeoutSec;
     }
 
+    public static PropertyReference<Integer> maxConcurrentBuilds(ActiveSettingsQuery activeSettingsQuery) {
+        return propertyRef(defineIntProperty("tasks", "max-concurrent-builds"), activeSettingsQuery, 16);
+    }
+
+    public PropertyReference<Integer> maxConcurrentBuilds() {
+        return maxConcurrentBuilds;
+    }
+
+    public static PropertyReference<Integer> maxConcurrentModelLoads(ActiveSettingsQuery activeSettingsQuery) {
+        return propertyRef(defineIntProperty("model-loading", "max-concurrent-roots"), activeSettingsQuery, 1);
+    }
+
+    public PropertyReference<Integer> maxConcurrentModelLoads() {
+        return maxConcurrentModelLoads;
+    }
+
     public File tryGetGradleInstallationAsFile() {
         GradleLocationDef locationDef = gradleLocation.getActiveValue();
         GradleLocation location = locationDef.getLocation();
@@ -0,0 +1,225 @@
+package org.netbeans.gradle.project.query;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.swing.event.ChangeListener;
+import org.jtrim.concurrent.GenericUpdateTaskExecutor;
+import org.jtrim.concurrent.TaskExecutor;
+import org.jtrim.concurrent.UpdateTaskExecutor;
+import org.jtrim.swing.concurrent.SwingTaskExecutor;
+import org.jtrim.utils.ExceptionHelper;
+import org.netbeans.gradle.project.util.ConcurrentWeakValueMap;
+import org.netbeans.gradle.project.util.NbTaskExecutors;
+import org.openide.util.ChangeSupport;
+
+/**
+ * Defines an index of the artifact directories of the Gradle cache. An
+ * artifact directory contains subdirectories named after the hash of the files
+ * they contain:
+ * <pre>
+ * ...... \\HASH_OF_SOURCE\\binary-sources.XXX
+ * ...... \\HASH_OF_BINARY\\binary.XXX
+ * </pre>
+ * The content of an artifact directory is only listed when it is first
+ * needed and then kept until the cache is reported to be changed. Changes are
+ * only reported to the listeners of the changed artifact directory.
+ * <P>
+ * Instances of this class are safe to be used by multiple threads
+ * concurrently.
+ */
+final class GradleCacheArtifactIndex {
+    private static final GradleCacheArtifactIndex DEFAULT = new GradleCacheArtifactIndex(
+            SwingTaskExecutor.getStrictExecutor(true),
+            NbTaskExecutors.newExecutor("Gradle-Cache-Index", 1));
+
+    private final TaskExecutor eventExecutor;
+    private final UpdateTaskExecutor recheckExecutor;
+    private final Runnable recheckTask;
+    private final ConcurrentWeakValueMap<File, ArtifactDir> artifactDirs;
+
+    public GradleCacheArtifactIndex(TaskExecutor eventExecutor, TaskExecutor recheckExecutor) {
+        ExceptionHelper.checkNotNullArgument(eventExecutor, "eventExecutor");
+        ExceptionHelper.checkNotNullArgument(recheckExecutor, "recheckExecutor");
+
+        this.eventExecutor = eventExecutor;
+        this.recheckExecutor = new GenericUpdateTaskExecutor(recheckExecutor);
+        this.recheckTask = new Runnable() {
+            @Override
+            public void run() {
+                recheckListenedDirs();
+            }
+        };
+        this.artifactDirs = new ConcurrentWeakValueMap<>();
+    }
+
+    public static GradleCacheArtifactIndex getDefault() {
+        return DEFAULT;
+    }
+
+    public ArtifactDir getArtifactDir(File dir) {
+        ExceptionHelper.checkNotNullArgument(dir, "dir");
+
+        ArtifactDir result = artifactDirs.get(dir);
+        if (result == null) {
+            ArtifactDir newArtifactDir = new ArtifactDir(dir, eventExecutor);
+            result = artifactDirs.putIfAbsent(dir, newArtifactDir);
+            if (result == null) {
+                result = newArtifactDir;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Invalidates the content of the artifact directories without listeners,
+     * so that they will be listed again when they are needed. The artifact
+     * directories having listeners are rechecked in the background and only
+     * the listeners of the directories whose content has changed are
+     * notified.
+     * <P>
+     * This method does not access the file system and may be called from any
+     * thread.
+     */
+    public void notifyCacheChange() {
+        boolean hasListenedDir = false;
+        for (ArtifactDir artifactDir: artifactDirs.values()) {
+            if (!artifactDir.invalidateIfNotListened()) {
+                hasListenedDir = true;
+            }
+        }
+
+        if (hasListenedDir) {
+            recheckExecutor.execute(recheckTask);
+        }
+    }
+
+    private void recheckListenedDirs() {
+        for (ArtifactDir artifactDir: artifactDirs.values()) {
+            artifactDir.recheck();
+        }
+    }
+
+    private static Map<String, File> listArtifactDir(File dir) {
+        File[] subDirs = dir.listFiles(new FileFilter() {
+            @Override
+            public boolean accept(File pathname) {
+                return pathname.isDirectory();
+            }
+        });
+        if (subDirs == null || subDirs.length == 0) {
+            return Collections.emptyMap();
+        }
+
+        Map<String, File> result = new HashMap<>();
+        for (File subDir: subDirs) {
+            File[] files = subDir.listFiles();
+            if (files == null) {
+                continue;
+            }
+
+            for (File file: files) {
+                String name = file.getName();
+                if (!result.containsKey(name) && file.isFile()) {
+                    result.put(name, file);
+                }
+            }
+        }
+        return result;
+    }
+
+    public static final class ArtifactDir {
+        private final File dir;
+
+        private final ChangeSupport changes;
+        private final UpdateTaskExecutor eventExecutor;
+        private final Runnable eventDispatcher;
+
+        // null means that the directory has to be listed.
+        private final AtomicReference<Map<String, File>> filesRef;
+
+        private ArtifactDir(File dir, TaskExecutor eventExecutor) {
+            this.dir = dir;
+            this.changes = new ChangeSupport(this);
+            this.eventExecutor = new GenericUpdateTaskExecutor(eventExecutor);
+            this.eventDispatcher = new Runnable() {
+                @Override
+                public void run() {
+                    changes.fireChange();
+                }
+            };
+            this.filesRef = new AtomicReference<>(null);
+        }
+
+        public File getDir() {
+            return dir;
+        }
+
+        private Map<String, File> getFiles() {
+            Map<String, File> result = filesRef.get();
+            if (result == null) {
+                filesRef.compareAndSet(null, listArtifactDir(dir));
+                result = filesRef.get();
+                if (result == null) {
+                    // Invalidated concurrently, but we still need a result.
+                    result = listArtifactDir(dir);
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Returns the file with the given name in any of the hash
+         * subdirectories of this artifact directory or {@code null} if there
+         * is no such file.
+         */
+        public File tryGetFile(String fileName) {
+            ExceptionHelper.checkNotNullArgument(fileName, "fileName");
+            return getFiles().get(fileName);
+        }
+
+        /**
+         * Returns {@code true} if the content was invalidated and
+         * {@code false} if this directory has listeners and needs to be
+         * rechecked instead.
+         */
+        private boolean invalidateIfNotListened() {
+            if (changes.hasListeners()) {
+                return false;
+            }
+
+            filesRef.set(null);
+            return true;
+        }
+
+        private void recheck() {
+            if (!changes.hasListeners()) {
+                filesRef.set(null);
+                return;
+            }
+
+            Map<String, File> prevFiles = filesRef.get();
+            if (prevFiles == null) {
+                // Nobody has seen the content of this directory since it
+                // was last invalidated.
+                return;
+            }
+
+            Map<String, File> newFiles = listArtifactDir(dir);
+            if (filesRef.compareAndSet(prevFiles, newFiles) && !prevFiles.equals(newFiles)) {
+                eventExecutor.execute(eventDispatcher);
+            }
+        }
+
+        public void addChangeListener(ChangeListener listener) {
+            changes.addChangeListener(listener);
+        }
+
+        public void removeChangeListener(ChangeListener listener) {
+            changes.removeChangeListener(listener);
+        }
+    }
+}
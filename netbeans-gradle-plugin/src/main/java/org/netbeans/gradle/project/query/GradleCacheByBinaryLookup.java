@@ -4,7 +4,6 @@ import java.io.File;
 import javax.swing.event.ChangeListener;
 import org.jtrim.utils.ExceptionHelper;
 import org.netbeans.gradle.project.util.GradleFileUtils;
-import org.netbeans.gradle.project.util.LazyChangeSupport;
 import org.netbeans.gradle.project.util.NbFileUtils;
 import org.netbeans.gradle.project.util.NbFunction;
 import org.netbeans.spi.java.queries.SourceForBinaryQueryImplementation2;
@@ -13,7 +12,6 @@ import org.openide.filesystems.FileUtil;
 
 public final class GradleCacheByBinaryLookup {
     private static final FileObject[] NO_ROOTS = new FileObject[0];
-    private static final LazyChangeSupport CHANGES = LazyChangeSupport.createSwing(new EventSource());
 
     private final String searchedPackaging;
     private final NbFunction<FileObject, String> binaryToSearchedEntry;
@@ -27,7 +25,7 @@ public final class GradleCacheByBinaryLookup {
     }
 
     public static void notifyCacheChange() {
-        CHANGES.fireChange();
+        GradleCacheArtifactIndex.getDefault().notifyCacheChange();
     }
 
     public SourceForBinaryQueryImplementation2.Result tryFindEntryByBinary(File binaryRoot) {
@@ -58,96 +56,40 @@ public final class GradleCacheByBinaryLookup {
 
         String sourceFileName = binaryToSearchedEntry.apply(binaryRootObj);
 
-        if (GradleFileUtils.isKnownBinaryDirName(binDir.getNameExt())) {
-            final FileObject artifactRoot = binDir.getParent();
-            if (artifactRoot == null) {
-                return null;
-            }
-
-            return new OldFormatCacheResult(artifactRoot, searchedPackaging, sourceFileName);
-        }
-
-        return new NewFormatCacheResult(binDir, sourceFileName);
-    }
-
-    private static final class EventSource
-    implements
-            SourceForBinaryQueryImplementation2.Result,
-            LazyChangeSupport.Source {
-
-        private volatile LazyChangeSupport changes;
-
-        @Override
-        public void init(LazyChangeSupport changes) {
-            assert changes != null;
-            this.changes = changes;
-        }
-
-        @Override
-        public boolean preferSources() {
-            return false;
-        }
-
-        @Override
-        public FileObject[] getRoots() {
-            return NO_ROOTS;
-        }
+        GradleCacheArtifactIndex index = GradleCacheArtifactIndex.getDefault();
 
-        @Override
-        public void addChangeListener(ChangeListener l) {
-            changes.addChangeListener(l);
-        }
-
-        @Override
-        public void removeChangeListener(ChangeListener l) {
-            changes.removeChangeListener(l);
-        }
-    }
-
-    private static class NewFormatCacheResult implements SourceForBinaryQueryImplementation2.Result {
-        private final FileObject artifactRoot;
-        private final String sourceFileName;
-
-        public NewFormatCacheResult(FileObject artifactRoot, String sourceFileName) {
-            this.artifactRoot = artifactRoot;
-            this.sourceFileName = sourceFileName;
-        }
-
-        @Override
-        public boolean preferSources() {
-            return false;
-        }
-
-        @Override
-        public FileObject[] getRoots() {
+        if (GradleFileUtils.isKnownBinaryDirName(binDir.getNameExt())) {
             // The cache directory of Gradle looks like this:
             //
-            // ...... \\HASH_OF_SOURCE\\binary-sources.XXX
-            // ...... \\HASH_OF_BINARY\\binary.XXX
-
-            FileObject srcFile = NbFileUtils.getFileFromASubDir(artifactRoot, sourceFileName);
-            return srcFile != null ? new FileObject[]{srcFile} : NO_ROOTS;
-        }
+            // ...... \\source\\HASH_OF_SOURCE\\binary-sources.jar
+            // ...... \\packaging type\\HASH_OF_BINARY\\binary.jar
+            FileObject artifactRoot = binDir.getParent();
+            File artifactRootFile = artifactRoot != null ? FileUtil.toFile(artifactRoot) : null;
+            if (artifactRootFile == null) {
+                return null;
+            }
 
-        @Override
-        public void addChangeListener(ChangeListener l) {
-            CHANGES.addChangeListener(l);
+            File searchedDir = new File(artifactRootFile, searchedPackaging);
+            return new CacheResult(index.getArtifactDir(searchedDir), sourceFileName);
         }
 
-        @Override
-        public void removeChangeListener(ChangeListener l) {
-            CHANGES.removeChangeListener(l);
+        // The cache directory of Gradle looks like this:
+        //
+        // ...... \\HASH_OF_SOURCE\\binary-sources.XXX
+        // ...... \\HASH_OF_BINARY\\binary.XXX
+        File binDirFile = FileUtil.toFile(binDir);
+        if (binDirFile == null) {
+            return null;
         }
+        return new CacheResult(index.getArtifactDir(binDirFile), sourceFileName);
     }
 
-    private static class OldFormatCacheResult implements SourceForBinaryQueryImplementation2.Result {
-        private final FileObject artifactRoot;
-        private final String searchedPackaging;
+    private static final class CacheResult implements SourceForBinaryQueryImplementation2.Result {
+        private final GradleCacheArtifactIndex.ArtifactDir artifactDir;
         private final String searchedFileName;
 
-        public OldFormatCacheResult(FileObject artifactRoot, String searchedPackaging, String searchedFileName) {
-            this.artifactRoot = artifactRoot;
-            this.searchedPackaging = searchedPackaging;
+        public CacheResult(GradleCacheArtifactIndex.ArtifactDir artifactDir, String searchedFileName) {
+            this.artifactDir = artifactDir;
             this.searchedFileName = searchedFileName;
         }
 
@@ -158,27 +100,23 @@ public final class GradleCacheByBinaryLookup {
 
         @Override
         public FileObject[] getRoots() {
-                // The cache directory of Gradle looks like this:
-            //
-            // ...... \\source\\HASH_OF_SOURCE\\binary-sources.jar
-            // ...... \\packaging type\\HASH_OF_BINARY\\binary.jar
-            FileObject searchedDir = artifactRoot.getFileObject(searchedPackaging);
-            if (searchedDir == null) {
+            File searchedFile = artifactDir.tryGetFile(searchedFileName);
+            if (searchedFile == null) {
                 return NO_ROOTS;
             }
 
-            FileObject searchedFile = NbFileUtils.getFileFromASubDir(searchedDir, searchedFileName);
-            return searchedFile != null ? new FileObject[]{searchedFile} : NO_ROOTS;
+            FileObject searchedRoot = NbFileUtils.asArchiveOrDir(searchedFile);
+            return searchedRoot != null ? new FileObject[]{searchedRoot} : NO_ROOTS;
         }
 
         @Override
         public void addChangeListener(ChangeListener l) {
-            CHANGES.addChangeListener(l);
+            artifactDir.addChangeListener(l);
         }
 
         @Override
         public void removeChangeListener(ChangeListener l) {
-            CHANGES.removeChangeListener(l);
+            artifactDir.removeChangeListener(l);
         }
     }
 }
@@ -121,11 +121,13 @@ public final class GradleFilesClassPathProvider implements ClassPathProvider {
     }
 
     private void setupClassPaths() {
-        updateClassPathResources();
-
+        // The class paths are created first, so that they are available even
+        // if the resources cannot be determined.
         classpaths.put(ClassPathType.BOOT, createClassPath(ClassPathType.BOOT));
         classpaths.put(ClassPathType.COMPILE, createClassPath(ClassPathType.COMPILE));
         classpaths.put(ClassPathType.RUNTIME, createClassPath(ClassPathType.RUNTIME));
+
+        updateClassPathResources();
     }
 
     private void init() {
@@ -190,12 +192,8 @@ public final class GradleFilesClassPathProvider implements ClassPathProvider {
             return null;
         }
 
-        ClassPath classpath = classpaths.get(classPathType);
-        if (classpath != null) {
-            return classpath;
-        }
-
-        setupClassPaths();
+        // The same class paths are returned for every script and only their
+        // resources are updated, so a query never lists the Gradle installation.
         return classpaths.get(classPathType);
     }
 
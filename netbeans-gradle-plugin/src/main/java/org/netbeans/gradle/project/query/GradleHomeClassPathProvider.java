@@ -46,18 +46,14 @@ public final class GradleHomeClassPathProvider implements ClassPathProvider {
             return NO_URLS;
         }
 
-        File libDir = GradleFileUtils.getLibDirOfGradle(gradleHome);
-        if (!libDir.isDirectory()) {
-            return NO_URLS;
-        }
+        List<File> jars = GradleHomeLibIndexCache.getDefault().getIndex(gradleHome).getJars();
 
-        File[] jars = libDir.listFiles(filter);
-        if (jars == null) {
-            return NO_URLS;
-        }
-
-        List<URL> result = new ArrayList<>(jars.length);
+        List<URL> result = new ArrayList<>(jars.size());
         for (File jar: jars) {
+            if (!filter.accept(jar.getParentFile(), jar.getName())) {
+                continue;
+            }
+
             URL url = FileUtil.urlForArchiveOrDir(jar);
             if (url != null) {
                 result.add(url);
@@ -0,0 +1,195 @@
+package org.netbeans.gradle.project.query;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import org.jtrim.utils.ExceptionHelper;
+import org.netbeans.gradle.project.util.GradleFileUtils;
+
+/**
+ * Defines the list of JAR files in the {@code lib} and {@code lib/plugins}
+ * directories of a Gradle installation. The index remembers the last
+ * modification time and the names of the entries of these directories.
+ * <P>
+ * Checking if the index is up-to-date only reads the last modification time
+ * of the two directories. Since the resolution of the last modification time
+ * might be too coarse to notice a change made right after the index was built,
+ * the names of the entries are also compared when a persisted index is read
+ * (i.e., once per installation after restarting NetBeans).
+ * <P>
+ * Instances of this class are immutable and serializable.
+ *
+ * @see GradleHomeLibIndexCache
+ */
+final class GradleHomeLibIndex implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private static final String PLUGINS_DIR_NAME = "plugins";
+
+    private final File gradleHome;
+    private final DirStamp libDirStamp;
+    private final DirStamp pluginsDirStamp;
+    private final List<File> jars;
+
+    private GradleHomeLibIndex(File gradleHome, DirStamp libDirStamp, DirStamp pluginsDirStamp, List<File> jars) {
+        this.gradleHome = gradleHome;
+        this.libDirStamp = libDirStamp;
+        this.pluginsDirStamp = pluginsDirStamp;
+        this.jars = Collections.unmodifiableList(new ArrayList<>(jars));
+    }
+
+    private static File getPluginsDir(File libDir) {
+        return new File(libDir, PLUGINS_DIR_NAME);
+    }
+
+    /**
+     * Lists the {@code lib} and {@code lib/plugins} directories of the given
+     * Gradle installation.
+     */
+    public static GradleHomeLibIndex build(File gradleHome) {
+        ExceptionHelper.checkNotNullArgument(gradleHome, "gradleHome");
+
+        File libDir = GradleFileUtils.getLibDirOfGradle(gradleHome);
+        File pluginsDir = getPluginsDir(libDir);
+
+        // Read the stamps first, so that a concurrent change makes the index
+        // outdated rather than being silently missed.
+        DirStamp libDirStamp = DirStamp.read(libDir);
+        DirStamp pluginsDirStamp = DirStamp.read(pluginsDir);
+
+        List<File> jars = new ArrayList<>();
+        addJars(libDir, jars);
+        addJars(pluginsDir, jars);
+
+        return new GradleHomeLibIndex(gradleHome, libDirStamp, pluginsDirStamp, jars);
+    }
+
+    private static void addJars(File dir, List<File> result) {
+        File[] jars = dir.listFiles(new FileFilter() {
+            @Override
+            public boolean accept(File file) {
+                return file.getName().toLowerCase(Locale.US).endsWith(".jar") && file.isFile();
+            }
+        });
+        if (jars == null) {
+            return;
+        }
+
+        Arrays.sort(jars);
+        result.addAll(Arrays.asList(jars));
+    }
+
+    public File getGradleHome() {
+        return gradleHome;
+    }
+
+    /**
+     * Returns the JAR files of the {@code lib} directory followed by the JAR
+     * files of the {@code lib/plugins} directory.
+     */
+    public List<File> getJars() {
+        return jars;
+    }
+
+    /**
+     * Returns {@code true} if the last modification time of the {@code lib}
+     * and the {@code lib/plugins} directories did not change since this index
+     * was built. This method does not list the directories.
+     */
+    public boolean isUpToDate() {
+        File libDir = GradleFileUtils.getLibDirOfGradle(gradleHome);
+        return libDirStamp.isSameLastModified(libDir)
+                && pluginsDirStamp.isSameLastModified(getPluginsDir(libDir));
+    }
+
+    /**
+     * Returns {@code true} if neither the last modification time nor the
+     * entries of the {@code lib} and the {@code lib/plugins} directories
+     * changed since this index was built. This method lists both directories.
+     */
+    public boolean isUpToDateIncludingEntries() {
+        File libDir = GradleFileUtils.getLibDirOfGradle(gradleHome);
+        return libDirStamp.equals(DirStamp.read(libDir))
+                && pluginsDirStamp.equals(DirStamp.read(getPluginsDir(libDir)));
+    }
+
+    private Object writeReplace() {
+        return new SerializedFormat(this);
+    }
+
+    private void readObject(ObjectInputStream stream) throws InvalidObjectException {
+        throw new InvalidObjectException("Use proxy.");
+    }
+
+    private static final class DirStamp implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final long lastModified;
+        private final List<String> entryNames;
+
+        private DirStamp(long lastModified, List<String> entryNames) {
+            this.lastModified = lastModified;
+            this.entryNames = entryNames;
+        }
+
+        public static DirStamp read(File dir) {
+            long lastModified = dir.lastModified();
+
+            String[] entryNames = dir.list();
+            if (entryNames == null) {
+                return new DirStamp(lastModified, Collections.<String>emptyList());
+            }
+
+            Arrays.sort(entryNames);
+            return new DirStamp(lastModified, Arrays.asList(entryNames));
+        }
+
+        public boolean isSameLastModified(File dir) {
+            return dir.lastModified() == lastModified;
+        }
+
+        @Override
+        public int hashCode() {
+            return 59 * (int)(lastModified ^ (lastModified >>> 32)) + entryNames.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) return true;
+            if (obj == null) return false;
+            if (getClass() != obj.getClass()) return false;
+
+            DirStamp other = (DirStamp)obj;
+            return lastModified == other.lastModified
+                    && entryNames.equals(other.entryNames);
+        }
+    }
+
+    private static final class SerializedFormat implements Serializable {
+        private static final long serialVersionUID = 2L;
+
+        private final File gradleHome;
+        private final DirStamp libDirStamp;
+        private final DirStamp pluginsDirStamp;
+        private final List<File> jars;
+
+        public SerializedFormat(GradleHomeLibIndex source) {
+            this.gradleHome = source.gradleHome;
+            this.libDirStamp = source.libDirStamp;
+            this.pluginsDirStamp = source.pluginsDirStamp;
+            this.jars = new ArrayList<>(source.jars);
+        }
+
+        private Object readResolve() throws ObjectStreamException {
+            return new GradleHomeLibIndex(gradleHome, libDirStamp, pluginsDirStamp, jars);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package org.netbeans.gradle.project.query;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.jtrim.utils.ExceptionHelper;
+import org.netbeans.gradle.project.util.LazyValue;
+import org.netbeans.gradle.project.util.NbSupplier;
+import org.netbeans.gradle.project.util.SerializationUtils2;
+import org.netbeans.gradle.project.util.StringUtils;
+import org.openide.modules.Places;
+
+/**
+ * Caches the {@link GradleHomeLibIndex} of Gradle installations in memory and
+ * in a file per installation, so that the JARs of an installation do not need
+ * to be listed again after restarting NetBeans.
+ * <P>
+ * Instances of this class are safe to be used by multiple threads
+ * concurrently.
+ */
+final class GradleHomeLibIndexCache {
+    private static final Logger LOGGER = Logger.getLogger(GradleHomeLibIndexCache.class.getName());
+
+    private static final String CACHE_DIR_NAME = "gradle-home-index";
+
+    private static final LazyValue<GradleHomeLibIndexCache> DEFAULT = new LazyValue<>(new NbSupplier<GradleHomeLibIndexCache>() {
+        @Override
+        public GradleHomeLibIndexCache get() {
+            return new GradleHomeLibIndexCache(Places.getCacheSubdirectory(CACHE_DIR_NAME).toPath());
+        }
+    });
+
+    private final Path cacheDir;
+    private final ConcurrentMap<File, GradleHomeLibIndex> indexes;
+
+    public GradleHomeLibIndexCache(Path cacheDir) {
+        ExceptionHelper.checkNotNullArgument(cacheDir, "cacheDir");
+
+        this.cacheDir = cacheDir;
+        this.indexes = new ConcurrentHashMap<>();
+    }
+
+    public static GradleHomeLibIndexCache getDefault() {
+        return DEFAULT.get();
+    }
+
+    /**
+     * Returns the up-to-date index of the given Gradle installation, listing
+     * its directories only if neither the in-memory nor the persisted index is
+     * up-to-date. Checking the in-memory index only reads the last
+     * modification time of the directories.
+     */
+    public GradleHomeLibIndex getIndex(File gradleHome) {
+        ExceptionHelper.checkNotNullArgument(gradleHome, "gradleHome");
+
+        GradleHomeLibIndex result = indexes.get(gradleHome);
+        if (result != null && result.isUpToDate()) {
+            return result;
+        }
+
+        result = tryLoadPersistedIndex(gradleHome);
+        if (result == null) {
+            result = GradleHomeLibIndex.build(gradleHome);
+            persistIndex(result);
+        }
+
+        indexes.put(gradleHome, result);
+        return result;
+    }
+
+    /**
+     * Returns the persisted index of the given Gradle installation or
+     * {@code null} if there is no persisted index or it is not up-to-date.
+     */
+    public GradleHomeLibIndex tryLoadPersistedIndex(File gradleHome) {
+        ExceptionHelper.checkNotNullArgument(gradleHome, "gradleHome");
+
+        Path cacheFile = getCacheFile(gradleHome);
+        if (!Files.isRegularFile(cacheFile)) {
+            return null;
+        }
+
+        try {
+            Object index = SerializationUtils2.deserializeFile(cacheFile);
+            if (!(index instanceof GradleHomeLibIndex)) {
+                return null;
+            }
+
+            GradleHomeLibIndex result = (GradleHomeLibIndex)index;
+            if (!gradleHome.equals(result.getGradleHome()) || !result.isUpToDateIncludingEntries()) {
+                return null;
+            }
+            return result;
+        } catch (IOException | RuntimeException ex) {
+            LOGGER.log(Level.INFO, "Failed to read the index of the Gradle installation: " + cacheFile, ex);
+            return null;
+        }
+    }
+
+    private void persistIndex(GradleHomeLibIndex index) {
+        Path cacheFile = getCacheFile(index.getGradleHome());
+        try {
+            Files.createDirectories(cacheDir);
+            SerializationUtils2.serializeToFile(cacheFile, index);
+        } catch (IOException ex) {
+            LOGGER.log(Level.INFO, "Failed to save the index of the Gradle installation: " + cacheFile, ex);
+        }
+    }
+
+    private static String limitLength(String str, int maxLength) {
+        return str.length() > maxLength ? str.substring(0, maxLength) : str;
+    }
+
+    private Path getCacheFile(File gradleHome) {
+        MessageDigest hashCalculator;
+        try {
+            hashCalculator = MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new RuntimeException("Unable to load the MD5 calculator.", ex);
+        }
+
+        // We do this to limit the key length and make it usable as part of a file name.
+        byte[] keyHash = hashCalculator.digest(gradleHome.getPath().getBytes(StringUtils.UTF8));
+        String fileName = limitLength(gradleHome.getName(), 16) + "-" + StringUtils.byteArrayToHex(keyHash);
+        return cacheDir.resolve(fileName);
+    }
+}
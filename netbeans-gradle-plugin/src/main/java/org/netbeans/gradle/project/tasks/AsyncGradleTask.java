@@ -27,6 +27,8 @@ import org.gradle.tooling.BuildLauncher;
 import org.gradle.tooling.GradleConnector;
 import org.gradle.tooling.ModelBuilder;
 import org.gradle.tooling.ProjectConnection;
+import org.gradle.tooling.events.OperationType;
+import org.gradle.tooling.events.ProgressListener;
 import org.gradle.tooling.internal.consumer.DefaultCancellationTokenSource;
 import org.gradle.tooling.model.build.BuildEnvironment;
 import org.gradle.util.GradleVersion;
@@ -36,6 +38,7 @@ import org.jtrim.cancel.CancellationToken;
 import org.jtrim.concurrent.CancelableTask;
 import org.jtrim.concurrent.TaskExecutor;
 import org.jtrim.event.ListenerRef;
+import org.jtrim.property.PropertySource;
 import org.jtrim.utils.ExceptionHelper;
 import org.netbeans.api.progress.ProgressHandle;
 import org.netbeans.gradle.model.OperationInitializer;
@@ -47,6 +50,7 @@ import org.netbeans.gradle.project.api.config.InitScriptQuery;
 import org.netbeans.gradle.project.api.config.InitScriptQueryEx;
 import org.netbeans.gradle.project.api.modelquery.GradleTarget;
 import org.netbeans.gradle.project.api.task.CommandCompleteListener;
+import org.netbeans.gradle.project.api.task.ContextAwareCommandCompleteListener;
 import org.netbeans.gradle.project.api.task.DaemonTaskContext;
 import org.netbeans.gradle.project.api.task.ExecutedCommandContext;
 import org.netbeans.gradle.project.api.task.GradleActionProviderContext;
@@ -75,21 +79,65 @@ import org.netbeans.gradle.project.output.TaskIOTab;
 import org.netbeans.gradle.project.output.WriterOutputStream;
 import org.netbeans.gradle.project.properties.global.CommonGlobalSettings;
 import org.netbeans.gradle.project.properties.global.SelfMaintainedTasks;
+import org.netbeans.gradle.project.util.BoundedTaskExecutor;
 import org.netbeans.gradle.project.util.GradleFileUtils;
 import org.netbeans.gradle.project.util.NbTaskExecutors;
 import org.netbeans.gradle.project.util.StringUtils;
+import org.netbeans.gradle.project.view.GlobalErrorReporter;
 import org.netbeans.spi.project.ui.support.BuildExecutionSupport;
 import org.openide.LifecycleManager;
 import org.openide.filesystems.FileObject;
 import org.openide.windows.OutputWriter;
 
 public final class AsyncGradleTask implements Runnable {
-    private static final TaskExecutor TASK_EXECUTOR
-            = NbTaskExecutors.newExecutor("Gradle-Task-Executor", Integer.MAX_VALUE);
-    private static final TaskExecutor CANCEL_EXECUTOR
-            = NbTaskExecutors.newExecutor("Gradle-Cancel-Executor", Integer.MAX_VALUE);
     private static final Logger LOGGER = Logger.getLogger(GradleTasks.class.getName());
 
+    // Builds waiting for a free thread. Submitting more builds than this is
+    // most likely an accident (e.g., a runaway compile on save).
+    private static final int MAX_QUEUED_BUILDS = 256;
+
+    private static final BoundedTaskExecutor TASK_EXECUTOR = createTaskExecutor();
+    private static final TaskExecutor CANCEL_EXECUTOR
+            = NbTaskExecutors.newExecutor("Gradle-Cancel-Executor", 2);
+
+    // Test events are attributed to their test task through the task events
+    // which are only available since Gradle 2.5.
+    private static final GradleVersion MIN_TEST_EVENTS_VERSION = GradleVersion.version("2.5");
+
+    private static BoundedTaskExecutor createTaskExecutor() {
+        final PropertySource<Integer> maxBuilds = CommonGlobalSettings.getDefault().maxConcurrentBuilds().getActiveSource();
+
+        final BoundedTaskExecutor result = new BoundedTaskExecutor(
+                "Gradle-Task-Executor",
+                getMaxConcurrentBuilds(maxBuilds),
+                MAX_QUEUED_BUILDS,
+                new Runnable() {
+                    @Override
+                    public void run() {
+                        onRejectedBuild();
+                    }
+                });
+
+        maxBuilds.addChangeListener(new Runnable() {
+            @Override
+            public void run() {
+                result.setMaxThreadCount(getMaxConcurrentBuilds(maxBuilds));
+            }
+        });
+        return result;
+    }
+
+    private static int getMaxConcurrentBuilds(PropertySource<Integer> maxBuilds) {
+        Integer result = maxBuilds.getValue();
+        return result != null ? Math.max(1, result) : 1;
+    }
+
+    private static void onRejectedBuild() {
+        LOGGER.log(Level.WARNING, "Too many concurrent builds, rejecting a new build. Max. concurrent builds: {0}",
+                TASK_EXECUTOR.getMaxThreadCount());
+        GlobalErrorReporter.showIssue(NbStrings.getTooManyConcurrentBuilds(TASK_EXECUTOR.getMaxThreadCount()));
+    }
+
     private final NbGradleProject project;
     private final GradleCommandSpecFactory taskDefFactroy;
     private final CommandCompleteListener listener;
@@ -197,8 +245,10 @@ public final class AsyncGradleTask implements Runnable {
                         results.add(getManualInitScript(userHome, scriptQueryEx));
                     }
                     else {
+                        // Init scripts rarely change, so keep them for the
+                        // whole session instead of writing them for each build.
                         String scriptContent = scriptQuery.getInitScript();
-                        results.add(TemporaryFileManager.getDefault().createFile(
+                        results.add(TemporaryFileManager.getDefault().createRetainedFile(
                                 "task-init-script", scriptContent, StringUtils.UTF8));
                     }
                 } catch (Throwable ex) {
@@ -312,10 +362,28 @@ public final class AsyncGradleTask implements Runnable {
         return new OutputRef(forwardedStdOut, forwardedStdErr);
     }
 
-    private boolean checkTaskExecutable(
+    private static boolean needsGradleTarget(GradleTaskDef taskDef) {
+        return taskDef.getGradleTargetVerifier() != null
+                || taskDef.getCommandFinalizer() instanceof TestProgressCompleteListener;
+    }
+
+    private static GradleTarget getGradleTarget(
             ProjectConnection projectConnection,
+            DefaultModelBuilderSetup targetSetup) {
+
+        ModelBuilder<BuildEnvironment> envGetter = projectConnection.model(BuildEnvironment.class);
+        DefaultGradleModelLoader.setupLongRunningOP(targetSetup, envGetter);
+
+        BuildEnvironment buildEnv = envGetter.get();
+
+        return new GradleTarget(
+                    targetSetup.getJDKVersion(),
+                    GradleVersion.version(buildEnv.getGradle().getGradleVersion()));
+    }
+
+    private boolean checkTaskExecutable(
+            GradleTarget gradleTarget,
             GradleTaskDef taskDef,
-            DefaultModelBuilderSetup targetSetup,
             InputOutputWrapper io) {
 
         GradleTargetVerifier targetVerifier = taskDef.getGradleTargetVerifier();
@@ -323,16 +391,27 @@ public final class AsyncGradleTask implements Runnable {
             return true;
         }
 
-        ModelBuilder<BuildEnvironment> envGetter = projectConnection.model(BuildEnvironment.class);
-        DefaultGradleModelLoader.setupLongRunningOP(targetSetup, envGetter);
+        return targetVerifier.checkTaskExecutable(gradleTarget, io.getOutRef(), io.getErrRef());
+    }
 
-        BuildEnvironment buildEnv = envGetter.get();
+    private static void addTestProgressListener(
+            GradleTarget gradleTarget,
+            GradleTaskDef taskDef,
+            BuildLauncher buildLauncher) {
 
-        GradleTarget gradleTarget = new GradleTarget(
-                    targetSetup.getJDKVersion(),
-                    GradleVersion.version(buildEnv.getGradle().getGradleVersion()));
+        ContextAwareCommandCompleteListener commandFinalizer = taskDef.getCommandFinalizer();
+        if (!(commandFinalizer instanceof TestProgressCompleteListener)) {
+            return;
+        }
 
-        return targetVerifier.checkTaskExecutable(gradleTarget, io.getOutRef(), io.getErrRef());
+        if (gradleTarget == null || gradleTarget.getGradleVersion().compareTo(MIN_TEST_EVENTS_VERSION) < 0) {
+            // Older Gradle versions do not send test events, test results
+            // are displayed from the XML reports after the build.
+            return;
+        }
+
+        ProgressListener progressListener = ((TestProgressCompleteListener)commandFinalizer).startTestProgress();
+        buildLauncher.addProgressListener(progressListener, EnumSet.of(OperationType.TASK, OperationType.TEST));
     }
 
     private DefaultModelBuilderSetup createTargetSetup(
@@ -481,7 +560,11 @@ public final class AsyncGradleTask implements Runnable {
                                 io.getIo().select();
                             }
 
-                            if (checkTaskExecutable(projectConnection, taskDef, targetSetup, io)) {
+                            GradleTarget gradleTarget = needsGradleTarget(taskDef)
+                                    ? getGradleTarget(projectConnection, targetSetup)
+                                    : null;
+
+                            if (checkTaskExecutable(gradleTarget, taskDef, io)) {
                                 TaskVariableMap serviceVariables = commandService.getTaskVariables();
 
                                 // Shouldn't be null but check anyway.
@@ -491,6 +574,7 @@ public final class AsyncGradleTask implements Runnable {
 
                                 printCommand(buildOutput, command, finalTaskDef);
                                 configureBuildLauncher(targetSetup, buildLauncher, finalTaskDef, initScripts);
+                                addTestProgressListener(gradleTarget, finalTaskDef, buildLauncher);
                                 runBuild(cancelToken, buildLauncher);
 
                                 taskDef.getSuccessfulCommandFinalizer().finalizeSuccessfulCommand(
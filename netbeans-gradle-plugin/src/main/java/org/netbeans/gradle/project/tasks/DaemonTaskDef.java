@@ -6,14 +6,25 @@ import org.jtrim.utils.ExceptionHelper;
 public final class DaemonTaskDef {
     private final String caption;
     private final boolean nonBlocking;
+    private final boolean shared;
     private final DaemonTask task;
 
     public DaemonTaskDef(String caption, boolean nonBlocking, DaemonTask task) {
+        this(caption, nonBlocking, false, task);
+    }
+
+    /**
+     * @param shared if {@code true} and the task is non-blocking, it might run
+     *   concurrently with other shared non-blocking tasks. It is still not
+     *   executed concurrently with non-shared non-blocking tasks.
+     */
+    public DaemonTaskDef(String caption, boolean nonBlocking, boolean shared, DaemonTask task) {
         ExceptionHelper.checkNotNullArgument(caption, "caption");
         ExceptionHelper.checkNotNullArgument(task, "task");
 
         this.caption = caption;
         this.nonBlocking = nonBlocking;
+        this.shared = shared;
         this.task = task;
     }
 
@@ -25,6 +36,10 @@ public final class DaemonTaskDef {
         return nonBlocking;
     }
 
+    public boolean isShared() {
+        return shared;
+    }
+
     public DaemonTask getTask() {
         return task;
     }
@@ -3,7 +3,8 @@ package org.netbeans.gradle.project.tasks;
 import java.util.Objects;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.jtrim.cancel.CancelableWaits;
@@ -14,45 +15,112 @@ import org.jtrim.cancel.CancellationToken;
 import org.jtrim.concurrent.CancelableTask;
 import org.jtrim.concurrent.CleanupTask;
 import org.jtrim.concurrent.TaskExecutor;
+import org.jtrim.event.ListenerRef;
 import org.jtrim.utils.ExceptionHelper;
 import org.netbeans.api.progress.ProgressHandle;
 import org.netbeans.gradle.project.api.task.CommandCompleteListener;
+import org.netbeans.gradle.project.metrics.GradleProjectMetrics;
+import org.netbeans.gradle.project.util.NbSupplier;
 import org.openide.util.Cancellable;
 
 public final class GradleDaemonManager {
     private static final Logger LOGGER = Logger.getLogger(GradleDaemonManager.class.getName());
 
-    private static final ReentrantLock QUEUE_LOCK = new ReentrantLock(true);
+    // Non-blocking tasks hold the write lock, except for shared ones which
+    // hold the read lock.
+    private static final ReentrantReadWriteLock QUEUE_LOCK = new ReentrantReadWriteLock(true);
+
+    private static final AtomicBoolean DEFAULT_METRICS_INITIALIZED = new AtomicBoolean(false);
+
+    private static GradleProjectMetrics getDefaultMetrics() {
+        GradleProjectMetrics result = GradleProjectMetrics.getDefault();
+        if (!DEFAULT_METRICS_INITIALIZED.getAndSet(true)) {
+            addQueuedTasksSource(result);
+        }
+        return result;
+    }
+
+    /**
+     * Adds the number of tasks waiting for other Gradle tasks to the queue
+     * depth of the given metrics.
+     */
+    public static ListenerRef addQueuedTasksSource(GradleProjectMetrics metrics) {
+        ExceptionHelper.checkNotNullArgument(metrics, "metrics");
+
+        return metrics.addQueuedDaemonTasksSource(new NbSupplier<Long>() {
+            @Override
+            public Long get() {
+                return (long)QUEUE_LOCK.getQueueLength();
+            }
+        });
+    }
+
+    private static void lockQueue(CancellationToken cancelToken, Lock lock, GradleProjectMetrics metrics) {
+        long waitStartTime = metrics.getCurrentTimeNanos();
+        CancelableWaits.lock(cancelToken, lock);
+        metrics.onDaemonLockAcquired(waitStartTime);
+    }
 
     private static void runNonBlockingGradleTask(
             CancellationToken cancelToken,
             DaemonTask task,
-            ProgressHandle progress) {
+            boolean shared,
+            ProgressHandle progress,
+            GradleProjectMetrics metrics) {
+
+        Lock lock = shared ? QUEUE_LOCK.readLock() : QUEUE_LOCK.writeLock();
 
-        CancelableWaits.lock(cancelToken, QUEUE_LOCK);
+        lockQueue(cancelToken, lock, metrics);
         try {
             progress.switchToIndeterminate();
             task.run(cancelToken, progress);
         } finally{
-            QUEUE_LOCK.unlock();
+            lock.unlock();
         }
     }
 
     private static void runBlockingGradleTask(
             CancellationToken cancelToken,
             DaemonTask task,
-            ProgressHandle progress) {
+            ProgressHandle progress,
+            GradleProjectMetrics metrics) {
 
         // This lock/unlock is here only to wait for pending non-blocking tasks.
-        CancelableWaits.lock(cancelToken, QUEUE_LOCK);
-        QUEUE_LOCK.unlock();
+        Lock lock = QUEUE_LOCK.writeLock();
+        lockQueue(cancelToken, lock, metrics);
+        lock.unlock();
 
         progress.switchToIndeterminate();
         task.run(cancelToken, progress);
     }
 
     public static boolean isRunningExclusiveTask() {
-        return QUEUE_LOCK.isHeldByCurrentThread();
+        // Shared tasks are also considered because they would prevent
+        // waiting non-shared tasks from running, since the lock is fair.
+        return QUEUE_LOCK.isWriteLockedByCurrentThread()
+                || QUEUE_LOCK.getReadHoldCount() > 0;
+    }
+
+    public static void submitGradleTask(
+            TaskExecutor executor,
+            String caption,
+            DaemonTask task,
+            boolean nonBlocking,
+            boolean shared,
+            CommandCompleteListener listener) {
+        submitGradleTask(executor, new DaemonTaskDef(caption, nonBlocking, shared, task), listener);
+    }
+
+    public static void submitGradleTask(
+            TaskExecutor executor,
+            String caption,
+            DaemonTask task,
+            boolean nonBlocking,
+            boolean shared,
+            CommandCompleteListener listener,
+            GradleProjectMetrics metrics) {
+        DaemonTaskDef taskDef = new DaemonTaskDef(caption, nonBlocking, shared, task);
+        submitGradleTask(executor, taskDef.toFactory(), listener, metrics);
     }
 
     public static void submitGradleTask(
@@ -71,13 +139,26 @@ public final class GradleDaemonManager {
         submitGradleTask(executor, taskDef.toFactory(), listener);
     }
 
+    public static void submitGradleTask(
+            TaskExecutor executor,
+            DaemonTaskDefFactory taskDefFactory,
+            CommandCompleteListener listener) {
+        submitGradleTask(executor, taskDefFactory, listener, getDefaultMetrics());
+    }
+
+    /**
+     * Submits a Gradle task reporting the time spent waiting for other Gradle
+     * tasks to the given metrics.
+     */
     public static void submitGradleTask(
             TaskExecutor executor,
             final DaemonTaskDefFactory taskDefFactory,
-            final CommandCompleteListener listener) {
+            final CommandCompleteListener listener,
+            final GradleProjectMetrics metrics) {
         ExceptionHelper.checkNotNullArgument(executor, "executor");
         ExceptionHelper.checkNotNullArgument(taskDefFactory, "taskDefFactory");
         ExceptionHelper.checkNotNullArgument(listener, "listener");
+        ExceptionHelper.checkNotNullArgument(metrics, "metrics");
 
         final CancellationSource cancel = Cancellation.createCancellationSource();
         final String origDisplayName = taskDefFactory.getDisplayName();
@@ -122,10 +203,10 @@ public final class GradleDaemonManager {
                 }
 
                 if (nonBlocking) {
-                    runNonBlockingGradleTask(cancelToken, task, progress.getCurrentHandle());
+                    runNonBlockingGradleTask(cancelToken, task, taskDef.isShared(), progress.getCurrentHandle(), metrics);
                 }
                 else {
-                    runBlockingGradleTask(cancelToken, task, progress.getCurrentHandle());
+                    runBlockingGradleTask(cancelToken, task, progress.getCurrentHandle(), metrics);
                 }
             }
         }, new CleanupTask() {
@@ -1,12 +1,11 @@
 package org.netbeans.gradle.project.tasks;
 
+import java.util.Arrays;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import org.jtrim.cancel.Cancellation;
 import org.jtrim.cancel.CancellationToken;
-import org.jtrim.collections.RefCollection;
-import org.jtrim.collections.RefLinkedList;
 import org.jtrim.concurrent.CancelableTask;
 import org.jtrim.concurrent.CleanupTask;
 import org.jtrim.concurrent.TaskExecutor;
@@ -15,32 +14,67 @@ import org.jtrim.event.ListenerRef;
 import org.jtrim.event.UnregisteredListenerRef;
 import org.jtrim.utils.ExceptionHelper;
 
+/**
+ * Defines an executor which executes the submitted tasks in the order of their
+ * priorities. Tasks are executed by a wrapped executor, so this executor can
+ * only decide which task to execute next.
+ * <P>
+ * Larger priority values mean more important tasks. To avoid starvation of
+ * low priority tasks, each queued task ages: a task submitted with priority
+ * {@code p} is executed before any task submitted with priority {@code p + 1}
+ * after {@code agingStep} other tasks were submitted. Tasks with the same
+ * effective priority are executed in the order they were submitted.
+ * <P>
+ * Queued tasks which were canceled and have no cleanup task are removed from
+ * the queue in {@code O(log n)} time.
+ */
 public final class PriorityAwareExecutor {
+    public static final int HIGH_PRIORITY = 1000;
+    public static final int LOW_PRIORITY = 0;
+
+    public static final int DEFAULT_AGING_STEP = 1024;
+
     private final TaskExecutor wrapped;
     private final TaskQueue taskQueue;
 
     public PriorityAwareExecutor(TaskExecutor wrapped) {
+        this(wrapped, DEFAULT_AGING_STEP);
+    }
+
+    public PriorityAwareExecutor(TaskExecutor wrapped, int agingStep) {
         ExceptionHelper.checkNotNullArgument(wrapped, "wrapped");
+        ExceptionHelper.checkArgumentInRange(agingStep, 1, Integer.MAX_VALUE, "agingStep");
 
         this.wrapped = wrapped;
-        this.taskQueue = new TaskQueue();
+        this.taskQueue = new TaskQueue(agingStep);
     }
 
     private void executeForPriority(
             CancellationToken cancelToken,
-            Priority priority,
+            int priority,
             CancelableTask task,
             CleanupTask cleanupTask) {
 
-        TaskDef taskDef = new TaskDef(cancelToken, task, cleanupTask);
-        RefCollection.ElementRef<?> queueRef = taskQueue.addTask(priority, taskDef);
-        taskDef.init(queueRef);
+        final TaskDef taskDef = new TaskDef(cancelToken, task, cleanupTask);
+        taskQueue.addTask(priority, taskDef);
+        taskDef.init(new Runnable() {
+            @Override
+            public void run() {
+                taskQueue.removeTask(taskDef);
+            }
+        });
 
         final AtomicReference<TaskDef> taskDefRef = new AtomicReference<>(null);
         CancelableTask forwarderTask = new CancelableTask() {
             @Override
             public void execute(CancellationToken cancelToken) throws Exception {
                 TaskDef task = taskQueue.pollTask();
+                if (task == null) {
+                    // The task of this forwarder was canceled and removed
+                    // from the queue.
+                    return;
+                }
+
                 taskDefRef.set(task);
                 task.doTask(cancelToken);
             }
@@ -67,7 +101,7 @@ public final class PriorityAwareExecutor {
         wrapped.execute(Cancellation.UNCANCELABLE_TOKEN, forwarderTask, forwarderCleanupTask);
     }
 
-    private TaskExecutor getExecutor(final Priority priority) {
+    public TaskExecutor getExecutor(final int priority) {
         return new TaskExecutor() {
             @Override
             public void execute(CancellationToken cancelToken, CancelableTask task, CleanupTask cleanupTask) {
@@ -77,94 +111,172 @@ public final class PriorityAwareExecutor {
     }
 
     public TaskExecutor getHighPriorityExecutor() {
-        return getExecutor(Priority.HIGH);
+        return getExecutor(HIGH_PRIORITY);
     }
 
     public TaskExecutor getLowPriorityExecutor() {
-        return getExecutor(Priority.LOW);
+        return getExecutor(LOW_PRIORITY);
+    }
+
+    int getQueuedTaskCount() {
+        return taskQueue.size();
     }
 
     private static final class TaskQueue {
         private final Lock queueLock;
-        // TODO: Allow arbitrary priority
-        private final RefLinkedList<TaskDef> queueHighPriority;
-        private final RefLinkedList<TaskDef> queueLowPriority;
+        private final long agingStep;
+        private long submitCount;
+
+        // Binary min-heap ordered by TaskDef.queueKey, each TaskDef knows
+        // its own index in the heap to allow removing it in O(log n) time.
+        private TaskDef[] heap;
+        private int size;
 
-        public TaskQueue() {
+        public TaskQueue(int agingStep) {
             this.queueLock = new ReentrantLock();
-            this.queueLowPriority = new RefLinkedList<>();
-            this.queueHighPriority = new RefLinkedList<>();
+            this.agingStep = agingStep;
+            this.submitCount = 0;
+            this.heap = new TaskDef[16];
+            this.size = 0;
         }
 
-        private RefLinkedList<TaskDef> getQueue(Priority priority) {
-            return priority == Priority.HIGH ? queueHighPriority : queueLowPriority;
+        public int size() {
+            queueLock.lock();
+            try {
+                return size;
+            } finally {
+                queueLock.unlock();
+            }
         }
 
-        private static <E> RefCollection.ElementRef<E> wrapLocked(final RefCollection.ElementRef<E> ref, final Lock lock) {
-            return new RefCollection.ElementRef<E>() {
-                @Override
-                public E setElement(E newElement) {
-                    throw new UnsupportedOperationException("Cannot update element");
-                }
+        public void addTask(int priority, TaskDef task) {
+            queueLock.lock();
+            try {
+                long index = submitCount++;
+                task.queueIndex = index;
+                task.queueKey = index - agingStep * priority;
 
-                @Override
-                public E getElement() {
-                    return ref.getElement();
+                if (size >= heap.length) {
+                    heap = Arrays.copyOf(heap, 2 * heap.length);
                 }
 
-                @Override
-                public boolean isRemoved() {
-                    lock.lock();
-                    try {
-                        return ref.isRemoved();
-                    } finally {
-                        lock.unlock();
-                    }
-                }
+                heap[size] = task;
+                task.heapIndex = size;
+                size++;
 
-                @Override
-                public void remove() {
-                    lock.lock();
-                    try {
-                        ref.remove();
-                    } finally {
-                        lock.unlock();
-                    }
-                }
-            };
+                siftUp(task.heapIndex);
+            } finally {
+                queueLock.unlock();
+            }
         }
 
-        public RefCollection.ElementRef<?> addTask(Priority priority, TaskDef task) {
-            RefLinkedList<TaskDef> queue = getQueue(priority);
-
+        public TaskDef pollTask() {
             queueLock.lock();
             try {
-                return wrapLocked(queue.addLastGetReference(task), queueLock);
+                if (size == 0) {
+                    return null;
+                }
+
+                TaskDef result = heap[0];
+                removeAt(0);
+                return result;
             } finally {
                 queueLock.unlock();
             }
         }
 
-        public TaskDef pollTask() {
+        public void removeTask(TaskDef task) {
             queueLock.lock();
             try {
-                TaskDef result = queueHighPriority.poll();
-                if (result == null) {
-                    result = queueLowPriority.poll();
+                int index = task.heapIndex;
+                if (index >= 0) {
+                    removeAt(index);
                 }
-                return result;
             } finally {
                 queueLock.unlock();
             }
         }
-    }
 
-    private enum Priority {
-        HIGH,
-        LOW
+        private void removeAt(int index) {
+            TaskDef removed = heap[index];
+            removed.heapIndex = -1;
+
+            size--;
+            if (index != size) {
+                TaskDef last = heap[size];
+                heap[index] = last;
+                last.heapIndex = index;
+                heap[size] = null;
+
+                siftDown(index);
+                if (heap[index] == last) {
+                    siftUp(index);
+                }
+            }
+            else {
+                heap[size] = null;
+            }
+        }
+
+        private static boolean isBefore(TaskDef task1, TaskDef task2) {
+            if (task1.queueKey != task2.queueKey) {
+                return task1.queueKey < task2.queueKey;
+            }
+            return task1.queueIndex < task2.queueIndex;
+        }
+
+        private void siftUp(int index) {
+            TaskDef task = heap[index];
+            while (index > 0) {
+                int parentIndex = (index - 1) / 2;
+                TaskDef parent = heap[parentIndex];
+                if (!isBefore(task, parent)) {
+                    break;
+                }
+
+                heap[index] = parent;
+                parent.heapIndex = index;
+                index = parentIndex;
+            }
+
+            heap[index] = task;
+            task.heapIndex = index;
+        }
+
+        private void siftDown(int index) {
+            TaskDef task = heap[index];
+            while (true) {
+                int childIndex = 2 * index + 1;
+                if (childIndex >= size) {
+                    break;
+                }
+
+                int rightIndex = childIndex + 1;
+                if (rightIndex < size && isBefore(heap[rightIndex], heap[childIndex])) {
+                    childIndex = rightIndex;
+                }
+
+                TaskDef child = heap[childIndex];
+                if (!isBefore(child, task)) {
+                    break;
+                }
+
+                heap[index] = child;
+                child.heapIndex = index;
+                index = childIndex;
+            }
+
+            heap[index] = task;
+            task.heapIndex = index;
+        }
     }
 
     private static final class TaskDef {
+        // These fields are guarded by the lock of the TaskQueue.
+        private long queueIndex;
+        private long queueKey;
+        private int heapIndex;
+
         private volatile CancellationToken cancelToken;
         private volatile CancelableTask task;
         private volatile boolean skippedExecute;
@@ -178,9 +290,10 @@ public final class PriorityAwareExecutor {
             this.cleanupTask = cleanupTask;
             this.cancelRef = new AtomicReference<>(null);
             this.skippedExecute = false;
+            this.heapIndex = -1;
         }
 
-        public void init(final RefCollection.ElementRef<?> queueRef) {
+        public void init(final Runnable removeFromQueue) {
             final InitLaterListenerRef cancelRefRef = new InitLaterListenerRef();
 
             cancelRefRef.init(cancelToken.addCancellationListener(new Runnable() {
@@ -189,7 +302,7 @@ public final class PriorityAwareExecutor {
                     removeTask();
 
                     if (cleanupTask == null) {
-                        queueRef.remove();
+                        removeFromQueue.run();
                     }
 
                     cancelRefRef.unregister();
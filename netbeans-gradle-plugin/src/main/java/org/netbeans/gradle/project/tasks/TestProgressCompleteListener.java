@@ -0,0 +1,19 @@
+package org.netbeans.gradle.project.tasks;
+
+import org.gradle.tooling.events.ProgressListener;
+import org.netbeans.gradle.project.api.task.ContextAwareCommandCompleteListener;
+
+/**
+ * Defines a {@link ContextAwareCommandCompleteListener} which also wants to
+ * receive the test progress events of the Gradle command while it is running.
+ * <P>
+ * {@link #startTestProgress() startTestProgress} is only called if the target
+ * Gradle version is able to send test progress events. In this case, it is
+ * called before each execution of the command and {@code onComplete} is called
+ * after the execution as usual. The returned listener receives both the task
+ * and the test progress events, so that test events can be attributed to the
+ * test task executing them.
+ */
+public interface TestProgressCompleteListener extends ContextAwareCommandCompleteListener {
+    public ProgressListener startTestProgress();
+}
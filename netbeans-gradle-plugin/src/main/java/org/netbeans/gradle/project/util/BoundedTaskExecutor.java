@@ -0,0 +1,135 @@
+package org.netbeans.gradle.project.util;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.jtrim.cancel.CancellationToken;
+import org.jtrim.concurrent.CancelableTask;
+import org.jtrim.concurrent.CleanupTask;
+import org.jtrim.concurrent.TaskExecutor;
+import org.jtrim.concurrent.ThreadPoolTaskExecutor;
+import org.jtrim.utils.ExceptionHelper;
+
+/**
+ * Defines an executor which executes tasks on at most a given number of threads
+ * and queues at most a given number of tasks. Tasks submitted when the queue
+ * is full are rejected without blocking the submitter: The rejection listener
+ * is notified and the cleanup task of the rejected task is called with a
+ * {@code RejectedExecutionException} as if the task failed. That is, callers
+ * waiting for the completion of the task are notified of the rejection.
+ * <P>
+ * Both limits can be adjusted while the executor is in use.
+ */
+public final class BoundedTaskExecutor implements TaskExecutor {
+    private static final Logger LOGGER = Logger.getLogger(BoundedTaskExecutor.class.getName());
+
+    private static final long DEFAULT_IDLE_TIMEOUT_MS = 1000;
+
+    private final ThreadPoolTaskExecutor executor;
+    private final Runnable rejectionListener;
+    private final AtomicInteger pendingTaskCount;
+    private volatile int maxThreadCount;
+    private volatile int maxQueuedTaskCount;
+
+    public BoundedTaskExecutor(
+            String name,
+            int maxThreadCount,
+            int maxQueuedTaskCount,
+            Runnable rejectionListener) {
+
+        ExceptionHelper.checkNotNullArgument(name, "name");
+        ExceptionHelper.checkArgumentInRange(maxThreadCount, 1, Integer.MAX_VALUE, "maxThreadCount");
+        ExceptionHelper.checkArgumentInRange(maxQueuedTaskCount, 0, Integer.MAX_VALUE, "maxQueuedTaskCount");
+        ExceptionHelper.checkNotNullArgument(rejectionListener, "rejectionListener");
+
+        this.executor = new ThreadPoolTaskExecutor(name, maxThreadCount, Integer.MAX_VALUE,
+                DEFAULT_IDLE_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        this.rejectionListener = rejectionListener;
+        this.pendingTaskCount = new AtomicInteger(0);
+        this.maxThreadCount = maxThreadCount;
+        this.maxQueuedTaskCount = maxQueuedTaskCount;
+    }
+
+    public void setMaxThreadCount(int maxThreadCount) {
+        ExceptionHelper.checkArgumentInRange(maxThreadCount, 1, Integer.MAX_VALUE, "maxThreadCount");
+
+        this.maxThreadCount = maxThreadCount;
+        executor.setMaxThreadCount(maxThreadCount);
+    }
+
+    public void setMaxQueuedTaskCount(int maxQueuedTaskCount) {
+        ExceptionHelper.checkArgumentInRange(maxQueuedTaskCount, 0, Integer.MAX_VALUE, "maxQueuedTaskCount");
+        this.maxQueuedTaskCount = maxQueuedTaskCount;
+    }
+
+    public int getMaxThreadCount() {
+        return maxThreadCount;
+    }
+
+    /**
+     * Returns the number of tasks submitted to this executor whose cleanup
+     * task has not yet been completed. That is, the number of executing and
+     * queued tasks.
+     */
+    public int getPendingTaskCount() {
+        return pendingTaskCount.get();
+    }
+
+    private boolean tryReserve() {
+        long limit = (long)maxThreadCount + (long)maxQueuedTaskCount;
+        while (true) {
+            int pending = pendingTaskCount.get();
+            if (pending >= limit) {
+                return false;
+            }
+            if (pendingTaskCount.compareAndSet(pending, pending + 1)) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public void execute(
+            CancellationToken cancelToken,
+            CancelableTask task,
+            final CleanupTask cleanupTask) {
+        ExceptionHelper.checkNotNullArgument(cancelToken, "cancelToken");
+        ExceptionHelper.checkNotNullArgument(task, "task");
+
+        if (!tryReserve()) {
+            reject(cleanupTask);
+            return;
+        }
+
+        executor.execute(cancelToken, task, new CleanupTask() {
+            @Override
+            public void cleanup(boolean canceled, Throwable error) throws Exception {
+                pendingTaskCount.decrementAndGet();
+                if (cleanupTask != null) {
+                    cleanupTask.cleanup(canceled, error);
+                }
+            }
+        });
+    }
+
+    private void reject(CleanupTask cleanupTask) {
+        try {
+            rejectionListener.run();
+        } catch (Throwable ex) {
+            LOGGER.log(Level.SEVERE, "Rejection listener has thrown an unexpected exception.", ex);
+        }
+
+        if (cleanupTask != null) {
+            RejectedExecutionException rejection = new RejectedExecutionException(
+                    "Too many pending tasks. Max. threads: " + maxThreadCount
+                    + ", max. queued tasks: " + maxQueuedTaskCount);
+            try {
+                cleanupTask.cleanup(false, rejection);
+            } catch (Throwable ex) {
+                LOGGER.log(Level.SEVERE, "Cleanup task of a rejected task has thrown an unexpected exception.", ex);
+            }
+        }
+    }
+}
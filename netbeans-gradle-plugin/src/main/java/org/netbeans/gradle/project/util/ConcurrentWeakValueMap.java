@@ -0,0 +1,182 @@
+package org.netbeans.gradle.project.util;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.jtrim.utils.ExceptionHelper;
+
+/**
+ * Defines a thread-safe map which only weakly references its values. Entries
+ * whose value has been garbage collected are removed when the map is modified
+ * (or when {@link #expungeStaleEntries() explicitly requested}), and the
+ * removal only touches the collected entries (they are found through a
+ * {@code ReferenceQueue}), so there is never a need to scan the whole map.
+ * <P>
+ * Retrieving values does not block, and iterating over the values is weakly
+ * consistent (like the iterators of {@code ConcurrentHashMap}): It never
+ * throws {@code ConcurrentModificationException} and values collected
+ * during the iteration are simply skipped.
+ * <P>
+ * Neither keys nor values can be {@code null}.
+ *
+ * @param <K> the type of the keys of this map
+ * @param <V> the type of the values of this map
+ */
+public final class ConcurrentWeakValueMap<K, V> {
+    private final ConcurrentMap<K, ValueRef<K, V>> entries;
+    private final ReferenceQueue<V> collectedValues;
+
+    public ConcurrentWeakValueMap() {
+        this.entries = new ConcurrentHashMap<>();
+        this.collectedValues = new ReferenceQueue<>();
+    }
+
+    /**
+     * Removes the entries whose value has been garbage collected. This method
+     * only processes the entries already reported as collected by the JVM.
+     */
+    public void expungeStaleEntries() {
+        while (true) {
+            @SuppressWarnings("unchecked")
+            ValueRef<K, V> ref = (ValueRef<K, V>)collectedValues.poll();
+            if (ref == null) {
+                break;
+            }
+            // The key might have been associated with a new value since.
+            entries.remove(ref.key, ref);
+        }
+    }
+
+    public V get(K key) {
+        ExceptionHelper.checkNotNullArgument(key, "key");
+
+        ValueRef<K, V> ref = entries.get(key);
+        return ref != null ? ref.get() : null;
+    }
+
+    public V put(K key, V value) {
+        ExceptionHelper.checkNotNullArgument(key, "key");
+        ExceptionHelper.checkNotNullArgument(value, "value");
+
+        expungeStaleEntries();
+
+        ValueRef<K, V> prevRef = entries.put(key, new ValueRef<>(key, value, collectedValues));
+        return prevRef != null ? prevRef.get() : null;
+    }
+
+    /**
+     * Associates the given value with the given key if there is no value
+     * associated with the key (or it has been garbage collected).
+     *
+     * @return the value already associated with the key, or {@code null} if
+     *   the given value was added to this map
+     */
+    public V putIfAbsent(K key, V value) {
+        ExceptionHelper.checkNotNullArgument(key, "key");
+        ExceptionHelper.checkNotNullArgument(value, "value");
+
+        expungeStaleEntries();
+
+        ValueRef<K, V> newRef = new ValueRef<>(key, value, collectedValues);
+        while (true) {
+            ValueRef<K, V> prevRef = entries.putIfAbsent(key, newRef);
+            if (prevRef == null) {
+                return null;
+            }
+
+            V prevValue = prevRef.get();
+            if (prevValue != null) {
+                return prevValue;
+            }
+
+            if (entries.replace(key, prevRef, newRef)) {
+                return null;
+            }
+        }
+    }
+
+    public V remove(K key) {
+        ExceptionHelper.checkNotNullArgument(key, "key");
+
+        expungeStaleEntries();
+
+        ValueRef<K, V> prevRef = entries.remove(key);
+        return prevRef != null ? prevRef.get() : null;
+    }
+
+    /**
+     * Returns the number of entries in this map after removing the entries
+     * already known to be collected. Note that the returned number might
+     * still include values which have been collected but not yet reported by
+     * the JVM.
+     */
+    public int size() {
+        expungeStaleEntries();
+        return entries.size();
+    }
+
+    /**
+     * Returns a weakly consistent, read-only view of the values of this map.
+     */
+    public Iterable<V> values() {
+        return new Iterable<V>() {
+            @Override
+            public Iterator<V> iterator() {
+                return new ValueItr<>(entries.values().iterator());
+            }
+        };
+    }
+
+    private static final class ValueItr<K, V> implements Iterator<V> {
+        private final Iterator<ValueRef<K, V>> itr;
+        private V nextValue;
+
+        public ValueItr(Iterator<ValueRef<K, V>> itr) {
+            this.itr = itr;
+            moveToNext();
+        }
+
+        private void moveToNext() {
+            while (itr.hasNext()) {
+                nextValue = itr.next().get();
+                if (nextValue != null) {
+                    return;
+                }
+            }
+            nextValue = null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextValue != null;
+        }
+
+        @Override
+        public V next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            V result = nextValue;
+            moveToNext();
+            return result;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("The view of the values of this map is read-only.");
+        }
+    }
+
+    private static final class ValueRef<K, V> extends WeakReference<V> {
+        private final K key;
+
+        public ValueRef(K key, V value, ReferenceQueue<? super V> queue) {
+            super(value, queue);
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package org.netbeans.gradle.project.util;
+
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.jtrim.cancel.Cancellation;
+import org.jtrim.cancel.CancellationToken;
+import org.jtrim.cancel.OperationCanceledException;
+import org.jtrim.concurrent.CancelableTask;
+import org.jtrim.concurrent.CleanupTask;
+import org.jtrim.concurrent.TaskExecutor;
+import org.jtrim.utils.ExceptionHelper;
+
+/**
+ * Defines an executor which executes tasks submitted with the same key one
+ * after another (in the order they were submitted), while tasks submitted with
+ * different keys might be executed concurrently by the wrapped executor.
+ * <P>
+ * Tasks of the same key do not occupy more than a single thread of the wrapped
+ * executor at any time, and a task is submitted to the wrapped executor
+ * only after the previous task of the same key completed. That is, keys with
+ * many queued tasks do not starve other keys.
+ * <P>
+ * If the wrapped executor does not execute a task (e.g., because it was
+ * shut down), the cleanup tasks of the task and of the tasks queued after it
+ * for the same key are called as if they were canceled.
+ * <P>
+ * Keys must have proper {@code equals} and {@code hashCode} implementations.
+ * Nothing is retained for keys without queued or executing tasks.
+ */
+public final class KeySerializingExecutor {
+    private static final Logger LOGGER = Logger.getLogger(KeySerializingExecutor.class.getName());
+
+    private final TaskExecutor wrapped;
+    private final Lock mainLock;
+    private final Map<Object, Queue<TaskDef>> queues;
+
+    public KeySerializingExecutor(TaskExecutor wrapped) {
+        ExceptionHelper.checkNotNullArgument(wrapped, "wrapped");
+
+        this.wrapped = wrapped;
+        this.mainLock = new ReentrantLock();
+        this.queues = new HashMap<>();
+    }
+
+    /**
+     * Returns an executor executing its tasks in the order they were
+     * submitted, and never concurrently with other tasks of the same key.
+     */
+    public TaskExecutor getExecutor(final Object key) {
+        ExceptionHelper.checkNotNullArgument(key, "key");
+
+        return new TaskExecutor() {
+            @Override
+            public void execute(CancellationToken cancelToken, CancelableTask task, CleanupTask cleanupTask) {
+                ExceptionHelper.checkNotNullArgument(cancelToken, "cancelToken");
+                ExceptionHelper.checkNotNullArgument(task, "task");
+
+                submit(key, new TaskDef(cancelToken, task, cleanupTask));
+            }
+        };
+    }
+
+    /**
+     * Returns the number of tasks waiting for the previous task of the same
+     * key to complete. The tasks waiting for the wrapped executor are not
+     * counted.
+     */
+    public long getQueuedTaskCount() {
+        long result = 0;
+        mainLock.lock();
+        try {
+            for (Queue<TaskDef> queue: queues.values()) {
+                result += queue.size();
+            }
+        } finally {
+            mainLock.unlock();
+        }
+        return result;
+    }
+
+    private void submit(Object key, TaskDef taskDef) {
+        boolean startNow;
+
+        mainLock.lock();
+        try {
+            Queue<TaskDef> queue = queues.get(key);
+            startNow = queue == null;
+            if (startNow) {
+                // The task to be started is not added to the queue, the
+                // existence of the queue means that a task is executing.
+                queues.put(key, new LinkedList<TaskDef>());
+            }
+            else {
+                queue.add(taskDef);
+            }
+        } finally {
+            mainLock.unlock();
+        }
+
+        if (startNow) {
+            startTask(key, taskDef);
+        }
+    }
+
+    private void startTask(final Object key, final TaskDef taskDef) {
+        final AtomicBoolean started = new AtomicBoolean(false);
+        wrapped.execute(Cancellation.UNCANCELABLE_TOKEN, new CancelableTask() {
+            @Override
+            public void execute(CancellationToken cancelToken) {
+                started.set(true);
+                try {
+                    taskDef.run();
+                } finally {
+                    startNext(key);
+                }
+            }
+        }, new CleanupTask() {
+            @Override
+            public void cleanup(boolean canceled, Throwable error) {
+                if (!started.get()) {
+                    dropTasks(key, taskDef);
+                }
+            }
+        });
+    }
+
+    private void dropTasks(Object key, TaskDef firstTask) {
+        Queue<TaskDef> queue;
+
+        mainLock.lock();
+        try {
+            // Starting the next task would most likely fail the same way,
+            // so every queued task of the key is dropped.
+            queue = queues.remove(key);
+        } finally {
+            mainLock.unlock();
+        }
+
+        firstTask.cleanup(true, null);
+        if (queue != null) {
+            for (TaskDef taskDef: queue) {
+                taskDef.cleanup(true, null);
+            }
+        }
+    }
+
+    private void startNext(Object key) {
+        TaskDef nextTask;
+
+        mainLock.lock();
+        try {
+            Queue<TaskDef> queue = queues.get(key);
+            nextTask = queue.poll();
+            if (nextTask == null) {
+                queues.remove(key);
+            }
+        } finally {
+            mainLock.unlock();
+        }
+
+        if (nextTask != null) {
+            startTask(key, nextTask);
+        }
+    }
+
+    private static final class TaskDef {
+        private final CancellationToken cancelToken;
+        private final CancelableTask task;
+        private final CleanupTask cleanupTask;
+
+        public TaskDef(CancellationToken cancelToken, CancelableTask task, CleanupTask cleanupTask) {
+            this.cancelToken = cancelToken;
+            this.task = task;
+            this.cleanupTask = cleanupTask;
+        }
+
+        public void run() {
+            boolean canceled = false;
+            Throwable error = null;
+
+            try {
+                if (cancelToken.isCanceled()) {
+                    canceled = true;
+                }
+                else {
+                    task.execute(cancelToken);
+                }
+            } catch (OperationCanceledException ex) {
+                canceled = true;
+            } catch (Throwable ex) {
+                error = ex;
+            }
+
+            cleanup(canceled, error);
+        }
+
+        public void cleanup(boolean canceled, Throwable error) {
+            if (cleanupTask != null) {
+                try {
+                    cleanupTask.cleanup(canceled, error);
+                } catch (Throwable ex) {
+                    LOGGER.log(Level.SEVERE, "Cleanup task has thrown an unexpected exception.", ex);
+                }
+            }
+            else if (error != null) {
+                LOGGER.log(Level.SEVERE, "Task has thrown an unexpected exception.", error);
+            }
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package org.netbeans.gradle.project.util;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.jtrim.utils.ExceptionHelper;
+import org.netbeans.gradle.model.GenericProjectProperties;
+import org.netbeans.gradle.model.ProjectId;
+import org.netbeans.gradle.model.java.JavaClassPaths;
+
+/**
+ * Defines a cache of canonical instances of immutable objects frequently
+ * repeated in the models of a build. For example, the same jar file in the
+ * Gradle cache is usually referenced by many projects, and an interner allows
+ * these projects to share a single {@code File} instance.
+ * <P>
+ * An interner is meant to be used only while loading models (including
+ * loading them from the persistent cache), and is expected to be discarded
+ * after that.
+ * <P>
+ * Instances of this class are <B>not</B> safe to be used by multiple threads
+ * concurrently.
+ */
+public final class ModelInterner {
+    private final Map<String, String> strings;
+    private final Map<File, File> files;
+    private final Map<List<File>, List<File>> fileLists;
+    private final Map<List<?>, JavaClassPaths> classPaths;
+    private final Map<List<?>, GenericProjectProperties> projectProperties;
+
+    public ModelInterner() {
+        this.strings = new HashMap<>();
+        this.files = new HashMap<>();
+        this.fileLists = new HashMap<>();
+        this.classPaths = new HashMap<>();
+        this.projectProperties = new HashMap<>();
+    }
+
+    private static <T> T intern(Map<? super T, T> cache, T obj) {
+        if (obj == null) {
+            return null;
+        }
+
+        T prevObj = cache.get(obj);
+        if (prevObj != null) {
+            return prevObj;
+        }
+
+        cache.put(obj, obj);
+        return obj;
+    }
+
+    public String internString(String str) {
+        return intern(strings, str);
+    }
+
+    public File internFile(File file) {
+        return intern(files, file);
+    }
+
+    /**
+     * Returns a canonical list of the given files (in the same order). The
+     * returned list must not be modified.
+     */
+    public List<File> internFiles(Collection<? extends File> fileList) {
+        ExceptionHelper.checkNotNullArgument(fileList, "fileList");
+
+        List<File> internedFiles = new ArrayList<>(fileList.size());
+        for (File file: fileList) {
+            internedFiles.add(internFile(file));
+        }
+        return intern(fileLists, internedFiles);
+    }
+
+    public JavaClassPaths internClassPaths(JavaClassPaths paths) {
+        if (paths == null) {
+            return null;
+        }
+
+        // The order of the entries matters, so the sets cannot be used as keys.
+        List<File> compile = internFiles(paths.getCompileClasspaths());
+        List<File> runtime = internFiles(paths.getRuntimeClasspaths());
+        if (compile.isEmpty() && runtime.isEmpty()) {
+            return JavaClassPaths.EMPTY;
+        }
+
+        List<?> key = Arrays.asList(compile, runtime);
+
+        JavaClassPaths result = classPaths.get(key);
+        if (result == null) {
+            result = compile == runtime
+                    ? new JavaClassPaths(compile)
+                    : new JavaClassPaths(compile, runtime);
+            classPaths.put(key, result);
+        }
+        return result;
+    }
+
+    public GenericProjectProperties internProjectProperties(GenericProjectProperties properties) {
+        if (properties == null) {
+            return null;
+        }
+
+        ProjectId projectId = properties.getProjectId();
+        List<?> key = Arrays.asList(
+                internString(projectId.getGroup()),
+                internString(projectId.getName()),
+                internString(projectId.getVersion()),
+                internString(properties.getProjectFullName()),
+                internFile(properties.getProjectDir()),
+                internFile(properties.getBuildScript()),
+                internFile(properties.getBuildDir()));
+
+        GenericProjectProperties result = projectProperties.get(key);
+        if (result == null) {
+            result = new GenericProjectProperties(
+                    new ProjectId((String)key.get(0), (String)key.get(1), (String)key.get(2)),
+                    (String)key.get(3),
+                    (File)key.get(4),
+                    (File)key.get(5),
+                    (File)key.get(6));
+            projectProperties.put(key, result);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the canonical instance of the given object if it is of a type
+     * known by this interner, or returns the argument otherwise. This method
+     * is suitable to be called for every object read from a serialized model.
+     */
+    public Object internModelObject(Object obj) {
+        if (obj instanceof String) {
+            return internString((String)obj);
+        }
+        if (obj instanceof File) {
+            return internFile((File)obj);
+        }
+        if (obj instanceof JavaClassPaths) {
+            return internClassPaths((JavaClassPaths)obj);
+        }
+        if (obj instanceof GenericProjectProperties) {
+            return internProjectProperties((GenericProjectProperties)obj);
+        }
+        return obj;
+    }
+}
@@ -1,12 +1,17 @@
 package org.netbeans.gradle.project.util;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
 import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import org.jtrim.utils.ExceptionHelper;
 
 public final class SerializationUtils2 {
     public static void serializeToFile(Path file, Object object) throws IOException {
@@ -25,6 +30,119 @@ public final class SerializationUtils2 {
         }
     }
 
+    /**
+     * Returns the MD5 hash of the serialized form of the given object. Objects
+     * having the same content have the same hash, as long as their serialized
+     * form does not depend on anything else than their content. The serialized
+     * form is not kept in memory.
+     */
+    public static byte[] getContentHash(Object object) {
+        ExceptionHelper.checkNotNullArgument(object, "object");
+
+        MessageDigest hashCalculator;
+        try {
+            hashCalculator = MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new RuntimeException("Unable to load the MD5 calculator.", ex);
+        }
+
+        try (ObjectOutputStream output = new ObjectOutputStream(new DigestingOutputStream(hashCalculator))) {
+            output.writeObject(object);
+        } catch (IOException ex) {
+            throw new RuntimeException(ex);
+        }
+        return hashCalculator.digest();
+    }
+
+    /**
+     * Deserializes the given file replacing the deserialized objects with their
+     * canonical instances defined by the given interner.
+     */
+    public static Object deserializeFile(Path file, ModelInterner interner) throws IOException {
+        ExceptionHelper.checkNotNullArgument(interner, "interner");
+
+        try (InputStream fileInput = Files.newInputStream(file);
+                ObjectInputStream input = new InterningObjectInputStream(fileInput, null, interner)) {
+            return input.readObject();
+        } catch (ClassNotFoundException ex) {
+            throw new IOException(ex);
+        }
+    }
+
+    /**
+     * Deserializes the given object (resolving classes via the given class
+     * loader) replacing the deserialized objects with their canonical instances
+     * defined by the given interner.
+     */
+    public static Object deserializeObject(
+            byte[] serializedObject,
+            ClassLoader classLoader,
+            ModelInterner interner) throws ClassNotFoundException {
+
+        ExceptionHelper.checkNotNullArgument(serializedObject, "serializedObject");
+        ExceptionHelper.checkNotNullArgument(classLoader, "classLoader");
+        ExceptionHelper.checkNotNullArgument(interner, "interner");
+
+        try (ObjectInputStream input = new InterningObjectInputStream(
+                new ByteArrayInputStream(serializedObject), classLoader, interner)) {
+            return input.readObject();
+        } catch (IOException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    private static final class DigestingOutputStream extends OutputStream {
+        private final MessageDigest hashCalculator;
+
+        public DigestingOutputStream(MessageDigest hashCalculator) {
+            this.hashCalculator = hashCalculator;
+        }
+
+        @Override
+        public void write(int b) {
+            hashCalculator.update((byte)b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            hashCalculator.update(b, off, len);
+        }
+    }
+
+    private static final class InterningObjectInputStream extends ObjectInputStream {
+        private final ClassLoader classLoader;
+        private final ModelInterner interner;
+
+        public InterningObjectInputStream(
+                InputStream input,
+                ClassLoader classLoader,
+                ModelInterner interner) throws IOException {
+            super(input);
+
+            this.classLoader = classLoader;
+            this.interner = interner;
+
+            enableResolveObject(true);
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+            if (classLoader != null) {
+                try {
+                    return Class.forName(desc.getName(), false, classLoader);
+                } catch (ClassNotFoundException ex) {
+                    // Needed for primitive types
+                }
+            }
+            return super.resolveClass(desc);
+        }
+
+        @Override
+        protected Object resolveObject(Object obj) throws IOException {
+            return interner.internModelObject(obj);
+        }
+    }
+
     private SerializationUtils2() {
         throw new AssertionError();
     }
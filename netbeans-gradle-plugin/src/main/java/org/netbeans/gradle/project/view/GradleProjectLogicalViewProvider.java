@@ -46,6 +46,7 @@ import org.netbeans.gradle.project.api.task.CustomCommandActions;
 import org.netbeans.gradle.project.api.task.GradleCommandTemplate;
 import org.netbeans.gradle.project.api.task.TaskVariableMap;
 import org.netbeans.gradle.project.extensions.NbGradleExtensionRef;
+import org.netbeans.gradle.project.model.GradleTaskTree;
 import org.netbeans.gradle.project.model.ModelRefreshListener;
 import org.netbeans.gradle.project.model.NbGradleModel;
 import org.netbeans.gradle.project.properties.NbGradleCommonProperties;
@@ -781,10 +782,8 @@ implements
 
             lastUsedModel = projectModel;
 
-            Collection<GradleTaskID> tasks = projectModel.getMainProject().getTasks();
-
             menu.removeAll();
-            addToMenu(menu, GradleTaskTree.createTaskTree(tasks));
+            addToMenu(menu, projectModel.getGenericInfo().getTaskTree());
         }
     }
 
@@ -7,13 +7,11 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.Objects;
 import java.util.logging.Logger;
 import javax.swing.AbstractAction;
 import javax.swing.Action;
 import org.jtrim.utils.ExceptionHelper;
-import org.netbeans.gradle.model.util.CollectionUtils;
 import org.netbeans.gradle.project.NbGradleProject;
 import org.netbeans.gradle.project.NbIcons;
 import org.netbeans.gradle.project.NbStrings;
@@ -37,35 +35,42 @@ extends
     private static final Logger LOGGER = Logger.getLogger(SubProjectsChildFactory.class.getName());
 
     private final NbGradleProject project;
-    private final List<NbGradleProjectTree> subProjects;
-    private final AtomicReference<NbGradleProjectTree> lastTree;
-    private final boolean root;
+    private final SubProjectsTree tree;
+    // null for the root factory, whose project is the main project of the
+    // current model.
+    private final String projectPath;
     private final ListenerRegistrations listenerRefs;
 
     public SubProjectsChildFactory(NbGradleProject project) {
-        this(project, null, true);
+        this(project, new SubProjectsTree(getMainProject(project)), null);
     }
 
     private SubProjectsChildFactory(
             NbGradleProject project,
-            Collection<? extends NbGradleProjectTree> subProjects,
-            boolean root) {
+            SubProjectsTree tree,
+            String projectPath) {
 
         ExceptionHelper.checkNotNullArgument(project, "project");
+        ExceptionHelper.checkNotNullArgument(tree, "tree");
 
-        this.root = root;
         this.project = project;
+        this.tree = tree;
+        this.projectPath = projectPath;
         this.listenerRefs = new ListenerRegistrations();
-        this.lastTree = new AtomicReference<>(null);
-        if (subProjects != null) {
-            this.subProjects = new ArrayList<>(subProjects);
-            sortModules(this.subProjects);
+    }
 
-            ExceptionHelper.checkNotNullElements(this.subProjects, "subProjects");
-        }
-        else {
-            this.subProjects = null;
-        }
+    private boolean isRoot() {
+        return projectPath == null;
+    }
+
+    private String getProjectPath() {
+        return isRoot()
+                ? getMainProject(project).getProjectFullName()
+                : projectPath;
+    }
+
+    private static NbGradleProjectTree getMainProject(NbGradleProject project) {
+        return project.currentModel().getValue().getMainProject();
     }
 
     private static void sortModules(List<NbGradleProjectTree> modules) {
@@ -77,69 +82,32 @@ extends
         });
     }
 
-    private static boolean hasRelevantDifferences(NbGradleProjectTree tree1, NbGradleProjectTree tree2) {
-        if (tree1 == tree2) {
-            // In practice this happens only when they are nulls.
-            return false;
-        }
-        if (tree1 == null || tree2 == null) {
-            return true;
-        }
-
-        return !equalsTree(tree1, tree2);
-    }
-
-    private static boolean equalsTree(NbGradleProjectTree tree1, NbGradleProjectTree tree2) {
-        Collection<NbGradleProjectTree> children1 = tree1.getChildren();
-        Collection<NbGradleProjectTree> children2 = tree2.getChildren();
-        if (children1.size() != children2.size()) {
-            return false;
-        }
-        if (children1.isEmpty()) {
-            return true;
-        }
-
-        Map<String, NbGradleProjectTree> children2Map = getChildrenMap2(tree2);
-        for (NbGradleProjectTree subTree1: children1) {
-            NbGradleProjectTree subTree2 = children2Map.get(subTree1.getProjectName());
-            if (subTree2 == null) {
-                return false;
-            }
-
-            if (!equalsTree(subTree1, subTree2)) {
-                return false;
-            }
-        }
-        return true;
-    }
-
-    private static Map<String, NbGradleProjectTree> getChildrenMap2(NbGradleProjectTree tree) {
-        Collection<NbGradleProjectTree> children = tree.getChildren();
-        Map<String, NbGradleProjectTree> result = CollectionUtils.newHashMap(children.size());
-
-        for (NbGradleProjectTree child: children) {
-            result.put(child.getProjectName(), child);
-        }
-        return result;
-    }
-
     private void modelChanged() {
-        NbGradleProjectTree newTree = project.currentModel().getValue().getMainProject();
-        NbGradleProjectTree prevTree = lastTree.getAndSet(newTree);
-        if (hasRelevantDifferences(prevTree, newTree)) {
-            refresh(false);
-        }
+        tree.update(getMainProject(project));
     }
 
     @Override
     protected void addNotify() {
-        if (root) {
+        Runnable refreshTask = new Runnable() {
+            @Override
+            public void run() {
+                refresh(false);
+            }
+        };
+
+        if (isRoot()) {
+            listenerRefs.add(tree.addRootChildrenChangeListener(refreshTask));
             listenerRefs.add(project.currentModel().addChangeListener(new Runnable() {
                 @Override
                 public void run() {
                     modelChanged();
                 }
             }));
+            // The model might have changed while we were not listening.
+            modelChanged();
+        }
+        else {
+            listenerRefs.add(tree.addChildrenChangeListener(projectPath, refreshTask));
         }
     }
 
@@ -153,40 +121,23 @@ extends
         return key.createNode();
     }
 
-    private List<NbGradleProjectTree> getSubProjects() {
-        if (subProjects != null) {
-            return subProjects;
-        }
-
-        List<NbGradleProjectTree> result = new ArrayList<>(
-                project.currentModel().getValue().getMainProject().getChildren());
-        sortModules(result);
-        return result;
-    }
-
     @Override
     protected boolean createKeys(List<SingleNodeFactory> toPopulate) {
-        for (final NbGradleProjectTree subProject: getSubProjects()) {
-            toPopulate.add(new SingleNodeFactory() {
-                @Override
-                public Node createNode() {
-                    if (subProject.getChildren().isEmpty()) {
-                        return new SubModuleNode(project, subProject);
-                    }
-                    else {
-                        return new SubModuleWithChildren(project, subProject);
-                    }
-                }
-            });
+        List<NbGradleProjectTree> subProjects = tree.getChildren(getProjectPath());
+        sortModules(subProjects);
+
+        for (NbGradleProjectTree subProject: subProjects) {
+            toPopulate.add(new SubProjectNodeFactory(project, tree, subProject));
         }
         return true;
     }
 
     private static Children createSubprojectsChild(
             NbGradleProject project,
-            Collection<? extends NbGradleProjectTree> children) {
+            SubProjectsTree tree,
+            String projectPath) {
 
-        return Children.create(new SubProjectsChildFactory(project, children, false), true);
+        return Children.create(new SubProjectsChildFactory(project, tree, projectPath), true);
     }
 
     private static Node createSimpleNode(NbGradleProject project) {
@@ -199,26 +150,70 @@ extends
         return OpenProjectsAction.createFromModules(caption, projects);
     }
 
-    private static class SubModuleWithChildren extends FilterNode {
+    /**
+     * Identifies the node of a subproject by its full path, so that nodes of
+     * projects are kept (along with their expanded state) when the model is
+     * reloaded.
+     */
+    private static final class SubProjectNodeFactory implements SingleNodeFactory {
+        private final NbGradleProject project;
+        private final SubProjectsTree tree;
         private final NbGradleProjectTree module;
-        private final List<NbGradleProjectTree> immediateChildren;
-        private final List<NbGradleProjectTree> children;
+        private final String projectPath;
+        private final boolean hasChildren;
 
-        public SubModuleWithChildren(NbGradleProject project, NbGradleProjectTree module) {
-            this(project, module, module.getChildren());
+        public SubProjectNodeFactory(NbGradleProject project, SubProjectsTree tree, NbGradleProjectTree module) {
+            this.project = project;
+            this.tree = tree;
+            this.module = module;
+            this.projectPath = module.getProjectFullName();
+            this.hasChildren = !module.getChildren().isEmpty();
         }
 
-        private SubModuleWithChildren(
-                NbGradleProject project,
-                NbGradleProjectTree module,
-                Collection<? extends NbGradleProjectTree> children) {
+        @Override
+        public Node createNode() {
+            if (hasChildren) {
+                return new SubModuleWithChildren(project, tree, module);
+            }
+            else {
+                return new SubModuleNode(project, module);
+            }
+        }
 
+        @Override
+        public int hashCode() {
+            int hash = 7;
+            hash = 59 * hash + Objects.hashCode(this.projectPath);
+            hash = 59 * hash + (this.hasChildren ? 1 : 0);
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == null) return false;
+            if (getClass() != obj.getClass()) return false;
+
+            final SubProjectNodeFactory other = (SubProjectNodeFactory)obj;
+            return this.hasChildren == other.hasChildren
+                    && Objects.equals(this.projectPath, other.projectPath);
+        }
+    }
+
+    private static class SubModuleWithChildren extends FilterNode {
+        private final SubProjectsTree tree;
+        private final NbGradleProjectTree module;
+
+        public SubModuleWithChildren(NbGradleProject project, SubProjectsTree tree, NbGradleProjectTree module) {
             super(createSimpleNode(project),
-                    createSubprojectsChild(project, children),
+                    createSubprojectsChild(project, tree, module.getProjectFullName()),
                     Lookups.fixed(module));
+            this.tree = tree;
             this.module = module;
-            this.immediateChildren = Collections.unmodifiableList(GradleProjectChildFactory.getAllChildren(module));
-            this.children = Collections.unmodifiableList(new ArrayList<>(children));
+        }
+
+        private NbGradleProjectTree getCurrentModule() {
+            NbGradleProjectTree result = tree.tryGetProject(module.getProjectFullName());
+            return result != null ? result : module;
         }
 
         @Override
@@ -228,6 +223,10 @@ extends
 
         @Override
         public Action[] getActions(boolean context) {
+            NbGradleProjectTree currentModule = getCurrentModule();
+            List<NbGradleProjectTree> immediateChildren = GradleProjectChildFactory.getAllChildren(currentModule);
+            List<NbGradleProjectTree> children = new ArrayList<>(currentModule.getChildren());
+
             return new Action[] {
                 new OpenSubProjectAction(),
                 createOpenAction(NbStrings.getOpenImmediateSubProjectsCaption(), immediateChildren),
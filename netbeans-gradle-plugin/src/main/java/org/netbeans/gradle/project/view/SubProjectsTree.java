@@ -0,0 +1,219 @@
+package org.netbeans.gradle.project.view;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import org.jtrim.event.CopyOnTriggerListenerManager;
+import org.jtrim.event.EventDispatcher;
+import org.jtrim.event.ListenerManager;
+import org.jtrim.event.ListenerRef;
+import org.jtrim.utils.ExceptionHelper;
+import org.netbeans.gradle.model.util.CollectionUtils;
+import org.netbeans.gradle.project.model.NbGradleProjectTree;
+
+/**
+ * Defines the project tree displayed by the "Subprojects" node. Projects are
+ * identified by their full Gradle path (e.g., ":apps:app1"), so they can be
+ * matched between different models.
+ * <P>
+ * When a new project tree is applied, the old and the new tree are compared
+ * level by level and only the listeners of the projects whose immediate
+ * children have changed are notified.
+ * <P>
+ * Instances of this class are safe to be used by multiple threads
+ * concurrently.
+ */
+final class SubProjectsTree {
+    private final Lock mainLock;
+    private NbGradleProjectTree currentTree;
+    private volatile String rootPath;
+    private volatile Map<String, NbGradleProjectTree> projectsByPath;
+
+    private final ListenerManager<ChildrenChangeListener> childrenChangeListeners;
+
+    public SubProjectsTree(NbGradleProjectTree initialTree) {
+        ExceptionHelper.checkNotNullArgument(initialTree, "initialTree");
+
+        this.mainLock = new ReentrantLock();
+        this.currentTree = initialTree;
+        this.rootPath = initialTree.getProjectFullName();
+        this.projectsByPath = createProjectsByPath(initialTree);
+        this.childrenChangeListeners = new CopyOnTriggerListenerManager<>();
+    }
+
+    private static Map<String, NbGradleProjectTree> createProjectsByPath(NbGradleProjectTree tree) {
+        Map<String, NbGradleProjectTree> result = new HashMap<>();
+        addProjectsByPath(tree, result);
+        return Collections.unmodifiableMap(result);
+    }
+
+    private static void addProjectsByPath(NbGradleProjectTree tree, Map<String, NbGradleProjectTree> result) {
+        result.put(tree.getProjectFullName(), tree);
+        for (NbGradleProjectTree child: tree.getChildren()) {
+            addProjectsByPath(child, result);
+        }
+    }
+
+    /**
+     * Returns the project with the given full path in the current project
+     * tree or {@code null} if there is no such project.
+     */
+    public NbGradleProjectTree tryGetProject(String projectPath) {
+        ExceptionHelper.checkNotNullArgument(projectPath, "projectPath");
+        return projectsByPath.get(projectPath);
+    }
+
+    /**
+     * Returns the immediate children of the project with the given full path
+     * in the current project tree. This method returns an empty list if there
+     * is no such project.
+     */
+    public List<NbGradleProjectTree> getChildren(String projectPath) {
+        NbGradleProjectTree project = tryGetProject(projectPath);
+        if (project == null) {
+            return Collections.emptyList();
+        }
+        return new ArrayList<>(project.getChildren());
+    }
+
+    /**
+     * Registers a listener to be notified when the immediate children of the
+     * project with the given full path change. Changes deeper in the project
+     * tree are not reported to this listener.
+     */
+    public ListenerRef addChildrenChangeListener(final String projectPath, final Runnable listener) {
+        ExceptionHelper.checkNotNullArgument(projectPath, "projectPath");
+        ExceptionHelper.checkNotNullArgument(listener, "listener");
+
+        return childrenChangeListeners.registerListener(new ChildrenChangeListener() {
+            @Override
+            public void onChildrenChange(Set<String> changedPaths) {
+                if (changedPaths.contains(projectPath)) {
+                    listener.run();
+                }
+            }
+        });
+    }
+
+    /**
+     * Registers a listener to be notified when the immediate children of the
+     * root of the current project tree change. Replacing the root with a
+     * project having a different path is also reported to this listener.
+     */
+    public ListenerRef addRootChildrenChangeListener(final Runnable listener) {
+        ExceptionHelper.checkNotNullArgument(listener, "listener");
+
+        return childrenChangeListeners.registerListener(new ChildrenChangeListener() {
+            @Override
+            public void onChildrenChange(Set<String> changedPaths) {
+                if (changedPaths.contains(rootPath)) {
+                    listener.run();
+                }
+            }
+        });
+    }
+
+    /**
+     * Replaces the current project tree and notifies the listeners of the
+     * projects whose immediate children are different in the new tree.
+     */
+    public void update(NbGradleProjectTree newTree) {
+        ExceptionHelper.checkNotNullArgument(newTree, "newTree");
+
+        Set<String> changedPaths = new HashSet<>();
+
+        mainLock.lock();
+        try {
+            NbGradleProjectTree prevTree = currentTree;
+            if (prevTree == newTree) {
+                return;
+            }
+
+            currentTree = newTree;
+            rootPath = newTree.getProjectFullName();
+            projectsByPath = createProjectsByPath(newTree);
+
+            String prevPath = prevTree.getProjectFullName();
+            String newPath = newTree.getProjectFullName();
+            if (!prevPath.equals(newPath)) {
+                changedPaths.add(prevPath);
+                changedPaths.add(newPath);
+            }
+            addChangedPaths(prevTree, newTree, changedPaths);
+        } finally {
+            mainLock.unlock();
+        }
+
+        if (!changedPaths.isEmpty()) {
+            childrenChangeListeners.onEvent(ChildrenChangeDispatcher.INSTANCE, Collections.unmodifiableSet(changedPaths));
+        }
+    }
+
+    private static boolean hasChildren(NbGradleProjectTree tree) {
+        return !tree.getChildren().isEmpty();
+    }
+
+    private static void addChangedPaths(
+            NbGradleProjectTree prevTree,
+            NbGradleProjectTree newTree,
+            Set<String> result) {
+
+        Collection<NbGradleProjectTree> prevChildren = prevTree.getChildren();
+        Collection<NbGradleProjectTree> newChildren = newTree.getChildren();
+        if (prevChildren.isEmpty() && newChildren.isEmpty()) {
+            return;
+        }
+
+        Map<String, NbGradleProjectTree> prevChildrenMap = getChildrenMap(prevTree);
+
+        // The keys of a project depend on the paths of its children and on
+        // whether they have children of their own.
+        boolean changed = prevChildren.size() != newChildren.size();
+        for (NbGradleProjectTree newChild: newChildren) {
+            NbGradleProjectTree prevChild = prevChildrenMap.get(newChild.getProjectFullName());
+            if (prevChild == null) {
+                changed = true;
+                continue;
+            }
+
+            if (hasChildren(prevChild) != hasChildren(newChild)) {
+                changed = true;
+            }
+            addChangedPaths(prevChild, newChild, result);
+        }
+
+        if (changed) {
+            result.add(newTree.getProjectFullName());
+        }
+    }
+
+    private static Map<String, NbGradleProjectTree> getChildrenMap(NbGradleProjectTree tree) {
+        Collection<NbGradleProjectTree> children = tree.getChildren();
+        Map<String, NbGradleProjectTree> result = CollectionUtils.newHashMap(children.size());
+
+        for (NbGradleProjectTree child: children) {
+            result.put(child.getProjectFullName(), child);
+        }
+        return result;
+    }
+
+    private interface ChildrenChangeListener {
+        public void onChildrenChange(Set<String> changedPaths);
+    }
+
+    private enum ChildrenChangeDispatcher implements EventDispatcher<ChildrenChangeListener, Set<String>> {
+        INSTANCE;
+
+        @Override
+        public void onEvent(ChildrenChangeListener eventListener, Set<String> arg) {
+            eventListener.onChildrenChange(arg);
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package org.netbeans.gradle.project;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+import org.netbeans.gradle.project.java.model.NbJavaModelTest;
+import org.netbeans.gradle.project.model.DefaultGradleModelLoader;
+import org.netbeans.gradle.project.model.NbGradleModel;
+
+import static org.junit.Assert.*;
+
+public class ExtensionModelChangeTrackerTest {
+    private static final List<String> EXTENSION_NAMES = Arrays.asList("ext1", "ext2", "ext3");
+
+    private static NbGradleModel createModel(File projectDir, String... extensionValues) {
+        NbGradleModel.Builder result = new NbGradleModel.Builder(DefaultGradleModelLoader.createEmptyModel(projectDir));
+        for (int i = 0; i < extensionValues.length; i++) {
+            // Use a new instance every time to simulate a reloaded model.
+            List<String> model = new ArrayList<>(Arrays.asList(extensionValues[i], "common"));
+            result.setModelForExtension(EXTENSION_NAMES.get(i), model);
+        }
+        return result.create();
+    }
+
+    private static ExtensionModelChangeTracker.ModelChanges apply(
+            ExtensionModelChangeTracker tracker,
+            NbGradleModel model) {
+        ExtensionModelChangeTracker.ModelChanges changes = tracker.getChanges(model);
+        tracker.recordApplied(changes);
+        return changes;
+    }
+
+    private static List<String> getChangedExtensions(ExtensionModelChangeTracker.ModelChanges changes) {
+        List<String> result = new ArrayList<>();
+        for (String extensionName: EXTENSION_NAMES) {
+            if (changes.isExtensionChanged(extensionName)) {
+                result.add(extensionName);
+            }
+        }
+        return result;
+    }
+
+    @Test
+    public void testFirstModelNotifiesEveryExtension() {
+        ExtensionModelChangeTracker tracker = new ExtensionModelChangeTracker();
+
+        ExtensionModelChangeTracker.ModelChanges changes
+                = apply(tracker, createModel(new File("my-project"), "a", "b", "c"));
+        assertTrue(changes.hasChanges());
+        assertEquals(EXTENSION_NAMES, getChangedExtensions(changes));
+    }
+
+    @Test
+    public void testIdenticalReloadsDoNotReactivateExtensions() {
+        File projectDir = new File("my-project");
+        ExtensionModelChangeTracker tracker = new ExtensionModelChangeTracker();
+        apply(tracker, createModel(projectDir, "a", "b", "c"));
+
+        int reactivationCount = 0;
+        for (int i = 0; i < 100; i++) {
+            ExtensionModelChangeTracker.ModelChanges changes
+                    = apply(tracker, createModel(projectDir, "a", "b", "c"));
+            if (changes.hasChanges()) {
+                reactivationCount += getChangedExtensions(changes).size();
+            }
+        }
+
+        assertEquals(0, reactivationCount);
+    }
+
+    @Test
+    public void testOnlyTheChangedExtensionIsNotified() {
+        File projectDir = new File("my-project");
+        ExtensionModelChangeTracker tracker = new ExtensionModelChangeTracker();
+        apply(tracker, createModel(projectDir, "a", "b", "c"));
+
+        ExtensionModelChangeTracker.ModelChanges changes
+                = apply(tracker, createModel(projectDir, "a", "modified", "c"));
+        assertTrue(changes.hasChanges());
+        assertEquals(Arrays.asList("ext2"), getChangedExtensions(changes));
+    }
+
+    @Test
+    public void testRemovedExtensionModelIsNotified() {
+        File projectDir = new File("my-project");
+        ExtensionModelChangeTracker tracker = new ExtensionModelChangeTracker();
+        apply(tracker, createModel(projectDir, "a", "b", "c"));
+
+        ExtensionModelChangeTracker.ModelChanges changes
+                = apply(tracker, createModel(projectDir, "a", "b"));
+        assertTrue(changes.hasChanges());
+        assertEquals(Arrays.asList("ext3"), getChangedExtensions(changes));
+    }
+
+    @Test
+    public void testChangedGenericInfoNotifiesEveryExtension() {
+        ExtensionModelChangeTracker tracker = new ExtensionModelChangeTracker();
+        apply(tracker, createModel(new File("my-project"), "a", "b", "c"));
+
+        ExtensionModelChangeTracker.ModelChanges changes
+                = apply(tracker, createModel(new File("other-project"), "a", "b", "c"));
+        assertTrue(changes.hasChanges());
+        assertEquals(EXTENSION_NAMES, getChangedExtensions(changes));
+    }
+
+    private static NbGradleModel createJavaModel(File projectDir, String mainModuleName) {
+        NbGradleModel.Builder result = new NbGradleModel.Builder(DefaultGradleModelLoader.createEmptyModel(projectDir));
+        // Every call creates new instances, just like reloading from Gradle.
+        result.setModelForExtension("ext1", NbJavaModelTest.createModel(mainModuleName));
+        result.setModelForExtension("ext2", NbJavaModelTest.createModel("otherModule"));
+        return result.create();
+    }
+
+    @Test
+    public void testIdenticalReloadsOfJavaModelsDoNotReactivateExtensions() {
+        File projectDir = new File("my-project");
+        ExtensionModelChangeTracker tracker = new ExtensionModelChangeTracker();
+        apply(tracker, createJavaModel(projectDir, "mainModule"));
+
+        int reactivationCount = 0;
+        for (int i = 0; i < 100; i++) {
+            ExtensionModelChangeTracker.ModelChanges changes
+                    = apply(tracker, createJavaModel(projectDir, "mainModule"));
+            if (changes.hasChanges()) {
+                reactivationCount += getChangedExtensions(changes).size();
+            }
+        }
+
+        assertEquals(0, reactivationCount);
+    }
+
+    @Test
+    public void testOnlyTheChangedJavaModelIsNotified() {
+        File projectDir = new File("my-project");
+        ExtensionModelChangeTracker tracker = new ExtensionModelChangeTracker();
+        apply(tracker, createJavaModel(projectDir, "mainModule"));
+
+        ExtensionModelChangeTracker.ModelChanges changes
+                = apply(tracker, createJavaModel(projectDir, "modifiedModule"));
+        assertTrue(changes.hasChanges());
+        assertEquals(Arrays.asList("ext1"), getChangedExtensions(changes));
+    }
+
+    @Test
+    public void testModelWithoutEqualsIsAlwaysChanged() {
+        File projectDir = new File("my-project");
+        ExtensionModelChangeTracker tracker = new ExtensionModelChangeTracker();
+
+        NbGradleModel.Builder model1 = new NbGradleModel.Builder(DefaultGradleModelLoader.createEmptyModel(projectDir));
+        model1.setModelForExtension("ext1", new Object());
+        apply(tracker, model1.create());
+
+        NbGradleModel.Builder model2 = new NbGradleModel.Builder(DefaultGradleModelLoader.createEmptyModel(projectDir));
+        model2.setModelForExtension("ext1", new Object());
+        ExtensionModelChangeTracker.ModelChanges changes = apply(tracker, model2.create());
+
+        assertTrue(changes.hasChanges());
+        assertEquals(Arrays.asList("ext1"), getChangedExtensions(changes));
+    }
+
+    @Test
+    public void testSameModelInstanceIsUnchanged() {
+        File projectDir = new File("my-project");
+        ExtensionModelChangeTracker tracker = new ExtensionModelChangeTracker();
+
+        NbGradleModel.Builder model = new NbGradleModel.Builder(DefaultGradleModelLoader.createEmptyModel(projectDir));
+        Object extensionModel = new Object();
+        model.setModelForExtension("ext1", extensionModel);
+        apply(tracker, model.create());
+
+        NbGradleModel.Builder reloadedModel = new NbGradleModel.Builder(DefaultGradleModelLoader.createEmptyModel(projectDir));
+        reloadedModel.setModelForExtension("ext1", extensionModel);
+        assertFalse(apply(tracker, reloadedModel.create()).hasChanges());
+    }
+
+    @Test
+    public void testFailedActivationIsNotRecorded() {
+        File projectDir = new File("my-project");
+        ExtensionModelChangeTracker tracker = new ExtensionModelChangeTracker();
+        apply(tracker, createModel(projectDir, "a", "b", "c"));
+
+        ExtensionModelChangeTracker.ModelChanges changes = tracker.getChanges(createModel(projectDir, "a", "modified", "c"));
+        assertEquals(Arrays.asList("ext2"), getChangedExtensions(changes));
+        changes.markFailed();
+        tracker.recordApplied(changes);
+
+        changes = tracker.getChanges(createModel(projectDir, "a", "modified", "c"));
+        assertTrue(changes.hasChanges());
+        assertEquals(EXTENSION_NAMES, getChangedExtensions(changes));
+    }
+
+    @Test
+    public void testChangesAreNotRecordedUntilApplied() {
+        File projectDir = new File("my-project");
+        ExtensionModelChangeTracker tracker = new ExtensionModelChangeTracker();
+        apply(tracker, createModel(projectDir, "a", "b", "c"));
+
+        tracker.getChanges(createModel(projectDir, "a", "b", "modified"));
+
+        ExtensionModelChangeTracker.ModelChanges changes = tracker.getChanges(createModel(projectDir, "a", "b", "modified"));
+        assertEquals(Arrays.asList("ext3"), getChangedExtensions(changes));
+    }
+}
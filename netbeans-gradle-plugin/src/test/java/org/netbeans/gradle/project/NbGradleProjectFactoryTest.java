@@ -0,0 +1,203 @@
+package org.netbeans.gradle.project;
+
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.openide.filesystems.FileChangeListener;
+import org.openide.filesystems.FileEvent;
+import org.openide.filesystems.FileObject;
+import org.openide.filesystems.FileRenameEvent;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class NbGradleProjectFactoryTest {
+    private static FileObject mockFileObject(String nameExt) {
+        FileObject result = mock(FileObject.class);
+        when(result.getNameExt()).thenReturn(nameExt);
+        return result;
+    }
+
+    private static FileChangeListener getAddedListener(FileObject dir) {
+        ArgumentCaptor<FileChangeListener> listenerCaptor = ArgumentCaptor.forClass(FileChangeListener.class);
+        verify(dir).addFileChangeListener(listenerCaptor.capture());
+        return listenerCaptor.getValue();
+    }
+
+    private static NbGradleProjectFactory createFactory(int maxCachedDirs) {
+        return new NbGradleProjectFactory(new NonProjectDirCache(maxCachedDirs));
+    }
+
+    @Test
+    public void testRepeatedQueriesDoNotAccessTheFileSystem() {
+        NbGradleProjectFactory factory = createFactory(16);
+        FileObject dir = mockFileObject("my-dir");
+
+        assertFalse(factory.hasProjectBuildFile(dir));
+        verify(dir, times(8)).getFileObject(anyString());
+
+        for (int i = 0; i < 1000; i++) {
+            assertFalse(factory.hasProjectBuildFile(dir));
+        }
+        verify(dir, times(8)).getFileObject(anyString());
+    }
+
+    @Test
+    public void testCreatingBuildFileChangesTheResult() {
+        NbGradleProjectFactory factory = createFactory(16);
+        FileObject dir = mockFileObject("my-dir");
+
+        assertFalse(factory.hasProjectBuildFile(dir));
+        FileChangeListener listener = getAddedListener(dir);
+
+        FileObject buildFile = mockFileObject("build.gradle");
+        when(dir.getFileObject("build.gradle")).thenReturn(buildFile);
+        listener.fileDataCreated(new FileEvent(dir, buildFile));
+
+        assertTrue(factory.hasProjectBuildFile(dir));
+        verify(dir).removeFileChangeListener(listener);
+    }
+
+    @Test
+    public void testCreatingKotlinBuildFileInvalidatesTheResult() {
+        NbGradleProjectFactory factory = createFactory(16);
+        FileObject dir = mockFileObject("my-dir");
+
+        assertFalse(factory.hasProjectBuildFile(dir));
+        FileChangeListener listener = getAddedListener(dir);
+
+        listener.fileDataCreated(new FileEvent(dir, mockFileObject("build.gradle.kts")));
+
+        assertFalse(factory.hasProjectBuildFile(dir));
+        verify(dir, times(16)).getFileObject(anyString());
+    }
+
+    @Test
+    public void testCreatingOtherFileDoesNotInvalidateTheResult() {
+        NbGradleProjectFactory factory = createFactory(16);
+        FileObject dir = mockFileObject("my-dir");
+
+        assertFalse(factory.hasProjectBuildFile(dir));
+        FileChangeListener listener = getAddedListener(dir);
+
+        listener.fileDataCreated(new FileEvent(dir, mockFileObject("readme.txt")));
+
+        assertFalse(factory.hasProjectBuildFile(dir));
+        verify(dir, times(8)).getFileObject(anyString());
+        verify(dir, never()).removeFileChangeListener(any(FileChangeListener.class));
+    }
+
+    @Test
+    public void testBuildSrcIsInvalidatedByBuildFileOfParent() {
+        NbGradleProjectFactory factory = createFactory(16);
+        FileObject parent = mockFileObject("my-project");
+        FileObject buildSrc = mockFileObject("buildSrc");
+        when(buildSrc.getParent()).thenReturn(parent);
+
+        assertFalse(factory.hasProjectBuildFile(buildSrc));
+        FileChangeListener parentListener = getAddedListener(parent);
+
+        FileObject buildFile = mockFileObject("build.gradle");
+        when(parent.getFileObject("build.gradle")).thenReturn(buildFile);
+        parentListener.fileDataCreated(new FileEvent(parent, buildFile));
+
+        assertTrue(factory.hasProjectBuildFile(buildSrc));
+    }
+
+    @Test
+    public void testCacheIsBounded() {
+        int maxCachedDirs = 4;
+        NonProjectDirCache cache = new NonProjectDirCache(maxCachedDirs);
+        NbGradleProjectFactory factory = new NbGradleProjectFactory(cache);
+
+        FileObject firstDir = mockFileObject("dir0");
+        assertFalse(factory.hasProjectBuildFile(firstDir));
+        FileChangeListener firstListener = getAddedListener(firstDir);
+
+        for (int i = 1; i <= maxCachedDirs; i++) {
+            assertFalse(factory.hasProjectBuildFile(mockFileObject("dir" + i)));
+        }
+
+        assertEquals(maxCachedDirs, cache.size());
+        assertFalse(cache.isKnownNonProject(firstDir));
+        verify(firstDir).removeFileChangeListener(firstListener);
+    }
+
+    @Test
+    public void testBuildFileCreatedWhileCheckingIsNotMissed() {
+        NbGradleProjectFactory factory = createFactory(16);
+        final FileObject dir = mockFileObject("my-dir");
+
+        final AtomicReference<FileChangeListener> listenerRef = new AtomicReference<>();
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                listenerRef.set((FileChangeListener)invocation.getArguments()[0]);
+                return null;
+            }
+        }).when(dir).addFileChangeListener(any(FileChangeListener.class));
+
+        // The build file is created right after it was looked for again.
+        final FileObject buildFile = mockFileObject("build.gradle");
+        when(dir.getFileObject("build.gradle")).thenAnswer(new Answer<FileObject>() {
+            @Override
+            public FileObject answer(InvocationOnMock invocation) {
+                FileChangeListener listener = listenerRef.get();
+                if (listener != null) {
+                    listener.fileDataCreated(new FileEvent(dir, buildFile));
+                }
+                return null;
+            }
+        });
+
+        assertFalse(factory.hasProjectBuildFile(dir));
+        assertFalse(factory.hasProjectBuildFile(dir));
+        verify(dir, times(16)).getFileObject(anyString());
+    }
+
+    @Test
+    public void testRenamingTheDirInvalidatesTheResult() {
+        NbGradleProjectFactory factory = createFactory(16);
+        FileObject dir = mockFileObject("my-dir");
+
+        assertFalse(factory.hasProjectBuildFile(dir));
+        FileChangeListener listener = getAddedListener(dir);
+
+        when(dir.getNameExt()).thenReturn("other-dir");
+        listener.fileRenamed(new FileRenameEvent(dir, "my-dir", ""));
+
+        assertFalse(factory.hasProjectBuildFile(dir));
+        verify(dir, times(16)).getFileObject(anyString());
+        verify(dir).removeFileChangeListener(listener);
+    }
+
+    @Test
+    public void testDeletingTheDirInvalidatesTheResult() {
+        NonProjectDirCache cache = new NonProjectDirCache(16);
+        NbGradleProjectFactory factory = new NbGradleProjectFactory(cache);
+        FileObject dir = mockFileObject("my-dir");
+
+        assertFalse(factory.hasProjectBuildFile(dir));
+        FileChangeListener listener = getAddedListener(dir);
+
+        listener.fileDeleted(new FileEvent(dir));
+
+        assertFalse(cache.isKnownNonProject(dir));
+        verify(dir).removeFileChangeListener(listener);
+    }
+
+    @Test
+    public void testProjectDirIsNotListened() {
+        NonProjectDirCache cache = new NonProjectDirCache(16);
+        NbGradleProjectFactory factory = new NbGradleProjectFactory(cache);
+        FileObject dir = mockFileObject("my-dir");
+        when(dir.getFileObject("build.gradle")).thenReturn(mockFileObject("build.gradle"));
+
+        assertTrue(factory.hasProjectBuildFile(dir));
+
+        assertEquals(0, cache.size());
+        verify(dir, never()).addFileChangeListener(any(FileChangeListener.class));
+    }
+}
@@ -0,0 +1,165 @@
+package org.netbeans.gradle.project;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+import org.netbeans.gradle.model.GenericProjectProperties;
+import org.netbeans.gradle.model.GradleTaskID;
+import org.netbeans.gradle.project.model.NbGenericModelInfo;
+import org.netbeans.gradle.project.model.NbGradleModel;
+import org.netbeans.gradle.project.model.NbGradleMultiProjectDef;
+import org.netbeans.gradle.project.model.NbGradleProjectTree;
+import org.netbeans.gradle.project.util.CloseableAction;
+
+import static org.junit.Assert.*;
+
+public class RootProjectRegistryTest {
+    private static NbGradleProjectTree createProjectTree(File projectDir, Collection<NbGradleProjectTree> children) {
+        return new NbGradleProjectTree(
+                new GenericProjectProperties(projectDir.getName(), ":" + projectDir.getName(), projectDir),
+                Collections.<GradleTaskID>emptyList(),
+                children);
+    }
+
+    private static NbGradleModel createRootModel(File rootDir, File... subprojectDirs) {
+        List<NbGradleProjectTree> children = new ArrayList<>(subprojectDirs.length);
+        for (File subprojectDir: subprojectDirs) {
+            children.add(createProjectTree(subprojectDir, Collections.<NbGradleProjectTree>emptyList()));
+        }
+
+        NbGradleProjectTree root = createProjectTree(rootDir, children);
+        NbGradleMultiProjectDef projectDef = new NbGradleMultiProjectDef(root, root);
+        Path settingsFile = getSettingsFile(rootDir);
+
+        return new NbGradleModel(
+                new NbGenericModelInfo(projectDef, settingsFile),
+                Collections.<String, Object>emptyMap(),
+                false);
+    }
+
+    private static Path getSettingsFile(File rootDir) {
+        return new File(rootDir, "settings.gradle").toPath();
+    }
+
+    private static File[] subprojectDirs(File rootDir, int count) {
+        File[] result = new File[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = new File(rootDir, "subproject" + i);
+        }
+        return result;
+    }
+
+    @Test
+    public void testSettingsFileOfSubprojects() {
+        RootProjectRegistry registry = new RootProjectRegistry();
+
+        File rootDir = new File("root-project");
+        File subDir1 = new File(rootDir, "sub1");
+        File subDir2 = new File(rootDir, "sub2");
+
+        assertNull(registry.tryGetSettingsFile(subDir1));
+
+        CloseableAction.Ref ref = registry.registerRootProjectModel(createRootModel(rootDir, subDir1, subDir2));
+        assertEquals(getSettingsFile(rootDir), registry.tryGetSettingsFile(subDir1));
+        assertEquals(getSettingsFile(rootDir), registry.tryGetSettingsFile(subDir2));
+        assertNull(registry.tryGetSettingsFile(new File(rootDir, "sub3")));
+
+        ref.close();
+        assertNull(registry.tryGetSettingsFile(subDir1));
+        assertNull(registry.tryGetSettingsFile(subDir2));
+    }
+
+    @Test
+    public void testOverlappingRoots() {
+        RootProjectRegistry registry = new RootProjectRegistry();
+
+        File rootDir1 = new File("root1");
+        File rootDir2 = new File("root2");
+        File sharedDir = new File("shared-project");
+        File subDir1 = new File(rootDir1, "sub");
+        File subDir2 = new File(rootDir2, "sub");
+
+        CloseableAction.Ref ref1 = registry.registerRootProjectModel(createRootModel(rootDir1, subDir1, sharedDir));
+        CloseableAction.Ref ref2 = registry.registerRootProjectModel(createRootModel(rootDir2, subDir2, sharedDir));
+
+        assertEquals(getSettingsFile(rootDir1), registry.tryGetSettingsFile(subDir1));
+        assertEquals(getSettingsFile(rootDir2), registry.tryGetSettingsFile(subDir2));
+        assertEquals(getSettingsFile(rootDir1), registry.tryGetSettingsFile(sharedDir));
+
+        ref1.close();
+        assertNull(registry.tryGetSettingsFile(subDir1));
+        assertEquals(getSettingsFile(rootDir2), registry.tryGetSettingsFile(sharedDir));
+
+        ref2.close();
+        assertNull(registry.tryGetSettingsFile(sharedDir));
+    }
+
+    @Test
+    public void testReregisteringRootReplacesSubprojects() {
+        RootProjectRegistry registry = new RootProjectRegistry();
+
+        File rootDir = new File("root-project");
+        File subDir1 = new File(rootDir, "sub1");
+        File subDir2 = new File(rootDir, "sub2");
+
+        CloseableAction.Ref ref1 = registry.registerRootProjectModel(createRootModel(rootDir, subDir1));
+        CloseableAction.Ref ref2 = registry.registerRootProjectModel(createRootModel(rootDir, subDir2));
+
+        assertNull(registry.tryGetSettingsFile(subDir1));
+        assertEquals(getSettingsFile(rootDir), registry.tryGetSettingsFile(subDir2));
+
+        // The first registration was replaced, so closing it must not
+        // remove the second one.
+        ref1.close();
+        assertEquals(getSettingsFile(rootDir), registry.tryGetSettingsFile(subDir2));
+
+        ref2.close();
+        assertNull(registry.tryGetSettingsFile(subDir2));
+    }
+
+    @Test
+    public void testLookupWithManyRoots() {
+        int rootCount = 20;
+        int subprojectCount = 50;
+
+        RootProjectRegistry registry = new RootProjectRegistry();
+
+        List<File[]> allSubprojectDirs = new ArrayList<>(rootCount);
+        List<CloseableAction.Ref> refs = new ArrayList<>(rootCount);
+        for (int i = 0; i < rootCount; i++) {
+            File rootDir = new File("root" + i);
+            File[] subprojectDirs = subprojectDirs(rootDir, subprojectCount);
+            allSubprojectDirs.add(subprojectDirs);
+            refs.add(registry.registerRootProjectModel(createRootModel(rootDir, subprojectDirs)));
+        }
+
+        for (int rootIndex = 0; rootIndex < rootCount; rootIndex++) {
+            Path expectedSettingsFile = getSettingsFile(new File("root" + rootIndex));
+            for (File projectDir: allSubprojectDirs.get(rootIndex)) {
+                assertEquals(expectedSettingsFile, registry.tryGetSettingsFile(projectDir));
+            }
+        }
+
+        // Closing a root must not affect the subprojects of other roots.
+        for (int rootIndex = 0; rootIndex < rootCount; rootIndex += 2) {
+            refs.get(rootIndex).close();
+        }
+        for (int rootIndex = 0; rootIndex < rootCount; rootIndex++) {
+            Path expectedSettingsFile = rootIndex % 2 == 0
+                    ? null
+                    : getSettingsFile(new File("root" + rootIndex));
+            for (File projectDir: allSubprojectDirs.get(rootIndex)) {
+                assertEquals(expectedSettingsFile, registry.tryGetSettingsFile(projectDir));
+            }
+        }
+
+        for (int rootIndex = 1; rootIndex < rootCount; rootIndex += 2) {
+            refs.get(rootIndex).close();
+        }
+        assertNull(registry.tryGetSettingsFile(allSubprojectDirs.get(1)[0]));
+    }
+}
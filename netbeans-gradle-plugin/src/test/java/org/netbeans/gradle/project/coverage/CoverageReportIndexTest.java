@@ -0,0 +1,197 @@
+package org.netbeans.gradle.project.coverage;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.Test;
+import org.netbeans.gradle.project.util.StringUtils;
+
+import static org.junit.Assert.*;
+
+public class CoverageReportIndexTest {
+    private static final String JACOCO_HEADER
+            = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+            + "<!DOCTYPE report PUBLIC \"-//JACOCO//DTD Report 1.0//EN\" \"report.dtd\">";
+
+    private static Path createReport(String content) throws IOException {
+        Path result = Files.createTempFile("nb-coverage-test", ".xml");
+        Files.write(result, content.getBytes(StringUtils.UTF8));
+        return result;
+    }
+
+    @Test
+    public void testJacocoReport() throws Exception {
+        Path report = createReport(JACOCO_HEADER
+                + "<report name=\"test\">"
+                + "<package name=\"mypackage/sub\">"
+                + "<class name=\"mypackage/sub/MyClass\">"
+                + "<method name=\"myMethod\" desc=\"()V\" line=\"3\"><counter type=\"LINE\" missed=\"0\" covered=\"1\"/></method>"
+                + "</class>"
+                + "<sourcefile name=\"MyClass.java\">"
+                + "<line nr=\"3\" mi=\"0\" ci=\"4\" mb=\"0\" cb=\"0\"/>"
+                + "<line nr=\"5\" mi=\"2\" ci=\"0\" mb=\"0\" cb=\"0\"/>"
+                + "<line nr=\"9\" mi=\"0\" ci=\"1\" mb=\"0\" cb=\"0\"/>"
+                + "<counter type=\"LINE\" missed=\"1\" covered=\"2\"/>"
+                + "</sourcefile>"
+                + "</package>"
+                + "</report>");
+        try {
+            CoverageReportIndex index = CoverageReportIndex.parse(report.toFile(), true);
+            assertEquals(1, index.getSourceFiles().size());
+
+            CoverageReportIndex.SourceFileCoverage sourceFile = index.tryGetSourceFile("mypackage/sub/MyClass.java");
+            assertNotNull(sourceFile);
+            assertEquals("mypackage.sub.MyClass", sourceFile.getDisplayName());
+            assertEquals(3, sourceFile.getRecordedLineCount());
+            assertEquals(2, sourceFile.getExecutedLineCount());
+
+            assertTrue(sourceFile.hasData(2));
+            assertEquals(4, sourceFile.getHitCount(2));
+            assertTrue(sourceFile.hasData(4));
+            assertEquals(0, sourceFile.getHitCount(4));
+            assertEquals(1, sourceFile.getHitCount(8));
+
+            assertFalse(sourceFile.hasData(0));
+            assertFalse(sourceFile.hasData(3));
+            assertFalse(sourceFile.hasData(100));
+            assertEquals(0, sourceFile.getHitCount(100));
+
+            assertNull(index.tryGetSourceFile("mypackage/sub/Other.java"));
+        } finally {
+            Files.deleteIfExists(report);
+        }
+    }
+
+    @Test
+    public void testCoberturaReport() throws Exception {
+        Path report = createReport("<?xml version=\"1.0\"?>"
+                + "<coverage><packages><package name=\"mypackage\"><classes>"
+                + "<class name=\"mypackage.MyClass$Inner\" filename=\"mypackage/MyClass.java\">"
+                + "<methods><method name=\"run\"><lines><line number=\"7\" hits=\"100\"/></lines></method></methods>"
+                + "<lines><line number=\"7\" hits=\"3\"/><line number=\"8\" hits=\"0\"/></lines>"
+                + "</class>"
+                + "</classes></package></packages></coverage>");
+        try {
+            CoverageReportIndex index = CoverageReportIndex.parse(report.toFile(), false);
+
+            CoverageReportIndex.SourceFileCoverage sourceFile = index.tryGetSourceFile("mypackage/MyClass.java");
+            assertNotNull(sourceFile);
+            assertEquals("mypackage.MyClass.Inner", sourceFile.getDisplayName());
+            assertEquals(2, sourceFile.getRecordedLineCount());
+            assertEquals(1, sourceFile.getExecutedLineCount());
+            assertEquals(3, sourceFile.getHitCount(6));
+            assertEquals(0, sourceFile.getHitCount(7));
+        } finally {
+            Files.deleteIfExists(report);
+        }
+    }
+
+    @Test
+    public void testIsUpToDate() throws Exception {
+        Path report = createReport(JACOCO_HEADER + "<report name=\"test\"></report>");
+        try {
+            CoverageReportIndex index = CoverageReportIndex.parse(report.toFile(), true);
+            assertTrue(index.isUpToDate(report.toFile()));
+
+            Files.write(report, (JACOCO_HEADER + "<report name=\"test2\"></report>").getBytes(StringUtils.UTF8));
+            assertFalse(index.isUpToDate(report.toFile()));
+        } finally {
+            Files.deleteIfExists(report);
+        }
+    }
+
+    @Test
+    public void testCoberturaNestedClassesAreMerged() throws Exception {
+        Path report = createReport("<?xml version=\"1.0\"?>"
+                + "<coverage><packages><package name=\"mypackage\"><classes>"
+                + "<class name=\"mypackage.MyClass$Inner\" filename=\"mypackage/MyClass.java\">"
+                + "<lines><line number=\"20\" hits=\"3\"/><line number=\"21\" hits=\"0\"/></lines>"
+                + "</class>"
+                + "<class name=\"mypackage.MyClass\" filename=\"mypackage/MyClass.java\">"
+                + "<lines><line number=\"5\" hits=\"1\"/><line number=\"21\" hits=\"2\"/></lines>"
+                + "</class>"
+                + "<class name=\"mypackage.Other\" filename=\"mypackage/Other.java\">"
+                + "<lines><line number=\"3\" hits=\"0\"/></lines>"
+                + "</class>"
+                + "</classes></package></packages></coverage>");
+        try {
+            CoverageReportIndex index = CoverageReportIndex.parse(report.toFile(), false);
+            assertEquals(2, index.getSourceFiles().size());
+
+            CoverageReportIndex.SourceFileCoverage sourceFile = index.tryGetSourceFile("mypackage/MyClass.java");
+            assertNotNull(sourceFile);
+            assertEquals("mypackage.MyClass", sourceFile.getDisplayName());
+            assertEquals(3, sourceFile.getRecordedLineCount());
+            assertEquals(3, sourceFile.getExecutedLineCount());
+            assertEquals(1, sourceFile.getHitCount(4));
+            assertEquals(3, sourceFile.getHitCount(19));
+            assertEquals(2, sourceFile.getHitCount(20));
+
+            CoverageReportIndex.SourceFileCoverage other = index.tryGetSourceFile("mypackage/Other.java");
+            assertNotNull(other);
+            assertEquals(1, other.getRecordedLineCount());
+            assertEquals(0, other.getExecutedLineCount());
+        } finally {
+            Files.deleteIfExists(report);
+        }
+    }
+
+    private static void writeJacocoReport(Path report, int classCount) throws IOException {
+        try (Writer output = Files.newBufferedWriter(report, StringUtils.UTF8)) {
+            output.write(JACOCO_HEADER);
+            output.write("<report name=\"many\">");
+            for (int i = 0; i < classCount; i++) {
+                if (i % 100 == 0) {
+                    if (i > 0) {
+                        output.write("</package>");
+                    }
+                    output.write("<package name=\"mypackage/p" + (i / 100) + "\">");
+                }
+
+                output.write("<class name=\"mypackage/p" + (i / 100) + "/MyClass" + i + "\">");
+                output.write("<method name=\"run\" desc=\"()V\" line=\"10\">");
+                output.write("<counter type=\"LINE\" missed=\"1\" covered=\"19\"/>");
+                output.write("</method></class>");
+
+                output.write("<sourcefile name=\"MyClass" + i + ".java\">");
+                for (int line = 10; line < 30; line++) {
+                    int hits = (line + i) % 4;
+                    output.write("<line nr=\"" + line + "\" mi=\"" + (hits == 0 ? 3 : 0)
+                            + "\" ci=\"" + hits + "\" mb=\"0\" cb=\"0\"/>");
+                }
+                output.write("</sourcefile>");
+            }
+            output.write("</package>");
+            output.write("</report>");
+        }
+    }
+
+    @Test
+    public void testManySourceFiles() throws Exception {
+        int classCount = 250;
+
+        Path report = Files.createTempFile("nb-coverage-test", ".xml");
+        try {
+            writeJacocoReport(report, classCount);
+
+            CoverageReportIndex index = CoverageReportIndex.parse(report.toFile(), true);
+            assertEquals(classCount, index.getSourceFiles().size());
+
+            for (int i = 0; i < classCount; i++) {
+                String path = "mypackage/p" + (i / 100) + "/MyClass" + i + ".java";
+                CoverageReportIndex.SourceFileCoverage sourceFile = index.tryGetSourceFile(path);
+                assertNotNull(path, sourceFile);
+                assertSame(index.getSourceFiles().get(i), sourceFile);
+                assertEquals(20, sourceFile.getRecordedLineCount());
+                assertEquals(15, sourceFile.getExecutedLineCount());
+                for (int line = 10; line < 30; line++) {
+                    assertEquals((line + i) % 4, sourceFile.getHitCount(line - 1));
+                }
+            }
+            assertNull(index.tryGetSourceFile("mypackage/p0/MyClass100.java"));
+        } finally {
+            Files.deleteIfExists(report);
+        }
+    }
+}
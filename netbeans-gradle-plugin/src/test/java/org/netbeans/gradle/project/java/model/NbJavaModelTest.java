@@ -31,7 +31,7 @@ public class NbJavaModelTest {
         return result.create();
     }
 
-    private static NbJavaModule createModule(String name) {
+    public static NbJavaModule createModule(String name) {
         String fullName = ":apps:" + name;
         GenericProjectProperties properties = NbGradleProjectTreeTest.createProperties(name, fullName);
         JavaCompatibilityModel compatibility = new JavaCompatibilityModel("1.6", "1.7");
@@ -49,6 +49,45 @@ public class NbJavaModelTest {
         return new NbJavaModule(properties, compatibility, sources, listedDirs, jarOutputs, testModel, NbCodeCoverage.NO_CODE_COVERAGE);
     }
 
+    public static NbJavaModel createModel(String mainModuleName) {
+        return NbJavaModel.createModel(
+                GradleVersions.DEFAULT_TARGET,
+                JavaModelSource.GRADLE_1_8_API,
+                createModule(mainModuleName),
+                Collections.<File, JavaProjectDependency>emptyMap());
+    }
+
+    @Test
+    public void testRebuiltModelEqualsTheOriginal() {
+        NbJavaModel model1 = createModel("mainModule");
+        NbJavaModel model2 = createModel("mainModule");
+
+        assertNotSame(model1, model2);
+        assertEquals(model1, model2);
+        assertEquals(model1.hashCode(), model2.hashCode());
+        assertEquals(model1.getMainModule(), model2.getMainModule());
+    }
+
+    @Test
+    public void testDeserializedModelEqualsTheOriginal() throws ClassNotFoundException {
+        NbJavaModel source = createModel("mainModule");
+
+        byte[] serialized = SerializationUtils.serializeObject(source);
+        NbJavaModel deserialized = (NbJavaModel)SerializationUtils.deserializeObject(serialized);
+
+        assertEquals(source, deserialized);
+        assertEquals(source.getMainModule(), deserialized.getMainModule());
+    }
+
+    @Test
+    public void testDifferentModelsAreNotEqual() {
+        NbJavaModel model1 = createModel("mainModule");
+        NbJavaModel model2 = createModel("otherModule");
+
+        assertFalse(model1.equals(model2));
+        assertFalse(model1.getMainModule().equals(model2.getMainModule()));
+    }
+
     @Test
     public void testSerialization() throws ClassNotFoundException {
         NbJavaModule mainModule = createModule("mainModule");
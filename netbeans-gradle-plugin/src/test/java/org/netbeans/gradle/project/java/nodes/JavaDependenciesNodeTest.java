@@ -0,0 +1,245 @@
+package org.netbeans.gradle.project.java.nodes;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.netbeans.gradle.model.GenericProjectProperties;
+import org.netbeans.gradle.model.java.JavaClassPaths;
+import org.netbeans.gradle.model.java.JavaCompatibilityModel;
+import org.netbeans.gradle.model.java.JavaOutputDirs;
+import org.netbeans.gradle.model.java.JavaSourceSet;
+import org.netbeans.gradle.model.java.JavaTestModel;
+import org.netbeans.gradle.project.api.nodes.SingleNodeFactory;
+import org.netbeans.gradle.project.java.model.JavaModelSource;
+import org.netbeans.gradle.project.java.model.JavaProjectDependency;
+import org.netbeans.gradle.project.java.model.JavaProjectReference;
+import org.netbeans.gradle.project.java.model.NbCodeCoverage;
+import org.netbeans.gradle.project.java.model.NbJarOutput;
+import org.netbeans.gradle.project.java.model.NbJavaModel;
+import org.netbeans.gradle.project.java.model.NbJavaModule;
+import org.netbeans.gradle.project.java.model.NbListedDir;
+import org.netbeans.gradle.project.java.nodes.JavaDependenciesNode.DependenciesChildFactory;
+import org.netbeans.gradle.project.java.nodes.JavaDependenciesNode.DependencyGroupNodeFactory;
+import org.netbeans.gradle.project.java.nodes.JavaDependenciesNode.FileDependency;
+import org.netbeans.gradle.project.model.NbGradleProjectTreeTest;
+import org.netbeans.gradle.project.util.GradleVersions;
+import org.netbeans.gradle.project.util.StringUtils;
+
+import static org.junit.Assert.*;
+
+public class JavaDependenciesNodeTest {
+    private static final int COMPILE_COUNT = 1500;
+    private static final int PROVIDED_COUNT = 100;
+    private static final int RUNTIME_COUNT = 100;
+    private static final int TEST_COUNT = 300;
+    private static final int DEPENDENCY_COUNT = COMPILE_COUNT + PROVIDED_COUNT + RUNTIME_COUNT + TEST_COUNT;
+
+    private static final String[] NAME_WORDS = {
+        "commons", "Guava", "slf4j", "jackson", "Netty", "log4j", "asm", "Junit", "mockito", "hamcrest"
+    };
+
+    private static List<File> compileJars;
+    private static List<File> providedJars;
+    private static List<File> runtimeJars;
+    private static List<File> testJars;
+
+    @BeforeClass
+    public static void setUpClass() {
+        Random random = new Random(4523);
+        compileJars = createJars(random, "compile", COMPILE_COUNT);
+        providedJars = createJars(random, "provided", PROVIDED_COUNT);
+        runtimeJars = createJars(random, "runtime", RUNTIME_COUNT);
+        testJars = createJars(random, "test", TEST_COUNT);
+    }
+
+    private static List<File> createJars(Random random, String dirName, int count) {
+        File dir = new File("repo", dirName);
+
+        List<File> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String word = NAME_WORDS[random.nextInt(NAME_WORDS.length)];
+            result.add(new File(dir, word + "-" + dirName + "-" + random.nextInt(1000) + "-" + i + ".jar"));
+        }
+        return result;
+    }
+
+    private static Set<File> union(File classesDir, Collection<File> files1, Collection<File> files2) {
+        Set<File> result = new LinkedHashSet<>();
+        if (classesDir != null) {
+            result.add(classesDir);
+        }
+        result.addAll(files1);
+        result.addAll(files2);
+        return result;
+    }
+
+    private static JavaSourceSet createSourceSet(String name, Set<File> compile, Set<File> runtime) {
+        JavaOutputDirs outputDirs = new JavaOutputDirs(
+                getClassesDir(name),
+                new File(name + "-out-res"),
+                Collections.<File>emptySet());
+
+        JavaSourceSet.Builder result = new JavaSourceSet.Builder(name, outputDirs);
+        result.setClasspaths(new JavaClassPaths(compile, runtime));
+        return result.create();
+    }
+
+    private static File getClassesDir(String sourceSetName) {
+        return new File(sourceSetName + "-out-classes");
+    }
+
+    private static NbJavaModel createModel() {
+        return createModel(Collections.<File, JavaProjectDependency>emptyMap());
+    }
+
+    private static NbJavaModel createModel(Map<File, JavaProjectDependency> projectDependencies) {
+        Set<File> mainCompile = union(null, compileJars, providedJars);
+        Set<File> mainRuntime = union(null, compileJars, runtimeJars);
+
+        File mainClasses = getClassesDir(JavaSourceSet.NAME_MAIN);
+        Set<File> testCompile = union(mainClasses, mainCompile, testJars);
+        Set<File> testRuntime = union(mainClasses, mainRuntime, testJars);
+
+        List<JavaSourceSet> sources = Arrays.asList(
+                createSourceSet(JavaSourceSet.NAME_MAIN, mainCompile, mainRuntime),
+                createSourceSet(JavaSourceSet.NAME_TEST, testCompile, testRuntime));
+
+        String name = "app";
+        GenericProjectProperties properties = NbGradleProjectTreeTest.createProperties(name, ":" + name);
+        NbJavaModule module = new NbJavaModule(
+                properties,
+                new JavaCompatibilityModel("1.7", "1.7"),
+                sources,
+                Collections.<NbListedDir>emptyList(),
+                Collections.<NbJarOutput>emptyList(),
+                JavaTestModel.getDefaulTestModel(properties.getProjectDir()),
+                NbCodeCoverage.NO_CODE_COVERAGE);
+
+        return NbJavaModel.createModel(
+                GradleVersions.DEFAULT_TARGET,
+                JavaModelSource.GRADLE_1_8_API,
+                module,
+                projectDependencies);
+    }
+
+    private static JavaProjectDependency createProjectDependency(String projectName) {
+        NbJavaModule otherModule = createModel().getMainModule();
+        JavaProjectReference projectRef = new JavaProjectReference(new File(projectName), otherModule);
+        return new JavaProjectDependency(JavaSourceSet.NAME_MAIN, projectRef);
+    }
+
+    private static List<File> getFiles(DependencyGroupNodeFactory group) {
+        List<SingleNodeFactory> dependencies = group.getDependencies();
+
+        List<File> result = new ArrayList<>(dependencies.size());
+        for (SingleNodeFactory dependency: dependencies) {
+            result.add(((FileDependency)dependency).getFile());
+        }
+        return result;
+    }
+
+    /**
+     * Sorts the files the same way as they were sorted before collation keys
+     * were cached.
+     */
+    private static List<File> sortByCollator(Collection<File> files) {
+        File[] result = files.toArray(new File[files.size()]);
+        Arrays.sort(result, new Comparator<File>() {
+            @Override
+            public int compare(File o1, File o2) {
+                return StringUtils.STR_CMP.compare(o1.getName(), o2.getName());
+            }
+        });
+        return Arrays.asList(result);
+    }
+
+    private static void assertGroup(DependencyGroupNodeFactory group, Collection<File> expectedFiles) {
+        List<File> files = getFiles(group);
+        assertEquals(group.getGroupName(), new HashSet<>(expectedFiles), new HashSet<>(files));
+        assertEquals(group.getGroupName(), sortByCollator(expectedFiles), files);
+    }
+
+    @Test
+    public void testInheritedSourceSets() {
+        NbJavaModule module = createModel().getMainModule();
+
+        assertEquals(Collections.emptySet(), module.getInheritedSourceSetNames(JavaSourceSet.NAME_MAIN));
+        assertEquals(
+                Collections.singleton(JavaSourceSet.NAME_MAIN),
+                module.getInheritedSourceSetNames(JavaSourceSet.NAME_TEST));
+        assertEquals(Collections.emptySet(), module.getInheritedSourceSetNames("missing"));
+    }
+
+    @Test
+    public void testGroupsAreEqualForTheSameModel() {
+        NbJavaModel model = createModel();
+        assertEquals(
+                DependenciesChildFactory.createDependencyGroups(model),
+                DependenciesChildFactory.createDependencyGroups(model));
+    }
+
+    @Test
+    public void testGroupsDifferIfFileBecomesProject() {
+        File projectJar = compileJars.get(0);
+
+        List<DependencyGroupNodeFactory> fileGroups
+                = DependenciesChildFactory.createDependencyGroups(createModel());
+        List<DependencyGroupNodeFactory> projectGroups = DependenciesChildFactory.createDependencyGroups(
+                createModel(Collections.singletonMap(projectJar, createProjectDependency("lib"))));
+
+        assertEquals(fileGroups.get(0).getGroupName(), projectGroups.get(0).getGroupName());
+        assertFalse(fileGroups.get(0).equals(projectGroups.get(0)));
+        assertEquals(fileGroups.subList(1, fileGroups.size()), projectGroups.subList(1, projectGroups.size()));
+    }
+
+    @Test
+    public void testGroupsDifferIfTargetProjectChanges() {
+        File projectJar = compileJars.get(0);
+
+        List<DependencyGroupNodeFactory> groups1 = DependenciesChildFactory.createDependencyGroups(
+                createModel(Collections.singletonMap(projectJar, createProjectDependency("lib1"))));
+        List<DependencyGroupNodeFactory> groups1Again = DependenciesChildFactory.createDependencyGroups(
+                createModel(Collections.singletonMap(projectJar, createProjectDependency("lib1"))));
+        List<DependencyGroupNodeFactory> groups2 = DependenciesChildFactory.createDependencyGroups(
+                createModel(Collections.singletonMap(projectJar, createProjectDependency("lib2"))));
+
+        assertEquals(groups1.get(0), groups1Again.get(0));
+        assertEquals(groups1.get(0).hashCode(), groups1Again.get(0).hashCode());
+        assertFalse(groups1.get(0).equals(groups2.get(0)));
+    }
+
+    @Test
+    public void testDependencyGroupsOfManyDependencies() {
+        NbJavaModel model = createModel();
+        List<DependencyGroupNodeFactory> groups = DependenciesChildFactory.createDependencyGroups(model);
+
+        int dependencyCount = 0;
+        for (DependencyGroupNodeFactory group: groups) {
+            dependencyCount += group.getDependencies().size();
+        }
+
+        assertEquals(DEPENDENCY_COUNT, dependencyCount);
+        assertEquals("Group count", 4, groups.size());
+
+        // main: compile, provided, runtime; test: compile (everything else is inherited)
+        assertGroup(groups.get(0), compileJars);
+        assertGroup(groups.get(1), providedJars);
+        assertGroup(groups.get(2), runtimeJars);
+        assertGroup(groups.get(3), testJars);
+
+        for (DependencyGroupNodeFactory group: groups) {
+            assertSame(group.getGroupName(), group.getDependencies(), group.getDependencies());
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package org.netbeans.gradle.project.java.query;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.netbeans.gradle.project.java.query.ProjectClassPathResourceBuilder.ClassPathKey;
+import org.netbeans.gradle.project.java.query.ProjectClassPathResourceBuilder.ClassPathType;
+import org.netbeans.gradle.project.java.query.ProjectClassPathResourceBuilder.SourceSetClassPathType;
+import org.netbeans.gradle.project.java.query.ProjectClassPathResourceBuilder.SpecialClassPath;
+import org.netbeans.spi.java.classpath.ClassPathImplementation;
+import org.netbeans.spi.java.classpath.PathResourceImplementation;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class ClassPathChangeSupportTest {
+    private static final ClassPathKey MAIN_COMPILE = new SourceSetClassPathType("main", ClassPathType.COMPILE);
+    private static final ClassPathKey MAIN_RUNTIME = new SourceSetClassPathType("main", ClassPathType.RUNTIME);
+    private static final ClassPathKey MAIN_SOURCES = new SourceSetClassPathType("main", ClassPathType.SOURCES);
+    private static final ClassPathKey TEST_COMPILE = new SourceSetClassPathType("test", ClassPathType.COMPILE);
+    private static final ClassPathKey TEST_RUNTIME = new SourceSetClassPathType("test", ClassPathType.RUNTIME);
+    private static final ClassPathKey TEST_SOURCES = new SourceSetClassPathType("test", ClassPathType.SOURCES);
+
+    private static final List<ClassPathKey> ALL_KEYS = Arrays.asList(
+            MAIN_COMPILE, MAIN_RUNTIME, MAIN_SOURCES,
+            TEST_COMPILE, TEST_RUNTIME, TEST_SOURCES,
+            SpecialClassPath.BOOT, SpecialClassPath.ALL_RUNTIME);
+
+    private static final List<PathResourceImplementation> SHARED_DEPENDENCIES = resources(20);
+    private static final List<PathResourceImplementation> MAIN_OUTPUT = resources(2);
+    private static final List<PathResourceImplementation> TEST_OUTPUT = resources(2);
+    private static final List<PathResourceImplementation> MAIN_SOURCE_ROOTS = resources(2);
+    private static final List<PathResourceImplementation> TEST_SOURCE_ROOTS = resources(2);
+    private static final List<PathResourceImplementation> BOOT = resources(5);
+
+    private static List<PathResourceImplementation> resources(int count) {
+        List<PathResourceImplementation> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(mock(PathResourceImplementation.class));
+        }
+        return result;
+    }
+
+    private static List<PathResourceImplementation> concat(
+            List<PathResourceImplementation> list,
+            List<PathResourceImplementation> toAdd) {
+        List<PathResourceImplementation> result = new ArrayList<>(list);
+        result.addAll(toAdd);
+        return result;
+    }
+
+    private static Map<ClassPathKey, List<PathResourceImplementation>> createClassPaths(
+            List<PathResourceImplementation> extraTestDependencies) {
+
+        List<PathResourceImplementation> dependencies = new ArrayList<>(SHARED_DEPENDENCIES);
+
+        List<PathResourceImplementation> testCompile = concat(concat(dependencies, MAIN_OUTPUT), extraTestDependencies);
+
+        Map<ClassPathKey, List<PathResourceImplementation>> result = new HashMap<>();
+        result.put(MAIN_COMPILE, dependencies);
+        result.put(MAIN_RUNTIME, concat(dependencies, MAIN_OUTPUT));
+        result.put(MAIN_SOURCES, MAIN_SOURCE_ROOTS);
+        result.put(TEST_COMPILE, testCompile);
+        result.put(TEST_RUNTIME, concat(testCompile, TEST_OUTPUT));
+        result.put(TEST_SOURCES, TEST_SOURCE_ROOTS);
+        result.put(SpecialClassPath.BOOT, BOOT);
+        result.put(SpecialClassPath.ALL_RUNTIME, concat(concat(dependencies, extraTestDependencies), TEST_OUTPUT));
+        return result;
+    }
+
+    private static Map<ClassPathKey, PropertyChangeListener> addListeners(ClassPathChangeSupport<ClassPathKey> changes) {
+        Map<ClassPathKey, PropertyChangeListener> result = new HashMap<>();
+        for (ClassPathKey key: ALL_KEYS) {
+            PropertyChangeListener listener = mock(PropertyChangeListener.class);
+            changes.addPropertyChangeListener(key, listener);
+            result.put(key, listener);
+        }
+        return result;
+    }
+
+    private static Set<ClassPathKey> update(
+            ClassPathChangeSupport<ClassPathKey> changes,
+            Map<ClassPathKey, List<PathResourceImplementation>> prevClassPaths,
+            Map<ClassPathKey, List<PathResourceImplementation>> newClassPaths) {
+
+        Set<ClassPathKey> changedKeys = ClassPathChangeSupport.getChangedKeys(prevClassPaths, newClassPaths);
+        changes.fireResourcesChanged(changedKeys);
+        return changedKeys;
+    }
+
+    @Test
+    public void testUnchangedClassPathsAreNotNotified() {
+        ClassPathChangeSupport<ClassPathKey> changes = new ClassPathChangeSupport<>(new Object());
+        Map<ClassPathKey, PropertyChangeListener> listeners = addListeners(changes);
+
+        List<PathResourceImplementation> noExtraDependencies = Collections.emptyList();
+        Set<ClassPathKey> changedKeys = update(changes,
+                createClassPaths(noExtraDependencies),
+                createClassPaths(noExtraDependencies));
+
+        assertEquals(Collections.emptySet(), changedKeys);
+        for (PropertyChangeListener listener: listeners.values()) {
+            verifyZeroInteractions(listener);
+        }
+    }
+
+    @Test
+    public void testAddingDependencyToOneSourceSet() {
+        ClassPathChangeSupport<ClassPathKey> changes = new ClassPathChangeSupport<>(new Object());
+        Map<ClassPathKey, PropertyChangeListener> listeners = addListeners(changes);
+
+        List<PathResourceImplementation> noExtraDependencies = Collections.emptyList();
+        update(changes,
+                createClassPaths(noExtraDependencies),
+                createClassPaths(resources(1)));
+
+        List<ClassPathKey> expectedChanged = Arrays.asList(TEST_COMPILE, TEST_RUNTIME, SpecialClassPath.ALL_RUNTIME);
+        for (ClassPathKey key: ALL_KEYS) {
+            PropertyChangeListener listener = listeners.get(key);
+            if (expectedChanged.contains(key)) {
+                verify(listener, times(1)).propertyChange(any(PropertyChangeEvent.class));
+            }
+            else {
+                verifyZeroInteractions(listener);
+            }
+        }
+    }
+
+    @Test
+    public void testEventReportsResourcesProperty() {
+        ClassPathChangeSupport<ClassPathKey> changes = new ClassPathChangeSupport<>(new Object());
+        PropertyChangeListener listener = mock(PropertyChangeListener.class);
+        changes.addPropertyChangeListener(MAIN_COMPILE, listener);
+
+        changes.fireResourcesChanged(Collections.singleton(MAIN_COMPILE));
+
+        ArgumentCaptor<PropertyChangeEvent> eventCaptor = ArgumentCaptor.forClass(PropertyChangeEvent.class);
+        verify(listener).propertyChange(eventCaptor.capture());
+        assertEquals(ClassPathImplementation.PROP_RESOURCES, eventCaptor.getValue().getPropertyName());
+
+        changes.removePropertyChangeListener(MAIN_COMPILE, listener);
+        changes.fireResourcesChanged(Collections.singleton(MAIN_COMPILE));
+        verifyNoMoreInteractions(listener);
+    }
+
+    @Test
+    public void testRemovedAndAddedClassPathsAreChanged() {
+        Map<ClassPathKey, List<PathResourceImplementation>> prevClassPaths = new HashMap<>();
+        prevClassPaths.put(MAIN_COMPILE, BOOT);
+        prevClassPaths.put(MAIN_RUNTIME, BOOT);
+
+        Map<ClassPathKey, List<PathResourceImplementation>> newClassPaths = new HashMap<>();
+        newClassPaths.put(MAIN_RUNTIME, BOOT);
+        newClassPaths.put(TEST_COMPILE, BOOT);
+
+        Set<ClassPathKey> changedKeys = ClassPathChangeSupport.getChangedKeys(prevClassPaths, newClassPaths);
+        assertEquals(2, changedKeys.size());
+        assertTrue(changedKeys.contains(MAIN_COMPILE));
+        assertTrue(changedKeys.contains(TEST_COMPILE));
+    }
+}
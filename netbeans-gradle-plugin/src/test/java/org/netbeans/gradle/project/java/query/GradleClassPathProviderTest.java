@@ -0,0 +1,194 @@
+package org.netbeans.gradle.project.java.query;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.swing.SwingUtilities;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.netbeans.api.java.classpath.ClassPath;
+import org.netbeans.api.project.Project;
+import org.netbeans.gradle.model.GenericProjectProperties;
+import org.netbeans.gradle.model.ProjectId;
+import org.netbeans.gradle.model.java.JavaCompatibilityModel;
+import org.netbeans.gradle.model.java.JavaOutputDirs;
+import org.netbeans.gradle.model.java.JavaSourceGroup;
+import org.netbeans.gradle.model.java.JavaSourceGroupName;
+import org.netbeans.gradle.model.java.JavaSourceSet;
+import org.netbeans.gradle.model.java.JavaTestModel;
+import org.netbeans.gradle.project.api.entry.EmptyProjectTest;
+import org.netbeans.gradle.project.api.entry.SampleProjectRule;
+import org.netbeans.gradle.project.java.JavaExtension;
+import org.netbeans.gradle.project.java.model.JavaModelSource;
+import org.netbeans.gradle.project.java.model.JavaProjectDependency;
+import org.netbeans.gradle.project.java.model.NbCodeCoverage;
+import org.netbeans.gradle.project.java.model.NbJarOutput;
+import org.netbeans.gradle.project.java.model.NbJavaModel;
+import org.netbeans.gradle.project.java.model.NbJavaModule;
+import org.netbeans.gradle.project.java.model.NbListedDir;
+import org.netbeans.gradle.project.util.GradleVersions;
+import org.openide.filesystems.FileObject;
+import org.openide.filesystems.FileUtil;
+
+import static org.junit.Assert.*;
+
+public class GradleClassPathProviderTest {
+    @ClassRule
+    public static final SampleProjectRule PROJECT_REF = SampleProjectRule.getStandardRule(EmptyProjectTest.EMPTY_PROJECT_RESOURCE);
+
+    private static final long TIMEOUT_MS = 30000;
+
+    private Project rootProject;
+    private File projectDir;
+
+    @Before
+    public void setUp() throws Exception {
+        Thread.interrupted();
+
+        rootProject = PROJECT_REF.getUnloadedProject(EmptyProjectTest.EMPTY_PROJECT_NAME);
+        projectDir = FileUtil.toFile(rootProject.getProjectDirectory());
+        assertNotNull("projectDir", projectDir);
+    }
+
+    private FileObject createDir(String relPath) throws Exception {
+        return FileUtil.createFolder(rootProject.getProjectDirectory(), relPath);
+    }
+
+    private JavaSourceSet createSourceSet(String name, FileObject... sourceRoots) {
+        File outputDir = new File(new File(projectDir, "build"), name);
+        JavaSourceSet.Builder result = new JavaSourceSet.Builder(
+                name,
+                new JavaOutputDirs(new File(outputDir, "classes"), new File(outputDir, "resources"), Collections.<File>emptySet()));
+
+        File[] rootFiles = new File[sourceRoots.length];
+        for (int i = 0; i < rootFiles.length; i++) {
+            rootFiles[i] = FileUtil.toFile(sourceRoots[i]);
+        }
+        result.addSourceGroup(new JavaSourceGroup(JavaSourceGroupName.JAVA, Arrays.asList(rootFiles)));
+        return result.create();
+    }
+
+    private NbJavaModel createModel(JavaSourceSet... sourceSets) {
+        GenericProjectProperties properties = new GenericProjectProperties(
+                new ProjectId("", EmptyProjectTest.EMPTY_PROJECT_NAME, ""),
+                ":",
+                projectDir,
+                new File(projectDir, "build.gradle"),
+                new File(projectDir, "build"));
+
+        NbJavaModule module = new NbJavaModule(
+                properties,
+                new JavaCompatibilityModel("1.7", "1.7"),
+                Arrays.asList(sourceSets),
+                Collections.<NbListedDir>emptyList(),
+                Collections.<NbJarOutput>emptyList(),
+                JavaTestModel.getDefaulTestModel(projectDir),
+                NbCodeCoverage.NO_CODE_COVERAGE);
+
+        return NbJavaModel.createModel(
+                GradleVersions.DEFAULT_TARGET,
+                JavaModelSource.GRADLE_1_8_API,
+                module,
+                Collections.<File, JavaProjectDependency>emptyMap());
+    }
+
+    private static EventCounter listen(ClassPath classPath) {
+        // Make sure that the class path has its entries cached, so it will
+        // surely notify its listeners when the resources change.
+        classPath.entries();
+
+        EventCounter counter = new EventCounter();
+        classPath.addPropertyChangeListener(counter);
+        return counter;
+    }
+
+    private static void flushEventQueue() throws Exception {
+        SwingUtilities.invokeAndWait(new Runnable() {
+            @Override
+            public void run() {
+            }
+        });
+    }
+
+    private static void waitForEvent(EventCounter counter) throws Exception {
+        long startTime = System.nanoTime();
+        while (counter.getCount() <= 0) {
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+            if (elapsedMs > TIMEOUT_MS) {
+                fail("Timeout while waiting for the class paths to be reloaded.");
+            }
+            Thread.sleep(10);
+        }
+        flushEventQueue();
+    }
+
+    private static Set<FileObject> getRoots(ClassPath classPath) {
+        return new HashSet<>(Arrays.asList(classPath.getRoots()));
+    }
+
+    @Test(timeout = 60000)
+    public void testOnlyTheChangedSourceSetIsNotified() throws Exception {
+        FileObject mainRoot = createDir("src/main/java");
+        FileObject testRoot = createDir("src/test/java");
+        FileObject extraTestRoot = createDir("src/test/generated");
+
+        JavaExtension javaExt = JavaExtension.create(rootProject);
+        GradleClassPathProvider cpProvider = javaExt.getProjectLookup().lookup(GradleClassPathProvider.class);
+        assertNotNull("cpProvider", cpProvider);
+
+        ClassPath allSources = cpProvider.getClassPaths(ClassPath.SOURCE);
+        EventCounter initialLoad = listen(allSources);
+
+        JavaSourceSet mainSources = createSourceSet("main", mainRoot);
+        javaExt.activateExtension(createModel(mainSources, createSourceSet("test", testRoot)));
+        waitForEvent(initialLoad);
+
+        ClassPath mainClassPath = cpProvider.findClassPath(mainRoot, ClassPath.SOURCE);
+        ClassPath testClassPath = cpProvider.findClassPath(testRoot, ClassPath.SOURCE);
+        assertNotNull("mainClassPath", mainClassPath);
+        assertNotNull("testClassPath", testClassPath);
+        assertEquals(Collections.singleton(testRoot), getRoots(testClassPath));
+
+        EventCounter mainEvents = listen(mainClassPath);
+        EventCounter testEvents = listen(testClassPath);
+        EventCounter allSourcesEvents = listen(allSources);
+
+        // Reloading the very same model must not notify anyone.
+        javaExt.activateExtension(createModel(mainSources, createSourceSet("test", testRoot)));
+
+        javaExt.activateExtension(createModel(mainSources, createSourceSet("test", testRoot, extraTestRoot)));
+        waitForEvent(allSourcesEvents);
+
+        assertEquals("Events of the unchanged source set", 0, mainEvents.getCount());
+        assertTrue("Events of the changed source set", testEvents.getCount() > 0);
+        assertEquals(new HashSet<>(Arrays.asList(testRoot, extraTestRoot)), getRoots(testClassPath));
+        assertTrue(getRoots(allSources).contains(extraTestRoot));
+    }
+
+    private static final class EventCounter implements PropertyChangeListener {
+        private final AtomicInteger count;
+
+        public EventCounter() {
+            this.count = new AtomicInteger(0);
+        }
+
+        public int getCount() {
+            return count.get();
+        }
+
+        @Override
+        public void propertyChange(PropertyChangeEvent evt) {
+            // ClassPath translates PROP_RESOURCES of its implementation to PROP_ENTRIES.
+            if (ClassPath.PROP_ENTRIES.equals(evt.getPropertyName())) {
+                count.incrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package org.netbeans.gradle.project.java.query;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Test;
+import org.netbeans.gradle.project.java.model.NbJarOutput;
+
+import static org.junit.Assert.*;
+
+public class OpenedProjectsOutputIndexTest {
+    private static final Path ROOT = Paths.get("workspace").toAbsolutePath();
+
+    /**
+     * Keeps the state of a synthetic workspace and computes the JAR outputs
+     * the same way as it was done before the index existed: By iterating
+     * through all the opened projects and their dependencies.
+     * <P>
+     * Just like {@code JavaExtension}, opening a project publishes its last
+     * model again, because the outputs of closed projects are forgotten once
+     * no opened project references them.
+     */
+    private static final class Workspace {
+        private final Map<Path, List<NbJarOutput>> outputs = new HashMap<>();
+        private final Map<Path, Collection<Path>> dependencies = new HashMap<>();
+        private final Set<Path> opened = new LinkedHashSet<>();
+        private final Set<Path> closed = new HashSet<>();
+        private final Set<Path> forgotten = new HashSet<>();
+
+        private final OpenedProjectsOutputIndex index = new OpenedProjectsOutputIndex();
+
+        public void publish(Path projectDir, List<NbJarOutput> jarOutputs, Collection<Path> projectDependencies) {
+            outputs.put(projectDir, jarOutputs);
+            dependencies.put(projectDir, projectDependencies);
+            forgotten.remove(projectDir);
+
+            index.updateProjectOutputs(projectDir, jarOutputs);
+            if (opened.contains(projectDir)) {
+                index.updateOpenedProject(projectDir, projectDependencies);
+            }
+            forgetUnreferencedClosedProjects();
+        }
+
+        public void open(Path projectDir) {
+            opened.add(projectDir);
+            closed.remove(projectDir);
+
+            List<NbJarOutput> jarOutputs = outputs.get(projectDir);
+            if (jarOutputs != null) {
+                forgotten.remove(projectDir);
+                index.updateProjectOutputs(projectDir, jarOutputs);
+            }
+
+            Collection<Path> projectDependencies = dependencies.get(projectDir);
+            index.updateOpenedProject(projectDir, projectDependencies != null
+                    ? projectDependencies
+                    : Collections.<Path>emptySet());
+        }
+
+        public void close(Path projectDir) {
+            if (opened.remove(projectDir)) {
+                closed.add(projectDir);
+            }
+            index.removeOpenedProject(projectDir);
+            forgetUnreferencedClosedProjects();
+        }
+
+        private boolean isReferenced(Path projectDir) {
+            for (Path openedDir: opened) {
+                Collection<Path> projectDependencies = dependencies.get(openedDir);
+                if (openedDir.equals(projectDir)
+                        || (projectDependencies != null && projectDependencies.contains(projectDir))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void forgetUnreferencedClosedProjects() {
+            for (Path closedDir: new ArrayList<>(closed)) {
+                if (!isReferenced(closedDir)) {
+                    closed.remove(closedDir);
+                    forgotten.add(closedDir);
+                }
+            }
+        }
+
+        public Map<String, Set<File>> bruteForceOutputs() {
+            Set<Path> projects = new LinkedHashSet<>();
+            for (Path openedDir: opened) {
+                projects.add(openedDir);
+                Collection<Path> projectDependencies = dependencies.get(openedDir);
+                if (projectDependencies != null) {
+                    projects.addAll(projectDependencies);
+                }
+            }
+
+            Map<String, Set<File>> result = new HashMap<>();
+            for (Path projectDir: projects) {
+                List<NbJarOutput> jarOutputs = outputs.get(projectDir);
+                if (jarOutputs == null || forgotten.contains(projectDir)) {
+                    continue;
+                }
+
+                for (NbJarOutput jarOutput: jarOutputs) {
+                    String key = jarOutput.getJar().getName().toLowerCase(Locale.ROOT);
+                    Set<File> classDirs = jarOutput.getClassDirs();
+
+                    if (!classDirs.isEmpty() && (!result.containsKey(key) || jarOutput.isDefaultJar())) {
+                        result.put(key, jarOutput.getClassDirs());
+                    }
+                }
+            }
+            return result;
+        }
+    }
+
+    private static Path projectDir(int index) {
+        return ROOT.resolve("project" + index);
+    }
+
+    private static File classesDir(int index, String sourceSetName) {
+        return projectDir(index).resolve("build").resolve("classes").resolve(sourceSetName).toFile();
+    }
+
+    private static NbJarOutput jarOutput(int index, String taskName, String jarName, File... classDirs) {
+        File jar = projectDir(index).resolve("build").resolve("libs").resolve(jarName).toFile();
+        return new NbJarOutput(taskName, jar, Arrays.asList(classDirs));
+    }
+
+    /**
+     * Every project builds its own default JAR and a test JAR. Odd projects
+     * also build a non-default JAR named the same as the default JAR of the
+     * previous project, and every third project builds a JAR without
+     * class directories.
+     */
+    private static List<NbJarOutput> createJarOutputs(int index, int generation) {
+        String sourceSetName = generation % 2 == 0 ? "main" : "java/main";
+
+        List<NbJarOutput> result = new ArrayList<>();
+        result.add(jarOutput(index, NbJarOutput.DEFAULT_JAR_TASK_NAME, "project" + index + ".jar",
+                classesDir(index, sourceSetName)));
+        result.add(jarOutput(index, "testJar", "project" + index + "-tests.jar",
+                classesDir(index, "test")));
+        if (index % 2 == 1) {
+            result.add(jarOutput(index, "shadowJar", "PROJECT" + (index - 1) + ".jar",
+                    classesDir(index, "shadow")));
+        }
+        if (index % 3 == 0) {
+            result.add(jarOutput(index, "emptyJar", "empty" + index + ".jar"));
+        }
+        return result;
+    }
+
+    private static Collection<Path> createDependencies(int index, int dependencyCount) {
+        List<Path> result = new ArrayList<>(dependencyCount);
+        for (int i = Math.max(0, index - dependencyCount); i < index; i++) {
+            result.add(projectDir(i));
+        }
+        return result;
+    }
+
+    private static Set<String> allJarNames(int projectCount) {
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i < projectCount; i++) {
+            result.add("project" + i + ".jar");
+            result.add("PROJECT" + i + ".JAR");
+            result.add("project" + i + "-tests.jar");
+            result.add("empty" + i + ".jar");
+        }
+        result.add("unknown.jar");
+        return result;
+    }
+
+    private static void assertMatchesBruteForce(Workspace workspace, Set<String> jarNames) {
+        Map<String, Set<File>> expected = workspace.bruteForceOutputs();
+        for (String jarName: jarNames) {
+            Set<File> expectedDirs = expected.get(jarName.toLowerCase(Locale.ROOT));
+            assertEquals(jarName, expectedDirs, workspace.index.tryGetOutputDirs(jarName));
+        }
+    }
+
+    @Test
+    public void testDefaultJarIsPreferred() {
+        Workspace workspace = new Workspace();
+        workspace.publish(projectDir(0), createJarOutputs(0, 0), Collections.<Path>emptySet());
+        workspace.publish(projectDir(1), createJarOutputs(1, 0), Collections.<Path>emptySet());
+
+        workspace.open(projectDir(1));
+        assertEquals(Collections.singleton(classesDir(1, "shadow")),
+                workspace.index.tryGetOutputDirs("project0.jar"));
+
+        workspace.open(projectDir(0));
+        assertEquals(Collections.singleton(classesDir(0, "main")),
+                workspace.index.tryGetOutputDirs("project0.jar"));
+
+        workspace.close(projectDir(0));
+        assertEquals(Collections.singleton(classesDir(1, "shadow")),
+                workspace.index.tryGetOutputDirs("project0.jar"));
+    }
+
+    @Test
+    public void testDependenciesOfOpenedProjectsAreIndexed() {
+        Workspace workspace = new Workspace();
+        workspace.publish(projectDir(0), createJarOutputs(0, 0), Collections.<Path>emptySet());
+        workspace.publish(projectDir(2), createJarOutputs(2, 0), Collections.singleton(projectDir(0)));
+
+        assertNull(workspace.index.tryGetOutputDirs("project0.jar"));
+
+        workspace.open(projectDir(2));
+        assertEquals(Collections.singleton(classesDir(0, "main")),
+                workspace.index.tryGetOutputDirs("project0.jar"));
+        assertNull(workspace.index.tryGetOutputDirs("empty0.jar"));
+
+        workspace.publish(projectDir(2), createJarOutputs(2, 1), Collections.<Path>emptySet());
+        assertNull(workspace.index.tryGetOutputDirs("project0.jar"));
+        assertEquals(Collections.singleton(classesDir(2, "java/main")),
+                workspace.index.tryGetOutputDirs("project2.jar"));
+
+        workspace.close(projectDir(2));
+        assertNull(workspace.index.tryGetOutputDirs("project2.jar"));
+    }
+
+    @Test
+    public void testOutputsOfClosedProjectsAreForgotten() {
+        OpenedProjectsOutputIndex index = new OpenedProjectsOutputIndex();
+        index.updateProjectOutputs(projectDir(0), createJarOutputs(0, 0));
+        index.updateProjectOutputs(projectDir(2), createJarOutputs(2, 0));
+        index.updateOpenedProject(projectDir(0), Collections.<Path>emptySet());
+        index.updateOpenedProject(projectDir(2), Collections.singleton(projectDir(0)));
+
+        // Still referenced by the opened project2, so the outputs are kept.
+        index.removeOpenedProject(projectDir(0));
+        assertEquals(Collections.singleton(classesDir(0, "main")),
+                index.tryGetOutputDirs("project0.jar"));
+
+        // No longer referenced: A project opened later without publishing
+        // project0 again must not see its outputs.
+        index.removeOpenedProject(projectDir(2));
+        index.updateOpenedProject(projectDir(4), Collections.singleton(projectDir(0)));
+        assertNull(index.tryGetOutputDirs("project0.jar"));
+
+        // The outputs of the closed project2 are forgotten immediately.
+        index.updateOpenedProject(projectDir(4), Arrays.asList(projectDir(0), projectDir(2)));
+        assertNull(index.tryGetOutputDirs("project2.jar"));
+    }
+
+    @Test
+    public void testRandomChangesMatchBruteForce() {
+        int projectCount = 30;
+        Set<String> jarNames = allJarNames(projectCount);
+
+        Random random = new Random(6372394L);
+        Workspace workspace = new Workspace();
+
+        for (int step = 0; step < 2000; step++) {
+            int index = random.nextInt(projectCount);
+            Path projectDir = projectDir(index);
+
+            switch (random.nextInt(3)) {
+                case 0:
+                    workspace.publish(projectDir,
+                            createJarOutputs(index, random.nextInt(2)),
+                            createDependencies(index, random.nextInt(5)));
+                    break;
+                case 1:
+                    workspace.open(projectDir);
+                    break;
+                default:
+                    workspace.close(projectDir);
+                    break;
+            }
+
+            assertMatchesBruteForce(workspace, jarNames);
+        }
+    }
+
+    @Test
+    public void testRepeatedReloadsMatchBruteForce() {
+        int projectCount = 50;
+        int dependencyCount = 10;
+
+        Workspace workspace = new Workspace();
+        for (int i = 0; i < projectCount; i++) {
+            workspace.open(projectDir(i));
+        }
+
+        for (int generation = 0; generation < 3; generation++) {
+            for (int i = 0; i < projectCount; i++) {
+                Collection<Path> dependencies = createDependencies(i, dependencyCount);
+                workspace.publish(projectDir(i), createJarOutputs(i, generation), dependencies);
+
+                // The class paths of the reloaded project are rebuilt
+                // right after the reload.
+                Map<String, Set<File>> allOutputs = workspace.bruteForceOutputs();
+                for (Path dependency: dependencies) {
+                    String jarName = dependency.getFileName().toString() + ".jar";
+                    assertEquals(jarName, allOutputs.get(jarName.toLowerCase(Locale.ROOT)), workspace.index.tryGetOutputDirs(jarName));
+                }
+            }
+
+            assertMatchesBruteForce(workspace, allJarNames(projectCount));
+        }
+    }
+}
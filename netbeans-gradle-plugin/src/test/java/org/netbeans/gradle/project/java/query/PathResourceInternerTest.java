@@ -0,0 +1,187 @@
+package org.netbeans.gradle.project.java.query;
+
+import java.io.File;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import org.jtrim.cancel.Cancellation;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.netbeans.gradle.project.util.ExcludeIncludeRules;
+import org.netbeans.gradle.project.util.NbFileUtils;
+import org.netbeans.spi.java.classpath.PathResourceImplementation;
+import org.netbeans.spi.java.classpath.support.ClassPathSupport;
+import org.openide.filesystems.FileUtil;
+
+import static org.junit.Assert.*;
+
+public class PathResourceInternerTest {
+    private static final int MODULE_COUNT = 100;
+    private static final int SHARED_LIB_COUNT = 80;
+
+    private static Path tmpDir;
+    private static List<File> sharedLibs;
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        tmpDir = Files.createTempDirectory("nb-classpath-test");
+
+        sharedLibs = new ArrayList<>(SHARED_LIB_COUNT);
+        for (int i = 0; i < SHARED_LIB_COUNT; i++) {
+            sharedLibs.add(createDir("libs", "lib" + i));
+        }
+    }
+
+    @AfterClass
+    public static void tearDownClass() throws Exception {
+        NbFileUtils.deleteDirectory(Cancellation.UNCANCELABLE_TOKEN, tmpDir);
+    }
+
+    private static File createDir(String... subPaths) throws Exception {
+        Path dir = tmpDir;
+        for (String subPath: subPaths) {
+            dir = dir.resolve(subPath);
+        }
+        Files.createDirectories(dir);
+        return FileUtil.normalizeFile(dir.toFile());
+    }
+
+    private static List<PathResourceImplementation> getPathResources(List<File> files) {
+        return ProjectClassPathResourceBuilder.getPathResources(files, new HashSet<File>(), ExcludeIncludeRules.ALLOW_ALL);
+    }
+
+    private static List<PathResourceImplementation> createUnsharedPathResources(List<File> files) throws Exception {
+        List<PathResourceImplementation> result = new ArrayList<>(files.size());
+        for (File file: files) {
+            result.add(ClassPathSupport.createResource(FileUtil.urlForArchiveOrDir(file)));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    private static List<File> concat(List<File> list, File... files) {
+        List<File> result = new ArrayList<>(list);
+        result.addAll(Arrays.asList(files));
+        return result;
+    }
+
+    /**
+     * Returns the compile and runtime class paths of the main and the test
+     * source sets of every module of a synthetic build.
+     */
+    private static List<List<PathResourceImplementation>> createSyntheticBuild(boolean share) throws Exception {
+        PathResourceInterner interner = PathResourceInterner.getDefault();
+
+        List<List<PathResourceImplementation>> result = new ArrayList<>(4 * MODULE_COUNT);
+        for (int i = 0; i < MODULE_COUNT; i++) {
+            File mainOutput = createDir("module" + i, "classes", "main");
+            File testOutput = createDir("module" + i, "classes", "test");
+
+            List<File> mainCompile = new ArrayList<>(sharedLibs);
+            List<File> mainRuntime = concat(mainCompile, mainOutput);
+            List<File> testCompile = concat(mainCompile, mainOutput);
+            List<File> testRuntime = concat(testCompile, testOutput);
+
+            for (List<File> classPath: Arrays.asList(mainCompile, mainRuntime, testCompile, testRuntime)) {
+                result.add(share
+                        ? interner.internList(getPathResources(classPath))
+                        : createUnsharedPathResources(classPath));
+            }
+        }
+        return result;
+    }
+
+    private static <T> int countDistinctInstances(Iterable<? extends T> objects) {
+        Set<T> instances = Collections.newSetFromMap(new IdentityHashMap<T, Boolean>());
+        for (T obj: objects) {
+            instances.add(obj);
+        }
+        return instances.size();
+    }
+
+    private static int countDistinctResources(List<List<PathResourceImplementation>> classPaths) {
+        List<PathResourceImplementation> allResources = new ArrayList<>();
+        for (List<PathResourceImplementation> classPath: classPaths) {
+            allResources.addAll(classPath);
+        }
+        return countDistinctInstances(allResources);
+    }
+
+    @Test
+    public void testEqualUrlsShareResource() throws Exception {
+        PathResourceInterner interner = new PathResourceInterner();
+
+        URL url = sharedLibs.get(0).toURI().toURL();
+        PathResourceImplementation resource1 = interner.getResource(url);
+        PathResourceImplementation resource2 = interner.getResource(new URL(url.toExternalForm()));
+        PathResourceImplementation otherResource = interner.getResource(sharedLibs.get(1).toURI().toURL());
+
+        assertSame(resource1, resource2);
+        assertNotSame(resource1, otherResource);
+    }
+
+    @Test
+    public void testEqualListsAreShared() throws Exception {
+        PathResourceInterner interner = new PathResourceInterner();
+
+        PathResourceImplementation resource1 = interner.getResource(sharedLibs.get(0).toURI().toURL());
+        PathResourceImplementation resource2 = interner.getResource(sharedLibs.get(1).toURI().toURL());
+
+        List<PathResourceImplementation> list1 = interner.internList(Arrays.asList(resource1, resource2));
+        List<PathResourceImplementation> list2 = interner.internList(new ArrayList<>(Arrays.asList(resource1, resource2)));
+        List<PathResourceImplementation> reversed = interner.internList(Arrays.asList(resource2, resource1));
+
+        assertSame(list1, list2);
+        assertNotSame(list1, reversed);
+        assertEquals(Arrays.asList(resource1, resource2), list1);
+    }
+
+    @Test
+    public void testPathResourcesOfEqualFilesAreShared() throws Exception {
+        List<File> files1 = new ArrayList<>(sharedLibs);
+        List<File> files2 = new ArrayList<>();
+        for (File file: sharedLibs) {
+            files2.add(new File(file.getPath()));
+        }
+
+        List<PathResourceImplementation> resources1 = getPathResources(files1);
+        List<PathResourceImplementation> resources2 = getPathResources(files2);
+
+        assertEquals(SHARED_LIB_COUNT, resources1.size());
+        for (int i = 0; i < SHARED_LIB_COUNT; i++) {
+            assertSame(resources1.get(i), resources2.get(i));
+        }
+
+        PathResourceInterner interner = PathResourceInterner.getDefault();
+        assertSame(interner.internList(resources1), interner.internList(resources2));
+    }
+
+    @Test
+    public void testSyntheticBuildSharesListsAndResources() throws Exception {
+        List<List<PathResourceImplementation>> unshared = createSyntheticBuild(false);
+        List<List<PathResourceImplementation>> shared = createSyntheticBuild(true);
+
+        assertEquals(unshared.size(), shared.size());
+        for (int i = 0; i < unshared.size(); i++) {
+            List<PathResourceImplementation> unsharedClassPath = unshared.get(i);
+            List<PathResourceImplementation> sharedClassPath = shared.get(i);
+            assertEquals(unsharedClassPath.size(), sharedClassPath.size());
+            for (int j = 0; j < unsharedClassPath.size(); j++) {
+                assertEquals(unsharedClassPath.get(j).getRoots()[0], sharedClassPath.get(j).getRoots()[0]);
+            }
+        }
+
+        // The runtime class path of main equals to the compile class path of test,
+        // and the compile class path of main is the same for all modules.
+        assertEquals(4 * MODULE_COUNT, countDistinctInstances(unshared));
+        assertEquals(2 * MODULE_COUNT + 1, countDistinctInstances(shared));
+        assertEquals(SHARED_LIB_COUNT + 2 * MODULE_COUNT, countDistinctResources(shared));
+    }
+}
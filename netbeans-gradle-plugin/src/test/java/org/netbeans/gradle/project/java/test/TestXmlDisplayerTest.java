@@ -2,14 +2,31 @@ package org.netbeans.gradle.project.java.test;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.gradle.tooling.Failure;
+import org.gradle.tooling.events.OperationDescriptor;
+import org.gradle.tooling.events.task.TaskOperationDescriptor;
+import org.gradle.tooling.events.test.JvmTestKind;
+import org.gradle.tooling.events.test.JvmTestOperationDescriptor;
+import org.gradle.tooling.events.test.TestFailureResult;
+import org.gradle.tooling.events.test.TestFinishEvent;
+import org.gradle.tooling.events.test.TestOperationResult;
+import org.gradle.tooling.events.test.TestSkippedResult;
+import org.gradle.tooling.events.test.TestStartEvent;
+import org.gradle.tooling.events.test.TestSuccessResult;
 import org.junit.Before;
 import org.junit.ClassRule;
 import org.junit.Test;
@@ -34,8 +51,11 @@ import org.openide.filesystems.FileUtil;
 import org.openide.util.Lookup;
 
 import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
 
 public class TestXmlDisplayerTest {
+    private static final Logger LOGGER = Logger.getLogger(TestXmlDisplayerTest.class.getName());
+
     @ClassRule
     public static final SampleProjectRule PROJECT_REF = SampleProjectRule.getStandardRule(EmptyProjectTest.EMPTY_PROJECT_RESOURCE);
 
@@ -132,6 +152,317 @@ public class TestXmlDisplayerTest {
         mockManager.verifySessions(session1);
     }
 
+    private static String syntheticSuiteName(int index) {
+        return String.format(Locale.ROOT, "mypackage.MyTest%05d", index);
+    }
+
+    private static String largeOutput(String linePrefix) {
+        // Large enough not to be kept in memory while parsing.
+        StringBuilder result = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            result.append(linePrefix);
+            result.append(i);
+            result.append(" \u00e9\u00e8 \ud83d\ude00 </system-out>\n");
+        }
+        return result.toString();
+    }
+
+    private static String syntheticStdOut(int index) {
+        return index % 1000 == 0 ? largeOutput("OUT" + index + "-") : "OUTPUT" + index + "\n";
+    }
+
+    private static String syntheticStdErr(int index) {
+        return index % 1000 == 1 ? largeOutput("ERR" + index + "<&>") : "";
+    }
+
+    private static String escapeXml(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+
+    private static void writeSyntheticReport(File reportDir, int index) throws IOException {
+        String suiteName = syntheticSuiteName(index);
+        String nl = "\r\n";
+
+        StringBuilder content = new StringBuilder(256);
+        content.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>").append(nl);
+        content.append("<testsuite name=\"").append(suiteName).append("\" tests=\"2\" failures=\"1\" time=\"0.030\">").append(nl);
+        content.append("  <properties/>").append(nl);
+        content.append("  <testcase name=\"testSuccess\" classname=\"").append(suiteName).append("\" time=\"0.010\"/>").append(nl);
+        content.append("  <testcase name=\"testFailure\" classname=\"").append(suiteName).append("\" time=\"0.020\">").append(nl);
+        content.append("    <failure message=\"failed\" type=\"java.lang.AssertionError\">java.lang.AssertionError: failed").append(nl);
+        content.append("\tat ").append(suiteName).append(".testFailure(MyTest.java:10)").append(nl);
+        content.append("</failure>").append(nl);
+        content.append("  </testcase><system-out><![CDATA[").append(syntheticStdOut(index)).append("]]></system-out>").append(nl);
+        content.append("  <system-err >").append(escapeXml(syntheticStdErr(index))).append("</system-err >").append(nl);
+        content.append("</testsuite>").append(nl);
+
+        File reportFile = new File(reportDir, "TEST-" + suiteName + ".xml");
+        Files.write(reportFile.toPath(), content.toString().getBytes(StringUtils.UTF8));
+    }
+
+    private long displaySyntheticReports(ExpectedSession expectedSession, int suiteCount, int workerCount) {
+        MockManager mockManager = new MockManager();
+        TestXmlDisplayer testXmlDisplayer = new TestXmlDisplayer(
+                rootProject,
+                TEST_NAME,
+                mockManager);
+
+        long startTime = System.nanoTime();
+        assertTrue("displayReport", testXmlDisplayer.displayReport(Lookup.EMPTY, workerCount));
+        long elapsedTime = System.nanoTime() - startTime;
+
+        mockManager.verifySessions(expectedSession);
+
+        List<String> suiteNames = mockManager.getSession(0).getSuiteNames();
+        assertEquals("Suite count", suiteCount, suiteNames.size());
+        for (int i = 0; i < suiteCount; i++) {
+            assertEquals("Suite order", syntheticSuiteName(i), suiteNames.get(i));
+        }
+
+        return elapsedTime;
+    }
+
+    @Test(timeout = 300000)
+    public void testManyReportFilesWithLargeOutputs() throws IOException {
+        int suiteCount = 5000;
+
+        File testResultsDir = getAndCreateTestResultsDir(rootProject);
+        ExpectedSession expectedSession = new ExpectedSession(rootProject);
+        for (int i = 0; i < suiteCount; i++) {
+            writeSyntheticReport(testResultsDir, i);
+
+            ExpectedSuite suite = expectedSession.addSuite(
+                    syntheticSuiteName(i),
+                    30,
+                    syntheticStdOut(i),
+                    syntheticStdErr(i));
+            suite.addPassed("testSuccess", 10);
+            suite.addFailed("testFailure", 20);
+        }
+
+        long sequentialTime = displaySyntheticReports(expectedSession, suiteCount, 1);
+        long parallelTime = displaySyntheticReports(expectedSession, suiteCount, 4);
+
+        LOGGER.log(Level.INFO, "Displaying {0} test reports took {1} ms with a single thread and {2} ms with 4 threads.",
+                new Object[]{
+                    suiteCount,
+                    TimeUnit.NANOSECONDS.toMillis(sequentialTime),
+                    TimeUnit.NANOSECONDS.toMillis(parallelTime)});
+    }
+
+    @Test
+    public void testTruncatedReportDisplaysPartialSuite() throws IOException {
+        String suiteName = "mypackage.MyTruncatedTest";
+        String nl = "\n";
+
+        StringBuilder content = new StringBuilder(256);
+        content.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>").append(nl);
+        content.append("<testsuite name=\"").append(suiteName).append("\" tests=\"3\" time=\"0.040\">").append(nl);
+        content.append("  <system-out><![CDATA[").append(largeOutput("OUT-")).append("]]></system-out>").append(nl);
+        content.append("  <testcase name=\"testSuccess\" classname=\"").append(suiteName).append("\" time=\"0.010\"/>").append(nl);
+        content.append("  <testcase name=\"testFailure\" classname=\"").append(suiteName).append("\" time=\"0.020\">").append(nl);
+        content.append("    <failure message=\"failed\" type=\"java.lang.AssertionError\">java.lang.AssertionError: failed").append(nl);
+        content.append("\tat ").append(suiteName).append(".testFailure(MyTest.java:10)").append(nl);
+        content.append("</failure>").append(nl);
+        content.append("  </testcase>").append(nl);
+        content.append("  <system-err><![CDATA[ERR-truncated");
+
+        File reportFile = new File(getAndCreateTestResultsDir(rootProject), "TEST-" + suiteName + ".xml");
+        Files.write(reportFile.toPath(), content.toString().getBytes(StringUtils.UTF8));
+
+        ExpectedSession expectedSession = new ExpectedSession(rootProject);
+        ExpectedSuite suite = expectedSession.addSuite(suiteName, 40, largeOutput("OUT-"), null);
+        suite.addPassed("testSuccess", 10);
+        suite.addFailed("testFailure", 20);
+
+        MockManager mockManager = new MockManager();
+        TestXmlDisplayer testXmlDisplayer = new TestXmlDisplayer(
+                rootProject,
+                TEST_NAME,
+                mockManager);
+
+        assertTrue("displayReport", testXmlDisplayer.displayReport(Lookup.EMPTY, 1));
+        mockManager.verifySessions(expectedSession);
+    }
+
+    @Test
+    public void testStreamedSessionWithAllKindsOfResults() {
+        ExpectedSession session1 = new ExpectedSession(rootProject);
+        ExpectedSuite suite1 = session1.addSuite("mypackage.MyIntegTest", 109, null, null);
+
+        suite1.addFailed("testMyIntegrationFailure1", 3);
+        suite1.addFailed("testMyIntegrationFailure2", 0);
+        suite1.addPassed("testMyIntegrationSuccess1", 21);
+        suite1.addPassed("testMyIntegrationSuccess2", 0);
+        suite1.addSkipped("testSkipped", 84);
+
+        MockManager mockManager = new MockManager();
+        TestXmlDisplayer testXmlDisplayer = new TestXmlDisplayer(
+                rootProject,
+                TEST_NAME,
+                mockManager);
+
+        TestProgressDisplayer progressDisplayer = new TestProgressDisplayer(
+                Collections.singletonList(testXmlDisplayer),
+                Lookup.EMPTY);
+
+        String className = "mypackage.MyIntegTest";
+        TaskOperationDescriptor testTask = taskDescriptor(testXmlDisplayer.getTaskPath());
+        JvmTestOperationDescriptor rootSuite = suiteDescriptor(testTask, "Gradle Test Run :test", null);
+        JvmTestOperationDescriptor classSuite = suiteDescriptor(rootSuite, className, className);
+
+        progressDisplayer.statusChanged(startEvent(rootSuite));
+        progressDisplayer.statusChanged(startEvent(classSuite));
+
+        replayTest(progressDisplayer, classSuite, "testMyIntegrationFailure1", failureResult(1000, 1003,
+                "java.lang.AssertionError\n\tat mypackage.MyIntegTest.testMyIntegrationFailure1(MyIntegTest.java:10)"));
+        replayTest(progressDisplayer, classSuite, "testMyIntegrationFailure2", failureResult(1003, 1003,
+                "java.lang.AssertionError\n\tat mypackage.MyIntegTest.testMyIntegrationFailure2(MyIntegTest.java:15)"));
+        replayTest(progressDisplayer, classSuite, "testMyIntegrationSuccess1", result(TestSuccessResult.class, 1003, 1024));
+        replayTest(progressDisplayer, classSuite, "testMyIntegrationSuccess2", result(TestSuccessResult.class, 1024, 1024));
+        replayTest(progressDisplayer, classSuite, "testSkipped", result(TestSkippedResult.class, 1024, 1108));
+
+        progressDisplayer.statusChanged(finishEvent(classSuite, result(TestSuccessResult.class, 1000, 1109)));
+        progressDisplayer.statusChanged(finishEvent(rootSuite, result(TestSuccessResult.class, 999, 1110)));
+
+        assertEquals("Streamed tasks", Collections.singletonList(TEST_NAME), progressDisplayer.endDisplay());
+
+        mockManager.verifySessions(session1);
+    }
+
+    @Test
+    public void testStreamedSessionPerTestTask() {
+        ExpectedSession session1 = new ExpectedSession(rootProject);
+        ExpectedSuite suite1 = session1.addSuite("mypackage.MyIntegTest", 5, null, null);
+        suite1.addPassed("testIntegration", 5);
+
+        ExpectedSession session2 = new ExpectedSession(rootProject);
+        ExpectedSuite suite2 = session2.addSuite("mypackage.MyTest", 7, null, null);
+        suite2.addFailed("testUnit", 7);
+
+        MockManager mockManager = new MockManager();
+        TestXmlDisplayer unitTestDisplayer = new TestXmlDisplayer(rootProject, TEST_NAME, mockManager);
+        TestXmlDisplayer integTestDisplayer = new TestXmlDisplayer(rootProject, "integTest", mockManager);
+
+        TestProgressDisplayer progressDisplayer = new TestProgressDisplayer(
+                Arrays.asList(unitTestDisplayer, integTestDisplayer),
+                Lookup.EMPTY);
+
+        TaskOperationDescriptor unitTestTask = taskDescriptor(unitTestDisplayer.getTaskPath());
+        TaskOperationDescriptor integTestTask = taskDescriptor(integTestDisplayer.getTaskPath());
+        TaskOperationDescriptor otherTestTask = taskDescriptor(":other-project:test");
+
+        JvmTestOperationDescriptor integSuite = suiteDescriptor(integTestTask, "mypackage.MyIntegTest", "mypackage.MyIntegTest");
+        JvmTestOperationDescriptor unitSuite = suiteDescriptor(unitTestTask, "mypackage.MyTest", "mypackage.MyTest");
+        JvmTestOperationDescriptor otherSuite = suiteDescriptor(otherTestTask, "mypackage.OtherTest", "mypackage.OtherTest");
+
+        progressDisplayer.statusChanged(startEvent(integSuite));
+        replayTest(progressDisplayer, integSuite, "testIntegration", result(TestSuccessResult.class, 1000, 1005));
+        progressDisplayer.statusChanged(finishEvent(integSuite, result(TestSuccessResult.class, 1000, 1005)));
+
+        progressDisplayer.statusChanged(startEvent(otherSuite));
+        replayTest(progressDisplayer, otherSuite, "testOther", result(TestSuccessResult.class, 1000, 1001));
+        progressDisplayer.statusChanged(finishEvent(otherSuite, result(TestSuccessResult.class, 1000, 1001)));
+
+        progressDisplayer.statusChanged(startEvent(unitSuite));
+        replayTest(progressDisplayer, unitSuite, "testUnit", failureResult(2000, 2007,
+                "java.lang.AssertionError\n\tat mypackage.MyTest.testUnit(MyTest.java:12)"));
+        progressDisplayer.statusChanged(finishEvent(unitSuite, result(TestSuccessResult.class, 2000, 2007)));
+
+        assertEquals("Streamed tasks", Arrays.asList("integTest", TEST_NAME), progressDisplayer.endDisplay());
+
+        mockManager.verifySessions(session1, session2);
+    }
+
+    @Test
+    public void testStreamedSessionWithoutEvents() {
+        MockManager mockManager = new MockManager();
+        TestXmlDisplayer testXmlDisplayer = new TestXmlDisplayer(
+                rootProject,
+                TEST_NAME,
+                mockManager);
+
+        TestProgressDisplayer progressDisplayer = new TestProgressDisplayer(
+                Collections.singletonList(testXmlDisplayer),
+                Lookup.EMPTY);
+        assertEquals("Streamed tasks", Collections.<String>emptyList(), progressDisplayer.endDisplay());
+
+        mockManager.verifySessions();
+    }
+
+    private static void replayTest(
+            TestProgressDisplayer progressDisplayer,
+            JvmTestOperationDescriptor suite,
+            String methodName,
+            TestOperationResult result) {
+
+        String className = suite.getClassName();
+
+        JvmTestOperationDescriptor descriptor = mock(JvmTestOperationDescriptor.class);
+        when(descriptor.getName()).thenReturn(methodName);
+        when(descriptor.getJvmTestKind()).thenReturn(JvmTestKind.ATOMIC);
+        when(descriptor.getSuiteName()).thenReturn(null);
+        when(descriptor.getClassName()).thenReturn(className);
+        when(descriptor.getMethodName()).thenReturn(methodName);
+        doReturn(suite).when(descriptor).getParent();
+
+        progressDisplayer.statusChanged(startEvent(descriptor));
+        progressDisplayer.statusChanged(finishEvent(descriptor, result));
+    }
+
+    private static TaskOperationDescriptor taskDescriptor(String taskPath) {
+        TaskOperationDescriptor result = mock(TaskOperationDescriptor.class);
+        when(result.getName()).thenReturn(taskPath);
+        when(result.getTaskPath()).thenReturn(taskPath);
+        when(result.getParent()).thenReturn(null);
+        return result;
+    }
+
+    private static JvmTestOperationDescriptor suiteDescriptor(
+            OperationDescriptor parent,
+            String suiteName,
+            String className) {
+
+        JvmTestOperationDescriptor result = mock(JvmTestOperationDescriptor.class);
+        when(result.getName()).thenReturn(suiteName);
+        when(result.getJvmTestKind()).thenReturn(JvmTestKind.SUITE);
+        when(result.getSuiteName()).thenReturn(suiteName);
+        when(result.getClassName()).thenReturn(className);
+        when(result.getMethodName()).thenReturn(null);
+        doReturn(parent).when(result).getParent();
+        return result;
+    }
+
+    private static TestStartEvent startEvent(JvmTestOperationDescriptor descriptor) {
+        TestStartEvent result = mock(TestStartEvent.class);
+        when(result.getDescriptor()).thenReturn(descriptor);
+        return result;
+    }
+
+    private static TestFinishEvent finishEvent(JvmTestOperationDescriptor descriptor, TestOperationResult testResult) {
+        TestFinishEvent result = mock(TestFinishEvent.class);
+        when(result.getDescriptor()).thenReturn(descriptor);
+        when(result.getResult()).thenReturn(testResult);
+        return result;
+    }
+
+    private static <T extends TestOperationResult> T result(Class<T> resultType, long startTime, long endTime) {
+        T result = mock(resultType);
+        when(result.getStartTime()).thenReturn(startTime);
+        when(result.getEndTime()).thenReturn(endTime);
+        return result;
+    }
+
+    private static TestFailureResult failureResult(long startTime, long endTime, String description) {
+        Failure failure = mock(Failure.class);
+        when(failure.getMessage()).thenReturn("java.lang.AssertionError");
+        when(failure.getDescription()).thenReturn(description);
+
+        TestFailureResult result = result(TestFailureResult.class, startTime, endTime);
+        doReturn(Collections.singletonList(failure)).when(result).getFailures();
+        return result;
+    }
+
     private static final class MockManager extends ErrorCollector implements NbGradleTestManager {
         private final Collection<MockSession> sessions;
 
@@ -153,6 +484,10 @@ public class TestXmlDisplayerTest {
             return session;
         }
 
+        public MockSession getSession(int index) {
+            return sessions.toArray(new MockSession[0])[index];
+        }
+
         public void verifySessions(ExpectedSession... expectedSessions) {
             verifyNoErrors();
 
@@ -205,6 +540,14 @@ public class TestXmlDisplayerTest {
             }
         }
 
+        public List<String> getSuiteNames() {
+            List<String> result = new ArrayList<>(suites.size());
+            for (MockSuite suite: suites) {
+                result.add(suite.suiteName);
+            }
+            return result;
+        }
+
         public void mustHaveBeenClosed(String reason) {
             if (!closed.get()) {
                 addStateError("This session must have been closed because "+ reason);
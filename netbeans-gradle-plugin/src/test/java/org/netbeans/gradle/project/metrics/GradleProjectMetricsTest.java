@@ -0,0 +1,409 @@
+package org.netbeans.gradle.project.metrics;
+
+import java.io.File;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.management.JMX;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.jtrim.cancel.Cancellation;
+import org.jtrim.cancel.CancellationToken;
+import org.jtrim.concurrent.CancelableTask;
+import org.jtrim.concurrent.CleanupTask;
+import org.jtrim.concurrent.TaskExecutor;
+import org.jtrim.event.ListenerRef;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.netbeans.api.progress.ProgressHandle;
+import org.netbeans.api.project.Project;
+import org.netbeans.gradle.model.util.PhaseTimer;
+import org.netbeans.gradle.project.NbGradleProject;
+import org.netbeans.gradle.project.NbGradleProjectFactory;
+import org.netbeans.gradle.project.api.entry.EmptyProjectTest;
+import org.netbeans.gradle.project.api.entry.SampleProjectRule;
+import org.netbeans.gradle.project.api.task.CommandCompleteListener;
+import org.netbeans.gradle.project.model.DefaultGradleModelLoader;
+import org.netbeans.gradle.project.model.GradleModelCache;
+import org.netbeans.gradle.project.model.ModelRetrievedListener;
+import org.netbeans.gradle.project.model.NbGradleModel;
+import org.netbeans.gradle.project.model.PersistentModelCache;
+import org.netbeans.gradle.project.model.PersistentModelKey;
+import org.netbeans.gradle.project.output.LineOutputWriter;
+import org.netbeans.gradle.project.properties.SettingsFiles;
+import org.netbeans.gradle.project.tasks.DaemonTask;
+import org.netbeans.gradle.project.tasks.DaemonTaskDef;
+import org.netbeans.gradle.project.tasks.GradleDaemonManager;
+import org.netbeans.gradle.project.util.KeySerializingExecutor;
+import org.netbeans.gradle.project.util.NbSupplier;
+import org.netbeans.gradle.project.util.StringUtils;
+import org.openide.filesystems.FileObject;
+import org.openide.filesystems.FileUtil;
+
+import static org.junit.Assert.*;
+
+public class GradleProjectMetricsTest {
+    @ClassRule
+    public static final SampleProjectRule PROJECT_REF = SampleProjectRule.getStandardRule(EmptyProjectTest.EMPTY_PROJECT_RESOURCE);
+
+    private static final AtomicInteger NAME_INDEX = new AtomicInteger(0);
+
+    private FakeClock clock;
+    private GradleProjectMetrics metrics;
+    private ObjectName objectName;
+    private MBeanServer mbeanServer;
+
+    @Before
+    public void setUp() throws Exception {
+        clock = new FakeClock();
+        metrics = new GradleProjectMetrics(clock);
+        objectName = new ObjectName("org.netbeans.gradle.test:type=GradleProjectMetrics,index="
+                + NAME_INDEX.incrementAndGet());
+        metrics.registerMBean(objectName);
+        mbeanServer = ManagementFactory.getPlatformMBeanServer();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        metrics.unregisterMBean(objectName);
+    }
+
+    private long readLong(String attributeName) throws Exception {
+        return ((Number)mbeanServer.getAttribute(objectName, attributeName)).longValue();
+    }
+
+    private double readDouble(String attributeName) throws Exception {
+        return ((Number)mbeanServer.getAttribute(objectName, attributeName)).doubleValue();
+    }
+
+    private GradleProjectMetricsMXBean getProxy() {
+        return JMX.newMXBeanProxy(mbeanServer, objectName, GradleProjectMetricsMXBean.class);
+    }
+
+    private static NbGradleModel createModel(String projectName) {
+        File projectDir = new File(new File("metrics-test-root"), projectName);
+        return DefaultGradleModelLoader.createEmptyModel(projectDir);
+    }
+
+    private static NbGradleModel tryGet(GradleModelCache cache, NbGradleModel model) {
+        FileObject settingsFileObj = model.tryGetSettingsFileObj();
+        File settingsFile = settingsFileObj != null ? FileUtil.toFile(settingsFileObj) : null;
+        return cache.tryGet(model.getProjectDir(), settingsFile);
+    }
+
+    @Test
+    public void testModelCacheCounters() throws Exception {
+        GradleModelCache cache = new GradleModelCache(2, metrics);
+
+        NbGradleModel model1 = createModel("project1");
+        NbGradleModel model2 = createModel("project2");
+        NbGradleModel model3 = createModel("project3");
+
+        assertNull(tryGet(cache, model1));
+
+        cache.replaceEntry(model1);
+        cache.replaceEntry(model2);
+        assertSame(model1, tryGet(cache, model1));
+        assertSame(model2, tryGet(cache, model2));
+
+        // Evicts model1 being the eldest entry.
+        cache.replaceEntry(model3);
+        assertNull(tryGet(cache, model1));
+
+        cache.setMaxCapacity(0);
+
+        assertEquals(2, readLong("ModelCacheHits"));
+        assertEquals(2, readLong("ModelCacheMisses"));
+        assertEquals(3, readLong("ModelCacheEvictions"));
+        assertEquals(0, readLong("PersistentCacheHits"));
+    }
+
+    private DefaultGradleModelLoader createModelLoader(NbGradleProject project) {
+        DefaultGradleModelLoader.Builder result = new DefaultGradleModelLoader.Builder(project);
+        result.setMetrics(metrics);
+        result.setCacheRef(new GradleModelCache(10, metrics));
+        result.setPersistentCache(new PersistentModelCache<NbGradleModel>() {
+            @Override
+            public NbGradleModel tryGetModel(PersistentModelKey modelKey) {
+                return null;
+            }
+
+            @Override
+            public void saveGradleModels(Collection<? extends NbGradleModel> models) {
+            }
+        });
+        return result.create();
+    }
+
+    private static void loadModel(DefaultGradleModelLoader loader) throws InterruptedException {
+        final CountDownLatch completedSignal = new CountDownLatch(1);
+        loader.fetchModel(false, new ModelRetrievedListener<NbGradleModel>() {
+            @Override
+            public void updateModel(NbGradleModel model, Throwable error) {
+            }
+        }, new Runnable() {
+            @Override
+            public void run() {
+                completedSignal.countDown();
+            }
+        });
+        completedSignal.await();
+    }
+
+    @Test(timeout = 300000)
+    public void testLoadCountersAndLatency() throws Exception {
+        Project project = PROJECT_REF.getUnloadedProject(EmptyProjectTest.EMPTY_PROJECT_NAME);
+        NbGradleProject gradleProject = NbGradleProjectFactory.getGradleProject(project);
+        DefaultGradleModelLoader loader = createModelLoader(gradleProject);
+
+        loadModel(loader);
+
+        File buildFile = new File(gradleProject.getProjectDirectoryAsFile(), SettingsFiles.BUILD_FILE_NAME);
+        Files.write(buildFile.toPath(), "throw new RuntimeException('Broken build script.')\n".getBytes(StringUtils.UTF8));
+
+        loadModel(loader);
+
+        assertEquals(2, readLong("LoadsStarted"));
+        assertEquals(1, readLong("LoadsCompleted"));
+        assertEquals(1, readLong("LoadsFailed"));
+
+        LatencyStats latency = getProxy().getLoadLatency();
+        assertEquals(2, latency.getCount());
+
+        long[] counts = latency.getBucketCounts();
+        assertEquals(latency.getBucketUpperBoundsMillis().length, counts.length);
+        long totalCount = 0;
+        for (long count: counts) {
+            totalCount += count;
+        }
+        assertEquals(2, totalCount);
+
+        // Both loads had to acquire the lock of Gradle daemon tasks once.
+        assertEquals(2, getProxy().getDaemonLockWait().getCount());
+    }
+
+    private void submitDaemonTask(DaemonTask task, final CountDownLatch completedSignal) {
+        DaemonTaskDef taskDef = new DaemonTaskDef("test-task", true, task);
+        GradleDaemonManager.submitGradleTask(NewThreadExecutor.INSTANCE, taskDef.toFactory(), new CommandCompleteListener() {
+            @Override
+            public void onComplete(Throwable error) {
+                completedSignal.countDown();
+            }
+        }, metrics);
+    }
+
+    @Test(timeout = 60000)
+    public void testDaemonLockWait() throws Exception {
+        ListenerRef queueRef = GradleDaemonManager.addQueuedTasksSource(metrics);
+        try {
+            final CountDownLatch firstStartedSignal = new CountDownLatch(1);
+            final CountDownLatch releaseFirstSignal = new CountDownLatch(1);
+            CountDownLatch completedSignal = new CountDownLatch(2);
+
+            submitDaemonTask(new DaemonTask() {
+                @Override
+                public void run(CancellationToken cancelToken, ProgressHandle progress) {
+                    firstStartedSignal.countDown();
+                    try {
+                        releaseFirstSignal.await();
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }, completedSignal);
+            firstStartedSignal.await();
+
+            submitDaemonTask(new DaemonTask() {
+                @Override
+                public void run(CancellationToken cancelToken, ProgressHandle progress) {
+                }
+            }, completedSignal);
+
+            // Wait until the second task waits for the first one.
+            while (readLong("QueuedDaemonTasks") == 0) {
+                Thread.sleep(10);
+            }
+
+            clock.advance(TimeUnit.MILLISECONDS.toNanos(300));
+            releaseFirstSignal.countDown();
+            completedSignal.await();
+        } finally {
+            queueRef.unregister();
+        }
+
+        LatencyStats lockWait = getProxy().getDaemonLockWait();
+        assertEquals(2, lockWait.getCount());
+        assertEquals(300, lockWait.getTotalMillis());
+        assertEquals(300, lockWait.getMaxMillis());
+    }
+
+    @Test
+    public void testQueueDepths() throws Exception {
+        assertEquals(0, readLong("QueuedModelLoads"));
+        assertEquals(0, readLong("QueuedDaemonTasks"));
+
+        ManualExecutor wrapped = new ManualExecutor();
+        final KeySerializingExecutor executor = new KeySerializingExecutor(wrapped);
+        metrics.addQueuedModelLoadsSource(new NbSupplier<Long>() {
+            @Override
+            public Long get() {
+                return executor.getQueuedTaskCount();
+            }
+        });
+
+        TaskExecutor buildExecutor = executor.getExecutor("build1");
+        for (int i = 0; i < 3; i++) {
+            buildExecutor.execute(Cancellation.UNCANCELABLE_TOKEN, NoOpTask.INSTANCE, null);
+        }
+        executor.getExecutor("build2").execute(Cancellation.UNCANCELABLE_TOKEN, NoOpTask.INSTANCE, null);
+
+        // The first task of both builds was submitted to the wrapped executor.
+        assertEquals(2, readLong("QueuedModelLoads"));
+
+        wrapped.runAll();
+        assertEquals(0, readLong("QueuedModelLoads"));
+    }
+
+    private static NbSupplier<Long> constantSource(final long value) {
+        return new NbSupplier<Long>() {
+            @Override
+            public Long get() {
+                return value;
+            }
+        };
+    }
+
+    @Test
+    public void testQueueDepthsOfMultipleSourcesAreSummed() throws Exception {
+        ListenerRef ref1 = metrics.addQueuedModelLoadsSource(constantSource(3));
+        metrics.addQueuedModelLoadsSource(constantSource(4));
+        metrics.addQueuedDaemonTasksSource(constantSource(5));
+
+        assertEquals(7, readLong("QueuedModelLoads"));
+        assertEquals(5, readLong("QueuedDaemonTasks"));
+
+        ref1.unregister();
+        assertFalse(ref1.isRegistered());
+        assertEquals(4, readLong("QueuedModelLoads"));
+    }
+
+    @Test
+    public void testOutputLinesPerSecond() throws Exception {
+        final List<String> lines = new ArrayList<>();
+        Writer writer = new LineOutputWriter(new LineOutputWriter.Handler() {
+            @Override
+            public void writeLine(String line) {
+                lines.add(line);
+            }
+
+            @Override
+            public void flush() {
+            }
+        }, metrics);
+
+        for (int i = 0; i < 10; i++) {
+            writer.write("line1\nline2\r\nline3\n");
+        }
+        clock.advance(TimeUnit.SECONDS.toNanos(1));
+        writer.write("line4\nline5");
+        clock.advance(TimeUnit.SECONDS.toNanos(1));
+        writer.write("\n");
+
+        assertEquals(32, lines.size());
+        assertEquals(32, readLong("OutputLines"));
+        // 32 lines since the metrics were created.
+        assertEquals(16.0, readDouble("OutputLinesPerSecond"), 0.0001);
+
+        clock.advance(TimeUnit.SECONDS.toNanos(9));
+        for (int i = 0; i < 6; i++) {
+            writer.write("line1\nline2\r\nline3\n");
+        }
+        // 18 lines since the previous read.
+        assertEquals(2.0, readDouble("OutputLinesPerSecond"), 0.0001);
+
+        clock.advance(TimeUnit.SECONDS.toNanos(60));
+        assertEquals(0.0, readDouble("OutputLinesPerSecond"), 0.0001);
+        assertEquals(50, readLong("OutputLines"));
+    }
+
+    private static final class FakeClock implements PhaseTimer.Clock {
+        private long currentNanos = TimeUnit.HOURS.toNanos(1);
+
+        @Override
+        public synchronized long nanoTime() {
+            return currentNanos;
+        }
+
+        public synchronized void advance(long nanos) {
+            currentNanos += nanos;
+        }
+    }
+
+    private enum NewThreadExecutor implements TaskExecutor {
+        INSTANCE;
+
+        @Override
+        public void execute(
+                final CancellationToken cancelToken,
+                final CancelableTask task,
+                final CleanupTask cleanupTask) {
+
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    Throwable error = null;
+                    try {
+                        task.execute(cancelToken);
+                    } catch (Throwable ex) {
+                        error = ex;
+                    }
+
+                    if (cleanupTask != null) {
+                        try {
+                            cleanupTask.cleanup(false, error);
+                        } catch (Exception ex) {
+                            throw new RuntimeException(ex);
+                        }
+                    }
+                }
+            }, "Metrics-Test-Task").start();
+        }
+    }
+
+    private enum NoOpTask implements CancelableTask {
+        INSTANCE;
+
+        @Override
+        public void execute(CancellationToken cancelToken) {
+        }
+    }
+
+    private static final class ManualExecutor implements TaskExecutor {
+        private final List<CancelableTask> tasks = new ArrayList<>();
+
+        @Override
+        public synchronized void execute(CancellationToken cancelToken, CancelableTask task, CleanupTask cleanupTask) {
+            tasks.add(task);
+        }
+
+        private synchronized CancelableTask tryPoll() {
+            return tasks.isEmpty() ? null : tasks.remove(0);
+        }
+
+        public void runAll() throws Exception {
+            CancelableTask task = tryPoll();
+            while (task != null) {
+                task.execute(Cancellation.UNCANCELABLE_TOKEN);
+                task = tryPoll();
+            }
+        }
+    }
+}
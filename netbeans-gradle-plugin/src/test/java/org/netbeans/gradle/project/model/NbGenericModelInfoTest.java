@@ -1,13 +1,23 @@
 package org.netbeans.gradle.project.model;
 
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
 import org.junit.Test;
+import org.netbeans.gradle.model.GenericProjectProperties;
+import org.netbeans.gradle.model.GradleTaskID;
 import org.netbeans.gradle.model.util.SerializationUtils;
 
 import static org.junit.Assert.*;
 import static org.netbeans.gradle.project.model.NbGradleMultiProjectDefTest.*;
 
 public class NbGenericModelInfoTest {
+    private static final String[] TASK_NAME_WORDS = {
+        "compile", "Test", "Java", "Groovy", "Jar", "Sources", "Docs", "Run", "Debug", "Main"
+    };
+
     @Test
     public void testSerialization() throws ClassNotFoundException {
         NbGradleMultiProjectDef projectDef = createTestMultiProject();
@@ -21,4 +31,84 @@ public class NbGenericModelInfoTest {
                 source.getSettingsFile().toString(),
                 deserialized.getSettingsFile().toString());
     }
+
+    private static List<GradleTaskID> createTaskIDs(String projectName, int taskCount) {
+        Random random = new Random(5236);
+
+        List<GradleTaskID> result = new ArrayList<>(taskCount);
+        for (int i = 0; i < taskCount; i++) {
+            StringBuilder name = new StringBuilder();
+            int wordCount = 1 + random.nextInt(3);
+            for (int j = 0; j < wordCount; j++) {
+                name.append(TASK_NAME_WORDS[random.nextInt(TASK_NAME_WORDS.length)]);
+            }
+            name.append(i);
+
+            String taskName = name.toString();
+            result.add(new GradleTaskID(taskName, projectName + ":" + taskName));
+        }
+        return result;
+    }
+
+    private static NbGenericModelInfo createModelInfo(List<GradleTaskID> tasks) {
+        String name = "app";
+        String fullName = ":" + name;
+        GenericProjectProperties properties = NbGradleProjectTreeTest.createProperties(name, fullName);
+
+        NbGradleProjectTree tree = new NbGradleProjectTree(
+                properties,
+                tasks,
+                Collections.<NbGradleProjectTree>emptyList());
+        return new NbGenericModelInfo(new NbGradleMultiProjectDef(tree, tree), null);
+    }
+
+    private static String getFullName(GradleTaskID taskID) {
+        return taskID != null ? taskID.getFullName() : null;
+    }
+
+    private static void assertSameTrees(List<GradleTaskTree> expected, List<GradleTaskTree> actual) {
+        assertEquals("Node count", expected.size(), actual.size());
+
+        for (int i = 0; i < expected.size(); i++) {
+            GradleTaskTree expectedNode = expected.get(i);
+            GradleTaskTree actualNode = actual.get(i);
+
+            assertEquals("caption", expectedNode.getCaption(), actualNode.getCaption());
+            assertEquals("taskID", getFullName(expectedNode.getTaskID()), getFullName(actualNode.getTaskID()));
+            assertSameTrees(expectedNode.getChildren(), actualNode.getChildren());
+        }
+    }
+
+    @Test
+    public void testTaskTreeIsBuiltOnce() {
+        NbGenericModelInfo modelInfo = createModelInfo(createTaskIDs(":app", 10));
+
+        List<GradleTaskTree> taskTree = modelInfo.getTaskTree();
+        assertSame(taskTree, modelInfo.getTaskTree());
+    }
+
+    @Test
+    public void testTaskTreeIsNotSerialized() throws ClassNotFoundException {
+        List<GradleTaskID> tasks = createTaskIDs(":app", 100);
+        NbGenericModelInfo source = createModelInfo(tasks);
+        source.getTaskTree();
+
+        byte[] serialized = SerializationUtils.serializeObject(source);
+        NbGenericModelInfo deserialized = (NbGenericModelInfo)SerializationUtils.deserializeObject(serialized);
+
+        assertSameTrees(GradleTaskTree.createTaskTree(tasks), deserialized.getTaskTree());
+    }
+
+    @Test
+    public void testTaskTreeOfManyTasksMatchesUncachedTree() {
+        List<GradleTaskID> tasks = createTaskIDs(":app", 10000);
+        NbGenericModelInfo modelInfo = createModelInfo(tasks);
+
+        List<GradleTaskTree> cachedTree = modelInfo.getTaskTree();
+        assertSameTrees(GradleTaskTree.createTaskTree(tasks), cachedTree);
+
+        for (int i = 0; i < 100; i++) {
+            assertSame(cachedTree, modelInfo.getTaskTree());
+        }
+    }
 }
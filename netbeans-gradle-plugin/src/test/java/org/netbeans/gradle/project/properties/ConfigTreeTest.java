@@ -390,4 +390,54 @@ public class ConfigTreeTest {
 
         verifyNotEquals(builder1.create(), builder2.create());
     }
+
+    @Test
+    public void testSnapshotIsReusedUntilModified() {
+        assumeBasicBuilderWorks();
+
+        ConfigTree.Builder builder = new ConfigTree.Builder();
+        builder.addChildBuilder("key1").setValue("value1");
+
+        ConfigTree snapshot1 = builder.create();
+        assertSame(snapshot1, builder.create());
+
+        builder.getChildBuilder("key1").setValue("value2");
+        ConfigTree snapshot2 = builder.create();
+        assertNotSame(snapshot1, snapshot2);
+        assertEquals("value1", snapshot1.getChildTree("key1").getValue(null));
+        assertEquals("value2", snapshot2.getChildTree("key1").getValue(null));
+    }
+
+    @Test
+    public void testUnmodifiedSubtreesAreShared() {
+        assumeBasicBuilderWorks();
+
+        ConfigTree.Builder builder = new ConfigTree.Builder();
+        builder.getDeepChildBuilder("key1", "key2").setValue("value1");
+        builder.getDeepChildBuilder("key3", "key4").setValue("value2");
+
+        ConfigTree snapshot1 = builder.create();
+
+        builder.getDeepChildBuilder("key3", "key4").setValue("value3");
+        ConfigTree snapshot2 = builder.create();
+
+        assertSame(snapshot1.getChildTree("key1"), snapshot2.getChildTree("key1"));
+        assertEquals("value2", snapshot1.getDeepChildTree("key3", "key4").getValue(null));
+        assertEquals("value3", snapshot2.getDeepChildTree("key3", "key4").getValue(null));
+    }
+
+    @Test
+    public void testBuilderFromTreeReturnsTheSameTree() {
+        assumeBasicBuilderWorks();
+
+        ConfigTree.Builder sourceBuilder = new ConfigTree.Builder();
+        sourceBuilder.getDeepChildBuilder("key1", "key2").setValue("value1");
+        ConfigTree tree = sourceBuilder.create();
+
+        ConfigTree.Builder builder = new ConfigTree.Builder(tree);
+        assertSame(tree, builder.create());
+
+        builder.getDeepChildBuilder("key1", "key2");
+        assertSame(tree, builder.create());
+    }
 }
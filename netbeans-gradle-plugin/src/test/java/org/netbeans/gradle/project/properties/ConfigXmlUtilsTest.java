@@ -183,6 +183,59 @@ public class ConfigXmlUtilsTest {
         }
     }
 
+    private static Element[] getSettings1AuxElements() throws ParserConfigurationException {
+        // Intentionally not in the saved order.
+        return new Element[]{
+            xmlElement("com-junichi11-netbeans-changelf.use-project", "false"),
+            xmlElement("com-junichi11-netbeans-changelf.lf-kind", "LF"),
+            xmlElement("com-junichi11-netbeans-changelf.use-global", "true"),
+            xmlElement("com-junichi11-netbeans-changelf.enable", "true")
+        };
+    }
+
+    private static void testSavedContentIsSameAsParsedXml(ConfigTree tree, Element... auxElements) throws Exception {
+        Document builtXml = ConfigXmlUtils.createXml(tree);
+        ConfigXmlUtils.addAuxiliary(builtXml, auxElements);
+        ConfigTree parsedTree = ConfigXmlUtils.parseDocument(builtXml).create();
+
+        assertEquals(parsedTree, ConfigXmlUtils.getSavedContent(tree, auxElements));
+    }
+
+    @Test
+    public void testSavedContentIsSameAsParsedXmlTaskArgsHaveValues() throws Exception {
+        ConfigTree settings1 = getExpectedSettings1ContentBuilder(true).create();
+        testSavedContentIsSameAsParsedXml(settings1);
+        testSavedContentIsSameAsParsedXml(settings1, getSettings1AuxElements());
+    }
+
+    @Test
+    public void testSavedContentIsSameAsParsedXmlTaskArgsHaveNoValues() throws Exception {
+        ConfigTree settings1 = getExpectedSettings1ContentBuilder(false).create();
+        testSavedContentIsSameAsParsedXml(settings1);
+        testSavedContentIsSameAsParsedXml(settings1, getSettings1AuxElements());
+    }
+
+    @Test
+    public void testSavedContentIsSameAsParsedXmlForUnusualTrees() throws Exception {
+        ConfigTree.Builder builder = new ConfigTree.Builder();
+        builder.setValue("root-value");
+        builder.addChildBuilder("empty-node");
+        builder.addChildBuilder("only-attributes").addChildBuilder("#attr-attr1").setValue("attr-value");
+
+        ConfigTree.Builder valueWithChildren = builder.addChildBuilder("value-with-children");
+        valueWithChildren.setValue("my-value");
+        valueWithChildren.addChildBuilder("child").setValue("child-value");
+        valueWithChildren.addChildBuilder("child").setValue("child-value2");
+
+        ConfigTree.Builder attrWithValue = builder.addChildBuilder("attr-with-value");
+        attrWithValue.setValue("my-value2");
+        attrWithValue.addChildBuilder("#attr-attr2").setValue("attr-value2");
+
+        testSavedContentIsSameAsParsedXml(builder.create());
+        testSavedContentIsSameAsParsedXml(ConfigTree.singleValue("root-only"));
+        testSavedContentIsSameAsParsedXml(ConfigTree.EMPTY, xmlElement("aux-node", "aux-value"));
+    }
+
     @Test
     public void testSaveAndParseForSettings1() throws Exception {
         ConfigTree settings1 = getExpectedSettings1Content();
@@ -2,11 +2,15 @@ package org.netbeans.gradle.project.properties;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
+import javax.xml.parsers.DocumentBuilderFactory;
 import org.jtrim.cancel.Cancellation;
 import org.jtrim.cancel.OperationCanceledException;
 import org.jtrim.collections.Equality;
@@ -25,6 +29,7 @@ import org.netbeans.gradle.project.license.LicenseHeaderInfo;
 import org.netbeans.gradle.project.properties.standard.LicenseHeaderInfoProperty;
 import org.netbeans.gradle.project.properties.standard.PlatformId;
 import org.netbeans.gradle.project.properties.standard.TargetPlatformProperty;
+import org.w3c.dom.Document;
 
 import static org.junit.Assert.*;
 
@@ -280,6 +285,57 @@ public class ProfileSettingsTest {
         documentListener.waitForCall("Document change for multi node.");
     }
 
+    private static ConfigTree readSavedContent(ProfileSettings settings) throws Exception {
+        Path tempFile = Files.createTempFile("nb-profile-settings-test", ".xml");
+        try {
+            settings.saveToFile(tempFile, new ConfigSaveOptions("\n"));
+
+            Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(tempFile.toFile());
+            return ConfigXmlUtils.parseDocument(document).create();
+        } finally {
+            Files.delete(tempFile);
+        }
+    }
+
+    @Test
+    public void testContentSnapshotIsSameAsSavedContent() throws Exception {
+        ProfileSettings settings = new ProfileSettings();
+        readFromSettings1(settings);
+
+        assertEquals(readSavedContent(settings), settings.getContentSnapshot());
+
+        getTextProperty(settings, "custom-group", "custom-node").setValue("NewValue");
+        getTextProperty(settings, "new-group", "new-node").setValue("NewNodeValue");
+        getTextProperty(settings, "source-encoding").setValue(null);
+
+        assertEquals(readSavedContent(settings), settings.getContentSnapshot());
+    }
+
+    @Test
+    public void testReadsOfLargeProfileDoNotModifyTheContent() {
+        int keyCount = 500;
+
+        ProfileSettings settings = new ProfileSettings();
+
+        List<MutableProperty<String>> properties = new ArrayList<>(keyCount);
+        for (int i = 0; i < keyCount; i++) {
+            MutableProperty<String> property = getTextProperty(settings, "group" + (i % 10), "key" + i);
+            property.setValue("value" + i);
+            properties.add(property);
+        }
+
+        ConfigTree contentBeforeReads = settings.getContentSnapshot();
+
+        for (int i = 0; i < keyCount; i++) {
+            assertEquals("value" + i, properties.get(i).getValue());
+        }
+        assertNull(getTextProperty(settings, "missing-group", "missing-key").getValue());
+
+        ConfigTree contentAfterReads = settings.getContentSnapshot();
+        assertEquals(contentBeforeReads, contentAfterReads);
+        assertTrue(contentAfterReads.getChildTrees("missing-group").isEmpty());
+    }
+
     private static final class WaitableListener implements Runnable {
         private final WaitableSignal calledSignal;
 
@@ -0,0 +1,237 @@
+package org.netbeans.gradle.project.query;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+import org.jtrim.cancel.Cancellation;
+import org.jtrim.concurrent.ManualTaskExecutor;
+import org.jtrim.concurrent.SyncTaskExecutor;
+import org.jtrim.concurrent.TaskExecutor;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.netbeans.gradle.project.util.NbFileUtils;
+
+import static org.junit.Assert.*;
+
+public class GradleCacheArtifactIndexTest {
+    private static final int GROUP_COUNT = 100;
+    private static final int MODULE_PER_GROUP_COUNT = 100;
+    private static final int ARTIFACT_COUNT = GROUP_COUNT * MODULE_PER_GROUP_COUNT;
+
+    private static Path cacheRoot;
+    private static List<File> artifactDirs;
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        cacheRoot = Files.createTempDirectory("nb-gradle-cache-test").resolve("files-2.1");
+
+        artifactDirs = new ArrayList<>(ARTIFACT_COUNT);
+        for (int groupIndex = 0; groupIndex < GROUP_COUNT; groupIndex++) {
+            for (int moduleIndex = 0; moduleIndex < MODULE_PER_GROUP_COUNT; moduleIndex++) {
+                int artifactIndex = artifactDirs.size();
+                Path artifactDir = cacheRoot
+                        .resolve("org.example.group" + groupIndex)
+                        .resolve(moduleName(artifactIndex))
+                        .resolve("1.0");
+
+                createFile(artifactDir, "b" + artifactIndex, binaryName(artifactIndex));
+                if (artifactIndex % 2 == 0) {
+                    createFile(artifactDir, "s" + artifactIndex, sourcesName(artifactIndex));
+                }
+
+                artifactDirs.add(artifactDir.toFile());
+            }
+        }
+    }
+
+    @AfterClass
+    public static void tearDownClass() throws Exception {
+        NbFileUtils.deleteDirectory(Cancellation.UNCANCELABLE_TOKEN, cacheRoot.getParent());
+    }
+
+    private static String moduleName(int artifactIndex) {
+        return "module" + artifactIndex;
+    }
+
+    private static String binaryName(int artifactIndex) {
+        return moduleName(artifactIndex) + "-1.0.jar";
+    }
+
+    private static String sourcesName(int artifactIndex) {
+        return moduleName(artifactIndex) + "-1.0-sources.jar";
+    }
+
+    private static void createFile(Path artifactDir, String hash, String fileName) throws Exception {
+        Path hashDir = artifactDir.resolve(hash);
+        Files.createDirectories(hashDir);
+        Files.createFile(hashDir.resolve(fileName));
+    }
+
+    /**
+     * Finds the file the same way as it was done before the index existed.
+     */
+    private static File scanSubDirs(File artifactDir, String fileName) {
+        File[] subDirs = artifactDir.listFiles(new FileFilter() {
+            @Override
+            public boolean accept(File pathname) {
+                return pathname.isDirectory();
+            }
+        });
+        if (subDirs == null) {
+            return null;
+        }
+
+        for (File dir: subDirs) {
+            File file = new File(dir, fileName);
+            if (file.isFile()) {
+                return file;
+            }
+        }
+        return null;
+    }
+
+    private static GradleCacheArtifactIndex createIndex() {
+        return createIndex(SyncTaskExecutor.getSimpleExecutor());
+    }
+
+    private static GradleCacheArtifactIndex createIndex(TaskExecutor recheckExecutor) {
+        return new GradleCacheArtifactIndex(SyncTaskExecutor.getSimpleExecutor(), recheckExecutor);
+    }
+
+    @Test
+    public void testLookupsMatchSubDirScan() {
+        GradleCacheArtifactIndex index = createIndex();
+
+        for (int i = 0; i < ARTIFACT_COUNT; i += 7) {
+            File artifactDir = artifactDirs.get(i);
+            GradleCacheArtifactIndex.ArtifactDir indexedDir = index.getArtifactDir(artifactDir);
+
+            for (String fileName: new String[]{binaryName(i), sourcesName(i), "unknown.jar"}) {
+                assertEquals(fileName, scanSubDirs(artifactDir, fileName), indexedDir.tryGetFile(fileName));
+            }
+        }
+    }
+
+    @Test
+    public void testMissingArtifactDir() {
+        GradleCacheArtifactIndex index = createIndex();
+        File missingDir = cacheRoot.resolve("missing").resolve("missing").resolve("1.0").toFile();
+        assertNull(index.getArtifactDir(missingDir).tryGetFile("missing-1.0.jar"));
+    }
+
+    @Test
+    public void testSameArtifactDirIsShared() {
+        GradleCacheArtifactIndex index = createIndex();
+        File artifactDir = artifactDirs.get(0);
+        assertSame(index.getArtifactDir(artifactDir), index.getArtifactDir(new File(artifactDir.getPath())));
+    }
+
+    @Test
+    public void testCacheChangeWithoutListenersRelistsLazily() throws Exception {
+        GradleCacheArtifactIndex index = createIndex();
+
+        int artifactIndex = 3;
+        GradleCacheArtifactIndex.ArtifactDir artifactDir = index.getArtifactDir(artifactDirs.get(artifactIndex));
+        assertNull(artifactDir.tryGetFile(sourcesName(artifactIndex)));
+
+        createFile(artifactDir.getDir().toPath(), "lazy", sourcesName(artifactIndex));
+        assertNull(artifactDir.tryGetFile(sourcesName(artifactIndex)));
+
+        index.notifyCacheChange();
+        assertNotNull(artifactDir.tryGetFile(sourcesName(artifactIndex)));
+    }
+
+    private static ChangeListener countingListener(final AtomicInteger eventCount) {
+        return new ChangeListener() {
+            @Override
+            public void stateChanged(ChangeEvent e) {
+                eventCount.incrementAndGet();
+            }
+        };
+    }
+
+    @Test
+    public void testChangeOnlyNotifiesChangedArtifact() throws Exception {
+        GradleCacheArtifactIndex index = createIndex();
+
+        List<GradleCacheArtifactIndex.ArtifactDir> indexedDirs = new ArrayList<>(ARTIFACT_COUNT);
+        List<AtomicInteger> eventCounts = new ArrayList<>(ARTIFACT_COUNT);
+        List<ChangeListener> listeners = new ArrayList<>(ARTIFACT_COUNT);
+
+        for (int i = 0; i < ARTIFACT_COUNT; i++) {
+            GradleCacheArtifactIndex.ArtifactDir indexedDir = index.getArtifactDir(artifactDirs.get(i));
+            indexedDir.tryGetFile(sourcesName(i));
+            indexedDirs.add(indexedDir);
+
+            AtomicInteger eventCount = new AtomicInteger(0);
+            ChangeListener listener = countingListener(eventCount);
+            indexedDir.addChangeListener(listener);
+            eventCounts.add(eventCount);
+            listeners.add(listener);
+        }
+
+        try {
+            int changedIndex = 1;
+            createFile(artifactDirs.get(changedIndex).toPath(), "new", sourcesName(changedIndex));
+
+            index.notifyCacheChange();
+
+            for (int i = 0; i < ARTIFACT_COUNT; i++) {
+                assertEquals("Events of artifact " + i, i == changedIndex ? 1 : 0, eventCounts.get(i).get());
+            }
+
+            assertNotNull(indexedDirs.get(changedIndex).tryGetFile(sourcesName(changedIndex)));
+        } finally {
+            for (int i = 0; i < ARTIFACT_COUNT; i++) {
+                indexedDirs.get(i).removeChangeListener(listeners.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void testListenedDirsAreRecheckedByTheRecheckExecutor() throws Exception {
+        ManualTaskExecutor recheckExecutor = new ManualTaskExecutor(false);
+        GradleCacheArtifactIndex index = createIndex(recheckExecutor);
+
+        int artifactIndex = 5;
+        GradleCacheArtifactIndex.ArtifactDir artifactDir = index.getArtifactDir(artifactDirs.get(artifactIndex));
+        assertNull(artifactDir.tryGetFile(sourcesName(artifactIndex)));
+
+        AtomicInteger eventCount = new AtomicInteger(0);
+        ChangeListener listener = countingListener(eventCount);
+        artifactDir.addChangeListener(listener);
+        try {
+            createFile(artifactDir.getDir().toPath(), "background", sourcesName(artifactIndex));
+
+            index.notifyCacheChange();
+            index.notifyCacheChange();
+            assertEquals(0, eventCount.get());
+
+            assertTrue(recheckExecutor.tryExecuteOne());
+            assertFalse(recheckExecutor.tryExecuteOne());
+
+            assertEquals(1, eventCount.get());
+            assertNotNull(artifactDir.tryGetFile(sourcesName(artifactIndex)));
+        } finally {
+            artifactDir.removeChangeListener(listener);
+        }
+    }
+
+    @Test
+    public void testNoRecheckIsScheduledWithoutListeners() {
+        ManualTaskExecutor recheckExecutor = new ManualTaskExecutor(false);
+        GradleCacheArtifactIndex index = createIndex(recheckExecutor);
+
+        index.getArtifactDir(artifactDirs.get(0)).tryGetFile(binaryName(0));
+        index.notifyCacheChange();
+
+        assertFalse(recheckExecutor.tryExecuteOne());
+    }
+}
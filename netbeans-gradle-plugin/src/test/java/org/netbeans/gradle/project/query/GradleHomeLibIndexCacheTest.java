@@ -0,0 +1,180 @@
+package org.netbeans.gradle.project.query;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import org.jtrim.cancel.Cancellation;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.netbeans.gradle.project.util.NbFileUtils;
+
+import static org.junit.Assert.*;
+
+public class GradleHomeLibIndexCacheTest {
+    private static final long OLD_TIME = 1000000000000L;
+
+    private Path tmpDir;
+    private Path cacheDir;
+    private File gradleHome;
+
+    @Before
+    public void setUp() throws Exception {
+        tmpDir = Files.createTempDirectory("nb-gradle-home-test");
+        cacheDir = tmpDir.resolve("cache");
+
+        Path home = tmpDir.resolve("gradle-2.0");
+        gradleHome = home.toFile();
+
+        createFile(home, "lib", "gradle-core-2.0.jar");
+        createFile(home, "lib", "groovy-all-2.3.3.jar");
+        createFile(home, "lib", "README.txt");
+        createFile(home, "lib", "plugins", "gradle-plugins-2.0.jar");
+        Files.createDirectories(home.resolve("src").resolve("core"));
+
+        // Make sure that changing the directories changes their last
+        // modification time, regardless of its resolution.
+        setLastModified(libFile(), OLD_TIME);
+        setLastModified(libFile("plugins"), OLD_TIME);
+    }
+
+    private static void setLastModified(File file, long time) {
+        assertTrue("setLastModified: " + file, file.setLastModified(time));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        NbFileUtils.deleteDirectory(Cancellation.UNCANCELABLE_TOKEN, tmpDir);
+    }
+
+    private static Path createFile(Path dir, String... subPaths) throws Exception {
+        Path file = dir;
+        for (String subPath: subPaths) {
+            file = file.resolve(subPath);
+        }
+        Files.createDirectories(file.getParent());
+        return Files.createFile(file);
+    }
+
+    private File libFile(String... subPaths) {
+        File result = new File(gradleHome, "lib");
+        for (String subPath: subPaths) {
+            result = new File(result, subPath);
+        }
+        return result;
+    }
+
+    @Test
+    public void testIndexListsLibAndPluginJars() {
+        GradleHomeLibIndex index = GradleHomeLibIndex.build(gradleHome);
+
+        assertEquals(gradleHome, index.getGradleHome());
+        assertEquals(Arrays.asList(
+                libFile("gradle-core-2.0.jar"),
+                libFile("groovy-all-2.3.3.jar"),
+                libFile("plugins", "gradle-plugins-2.0.jar")),
+                index.getJars());
+        assertTrue(index.isUpToDate());
+    }
+
+    @Test
+    public void testMissingGradleHome() {
+        GradleHomeLibIndex index = GradleHomeLibIndex.build(new File(gradleHome, "missing"));
+        assertEquals(0, index.getJars().size());
+        assertTrue(index.isUpToDate());
+    }
+
+    @Test
+    public void testInMemoryHit() {
+        GradleHomeLibIndexCache cache = new GradleHomeLibIndexCache(cacheDir);
+        GradleHomeLibIndex index = cache.getIndex(gradleHome);
+        assertSame(index, cache.getIndex(gradleHome));
+    }
+
+    @Test
+    public void testPersistedIndexHit() {
+        GradleHomeLibIndexCache cache1 = new GradleHomeLibIndexCache(cacheDir);
+        assertNull("Miss before the first query", cache1.tryLoadPersistedIndex(gradleHome));
+
+        GradleHomeLibIndex index = cache1.getIndex(gradleHome);
+
+        GradleHomeLibIndexCache cache2 = new GradleHomeLibIndexCache(cacheDir);
+        GradleHomeLibIndex persisted = cache2.tryLoadPersistedIndex(gradleHome);
+        assertNotNull("Hit after restart", persisted);
+        assertEquals(index.getJars(), persisted.getJars());
+        assertEquals(index.getJars(), cache2.getIndex(gradleHome).getJars());
+    }
+
+    @Test
+    public void testOtherInstallationMisses() throws Exception {
+        GradleHomeLibIndexCache cache = new GradleHomeLibIndexCache(cacheDir);
+        cache.getIndex(gradleHome);
+
+        File otherHome = tmpDir.resolve("gradle-2.1").toFile();
+        assertNull(cache.tryLoadPersistedIndex(otherHome));
+    }
+
+    @Test
+    public void testAddingJarInvalidates() throws Exception {
+        GradleHomeLibIndexCache cache1 = new GradleHomeLibIndexCache(cacheDir);
+        GradleHomeLibIndex index = cache1.getIndex(gradleHome);
+
+        Path newJar = createFile(gradleHome.toPath(), "lib", "plugins", "gradle-new-plugin-2.0.jar");
+
+        assertFalse(index.isUpToDate());
+
+        GradleHomeLibIndexCache cache2 = new GradleHomeLibIndexCache(cacheDir);
+        assertNull("Miss after adding a jar", cache2.tryLoadPersistedIndex(gradleHome));
+
+        GradleHomeLibIndex updatedIndex = cache1.getIndex(gradleHome);
+        assertNotSame(index, updatedIndex);
+        assertTrue(updatedIndex.getJars().contains(newJar.toFile()));
+
+        GradleHomeLibIndexCache cache3 = new GradleHomeLibIndexCache(cacheDir);
+        GradleHomeLibIndex persisted = cache3.tryLoadPersistedIndex(gradleHome);
+        assertNotNull("Hit after updating the index", persisted);
+        assertEquals(updatedIndex.getJars(), persisted.getJars());
+    }
+
+    @Test
+    public void testRemovingJarInvalidates() throws Exception {
+        GradleHomeLibIndexCache cache = new GradleHomeLibIndexCache(cacheDir);
+        GradleHomeLibIndex index = cache.getIndex(gradleHome);
+
+        Files.delete(libFile("groovy-all-2.3.3.jar").toPath());
+        assertFalse(index.isUpToDate());
+
+        assertEquals(Arrays.asList(
+                libFile("gradle-core-2.0.jar"),
+                libFile("plugins", "gradle-plugins-2.0.jar")),
+                cache.getIndex(gradleHome).getJars());
+    }
+
+    @Test
+    public void testPersistedIndexComparesTheEntries() throws Exception {
+        GradleHomeLibIndexCache cache1 = new GradleHomeLibIndexCache(cacheDir);
+        GradleHomeLibIndex index = cache1.getIndex(gradleHome);
+
+        // A change not visible in the last modification time.
+        createFile(gradleHome.toPath(), "lib", "gradle-new-2.0.jar");
+        setLastModified(libFile(), OLD_TIME);
+
+        assertTrue(index.isUpToDate());
+        assertFalse(index.isUpToDateIncludingEntries());
+
+        GradleHomeLibIndexCache cache2 = new GradleHomeLibIndexCache(cacheDir);
+        assertNull("Miss after restart", cache2.tryLoadPersistedIndex(gradleHome));
+        assertTrue(cache2.getIndex(gradleHome).getJars().contains(libFile("gradle-new-2.0.jar")));
+    }
+
+    @Test
+    public void testRewritingJarDoesNotInvalidate() throws Exception {
+        GradleHomeLibIndexCache cache = new GradleHomeLibIndexCache(cacheDir);
+        GradleHomeLibIndex index = cache.getIndex(gradleHome);
+
+        Files.write(libFile("gradle-core-2.0.jar").toPath(), new byte[]{1, 2, 3});
+        assertTrue(index.isUpToDate());
+        assertSame(index, cache.getIndex(gradleHome));
+    }
+}
@@ -1,5 +1,10 @@
 package org.netbeans.gradle.project.tasks;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
 import org.jtrim.cancel.Cancellation;
 import org.jtrim.cancel.CancellationSource;
 import org.jtrim.cancel.CancellationToken;
@@ -9,6 +14,7 @@ import org.jtrim.concurrent.ManualTaskExecutor;
 import org.junit.Test;
 import org.mockito.InOrder;
 
+import static org.junit.Assert.*;
 import static org.mockito.Matchers.*;
 import static org.mockito.Mockito.*;
 
@@ -105,4 +111,104 @@ public class PriorityAwareExecutorTest {
         inOrder.verify(task2).execute(any(CancellationToken.class));
         inOrder.verify(cleanup2).cleanup(eq(false), isNull(Throwable.class));
     }
+
+    private static CancelableTask recordingTask(final List<Integer> executed, final int id) {
+        return new CancelableTask() {
+            @Override
+            public void execute(CancellationToken cancelToken) {
+                executed.add(id);
+            }
+        };
+    }
+
+    @Test
+    public void testArbitraryPriorities() throws Exception {
+        ManualTaskExecutor wrapped = new ManualTaskExecutor(false);
+        PriorityAwareExecutor executor = new PriorityAwareExecutor(wrapped);
+
+        List<Integer> priorities = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            priorities.add(i - 50);
+        }
+        Collections.shuffle(priorities, new Random(4537));
+
+        List<Integer> executed = new ArrayList<>();
+        for (int priority: priorities) {
+            executor.getExecutor(priority).execute(Cancellation.UNCANCELABLE_TOKEN, recordingTask(executed, priority), null);
+        }
+
+        wrapped.executeCurrentlySubmitted();
+
+        List<Integer> expected = new ArrayList<>(priorities);
+        Collections.sort(expected, Collections.reverseOrder());
+        assertEquals(expected, executed);
+    }
+
+    @Test
+    public void testSamePriorityIsFifo() throws Exception {
+        ManualTaskExecutor wrapped = new ManualTaskExecutor(false);
+        PriorityAwareExecutor executor = new PriorityAwareExecutor(wrapped);
+
+        List<Integer> executed = new ArrayList<>();
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            executor.getExecutor(5).execute(Cancellation.UNCANCELABLE_TOKEN, recordingTask(executed, i), null);
+            expected.add(i);
+        }
+
+        wrapped.executeCurrentlySubmitted();
+
+        assertEquals(expected, executed);
+    }
+
+    @Test
+    public void testLowPriorityTaskIsNotStarved() throws Exception {
+        ManualTaskExecutor wrapped = new ManualTaskExecutor(false);
+        PriorityAwareExecutor executor = new PriorityAwareExecutor(wrapped, 4);
+
+        List<Integer> executed = new ArrayList<>();
+        executor.getExecutor(0).execute(Cancellation.UNCANCELABLE_TOKEN, recordingTask(executed, -1), null);
+        for (int i = 0; i < 10; i++) {
+            executor.getExecutor(2).execute(Cancellation.UNCANCELABLE_TOKEN, recordingTask(executed, i), null);
+        }
+
+        wrapped.executeCurrentlySubmitted();
+
+        // The low priority task gains a priority level after every 4 submits,
+        // so it must precede everything submitted after 8 more tasks.
+        assertEquals(Arrays.asList(0, 1, 2, 3, 4, 5, 6, -1, 7, 8, 9), executed);
+    }
+
+    @Test
+    public void testCanceledTasksAreRemovedFromTheQueue() throws Exception {
+        ManualTaskExecutor wrapped = new ManualTaskExecutor(false);
+        PriorityAwareExecutor executor = new PriorityAwareExecutor(wrapped);
+
+        int taskCount = 1000;
+        List<Integer> executed = new ArrayList<>();
+        List<CancellationSource> cancelSources = new ArrayList<>();
+        for (int i = 0; i < taskCount; i++) {
+            CancellationSource cancel = Cancellation.createCancellationSource();
+            cancelSources.add(cancel);
+            executor.getExecutor(i % 7).execute(cancel.getToken(), recordingTask(executed, i), null);
+        }
+
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < taskCount; i++) {
+            if (i % 3 == 0) {
+                cancelSources.get(i).getController().cancel();
+            }
+            else {
+                expected.add(i);
+            }
+        }
+
+        assertEquals(expected.size(), executor.getQueuedTaskCount());
+
+        wrapped.executeCurrentlySubmitted();
+
+        assertEquals(0, executor.getQueuedTaskCount());
+        Collections.sort(executed);
+        assertEquals(expected, executed);
+    }
 }
@@ -0,0 +1,171 @@
+package org.netbeans.gradle.project.util;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.jtrim.cancel.Cancellation;
+import org.jtrim.cancel.CancellationToken;
+import org.jtrim.concurrent.CancelableTask;
+import org.jtrim.concurrent.CleanupTask;
+import org.junit.Test;
+import org.netbeans.api.progress.ProgressHandle;
+import org.netbeans.gradle.project.api.task.CommandCompleteListener;
+import org.netbeans.gradle.project.tasks.DaemonTask;
+import org.netbeans.gradle.project.tasks.GradleDaemonManager;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class BoundedTaskExecutorTest {
+    private static void updateMax(AtomicInteger max, int value) {
+        while (true) {
+            int prevMax = max.get();
+            if (prevMax >= value || max.compareAndSet(prevMax, value)) {
+                return;
+            }
+        }
+    }
+
+    @Test(timeout = 60000)
+    public void testPeakThreadCountStaysAtTheBound() throws Exception {
+        int maxThreadCount = 4;
+        int taskCount = 1000;
+
+        Runnable rejectionListener = mock(Runnable.class);
+        BoundedTaskExecutor executor = new BoundedTaskExecutor("Test-Executor", maxThreadCount, taskCount, rejectionListener);
+
+        final AtomicInteger runningTasks = new AtomicInteger(0);
+        final AtomicInteger peakRunningTasks = new AtomicInteger(0);
+        final Set<Thread> usedThreads = Collections.newSetFromMap(new ConcurrentHashMap<Thread, Boolean>());
+        final AtomicInteger completedTasks = new AtomicInteger(0);
+        final CountDownLatch doneLatch = new CountDownLatch(taskCount);
+
+        for (int i = 0; i < taskCount; i++) {
+            executor.execute(Cancellation.UNCANCELABLE_TOKEN, new CancelableTask() {
+                @Override
+                public void execute(CancellationToken cancelToken) throws Exception {
+                    updateMax(peakRunningTasks, runningTasks.incrementAndGet());
+                    usedThreads.add(Thread.currentThread());
+                    try {
+                        Thread.sleep(1);
+                    } finally {
+                        runningTasks.decrementAndGet();
+                    }
+                }
+            }, new CleanupTask() {
+                @Override
+                public void cleanup(boolean canceled, Throwable error) {
+                    if (!canceled && error == null) {
+                        completedTasks.incrementAndGet();
+                    }
+                    doneLatch.countDown();
+                }
+            });
+
+            assertTrue(executor.getPendingTaskCount() <= maxThreadCount + taskCount);
+        }
+
+        doneLatch.await();
+
+        verifyZeroInteractions(rejectionListener);
+        assertEquals(taskCount, completedTasks.get());
+        assertTrue("Peak running tasks: " + peakRunningTasks.get(), peakRunningTasks.get() <= maxThreadCount);
+        assertTrue("Peak thread count: " + usedThreads.size(), usedThreads.size() <= maxThreadCount);
+    }
+
+    @Test(timeout = 60000)
+    public void testTasksOverTheQueueLimitAreRejected() throws Exception {
+        Runnable rejectionListener = mock(Runnable.class);
+        BoundedTaskExecutor executor = new BoundedTaskExecutor("Test-Executor", 1, 1, rejectionListener);
+
+        final CountDownLatch startedLatch = new CountDownLatch(1);
+        final CountDownLatch releaseLatch = new CountDownLatch(1);
+        final CountDownLatch doneLatch = new CountDownLatch(2);
+
+        CleanupTask countingCleanup = new CleanupTask() {
+            @Override
+            public void cleanup(boolean canceled, Throwable error) {
+                doneLatch.countDown();
+            }
+        };
+
+        executor.execute(Cancellation.UNCANCELABLE_TOKEN, new CancelableTask() {
+            @Override
+            public void execute(CancellationToken cancelToken) throws Exception {
+                startedLatch.countDown();
+                releaseLatch.await();
+            }
+        }, countingCleanup);
+        startedLatch.await();
+
+        CancelableTask queuedTask = mock(CancelableTask.class);
+        executor.execute(Cancellation.UNCANCELABLE_TOKEN, queuedTask, countingCleanup);
+
+        CancelableTask rejectedTask = mock(CancelableTask.class);
+        CleanupTask rejectedCleanup = mock(CleanupTask.class);
+        executor.execute(Cancellation.UNCANCELABLE_TOKEN, rejectedTask, rejectedCleanup);
+
+        verify(rejectionListener).run();
+        verify(rejectedCleanup).cleanup(eq(false), isA(RejectedExecutionException.class));
+        verifyZeroInteractions(rejectedTask);
+
+        releaseLatch.countDown();
+        assertTrue(doneLatch.await(30, TimeUnit.SECONDS));
+
+        verify(queuedTask).execute(any(CancellationToken.class));
+        assertEquals(0, executor.getPendingTaskCount());
+    }
+
+    @Test(timeout = 60000)
+    public void testRejectedGradleTaskCompletesItsListener() throws Exception {
+        Runnable rejectionListener = mock(Runnable.class);
+        BoundedTaskExecutor executor = new BoundedTaskExecutor("Test-Executor", 1, 0, rejectionListener);
+
+        final CountDownLatch startedLatch = new CountDownLatch(1);
+        final CountDownLatch releaseLatch = new CountDownLatch(1);
+        final CountDownLatch doneLatch = new CountDownLatch(1);
+
+        GradleDaemonManager.submitGradleTask(executor, "running-task", new DaemonTask() {
+            @Override
+            public void run(CancellationToken cancelToken, ProgressHandle progress) {
+                startedLatch.countDown();
+                try {
+                    releaseLatch.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }, true, new CommandCompleteListener() {
+            @Override
+            public void onComplete(Throwable error) {
+                doneLatch.countDown();
+            }
+        });
+        startedLatch.await();
+
+        final AtomicReference<Throwable> rejectionErrorRef = new AtomicReference<>(null);
+        final CountDownLatch rejectedLatch = new CountDownLatch(1);
+        DaemonTask rejectedTask = mock(DaemonTask.class);
+        GradleDaemonManager.submitGradleTask(executor, "rejected-task", rejectedTask, true, new CommandCompleteListener() {
+            @Override
+            public void onComplete(Throwable error) {
+                rejectionErrorRef.set(error);
+                rejectedLatch.countDown();
+            }
+        });
+
+        assertTrue(rejectedLatch.await(30, TimeUnit.SECONDS));
+        assertTrue("Rejection error: " + rejectionErrorRef.get(),
+                rejectionErrorRef.get() instanceof RejectedExecutionException);
+        verify(rejectionListener).run();
+        verifyZeroInteractions(rejectedTask);
+
+        releaseLatch.countDown();
+        assertTrue(doneLatch.await(30, TimeUnit.SECONDS));
+    }
+}
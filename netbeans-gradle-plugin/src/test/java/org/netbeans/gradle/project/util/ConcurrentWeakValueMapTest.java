@@ -0,0 +1,181 @@
+package org.netbeans.gradle.project.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ConcurrentWeakValueMapTest {
+    private static void runConcurrently(Runnable... tasks) throws Exception {
+        final CountDownLatch startLatch = new CountDownLatch(tasks.length);
+        final AtomicReference<Throwable> errorRef = new AtomicReference<>(null);
+
+        List<Thread> threads = new ArrayList<>(tasks.length);
+        for (final Runnable task: tasks) {
+            threads.add(new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    startLatch.countDown();
+                    try {
+                        startLatch.await();
+                        task.run();
+                    } catch (Throwable ex) {
+                        errorRef.compareAndSet(null, ex);
+                    }
+                }
+            }));
+        }
+
+        for (Thread thread: threads) {
+            thread.start();
+        }
+        for (Thread thread: threads) {
+            thread.join();
+        }
+
+        Throwable error = errorRef.get();
+        if (error != null) {
+            throw new AssertionError("Concurrent task failed.", error);
+        }
+    }
+
+    private static void waitForCollection(ConcurrentWeakValueMap<?, ?> map, int expectedSize) throws InterruptedException {
+        while (map.size() > expectedSize) {
+            System.gc();
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    public void testBasicOperations() {
+        ConcurrentWeakValueMap<String, Object> map = new ConcurrentWeakValueMap<>();
+        Object value1 = new Object();
+        Object value2 = new Object();
+
+        assertNull(map.get("key"));
+        assertNull(map.put("key", value1));
+        assertSame(value1, map.get("key"));
+        assertSame(value1, map.put("key", value2));
+        assertSame(value2, map.get("key"));
+        assertEquals(1, map.size());
+
+        assertSame(value2, map.remove("key"));
+        assertNull(map.get("key"));
+        assertEquals(0, map.size());
+    }
+
+    @Test(timeout = 60000)
+    public void testPutIfAbsent() throws Exception {
+        ConcurrentWeakValueMap<String, Object> map = new ConcurrentWeakValueMap<>();
+        Object value1 = new Object();
+        Object value2 = new Object();
+
+        assertNull(map.putIfAbsent("key", value1));
+        assertSame(value1, map.putIfAbsent("key", value2));
+        assertSame(value1, map.get("key"));
+
+        map.putIfAbsent("collected-key", new Object());
+        waitForCollection(map, 1);
+
+        assertNull(map.putIfAbsent("collected-key", value2));
+        assertSame(value2, map.get("collected-key"));
+    }
+
+    @Test(timeout = 60000)
+    public void testCollectedValuesArePurged() throws Exception {
+        int entryCount = 1000;
+
+        ConcurrentWeakValueMap<Integer, Object> map = new ConcurrentWeakValueMap<>();
+        List<Object> retainedValues = new ArrayList<>();
+
+        for (int i = 0; i < entryCount; i++) {
+            Object value = new Object();
+            if (i % 2 == 0) {
+                retainedValues.add(value);
+            }
+            map.put(i, value);
+        }
+
+        waitForCollection(map, entryCount / 2);
+
+        assertEquals(entryCount / 2, map.size());
+        for (int i = 0; i < entryCount; i++) {
+            if (i % 2 == 0) {
+                assertSame(retainedValues.get(i / 2), map.get(i));
+            }
+            else {
+                assertNull(map.get(i));
+            }
+        }
+    }
+
+    @Test(timeout = 60000)
+    public void testCollectedValueDoesNotRemoveNewValue() throws Exception {
+        ConcurrentWeakValueMap<String, Object> map = new ConcurrentWeakValueMap<>();
+        map.put("key", new Object());
+
+        Object newValue = new Object();
+        map.put("key", newValue);
+        map.put("other-key", new Object());
+
+        waitForCollection(map, 1);
+        assertSame(newValue, map.get("key"));
+    }
+
+    @Test(timeout = 60000)
+    public void testConcurrentAccess() throws Exception {
+        final int threadCount = 4;
+        final int keyCount = 1000;
+
+        final ConcurrentWeakValueMap<Integer, String> map = new ConcurrentWeakValueMap<>();
+        final List<String> values = new ArrayList<>(keyCount);
+        for (int i = 0; i < keyCount; i++) {
+            values.add("value" + i);
+        }
+
+        Runnable[] tasks = new Runnable[2 * threadCount];
+        for (int i = 0; i < threadCount; i++) {
+            final int threadIndex = i;
+            tasks[2 * i] = new Runnable() {
+                @Override
+                public void run() {
+                    for (int key = threadIndex; key < keyCount; key += threadCount) {
+                        map.put(key, values.get(key));
+                        assertSame(values.get(key), map.get(key));
+                        if (key % 3 == 0) {
+                            assertSame(values.get(key), map.remove(key));
+                        }
+                    }
+                }
+            };
+            tasks[2 * i + 1] = new Runnable() {
+                @Override
+                public void run() {
+                    for (int round = 0; round < 100; round++) {
+                        for (String value: map.values()) {
+                            assertNotNull(value);
+                        }
+                        for (int key = 0; key < keyCount; key++) {
+                            String value = map.get(key);
+                            assertTrue(value == null || value == values.get(key));
+                        }
+                    }
+                }
+            };
+        }
+
+        runConcurrently(tasks);
+
+        for (int key = 0; key < keyCount; key++) {
+            if (key % 3 == 0) {
+                assertNull(map.get(key));
+            }
+            else {
+                assertSame(values.get(key), map.get(key));
+            }
+        }
+    }
+}
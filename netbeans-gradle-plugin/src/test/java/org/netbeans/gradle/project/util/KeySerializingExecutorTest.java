@@ -0,0 +1,254 @@
+package org.netbeans.gradle.project.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.jtrim.cancel.Cancellation;
+import org.jtrim.cancel.CancellationSource;
+import org.jtrim.cancel.CancellationToken;
+import org.jtrim.concurrent.CancelableTask;
+import org.jtrim.concurrent.CleanupTask;
+import org.jtrim.concurrent.TaskExecutor;
+import org.jtrim.concurrent.ThreadPoolTaskExecutor;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class KeySerializingExecutorTest {
+    private static ThreadPoolTaskExecutor createThreadPool(int threadCount) {
+        return new ThreadPoolTaskExecutor("Test-Loader", threadCount, Integer.MAX_VALUE, 1000, TimeUnit.MILLISECONDS);
+    }
+
+    private static CleanupTask countDownCleanup(final CountDownLatch latch) {
+        return new CleanupTask() {
+            @Override
+            public void cleanup(boolean canceled, Throwable error) {
+                latch.countDown();
+            }
+        };
+    }
+
+    @Test(timeout = 60000)
+    public void testIndependentKeysAreExecutedConcurrently() throws Exception {
+        int threadCount = 4;
+        int projectCount = 8;
+
+        ThreadPoolTaskExecutor threadPool = createThreadPool(threadCount);
+        try {
+            KeySerializingExecutor executor = new KeySerializingExecutor(threadPool);
+            final FakeLoader loader = new FakeLoader(threadCount);
+            CountDownLatch doneLatch = new CountDownLatch(projectCount);
+
+            for (int i = 0; i < projectCount; i++) {
+                executor.getExecutor("root" + i).execute(Cancellation.UNCANCELABLE_TOKEN, new CancelableTask() {
+                    @Override
+                    public void execute(CancellationToken cancelToken) throws Exception {
+                        loader.load();
+                    }
+                }, countDownCleanup(doneLatch));
+            }
+            doneLatch.await();
+
+            // Every load waits until as many loads are running as there are
+            // threads, so this would time out if the keys were serialized.
+            assertEquals(threadCount, loader.getPeakConcurrency());
+            assertEquals(0, loader.getTimeoutCount());
+        } finally {
+            threadPool.shutdown();
+        }
+    }
+
+    @Test(timeout = 60000)
+    public void testTasksOfTheSameKeyAreSerialized() throws Exception {
+        int keyCount = 4;
+        int tasksPerKey = 50;
+
+        ThreadPoolTaskExecutor threadPool = createThreadPool(keyCount * 2);
+        try {
+            KeySerializingExecutor executor = new KeySerializingExecutor(threadPool);
+
+            final ConcurrentMap<String, AtomicInteger> runningTasks = new ConcurrentHashMap<>();
+            final ConcurrentMap<String, List<Integer>> executionOrders = new ConcurrentHashMap<>();
+            final AtomicInteger overlapCount = new AtomicInteger(0);
+            CountDownLatch doneLatch = new CountDownLatch(keyCount * tasksPerKey);
+
+            for (int keyIndex = 0; keyIndex < keyCount; keyIndex++) {
+                String key = "root" + keyIndex;
+                runningTasks.put(key, new AtomicInteger(0));
+                executionOrders.put(key, Collections.synchronizedList(new ArrayList<Integer>()));
+            }
+
+            for (int taskIndex = 0; taskIndex < tasksPerKey; taskIndex++) {
+                for (int keyIndex = 0; keyIndex < keyCount; keyIndex++) {
+                    final String key = "root" + keyIndex;
+                    final int currentTaskIndex = taskIndex;
+
+                    executor.getExecutor(key).execute(Cancellation.UNCANCELABLE_TOKEN, new CancelableTask() {
+                        @Override
+                        public void execute(CancellationToken cancelToken) throws Exception {
+                            AtomicInteger running = runningTasks.get(key);
+                            if (running.incrementAndGet() > 1) {
+                                overlapCount.incrementAndGet();
+                            }
+                            try {
+                                executionOrders.get(key).add(currentTaskIndex);
+                                Thread.sleep(1);
+                            } finally {
+                                running.decrementAndGet();
+                            }
+                        }
+                    }, countDownCleanup(doneLatch));
+                }
+            }
+
+            doneLatch.await();
+
+            assertEquals(0, overlapCount.get());
+            for (List<Integer> executionOrder: executionOrders.values()) {
+                assertEquals(tasksPerKey, executionOrder.size());
+                for (int i = 0; i < tasksPerKey; i++) {
+                    assertEquals(i, executionOrder.get(i).intValue());
+                }
+            }
+        } finally {
+            threadPool.shutdown();
+        }
+    }
+
+    @Test(timeout = 60000)
+    public void testCanceledTaskIsNotExecuted() throws Exception {
+        ThreadPoolTaskExecutor threadPool = createThreadPool(1);
+        try {
+            KeySerializingExecutor executor = new KeySerializingExecutor(threadPool);
+            TaskExecutor keyExecutor = executor.getExecutor("root");
+
+            final CountDownLatch startedLatch = new CountDownLatch(1);
+            final CountDownLatch releaseLatch = new CountDownLatch(1);
+            CountDownLatch doneLatch = new CountDownLatch(3);
+
+            keyExecutor.execute(Cancellation.UNCANCELABLE_TOKEN, new CancelableTask() {
+                @Override
+                public void execute(CancellationToken cancelToken) throws Exception {
+                    startedLatch.countDown();
+                    releaseLatch.await();
+                }
+            }, countDownCleanup(doneLatch));
+            startedLatch.await();
+
+            CancellationSource cancelSource = Cancellation.createCancellationSource();
+            CancelableTask canceledTask = mock(CancelableTask.class);
+            CleanupTask canceledCleanup = mock(CleanupTask.class);
+            keyExecutor.execute(cancelSource.getToken(), canceledTask, canceledCleanup);
+
+            CancelableTask nextTask = mock(CancelableTask.class);
+            keyExecutor.execute(Cancellation.UNCANCELABLE_TOKEN, nextTask, countDownCleanup(doneLatch));
+
+            cancelSource.getController().cancel();
+            releaseLatch.countDown();
+
+            keyExecutor.execute(Cancellation.UNCANCELABLE_TOKEN, mock(CancelableTask.class), countDownCleanup(doneLatch));
+            assertTrue(doneLatch.await(30, TimeUnit.SECONDS));
+
+            verifyZeroInteractions(canceledTask);
+            verify(canceledCleanup).cleanup(true, null);
+            verify(nextTask).execute(any(CancellationToken.class));
+        } finally {
+            threadPool.shutdown();
+        }
+    }
+
+    @Test(timeout = 60000)
+    public void testTasksDroppedByTheWrappedExecutorAreCleanedUp() throws Exception {
+        final List<CancelableTask> acceptedTasks = new ArrayList<>();
+        final AtomicInteger dropCount = new AtomicInteger(0);
+        KeySerializingExecutor executor = new KeySerializingExecutor(new TaskExecutor() {
+            @Override
+            public void execute(CancellationToken cancelToken, CancelableTask task, CleanupTask cleanupTask) {
+                if (dropCount.getAndDecrement() > 0) {
+                    // Acts like an executor which has been shut down.
+                    cleanupTask.cleanup(true, null);
+                }
+                else {
+                    acceptedTasks.add(task);
+                }
+            }
+        });
+        TaskExecutor keyExecutor = executor.getExecutor("root");
+
+        CancelableTask firstTask = mock(CancelableTask.class);
+        keyExecutor.execute(Cancellation.UNCANCELABLE_TOKEN, firstTask, null);
+
+        CancelableTask queuedTask1 = mock(CancelableTask.class);
+        CleanupTask queuedCleanup1 = mock(CleanupTask.class);
+        keyExecutor.execute(Cancellation.UNCANCELABLE_TOKEN, queuedTask1, queuedCleanup1);
+
+        CancelableTask queuedTask2 = mock(CancelableTask.class);
+        CleanupTask queuedCleanup2 = mock(CleanupTask.class);
+        keyExecutor.execute(Cancellation.UNCANCELABLE_TOKEN, queuedTask2, queuedCleanup2);
+
+        assertEquals(1, acceptedTasks.size());
+        assertEquals(2, executor.getQueuedTaskCount());
+
+        // The next task of the key will be dropped.
+        dropCount.set(1);
+        acceptedTasks.remove(0).execute(Cancellation.UNCANCELABLE_TOKEN);
+
+        verify(firstTask).execute(any(CancellationToken.class));
+        verifyZeroInteractions(queuedTask1, queuedTask2);
+        verify(queuedCleanup1).cleanup(true, null);
+        verify(queuedCleanup2).cleanup(true, null);
+        assertEquals(0, executor.getQueuedTaskCount());
+
+        // The key must not remain blocked by the dropped tasks.
+        CancelableTask laterTask = mock(CancelableTask.class);
+        keyExecutor.execute(Cancellation.UNCANCELABLE_TOKEN, laterTask, null);
+        assertEquals(1, acceptedTasks.size());
+        acceptedTasks.remove(0).execute(Cancellation.UNCANCELABLE_TOKEN);
+        verify(laterTask).execute(any(CancellationToken.class));
+    }
+
+    private static final class FakeLoader {
+        private final CountDownLatch allStartedLatch;
+        private final AtomicInteger running;
+        private final AtomicInteger peakConcurrency;
+        private final AtomicInteger timeoutCount;
+
+        public FakeLoader(int expectedConcurrency) {
+            this.allStartedLatch = new CountDownLatch(expectedConcurrency);
+            this.running = new AtomicInteger(0);
+            this.peakConcurrency = new AtomicInteger(0);
+            this.timeoutCount = new AtomicInteger(0);
+        }
+
+        public void load() throws InterruptedException {
+            int currentlyRunning = running.incrementAndGet();
+            try {
+                int peak;
+                do {
+                    peak = peakConcurrency.get();
+                } while (currentlyRunning > peak && !peakConcurrency.compareAndSet(peak, currentlyRunning));
+
+                allStartedLatch.countDown();
+                if (!allStartedLatch.await(30, TimeUnit.SECONDS)) {
+                    timeoutCount.incrementAndGet();
+                }
+            } finally {
+                running.decrementAndGet();
+            }
+        }
+
+        public int getPeakConcurrency() {
+            return peakConcurrency.get();
+        }
+
+        public int getTimeoutCount() {
+            return timeoutCount.get();
+        }
+    }
+}
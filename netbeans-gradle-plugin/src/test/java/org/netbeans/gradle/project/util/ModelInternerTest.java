@@ -0,0 +1,162 @@
+package org.netbeans.gradle.project.util;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import org.junit.Test;
+import org.netbeans.gradle.model.GenericProjectProperties;
+import org.netbeans.gradle.model.ProjectId;
+import org.netbeans.gradle.model.java.JavaClassPaths;
+import org.netbeans.gradle.model.util.SerializationUtils;
+
+import static org.junit.Assert.*;
+
+public class ModelInternerTest {
+    private static final int PROJECT_COUNT = 50;
+    private static final int SHARED_JAR_COUNT = 100;
+    private static final String GRADLE_CACHE = "/home/user/.gradle/caches/modules-2/files-2.1";
+
+    private static File sharedJar(int index) {
+        return new File(GRADLE_CACHE + "/org.example/lib" + index + "/1.0/0123456789abcdef/lib" + index + "-1.0.jar");
+    }
+
+    private static List<File> newClassPath(int projectIndex, String sourceSetName) {
+        List<File> result = new ArrayList<>(SHARED_JAR_COUNT + 1);
+        result.add(new File("/home/user/build/project" + projectIndex + "/build/classes/" + sourceSetName));
+        for (int i = 0; i < SHARED_JAR_COUNT; i++) {
+            result.add(sharedJar(i));
+        }
+        return result;
+    }
+
+    /**
+     * Creates the class paths of a synthetic build where every project has
+     * a main and a test source set depending on the same jars. Every project
+     * has its own file instances as if they were loaded separately.
+     */
+    private static List<JavaClassPaths> createSyntheticBuild(ModelInterner interner) {
+        List<JavaClassPaths> result = new ArrayList<>(2 * PROJECT_COUNT);
+        for (int projectIndex = 0; projectIndex < PROJECT_COUNT; projectIndex++) {
+            for (String sourceSetName: Arrays.asList("main", "test")) {
+                List<File> compile = newClassPath(projectIndex, sourceSetName);
+                List<File> runtime = new ArrayList<>(compile);
+                runtime.add(new File("/home/user/build/project" + projectIndex + "/build/resources/" + sourceSetName));
+
+                JavaClassPaths classPaths = new JavaClassPaths(compile, runtime);
+                result.add(interner != null ? interner.internClassPaths(classPaths) : classPaths);
+            }
+        }
+        return result;
+    }
+
+    private static int countDistinctFileInstances(List<JavaClassPaths> classPathsList) {
+        Set<File> files = Collections.newSetFromMap(new IdentityHashMap<File, Boolean>());
+        for (JavaClassPaths classPaths: classPathsList) {
+            files.addAll(classPaths.getCompileClasspaths());
+            files.addAll(classPaths.getRuntimeClasspaths());
+        }
+        return files.size();
+    }
+
+    @Test
+    public void testInternFile() {
+        ModelInterner interner = new ModelInterner();
+
+        File file1 = interner.internFile(new File("/dir/file.jar"));
+        File file2 = interner.internFile(new File("/dir/file.jar"));
+        File otherFile = interner.internFile(new File("/dir/other.jar"));
+
+        assertSame(file1, file2);
+        assertNotSame(file1, otherFile);
+        assertNull(interner.internFile(null));
+    }
+
+    @Test
+    public void testInternClassPathsRespectsOrder() {
+        ModelInterner interner = new ModelInterner();
+
+        File jar1 = new File("/dir/lib1.jar");
+        File jar2 = new File("/dir/lib2.jar");
+
+        JavaClassPaths paths1 = interner.internClassPaths(new JavaClassPaths(Arrays.asList(jar1, jar2)));
+        JavaClassPaths paths2 = interner.internClassPaths(new JavaClassPaths(Arrays.asList(
+                new File("/dir/lib1.jar"),
+                new File("/dir/lib2.jar"))));
+        JavaClassPaths reversed = interner.internClassPaths(new JavaClassPaths(Arrays.asList(jar2, jar1)));
+
+        assertSame(paths1, paths2);
+        assertNotSame(paths1, reversed);
+        assertEquals(Arrays.asList(jar2, jar1), new ArrayList<>(reversed.getCompileClasspaths()));
+        assertSame(interner.internFile(jar1), new ArrayList<>(reversed.getCompileClasspaths()).get(1));
+
+        JavaClassPaths empty = interner.internClassPaths(new JavaClassPaths(Collections.<File>emptyList()));
+        assertSame(JavaClassPaths.EMPTY, empty);
+    }
+
+    @Test
+    public void testInternProjectProperties() {
+        ModelInterner interner = new ModelInterner();
+
+        GenericProjectProperties properties1 = interner.internProjectProperties(new GenericProjectProperties(
+                new ProjectId("group", "app", "1.0"), ":app", new File("/build/app"), new File("/build/app/build.gradle")));
+        GenericProjectProperties properties2 = interner.internProjectProperties(new GenericProjectProperties(
+                new ProjectId("group", "app", "1.0"), ":app", new File("/build/app"), new File("/build/app/build.gradle")));
+        GenericProjectProperties otherProperties = interner.internProjectProperties(new GenericProjectProperties(
+                new ProjectId("group", "lib", "1.0"), ":lib", new File("/build/lib"), null));
+
+        assertSame(properties1, properties2);
+        assertNotSame(properties1, otherProperties);
+        assertEquals(":app", properties1.getProjectFullName());
+        assertEquals(new File("/build/app/build.gradle"), properties1.getBuildScript());
+        assertNull(otherProperties.getBuildScript());
+        assertSame(properties1.getProjectFullName(), interner.internString(new String(":app")));
+    }
+
+    @Test
+    public void testDeserializedModelsShareInstances() throws Exception {
+        byte[] serialized1 = SerializationUtils.serializeObject(new JavaClassPaths(newClassPath(0, "main")));
+        byte[] serialized2 = SerializationUtils.serializeObject(new JavaClassPaths(newClassPath(1, "main")));
+
+        ModelInterner interner = new ModelInterner();
+        ClassLoader classLoader = getClass().getClassLoader();
+        JavaClassPaths paths1 = (JavaClassPaths)SerializationUtils2.deserializeObject(serialized1, classLoader, interner);
+        JavaClassPaths paths2 = (JavaClassPaths)SerializationUtils2.deserializeObject(serialized2, classLoader, interner);
+
+        List<File> files1 = new ArrayList<>(paths1.getCompileClasspaths());
+        List<File> files2 = new ArrayList<>(paths2.getCompileClasspaths());
+
+        assertEquals(newClassPath(0, "main"), files1);
+        assertEquals(newClassPath(1, "main"), files2);
+
+        assertNotSame(files1.get(0), files2.get(0));
+        for (int i = 1; i < files1.size(); i++) {
+            assertSame(files1.get(i), files2.get(i));
+        }
+    }
+
+    @Test
+    public void testSyntheticBuildSharesFileInstances() {
+        List<JavaClassPaths> plainModel = createSyntheticBuild(null);
+        List<JavaClassPaths> internedModel = createSyntheticBuild(new ModelInterner());
+
+        assertEquals(plainModel.size(), internedModel.size());
+        for (int i = 0; i < plainModel.size(); i++) {
+            JavaClassPaths plain = plainModel.get(i);
+            JavaClassPaths interned = internedModel.get(i);
+            assertEquals(new ArrayList<>(plain.getCompileClasspaths()), new ArrayList<>(interned.getCompileClasspaths()));
+            assertEquals(new ArrayList<>(plain.getRuntimeClasspaths()), new ArrayList<>(interned.getRuntimeClasspaths()));
+        }
+
+        // Without interning, every source set has its own instances of the
+        // shared jars: the compile class path and the resources dir.
+        int sourceSetCount = 2 * PROJECT_COUNT;
+        assertEquals(sourceSetCount * (SHARED_JAR_COUNT + 2), countDistinctFileInstances(plainModel));
+
+        // Each source set has its own classes and resources dir.
+        assertEquals(SHARED_JAR_COUNT + 2 * sourceSetCount, countDistinctFileInstances(internedModel));
+    }
+}
@@ -0,0 +1,239 @@
+package org.netbeans.gradle.project.view;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import org.netbeans.gradle.model.GradleTaskID;
+import org.netbeans.gradle.project.model.NbGradleProjectTree;
+import org.netbeans.gradle.project.model.NbGradleProjectTreeTest;
+
+import static org.junit.Assert.*;
+
+public class SubProjectsTreeTest {
+    private static final int FIRST_LEVEL_COUNT = 10;
+    private static final int SECOND_LEVEL_COUNT = 10;
+    private static final int LEAF_COUNT = 9;
+
+    private static NbGradleProjectTree createProject(String fullName, List<NbGradleProjectTree> children) {
+        String name = fullName.substring(fullName.lastIndexOf(':') + 1);
+        return new NbGradleProjectTree(
+                NbGradleProjectTreeTest.createProperties(name, fullName),
+                Collections.<GradleTaskID>emptyList(),
+                children);
+    }
+
+    private static NbGradleProjectTree createLeaf(String fullName) {
+        return createProject(fullName, Collections.<NbGradleProjectTree>emptyList());
+    }
+
+    private static String firstLevelPath(int index) {
+        return ":a" + index;
+    }
+
+    private static String secondLevelPath(int index1, int index2) {
+        return firstLevelPath(index1) + ":b" + index2;
+    }
+
+    private static String leafPath(int index1, int index2, int index3) {
+        return secondLevelPath(index1, index2) + ":c" + index3;
+    }
+
+    /**
+     * Creates a tree of {@code 1 + 10 + 100 + 900} projects. Every call
+     * creates new instances, as it happens when a model is reloaded.
+     */
+    private static NbGradleProjectTree createTree(Map<String, List<String>> additionalLeafs) {
+        List<NbGradleProjectTree> firstLevel = new ArrayList<>();
+        for (int i = 0; i < FIRST_LEVEL_COUNT; i++) {
+            List<NbGradleProjectTree> secondLevel = new ArrayList<>();
+            for (int j = 0; j < SECOND_LEVEL_COUNT; j++) {
+                String path = secondLevelPath(i, j);
+
+                List<NbGradleProjectTree> leafs = new ArrayList<>();
+                for (int k = 0; k < LEAF_COUNT; k++) {
+                    leafs.add(createLeaf(leafPath(i, j, k)));
+                }
+
+                List<String> additional = additionalLeafs.get(path);
+                if (additional != null) {
+                    for (String leafPath: additional) {
+                        leafs.add(createLeaf(leafPath));
+                    }
+                }
+
+                secondLevel.add(createProject(path, leafs));
+            }
+            firstLevel.add(createProject(firstLevelPath(i), secondLevel));
+        }
+        return createProject(":", firstLevel);
+    }
+
+    private static NbGradleProjectTree createTree() {
+        return createTree(Collections.<String, List<String>>emptyMap());
+    }
+
+    private static List<String> getParentPaths() {
+        List<String> result = new ArrayList<>();
+        result.add(":");
+        for (int i = 0; i < FIRST_LEVEL_COUNT; i++) {
+            result.add(firstLevelPath(i));
+            for (int j = 0; j < SECOND_LEVEL_COUNT; j++) {
+                result.add(secondLevelPath(i, j));
+            }
+        }
+        return result;
+    }
+
+    private static Map<String, AtomicInteger> registerListeners(SubProjectsTree tree, List<String> paths) {
+        Map<String, AtomicInteger> result = new HashMap<>();
+        for (String path: paths) {
+            final AtomicInteger changeCount = new AtomicInteger(0);
+            tree.addChildrenChangeListener(path, new Runnable() {
+                @Override
+                public void run() {
+                    changeCount.incrementAndGet();
+                }
+            });
+            result.put(path, changeCount);
+        }
+        return result;
+    }
+
+    private static void assertChangedOnly(Map<String, AtomicInteger> changeCounts, String... expectedPaths) {
+        List<String> expectedList = new ArrayList<>();
+        Collections.addAll(expectedList, expectedPaths);
+
+        for (Map.Entry<String, AtomicInteger> entry: changeCounts.entrySet()) {
+            String path = entry.getKey();
+            int expectedCount = expectedList.contains(path) ? 1 : 0;
+            assertEquals(path, expectedCount, entry.getValue().get());
+        }
+    }
+
+    private static List<String> getChildPaths(SubProjectsTree tree, String path) {
+        List<String> result = new ArrayList<>();
+        for (NbGradleProjectTree child: tree.getChildren(path)) {
+            result.add(child.getProjectFullName());
+        }
+        return result;
+    }
+
+    @Test
+    public void testReloadingTheSameTreeDoesNotNotify() {
+        SubProjectsTree tree = new SubProjectsTree(createTree());
+        Map<String, AtomicInteger> changeCounts = registerListeners(tree, getParentPaths());
+
+        tree.update(createTree());
+
+        assertChangedOnly(changeCounts);
+    }
+
+    @Test
+    public void testAddedLeafOnlyNotifiesParent() {
+        SubProjectsTree tree = new SubProjectsTree(createTree());
+        Map<String, AtomicInteger> changeCounts = registerListeners(tree, getParentPaths());
+
+        String parentPath = secondLevelPath(3, 5);
+        String newLeafPath = parentPath + ":newLeaf";
+        tree.update(createTree(Collections.singletonMap(parentPath, Collections.singletonList(newLeafPath))));
+
+        assertChangedOnly(changeCounts, parentPath);
+        assertTrue(getChildPaths(tree, parentPath).contains(newLeafPath));
+        assertNotNull(tree.tryGetProject(newLeafPath));
+    }
+
+    @Test
+    public void testRemovedLeafOnlyNotifiesParent() {
+        String parentPath = secondLevelPath(7, 2);
+        String removedLeafPath = parentPath + ":removedLeaf";
+        SubProjectsTree tree = new SubProjectsTree(
+                createTree(Collections.singletonMap(parentPath, Collections.singletonList(removedLeafPath))));
+        Map<String, AtomicInteger> changeCounts = registerListeners(tree, getParentPaths());
+
+        tree.update(createTree());
+
+        assertChangedOnly(changeCounts, parentPath);
+        assertFalse(getChildPaths(tree, parentPath).contains(removedLeafPath));
+        assertNull(tree.tryGetProject(removedLeafPath));
+    }
+
+    @Test
+    public void testLeafGettingChildNotifiesLeafAndParent() {
+        String parentPath = secondLevelPath(1, 1);
+        String leafPath = leafPath(1, 1, 4);
+
+        SubProjectsTree tree = new SubProjectsTree(createTree());
+        List<String> listenedPaths = getParentPaths();
+        listenedPaths.add(leafPath);
+        Map<String, AtomicInteger> changeCounts = registerListeners(tree, listenedPaths);
+
+        // Replace the leaf with a project having a child.
+        NbGradleProjectTree newTree = createTree();
+        NbGradleProjectTree parent = findProject(newTree, parentPath);
+        List<NbGradleProjectTree> newChildren = new ArrayList<>();
+        for (NbGradleProjectTree child: parent.getChildren()) {
+            if (child.getProjectFullName().equals(leafPath)) {
+                child = createProject(leafPath, Collections.singletonList(createLeaf(leafPath + ":sub")));
+            }
+            newChildren.add(child);
+        }
+        newTree = replaceProject(newTree, createProject(parentPath, newChildren));
+
+        tree.update(newTree);
+
+        assertChangedOnly(changeCounts, parentPath, leafPath);
+    }
+
+    @Test
+    public void testReplacingTheRootNotifiesTheRootListener() {
+        SubProjectsTree tree = new SubProjectsTree(createTree());
+
+        final AtomicInteger changeCount = new AtomicInteger(0);
+        tree.addRootChildrenChangeListener(new Runnable() {
+            @Override
+            public void run() {
+                changeCount.incrementAndGet();
+            }
+        });
+
+        tree.update(createTree());
+        assertEquals(0, changeCount.get());
+
+        String newRootPath = ":other";
+        tree.update(createProject(newRootPath, Collections.singletonList(createLeaf(newRootPath + ":leaf"))));
+        assertEquals(1, changeCount.get());
+        assertEquals(Collections.singletonList(newRootPath + ":leaf"), getChildPaths(tree, newRootPath));
+
+        tree.update(createProject(newRootPath, Collections.<NbGradleProjectTree>emptyList()));
+        assertEquals(2, changeCount.get());
+    }
+
+    private static NbGradleProjectTree findProject(NbGradleProjectTree tree, String path) {
+        if (tree.getProjectFullName().equals(path)) {
+            return tree;
+        }
+        for (NbGradleProjectTree child: tree.getChildren()) {
+            NbGradleProjectTree result = findProject(child, path);
+            if (result != null) {
+                return result;
+            }
+        }
+        return null;
+    }
+
+    private static NbGradleProjectTree replaceProject(NbGradleProjectTree tree, NbGradleProjectTree replacement) {
+        if (tree.getProjectFullName().equals(replacement.getProjectFullName())) {
+            return replacement;
+        }
+
+        List<NbGradleProjectTree> children = new ArrayList<>();
+        for (NbGradleProjectTree child: tree.getChildren()) {
+            children.add(replaceProject(child, replacement));
+        }
+        return createProject(tree.getProjectFullName(), children);
+    }
+}